@@ -0,0 +1,97 @@
+package Desempenho;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sistema sobre o qual o {@link TesteCarga} executa as operações: a {@link Gestao.Empresa}
+ * diretamente ou através de uma camada de acesso (ex: a API HTTP).
+ * <p>
+ * As entidades são identificadas como na API (condutor pelo número de identificação, cliente
+ * pelo NIF, viatura pela matrícula e reserva pelo cliente e data/hora), para que as mesmas
+ * operações possam ser enviadas por qualquer camada. Cada método devolve {@code true} se a
+ * operação foi aceite; uma recusa de negócio (ex: horário ocupado) não é um erro.
+ * Os erros inesperados são lançados como exceções e contabilizados à parte.
+ * </p>
+ * <p>
+ * As implementações têm de ser thread-safe: são usadas por todos os clientes virtuais em simultâneo.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public interface AlvoCarga extends AutoCloseable {
+
+    /**
+     * Marca uma viagem.
+     *
+     * @param idCondutor Número de identificação do condutor.
+     * @param nifCliente NIF do cliente.
+     * @param matricula  Matrícula da viatura.
+     * @param inicio     Data/hora de início.
+     * @param fim        Data/hora de fim.
+     * @param origem     Morada de origem.
+     * @param destino    Morada de destino.
+     * @param kms        Distância.
+     * @param custo      Custo.
+     * @return {@code true} se a viagem foi registada.
+     */
+    boolean marcarViagem(int idCondutor, int nifCliente, String matricula, LocalDateTime inicio, LocalDateTime fim,
+                         String origem, String destino, double kms, double custo);
+
+    /**
+     * Cria uma reserva.
+     *
+     * @param nifCliente NIF do cliente.
+     * @param inicio     Data/hora de início.
+     * @param origem     Morada de origem.
+     * @param destino    Morada de destino.
+     * @param kms        Distância estimada.
+     * @return {@code true} se a reserva foi registada.
+     */
+    boolean reservar(int nifCliente, LocalDateTime inicio, String origem, String destino, double kms);
+
+    /**
+     * Converte uma reserva pendente em viagem.
+     *
+     * @param nifCliente NIF do cliente da reserva.
+     * @param inicio     Data/hora de início da reserva.
+     * @param idCondutor Número de identificação do condutor atribuído.
+     * @param matricula  Matrícula da viatura atribuída.
+     * @param custo      Custo final.
+     * @return {@code true} se a reserva foi convertida.
+     */
+    boolean converter(int nifCliente, LocalDateTime inicio, int idCondutor, String matricula, double custo);
+
+    /**
+     * Consulta a disponibilidade de um tipo de recurso num intervalo.
+     *
+     * @param tipo   0 para condutores, 1 para viaturas, 2 para clientes.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return {@code true} se a consulta foi respondida.
+     */
+    boolean consultarDisponibilidade(int tipo, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Obtém um relatório (estatística).
+     *
+     * @param tipo       0 faturação do condutor, 1 distância média, 2 destino mais solicitado,
+     *                   3 clientes por viatura, 4 clientes por intervalo de kms,
+     *                   5 viagens do cliente por datas, 6 total de kms do cliente.
+     * @param idCondutor Condutor (faturação).
+     * @param nifCliente Cliente (viagens e kms do cliente).
+     * @param matricula  Viatura (clientes por viatura).
+     * @param inicio     Início do período.
+     * @param fim        Fim do período.
+     * @return {@code true} se o relatório foi obtido.
+     */
+    boolean consultarRelatorio(int tipo, int idCondutor, int nifCliente, String matricula,
+                               LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Liberta os recursos do alvo (ligações, servidores embutidos).
+     */
+    @Override
+    void close();
+}
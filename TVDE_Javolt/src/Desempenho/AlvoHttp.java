@@ -0,0 +1,219 @@
+package Desempenho;
+
+import Gestao.Empresa;
+import Gestao.Plataforma;
+import Servidor.Json;
+import Servidor.ServidorApi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Alvo de carga que envia as operações para a API HTTP ({@link ServidorApi}).
+ * <p>
+ * As respostas 2xx contam como aceites e as 404/409 como recusas de negócio (ex: reserva já
+ * convertida, horário ocupado); qualquer outro estado é um erro. O alvo pode apontar para uma API
+ * já em execução ou arrancar uma API embutida sobre uma empresa desta JVM
+ * ({@link #embutido(Empresa)}), o que permite verificar os invariantes no fim do teste.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+final class AlvoHttp implements AlvoCarga {
+
+    /**
+     * Tempo máximo de espera por uma resposta.
+     */
+    private static final Duration TEMPO_LIMITE = Duration.ofSeconds(30);
+
+    /**
+     * Nomes dos recursos de disponibilidade, pela ordem dos tipos.
+     */
+    private static final String[] RECURSOS = {"condutores", "viaturas", "clientes"};
+
+    /**
+     * Endereço base da empresa (ex: {@code http://localhost:8080/empresas/Javolt}).
+     */
+    private final String base;
+
+    /**
+     * Cliente HTTP partilhado.
+     */
+    private final HttpClient cliente;
+
+    /**
+     * API embutida (ou {@code null} se o alvo for externo).
+     */
+    private final ServidorApi api;
+
+    /**
+     * Plataforma da API embutida (ou {@code null}).
+     */
+    private final Plataforma plataforma;
+
+    /**
+     * Cria um alvo para uma API já em execução.
+     *
+     * @param base Endereço base da empresa (ex: {@code http://localhost:8080/empresas/Javolt}).
+     */
+    AlvoHttp(String base) {
+        this(base, null, null);
+    }
+
+    /**
+     * Cria o alvo.
+     *
+     * @param base       Endereço base da empresa.
+     * @param api        API embutida, ou {@code null}.
+     * @param plataforma Plataforma da API embutida, ou {@code null}.
+     */
+    private AlvoHttp(String base, ServidorApi api, Plataforma plataforma) {
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // O servidor do JDK não fala HTTP/2: evita o pedido de upgrade
+                .connectTimeout(TEMPO_LIMITE)
+                .build();
+        this.api = api;
+        this.plataforma = plataforma;
+    }
+
+    /**
+     * Arranca uma API embutida (numa porta livre) que expõe a empresa indicada e cria um alvo para ela.
+     *
+     * @param empresa A empresa.
+     * @return O alvo; ao fechá-lo, a API e a plataforma são paradas.
+     * @throws UncheckedIOException se não for possível abrir a porta.
+     */
+    static AlvoHttp embutido(Empresa empresa) {
+        Plataforma plataforma = new Plataforma(Runtime.getRuntime().availableProcessors());
+        plataforma.alojarEmpresa(empresa);
+        try {
+            ServidorApi api = new ServidorApi(plataforma, 0);
+            api.iniciar();
+            return new AlvoHttp("http://localhost:" + api.getPorta() + "/empresas/"
+                    + codificar(empresa.getNomeEmpresa()), api, plataforma);
+        } catch (IOException e) {
+            plataforma.close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean marcarViagem(int idCondutor, int nifCliente, String matricula, LocalDateTime inicio,
+                                LocalDateTime fim, String origem, String destino, double kms, double custo) {
+        return enviar("POST", "/viagens", "{\"numeroIdentificacao\":" + idCondutor
+                + ",\"nif\":" + nifCliente
+                + ",\"matricula\":" + Json.texto(matricula)
+                + ",\"dataHoraInicio\":" + Json.texto(inicio.toString())
+                + ",\"dataHoraFim\":" + Json.texto(fim.toString())
+                + ",\"moradaOrigem\":" + Json.texto(origem)
+                + ",\"moradaDestino\":" + Json.texto(destino)
+                + ",\"kms\":" + Json.numero(kms)
+                + ",\"custo\":" + Json.numero(custo) + "}");
+    }
+
+    @Override
+    public boolean reservar(int nifCliente, LocalDateTime inicio, String origem, String destino, double kms) {
+        return enviar("POST", "/reservas", "{\"nif\":" + nifCliente
+                + ",\"dataHoraInicio\":" + Json.texto(inicio.toString())
+                + ",\"moradaOrigem\":" + Json.texto(origem)
+                + ",\"moradaDestino\":" + Json.texto(destino)
+                + ",\"kms\":" + Json.numero(kms) + "}");
+    }
+
+    @Override
+    public boolean converter(int nifCliente, LocalDateTime inicio, int idCondutor, String matricula, double custo) {
+        return enviar("POST", "/reservas/" + nifCliente + "/" + inicio + "/conversao",
+                "{\"numeroIdentificacao\":" + idCondutor
+                        + ",\"matricula\":" + Json.texto(matricula)
+                        + ",\"custo\":" + Json.numero(custo) + "}");
+    }
+
+    @Override
+    public boolean consultarDisponibilidade(int tipo, LocalDateTime inicio, LocalDateTime fim) {
+        return enviar("GET", "/disponibilidade/" + RECURSOS[Math.min(tipo, RECURSOS.length - 1)]
+                + "?inicio=" + codificar(inicio.toString()) + "&fim=" + codificar(fim.toString()), null);
+    }
+
+    @Override
+    public boolean consultarRelatorio(int tipo, int idCondutor, int nifCliente, String matricula,
+                                      LocalDateTime inicio, LocalDateTime fim) {
+        String periodo = "inicio=" + codificar(inicio.toString()) + "&fim=" + codificar(fim.toString());
+        String caminho = switch (tipo) {
+            case 0 -> "/estatisticas/faturacao?condutor=" + idCondutor + "&" + periodo;
+            case 1 -> "/estatisticas/distancia-media?" + periodo;
+            case 2 -> "/estatisticas/destino-mais-solicitado?" + periodo;
+            case 3 -> "/estatisticas/clientes-por-viatura?matricula=" + codificar(matricula);
+            case 4 -> "/estatisticas/clientes-por-kms?min=5&max=15";
+            case 5 -> "/viagens?nif=" + nifCliente + "&" + periodo;
+            default -> "/estatisticas/kms-cliente?nif=" + nifCliente;
+        };
+        return enviar("GET", caminho, null);
+    }
+
+    @Override
+    public void close() {
+        if (api != null) {
+            api.close();
+        }
+        if (plataforma != null) {
+            plataforma.close();
+        }
+    }
+
+    /**
+     * Envia um pedido e classifica a resposta.
+     *
+     * @param metodo  Método HTTP.
+     * @param caminho Caminho relativo à empresa (com a query, se existir).
+     * @param corpo   Corpo JSON, ou {@code null}.
+     * @return {@code true} se a resposta for 2xx; {@code false} se for 404 ou 409.
+     * @throws IllegalStateException se a API responder com outro estado.
+     * @throws UncheckedIOException  se a ligação falhar.
+     */
+    private boolean enviar(String metodo, String caminho, String corpo) {
+        HttpRequest pedido = HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(TEMPO_LIMITE)
+                .header("Content-Type", "application/json")
+                .method(metodo, corpo == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(corpo, StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> resposta;
+        try {
+            resposta = cliente.send(pedido, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pedido interrompido", e);
+        }
+        int estado = resposta.statusCode();
+        if (estado >= 200 && estado < 300) {
+            return true;
+        }
+        if (estado == 404 || estado == 409) {
+            return false;
+        }
+        throw new IllegalStateException("HTTP " + estado + " em " + metodo + " " + caminho + ": " + resposta.body());
+    }
+
+    /**
+     * Codifica um valor para uso num URL.
+     *
+     * @param valor O valor.
+     * @return O valor codificado.
+     */
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
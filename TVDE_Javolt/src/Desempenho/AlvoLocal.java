@@ -0,0 +1,93 @@
+package Desempenho;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Entidades.Viatura;
+import Gestao.Empresa;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alvo de carga que chama diretamente os métodos de uma {@link Empresa} (na mesma JVM).
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+final class AlvoLocal implements AlvoCarga {
+
+    /**
+     * A empresa.
+     */
+    private final Empresa empresa;
+
+    /**
+     * Cria o alvo.
+     *
+     * @param empresa A empresa.
+     */
+    AlvoLocal(Empresa empresa) {
+        this.empresa = empresa;
+    }
+
+    @Override
+    public boolean marcarViagem(int idCondutor, int nifCliente, String matricula, LocalDateTime inicio,
+                                LocalDateTime fim, String origem, String destino, double kms, double custo) {
+        Condutor condutor = empresa.procurarCondutorPorId(idCondutor);
+        Cliente cliente = empresa.procurarCliente(nifCliente);
+        Viatura viatura = empresa.procurarViatura(matricula);
+        if (condutor == null || cliente == null || viatura == null) {
+            return false;
+        }
+        return empresa.adicionarViagem(new Viagem(condutor, cliente, viatura, inicio, fim, origem, destino, kms, custo));
+    }
+
+    @Override
+    public boolean reservar(int nifCliente, LocalDateTime inicio, String origem, String destino, double kms) {
+        Cliente cliente = empresa.procurarCliente(nifCliente);
+        return cliente != null && empresa.adicionarReserva(new Reserva(cliente, inicio, origem, destino, kms));
+    }
+
+    @Override
+    public boolean converter(int nifCliente, LocalDateTime inicio, int idCondutor, String matricula, double custo) {
+        for (Reserva reserva : empresa.getReservasDoCliente(nifCliente)) {
+            if (reserva.getDataHoraInicio().equals(inicio)) {
+                return empresa.converterReservaEmViagem(reserva, empresa.procurarCondutorPorId(idCondutor),
+                        empresa.procurarViatura(matricula), custo) != null;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean consultarDisponibilidade(int tipo, LocalDateTime inicio, LocalDateTime fim) {
+        Medidor.consumir(switch (tipo) {
+            case 0 -> empresa.getCondutoresDisponiveis(inicio, fim);
+            case 1 -> empresa.getViaturasDisponiveis(inicio, fim);
+            default -> empresa.getClientesDisponiveis(inicio, fim);
+        });
+        return true;
+    }
+
+    @Override
+    public boolean consultarRelatorio(int tipo, int idCondutor, int nifCliente, String matricula,
+                                      LocalDateTime inicio, LocalDateTime fim) {
+        Medidor.consumir(switch (tipo) {
+            case 0 -> empresa.calcularFaturacaoCondutor(idCondutor, inicio, fim);
+            case 1 -> empresa.calcularDistanciaMedia(inicio, fim);
+            case 2 -> empresa.getDestinoMaisSolicitado(inicio, fim);
+            case 3 -> empresa.getClientesPorViatura(matricula);
+            case 4 -> empresa.getClientesPorIntervaloKms(5.0, 15.0);
+            case 5 -> empresa.getViagensClientePorDatas(nifCliente, inicio, fim);
+            default -> empresa.calcularTotalKmsCliente(nifCliente);
+        });
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Nada a libertar: a empresa pertence a quem criou o alvo
+    }
+}
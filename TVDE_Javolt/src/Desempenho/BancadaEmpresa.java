@@ -0,0 +1,559 @@
+package Desempenho;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Viagem;
+import Entidades.Viatura;
+import Gestao.Empresa;
+import Gestao.EstatisticasParalelas;
+import Gestao.Instantaneo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bancada de micro-medições das operações mais usadas da {@link Empresa}, para vários tamanhos de dados.
+ * <p>
+ * Para cada tamanho (número de viagens) é construída uma empresa sintética reprodutível e medido,
+ * com o {@link Medidor}, o custo de:
+ * <ul>
+ *   <li>pesquisas: {@code procurarViatura}, {@code procurarCliente};</li>
+ *   <li>marcação: {@code verificarSobreposicao}, {@code adicionarViagem};</li>
+ *   <li>disponibilidade: {@code getCondutoresDisponiveis}, {@code getViaturasDisponiveis},
+ *       {@code getClientesDisponiveis};</li>
+ *   <li>todos os métodos de estatística;</li>
+ *   <li>os relatórios de {@link EstatisticasParalelas} sobre todo o histórico, com uma thread ({@code seq:})
+ *       e com o pool comum ({@code par:}), para medir a escalabilidade;</li>
+ *   <li>persistência: {@code gravarDados}, {@code carregarDados} (uma execução por iteração).</li>
+ * </ul>
+ * Cada linha indica o tempo por operação, a memória alocada por operação e a atividade do GC.
+ * Com {@code --csv} os resultados são gravados em ficheiro, e com {@code --comparar} são comparados
+ * com um ficheiro anterior (ex: antes e depois de uma otimização).
+ * </p>
+ * <p>
+ * Utilização: {@code java Desempenho.BancadaEmpresa [tamanhos...] [--filtro texto] [--csv ficheiro]
+ * [--comparar ficheiro] [--rapido] [--semente n]}. Por defeito mede 10², 10³, 10⁴ e 10⁵ viagens; tamanhos
+ * até 10⁷ podem ser pedidos explicitamente, mas precisam de vários GB de heap (ex: {@code -Xmx16g}).
+ * Com {@code --semente} os dados vêm do {@link GeradorDados} (os mesmos dos testes de carga) em vez
+ * do cenário interno.
+ * A persistência grava numa pasta temporária "Empresas/Logs_Bancada_N", apagada no fim.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class BancadaEmpresa {
+
+    /**
+     * Tamanhos medidos por defeito (número de viagens).
+     */
+    private static final int[] TAMANHOS_DEFEITO = {100, 1_000, 10_000, 100_000};
+
+    /**
+     * Número de destinos distintos usados nas viagens geradas.
+     */
+    private static final int NUMERO_DESTINOS = 50;
+
+    /**
+     * Intervalo entre viagens consecutivas do mesmo condutor, em minutos.
+     */
+    private static final int INTERVALO_MINUTOS = 40;
+
+    /**
+     * Número de marcações feitas em cada execução medida de {@code adicionarViagem}.
+     */
+    private static final int MARCACOES_POR_EXECUCAO = 256;
+
+    /**
+     * Início do calendário das viagens geradas.
+     */
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /**
+     * Construtor privado (classe utilitária).
+     */
+    private BancadaEmpresa() {
+    }
+
+    /**
+     * Ponto de entrada da bancada.
+     *
+     * @param args Tamanhos e opções (ver a descrição da classe).
+     * @throws IOException se não for possível gravar ou ler os ficheiros CSV.
+     */
+    public static void main(String[] args) throws IOException {
+        List<Integer> tamanhos = new ArrayList<>();
+        String filtro = null;
+        String csv = null;
+        String comparar = null;
+        boolean rapido = false;
+        Long semente = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filtro" -> filtro = args[++i];
+                case "--csv" -> csv = args[++i];
+                case "--comparar" -> comparar = args[++i];
+                case "--rapido" -> rapido = true;
+                case "--semente" -> semente = Long.parseLong(args[++i]);
+                default -> tamanhos.add(Integer.parseInt(args[i].replace("_", "")));
+            }
+        }
+        if (tamanhos.isEmpty()) {
+            for (int tamanho : TAMANHOS_DEFEITO) {
+                tamanhos.add(tamanho);
+            }
+        }
+
+        Medidor medidor = rapido ? new Medidor(1, 3, 100) : new Medidor(5, 5, 1_000);
+        Medidor medidorUnico = rapido ? new Medidor(1, 3, 1) : new Medidor(3, 5, 1);
+        HashMap<String, Double> anteriores = comparar != null ? lerCsv(comparar) : new HashMap<>();
+
+        System.out.printf("%-30s %10s %16s   %-12s %12s %8s %8s%n",
+                "Operação", "Viagens", "ns/op", "desvio", "B/op", "GCs", "GC ms");
+        List<Medidor.Resultado> resultados = new ArrayList<>();
+        for (int tamanho : tamanhos) {
+            Cenario cenario = semente == null ? new Cenario(tamanho) : Cenario.gerado(tamanho, semente);
+            for (Medidor.Resultado resultado : medirCenario(cenario, medidor, medidorUnico, filtro)) {
+                resultados.add(resultado);
+                Double anterior = anteriores.get(resultado.getNome() + ";" + resultado.getTamanho());
+                System.out.println(anterior == null ? resultado.toString()
+                        : String.format(Locale.ROOT, "%s  (%.2fx)", resultado, anterior / resultado.getMedia()));
+            }
+        }
+
+        if (csv != null) {
+            try (PrintWriter escritor = new PrintWriter(csv, StandardCharsets.UTF_8)) {
+                escritor.println("operacao;viagens;ns_op;desvio;bytes_op;gcs;gc_ms");
+                for (Medidor.Resultado resultado : resultados) {
+                    escritor.println(resultado.paraCsv());
+                }
+            }
+            System.out.println("Resultados gravados em " + csv);
+        }
+    }
+
+    /**
+     * Mede todas as operações (que passem o filtro) sobre um cenário.
+     *
+     * @param cenario      O cenário de dados.
+     * @param medidor      Medidor para operações repetidas.
+     * @param medidorUnico Medidor para operações de execução única.
+     * @param filtro       Texto que o nome da operação deve conter, ou {@code null}.
+     * @return Os resultados, pela ordem em que foram medidos.
+     */
+    private static List<Medidor.Resultado> medirCenario(Cenario cenario, Medidor medidor, Medidor medidorUnico,
+                                                        String filtro) {
+        Empresa empresa = cenario.empresa;
+        int n = cenario.tamanho;
+        SplittableRandom aleatorio = new SplittableRandom(n);
+        LocalDateTime meio = cenario.meioDoCalendario();
+        LocalDateTime fimJanela = meio.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS);
+        LocalDateTime inicioPeriodo = cenario.primeira;
+        LocalDateTime fimPeriodo = meio;
+
+        List<Medidor.Resultado> resultados = new ArrayList<>();
+        if (aceita("procurarViatura", filtro)) {
+            resultados.add(medidor.medir("procurarViatura", n, () ->
+                    empresa.procurarViatura(cenario.viaturas[aleatorio.nextInt(cenario.viaturas.length)].getMatricula())));
+        }
+        if (aceita("procurarCliente", filtro)) {
+            resultados.add(medidor.medir("procurarCliente", n, () ->
+                    empresa.procurarCliente(cenario.clientes[aleatorio.nextInt(cenario.clientes.length)].getNif())));
+        }
+        if (aceita("verificarSobreposicao", filtro)) {
+            resultados.add(medidor.medir("verificarSobreposicao", n, () -> {
+                Viatura viatura = cenario.viaturas[aleatorio.nextInt(cenario.viaturas.length)];
+                Condutor condutor = cenario.condutores[aleatorio.nextInt(cenario.condutores.length)];
+                LocalDateTime inicio = cenario.primeira.plusMinutes(aleatorio.nextLong(cenario.minutos()));
+                return empresa.verificarSobreposicao(viatura, condutor,
+                        inicio, inicio.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS));
+            }));
+        }
+        if (aceita("adicionarViagem", filtro)) {
+            // Cada execução marca um bloco de viagens novas depois do fim do calendário
+            resultados.add(medidorUnico.medirUnica("adicionarViagem", n, () -> { }, () -> {
+                int aceites = 0;
+                for (int i = 0; i < MARCACOES_POR_EXECUCAO; i++) {
+                    if (empresa.adicionarViagem(cenario.proximaViagemFutura())) {
+                        aceites++;
+                    }
+                }
+                return aceites;
+            }, MARCACOES_POR_EXECUCAO));
+        }
+        if (aceita("getCondutoresDisponiveis", filtro)) {
+            resultados.add(medidor.medir("getCondutoresDisponiveis", n, () ->
+                    empresa.getCondutoresDisponiveis(meio, fimJanela)));
+        }
+        if (aceita("getViaturasDisponiveis", filtro)) {
+            resultados.add(medidor.medir("getViaturasDisponiveis", n, () ->
+                    empresa.getViaturasDisponiveis(meio, fimJanela)));
+        }
+        if (aceita("getClientesDisponiveis", filtro)) {
+            resultados.add(medidor.medir("getClientesDisponiveis", n, () ->
+                    empresa.getClientesDisponiveis(meio, fimJanela)));
+        }
+        if (aceita("calcularFaturacaoCondutor", filtro)) {
+            resultados.add(medidor.medir("calcularFaturacaoCondutor", n, () ->
+                    empresa.calcularFaturacaoCondutor(
+                            cenario.condutores[aleatorio.nextInt(cenario.condutores.length)].getNumeroIdentificacao(),
+                            inicioPeriodo, fimPeriodo)));
+        }
+        if (aceita("getClientesPorViatura", filtro)) {
+            resultados.add(medidor.medir("getClientesPorViatura", n, () ->
+                    empresa.getClientesPorViatura(
+                            cenario.viaturas[aleatorio.nextInt(cenario.viaturas.length)].getMatricula())));
+        }
+        if (aceita("calcularDistanciaMedia", filtro)) {
+            resultados.add(medidor.medir("calcularDistanciaMedia", n, () ->
+                    empresa.calcularDistanciaMedia(inicioPeriodo, fimPeriodo)));
+        }
+        if (aceita("getClientesPorIntervaloKms", filtro)) {
+            resultados.add(medidor.medir("getClientesPorIntervaloKms", n, () ->
+                    empresa.getClientesPorIntervaloKms(10.0, 20.0)));
+        }
+        if (aceita("getViagensClientePorDatas", filtro)) {
+            resultados.add(medidor.medir("getViagensClientePorDatas", n, () ->
+                    empresa.getViagensClientePorDatas(cenario.clientes[aleatorio.nextInt(cenario.clientes.length)].getNif(),
+                            inicioPeriodo, fimPeriodo)));
+        }
+        if (aceita("getDestinoMaisSolicitado", filtro)) {
+            resultados.add(medidor.medir("getDestinoMaisSolicitado", n, () ->
+                    empresa.getDestinoMaisSolicitado(inicioPeriodo, fimPeriodo)));
+        }
+        if (aceita("calcularTotalKmsCliente", filtro)) {
+            resultados.add(medidor.medir("calcularTotalKmsCliente", n, () ->
+                    empresa.calcularTotalKmsCliente(cenario.clientes[aleatorio.nextInt(cenario.clientes.length)].getNif())));
+        }
+        medirEstatisticasParalelas(empresa.instantaneo(), medidor, n, filtro, resultados);
+        if (aceita("gravarDados", filtro) || aceita("carregarDados", filtro)) {
+            medirPersistencia(cenario, medidorUnico, filtro, resultados);
+        }
+        return resultados;
+    }
+
+    /**
+     * Mede os relatórios paralelos sobre todo o histórico, primeiro numa só thread e depois no pool comum.
+     *
+     * @param estado     Instantâneo da empresa.
+     * @param medidor    Medidor para operações repetidas.
+     * @param n          Número de viagens do cenário.
+     * @param filtro     Texto que o nome da operação deve conter, ou {@code null}.
+     * @param resultados Lista onde são acrescentados os resultados.
+     */
+    private static void medirEstatisticasParalelas(Instantaneo estado, Medidor medidor, int n, String filtro,
+                                                   List<Medidor.Resultado> resultados) {
+        ForkJoinPool umaThread = new ForkJoinPool(1);
+        try {
+            EstatisticasParalelas[] motores = {new EstatisticasParalelas(umaThread), EstatisticasParalelas.PADRAO};
+            String[] prefixos = {"seq:", "par:"};
+            for (int i = 0; i < motores.length; i++) {
+                EstatisticasParalelas motor = motores[i];
+                if (aceita(prefixos[i] + "distanciaMedia", filtro)) {
+                    resultados.add(medidor.medir(prefixos[i] + "distanciaMedia", n, () ->
+                            motor.distanciaMedia(estado, LocalDateTime.MIN, LocalDateTime.MAX)));
+                }
+                if (aceita(prefixos[i] + "faturacaoCondutores", filtro)) {
+                    resultados.add(medidor.medir(prefixos[i] + "faturacaoCondutores", n, () ->
+                            motor.faturacaoCondutores(estado, LocalDateTime.MIN, LocalDateTime.MAX)));
+                }
+                if (aceita(prefixos[i] + "contagemDestinos", filtro)) {
+                    resultados.add(medidor.medir(prefixos[i] + "contagemDestinos", n, () ->
+                            motor.contagemDestinos(estado, LocalDateTime.MIN, LocalDateTime.MAX)));
+                }
+                if (aceita(prefixos[i] + "kmsPorCliente", filtro)) {
+                    resultados.add(medidor.medir(prefixos[i] + "kmsPorCliente", n, () -> motor.kmsPorCliente(estado)));
+                }
+                if (aceita(prefixos[i] + "clientesPorIntervaloKms", filtro)) {
+                    resultados.add(medidor.medir(prefixos[i] + "clientesPorIntervaloKms", n, () ->
+                            motor.clientesPorIntervaloKms(estado, 10.0, 20.0)));
+                }
+            }
+        } finally {
+            umaThread.shutdown();
+        }
+    }
+
+    /**
+     * Mede a gravação e o carregamento dos ficheiros de uma empresa, numa pasta temporária.
+     *
+     * @param cenario      O cenário de dados.
+     * @param medidorUnico Medidor para operações de execução única.
+     * @param filtro       Texto que o nome da operação deve conter, ou {@code null}.
+     * @param resultados   Lista onde são acrescentados os resultados.
+     */
+    private static void medirPersistencia(Cenario cenario, Medidor medidorUnico, String filtro,
+                                          List<Medidor.Resultado> resultados) {
+        Empresa empresa = cenario.empresa;
+        int n = cenario.tamanho;
+        File pasta = new File(empresa.getCaminhoPastaEmpresa());
+        try {
+            if (aceita("gravarDados", filtro)) {
+                resultados.add(medidorUnico.medirUnica("gravarDados", n, () -> { }, () -> {
+                    empresa.gravarDados();
+                    return pasta;
+                }));
+            } else {
+                empresa.gravarDados();
+            }
+            if (aceita("carregarDados", filtro)) {
+                Empresa[] destino = new Empresa[1];
+                resultados.add(medidorUnico.medirUnica("carregarDados", n,
+                        () -> destino[0] = new Empresa(empresa.getNomeEmpresa(), Integer.MAX_VALUE), () -> {
+                            destino[0].carregarDados();
+                            return destino[0];
+                        }));
+            }
+        } finally {
+            apagar(pasta);
+        }
+    }
+
+    /**
+     * Indica se uma operação deve ser medida.
+     *
+     * @param nome   Nome da operação.
+     * @param filtro Texto que o nome deve conter, ou {@code null} para medir todas.
+     * @return {@code true} se a operação deve ser medida.
+     */
+    private static boolean aceita(String nome, String filtro) {
+        return filtro == null || nome.toLowerCase(Locale.ROOT).contains(filtro.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Lê um ficheiro CSV gravado anteriormente pela bancada.
+     *
+     * @param caminho Caminho do ficheiro.
+     * @return Tempo por operação de cada par "operação;viagens".
+     * @throws IOException se não for possível ler o ficheiro.
+     */
+    private static HashMap<String, Double> lerCsv(String caminho) throws IOException {
+        HashMap<String, Double> valores = new HashMap<>();
+        List<String> linhas = Files.readAllLines(Path.of(caminho), StandardCharsets.UTF_8);
+        for (int i = 1; i < linhas.size(); i++) {
+            String[] campos = linhas.get(i).split(";");
+            if (campos.length >= 3) {
+                valores.put(campos[0] + ";" + campos[1], Double.parseDouble(campos[2]));
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Apaga uma pasta e o seu conteúdo (sem subpastas).
+     *
+     * @param pasta A pasta.
+     */
+    private static void apagar(File pasta) {
+        File[] ficheiros = pasta.listFiles();
+        if (ficheiros != null) {
+            for (File ficheiro : ficheiros) {
+                if (!ficheiro.delete()) {
+                    System.out.println(">> Aviso: Não foi possível apagar " + ficheiro);
+                }
+            }
+        }
+        if (pasta.exists() && !pasta.delete()) {
+            System.out.println(">> Aviso: Não foi possível apagar " + pasta);
+        }
+    }
+
+    /**
+     * Empresa sintética com um dado número de viagens, sem sobreposições.
+     * <p>
+     * No cenário interno há um condutor (e uma viatura) por cada 100 viagens e um cliente por cada 20,
+     * com mínimos de 10. O condutor i conduz sempre a viatura i e as suas viagens ocupam intervalos de
+     * {@value #INTERVALO_MINUTOS} minutos consecutivos a partir de 1/1/2025; as viagens são
+     * registadas em lote para que a construção não domine o tempo da bancada.
+     * Em alternativa, o cenário pode ser carregado de uma empresa gerada pelo {@link GeradorDados}.
+     * </p>
+     */
+    private static final class Cenario {
+
+        /**
+         * Número de viagens iniciais.
+         */
+        private final int tamanho;
+
+        /**
+         * A empresa.
+         */
+        private final Empresa empresa;
+
+        /**
+         * Condutores registados.
+         */
+        private final Condutor[] condutores;
+
+        /**
+         * Viaturas registadas.
+         */
+        private final Viatura[] viaturas;
+
+        /**
+         * Clientes registados.
+         */
+        private final Cliente[] clientes;
+
+        /**
+         * Início da primeira viagem.
+         */
+        private final LocalDateTime primeira;
+
+        /**
+         * Fim da última viagem.
+         */
+        private final LocalDateTime ultima;
+
+        /**
+         * Número de viagens futuras já geradas para {@code adicionarViagem}.
+         */
+        private long futuras;
+
+        /**
+         * Constrói o cenário interno.
+         *
+         * @param tamanho Número de viagens.
+         */
+        private Cenario(int tamanho) {
+            this.tamanho = tamanho;
+            this.empresa = new Empresa("Bancada_" + tamanho, Integer.MAX_VALUE);
+            int numeroCondutores = Math.max(10, tamanho / 100);
+            int numeroClientes = Math.max(10, tamanho / 20);
+            int slots = (tamanho + numeroCondutores - 1) / numeroCondutores;
+
+            this.condutores = new Condutor[numeroCondutores];
+            this.viaturas = new Viatura[numeroCondutores];
+            for (int i = 0; i < numeroCondutores; i++) {
+                condutores[i] = new Condutor(i + 1, "Condutor " + i, 200000000 + i, 930000000 + i,
+                        "Porto", 10000000 + i, "C-" + i, 10000 + i);
+                viaturas[i] = new Viatura(String.format("%02d-%02d-%02d", i / 10000, (i / 100) % 100, i % 100),
+                        "Marca", "Modelo", 2022);
+            }
+            empresa.adicionarCondutores(List.of(condutores));
+            for (Viatura viatura : viaturas) {
+                empresa.adicionarViatura(viatura);
+            }
+            this.clientes = new Cliente[numeroClientes];
+            for (int i = 0; i < numeroClientes; i++) {
+                clientes[i] = new Cliente("Cliente " + i, 100000000 + i, 910000000 + i, "Porto", 10000000 + i);
+            }
+            empresa.adicionarClientes(List.of(clientes));
+
+            SplittableRandom aleatorio = new SplittableRandom(tamanho);
+            ArrayList<Viagem> lote = new ArrayList<>(Math.min(tamanho, 1 << 16));
+            for (int i = 0; i < tamanho; i++) {
+                int condutor = i % numeroCondutores;
+                LocalDateTime inicio = BASE.plusMinutes((long) (i / numeroCondutores) * INTERVALO_MINUTOS);
+                double kms = 1 + aleatorio.nextInt(500) / 10.0;
+                lote.add(new Viagem(condutores[condutor], clientes[aleatorio.nextInt(numeroClientes)],
+                        viaturas[condutor], inicio, inicio.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS),
+                        "Porto", "Destino " + aleatorio.nextInt(NUMERO_DESTINOS), kms, kms * 1.2));
+                if (lote.size() == 1 << 16) {
+                    empresa.adicionarViagens(lote);
+                    lote.clear();
+                }
+            }
+            empresa.adicionarViagens(lote);
+            this.primeira = BASE;
+            this.ultima = BASE.plusMinutes((long) slots * INTERVALO_MINUTOS);
+        }
+
+        /**
+         * Constrói um cenário a partir de uma empresa já carregada.
+         *
+         * @param empresa A empresa.
+         */
+        private Cenario(Empresa empresa) {
+            this.empresa = empresa;
+            this.condutores = empresa.getCondutores().toArray(new Condutor[0]);
+            this.viaturas = empresa.getViaturas().toArray(new Viatura[0]);
+            this.clientes = empresa.getClientes().toArray(new Cliente[0]);
+            LocalDateTime[] limites = {LocalDateTime.MAX, LocalDateTime.MIN};
+            int[] contagem = new int[1];
+            empresa.percorrerViagens(viagem -> true, viagem -> {
+                contagem[0]++;
+                if (viagem.getDataHoraInicio().isBefore(limites[0])) {
+                    limites[0] = viagem.getDataHoraInicio();
+                }
+                if (viagem.getDataHoraFim().isAfter(limites[1])) {
+                    limites[1] = viagem.getDataHoraFim();
+                }
+            });
+            this.tamanho = contagem[0];
+            this.primeira = contagem[0] > 0 ? limites[0] : BASE;
+            this.ultima = contagem[0] > 0 ? limites[1] : BASE.plusMinutes(INTERVALO_MINUTOS);
+        }
+
+        /**
+         * Gera uma empresa com o {@link GeradorDados}, carrega-a e apaga os ficheiros.
+         *
+         * @param tamanho Número de viagens.
+         * @param semente Semente do gerador.
+         * @return O cenário.
+         * @throws UncheckedIOException se não for possível gerar os ficheiros.
+         */
+        private static Cenario gerado(int tamanho, long semente) {
+            String nome = "Bancada_" + tamanho;
+            try {
+                new GeradorDados(semente, tamanho).gerar(nome);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Empresa empresa = new Empresa(nome, Integer.MAX_VALUE);
+            try {
+                empresa.carregarDados();
+            } finally {
+                apagar(new File(empresa.getCaminhoPastaEmpresa()));
+            }
+            return new Cenario(empresa);
+        }
+
+        /**
+         * Obtém uma data/hora a meio do calendário das viagens iniciais.
+         *
+         * @return Data/hora a meio, arredondada ao minuto.
+         */
+        private LocalDateTime meioDoCalendario() {
+            return primeira.plusMinutes(minutos() / 2);
+        }
+
+        /**
+         * Obtém a duração do calendário das viagens iniciais.
+         *
+         * @return Número de minutos entre o início da primeira viagem e o fim da última (pelo menos 1).
+         */
+        private long minutos() {
+            return Math.max(1, Duration.between(primeira, ultima).toMinutes());
+        }
+
+        /**
+         * Gera uma viagem nova, sem sobreposições, depois do fim do calendário inicial.
+         * Os condutores e as viaturas são emparelhados pela posição, como no cenário interno.
+         *
+         * @return A viagem.
+         */
+        private Viagem proximaViagemFutura() {
+            long indice = futuras++;
+            int pares = Math.min(condutores.length, viaturas.length);
+            int par = (int) (indice % pares);
+            LocalDateTime inicio = ultima.plusMinutes(INTERVALO_MINUTOS + (indice / pares) * INTERVALO_MINUTOS);
+            return new Viagem(condutores[par], clientes[(int) (indice % clientes.length)], viaturas[par],
+                    inicio, inicio.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS), "Porto", "Lisboa", 10.0, 12.0);
+        }
+    }
+}
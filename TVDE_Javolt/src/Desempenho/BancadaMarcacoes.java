@@ -0,0 +1,169 @@
+package Desempenho;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Viagem;
+import Entidades.Viatura;
+import Gestao.Empresa;
+import Gestao.ModoMarcacao;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bancada de ensaio que compara os dois modos de marcação de viagens da {@link Empresa}.
+ * <p>
+ * Lança N threads de despacho (64 por defeito) que marcam viagens em simultâneo. A maior
+ * parte das marcações recai sobre um pequeno grupo de condutores "populares", simulando
+ * uma hora de ponta em que as mesmas agendas são disputadas por muitas threads.
+ * As viagens geradas nunca se sobrepõem, pelo que todas devem ser aceites: o que se mede
+ * é apenas o custo da coordenação entre threads.
+ * </p>
+ * <p>
+ * Utilização: {@code java Desempenho.BancadaMarcacoes [threads] [marcacoesPorThread] [condutores]}
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class BancadaMarcacoes {
+
+    /**
+     * Número de rondas de aquecimento (não contabilizadas) por modo.
+     */
+    private static final int RONDAS_AQUECIMENTO = 3;
+
+    /**
+     * Número de rondas medidas por modo.
+     */
+    private static final int RONDAS_MEDIDAS = 5;
+
+    /**
+     * Fração das marcações dirigidas aos condutores populares.
+     */
+    private static final double FRACAO_POPULARES = 0.8;
+
+    /**
+     * Fração dos condutores considerados populares.
+     */
+    private static final double PERCENTAGEM_CONDUTORES_POPULARES = 0.05;
+
+    /**
+     * Ponto de entrada da bancada.
+     *
+     * @param args Argumentos opcionais: threads, marcações por thread e número de condutores.
+     * @throws InterruptedException Se a thread principal for interrompida.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int marcacoesPorThread = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int numeroCondutores = args.length > 2 ? Integer.parseInt(args[2]) : 512;
+
+        System.out.println("Bancada de marcações: " + threads + " threads x " + marcacoesPorThread
+                + " marcações, " + numeroCondutores + " condutores");
+
+        for (ModoMarcacao modo : ModoMarcacao.values()) {
+            for (int i = 0; i < RONDAS_AQUECIMENTO; i++) {
+                executarRonda(modo, threads, marcacoesPorThread, numeroCondutores, i);
+            }
+            double soma = 0;
+            double melhor = 0;
+            for (int i = 0; i < RONDAS_MEDIDAS; i++) {
+                double debito = executarRonda(modo, threads, marcacoesPorThread, numeroCondutores, 100 + i);
+                soma += debito;
+                melhor = Math.max(melhor, debito);
+            }
+            System.out.printf("%-9s média: %,12.0f marcações/s | melhor: %,12.0f marcações/s%n",
+                    modo, soma / RONDAS_MEDIDAS, melhor);
+        }
+    }
+
+    /**
+     * Executa uma ronda completa sobre uma empresa nova.
+     *
+     * @param modo               Modo de marcação a usar.
+     * @param threads            Número de threads de despacho.
+     * @param marcacoesPorThread Marcações feitas por cada thread.
+     * @param numeroCondutores   Número de condutores (e de viaturas).
+     * @param semente            Semente do gerador aleatório, para rondas reprodutíveis.
+     * @return Débito medido, em marcações por segundo.
+     * @throws InterruptedException Se a thread principal for interrompida.
+     */
+    private static double executarRonda(ModoMarcacao modo, int threads, int marcacoesPorThread,
+                                        int numeroCondutores, long semente) throws InterruptedException {
+        Empresa empresa = new Empresa("Bancada", Integer.MAX_VALUE);
+        empresa.setModoMarcacao(modo);
+
+        Condutor[] condutores = new Condutor[numeroCondutores];
+        Viatura[] viaturas = new Viatura[numeroCondutores];
+        for (int i = 0; i < numeroCondutores; i++) {
+            condutores[i] = new Condutor(i + 1, "Condutor " + i, 200000000 + i, 930000000 + i,
+                    "Porto", 10000000 + i, "C-" + i, 10000 + i);
+            viaturas[i] = new Viatura(String.format("%02d-%02d-BX", i / 100, i % 100), "Marca", "Modelo", 2022);
+            empresa.adicionarCondutor(condutores[i]);
+            empresa.adicionarViatura(viaturas[i]);
+        }
+        // Um cliente por thread, para que a disputa recaia apenas sobre condutores e viaturas
+        Cliente[] clientes = new Cliente[threads];
+        for (int t = 0; t < threads; t++) {
+            clientes[t] = new Cliente("Cliente " + t, 100000000 + t, 910000000 + t, "Porto", 10000000 + t);
+            empresa.adicionarCliente(clientes[t]);
+        }
+
+        // As viagens são criadas antes da medição; cada uma ocupa uma meia hora distinta
+        int populares = Math.max(1, (int) (numeroCondutores * PERCENTAGEM_CONDUTORES_POPULARES));
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 0, 0);
+        Viagem[][] porThread = new Viagem[threads][marcacoesPorThread];
+        for (int t = 0; t < threads; t++) {
+            for (int k = 0; k < marcacoesPorThread; k++) {
+                long indice = (long) t * marcacoesPorThread + k;
+                int condutor = aleatorio.nextDouble() < FRACAO_POPULARES
+                        ? aleatorio.nextInt(populares)
+                        : aleatorio.nextInt(numeroCondutores);
+                int viatura = aleatorio.nextInt(numeroCondutores);
+                LocalDateTime inicio = base.plusMinutes(indice * 30);
+                porThread[t][k] = new Viagem(condutores[condutor], clientes[t], viaturas[viatura],
+                        inicio, inicio.plusMinutes(30), "Origem", "Destino", 5.0, 8.0);
+            }
+        }
+
+        CountDownLatch partida = new CountDownLatch(1);
+        CountDownLatch chegada = new CountDownLatch(threads);
+        AtomicInteger aceites = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            Viagem[] viagens = porThread[t];
+            Thread despacho = new Thread(() -> {
+                try {
+                    partida.await();
+                    int ok = 0;
+                    for (Viagem viagem : viagens) {
+                        if (empresa.adicionarViagem(viagem)) {
+                            ok++;
+                        }
+                    }
+                    aceites.addAndGet(ok);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    chegada.countDown();
+                }
+            }, "despacho-" + t);
+            despacho.start();
+        }
+
+        long inicio = System.nanoTime();
+        partida.countDown();
+        chegada.await();
+        long duracao = System.nanoTime() - inicio;
+
+        int total = threads * marcacoesPorThread;
+        if (aceites.get() != total) {
+            System.out.println(">> Aviso: apenas " + aceites.get() + " de " + total + " marcações aceites.");
+        }
+        return total / (duracao / 1e9);
+    }
+}
@@ -0,0 +1,702 @@
+package Desempenho;
+
+import Gestao.Empresa;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador determinístico de empresas sintéticas para testes de capacidade.
+ * <p>
+ * Escreve diretamente os ficheiros de "Empresas/Logs_NomeEmpresa" no formato lido por
+ * {@link Empresa#carregarDados()}: viaturas, condutores e clientes com dados válidos (NIFs de
+ * 9 dígitos com dígito de controlo, telemóveis de 9 dígitos, matrículas AA-00-AA únicas),
+ * um histórico de viagens e um conjunto de reservas pendentes. A mesma semente gera sempre
+ * os mesmos ficheiros, para que bancadas e testes de carga usem os mesmos dados.
+ * </p>
+ * <p>
+ * As linhas são escritas à medida que são geradas, sem construir objetos nem listas: a memória
+ * usada não depende do número de viagens, pelo que é possível gerar milhões de registos.
+ * </p>
+ * <p>
+ * Regras dos dados gerados:
+ * <ul>
+ *   <li>As viagens são geradas por blocos de uma hora. Em cada bloco, cada par condutor/viatura
+ *       está ocupado com uma probabilidade que depende da hora do dia (horas de ponta às 8h e 18h)
+ *       e os clientes do bloco são todos distintos: nenhum condutor, viatura ou cliente tem
+ *       viagens sobrepostas.</li>
+ *   <li>A distância segue uma distribuição log-normal (mediana de cerca de 6 km) e a duração
+ *       e o custo dependem dela.</li>
+ *   <li>Os destinos seguem uma distribuição de Zipf: poucos destinos concentram a maior parte
+ *       das viagens, como acontece com aeroportos e estações.</li>
+ *   <li>As reservas começam no dia seguinte à última viagem, em blocos de
+ *       {@value Empresa#DURACAO_CONVERSAO_MINUTOS} minutos com clientes distintos, pelo que
+ *       também não se sobrepõem entre si nem com as viagens.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Para carregar os dados gerados, a empresa tem de ser criada com um limite à medida
+ * (ver {@link Empresa#Empresa(String, int)}), pois o limite por defeito é de 100 objetos por tipo.
+ * </p>
+ * <p>
+ * Utilização: {@code java Desempenho.GeradorDados nomeEmpresa viagens [--semente n] [--viaturas n]
+ * [--condutores n] [--clientes n] [--reservas n] [--destinos n] [--inicio aaaa-mm-dd]}
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class GeradorDados {
+
+    /**
+     * Tamanho do buffer de escrita (256 KB).
+     */
+    private static final int TAMANHO_BUFFER = 256 * 1024;
+
+    /**
+     * Formato das datas nos ficheiros da empresa.
+     */
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
+    /**
+     * Amplitude da parte sequencial dos NIFs (os 7 dígitos a seguir ao prefixo).
+     */
+    private static final int AMPLITUDE_NIF = 10_000_000;
+
+    /**
+     * Multiplicador que baralha os NIFs (primo com 10^7, logo sem repetições).
+     */
+    private static final long BARALHO_NIF = 7_654_321L;
+
+    /**
+     * Número máximo de matrículas distintas no formato AA-00-AA.
+     */
+    private static final int MAXIMO_MATRICULAS = 26 * 26 * 26 * 26 * 100;
+
+    /**
+     * Duração de cada bloco de viagens, em minutos.
+     */
+    private static final int MINUTOS_BLOCO = 60;
+
+    /**
+     * Minutos livres no fim de cada bloco (as viagens acabam antes disso).
+     */
+    private static final int FOLGA_BLOCO = 5;
+
+    /**
+     * Probabilidade (em percentagem) de um par condutor/viatura estar ocupado, por hora do dia.
+     */
+    private static final int[] OCUPACAO_POR_HORA = {
+            10, 6, 4, 3, 3, 8, 25, 60, 85, 70, 45, 40, 50, 45, 40, 45, 55, 75, 85, 65, 45, 35, 25, 15
+    };
+
+    /**
+     * Expoente da distribuição de Zipf dos destinos.
+     */
+    private static final double EXPOENTE_ZIPF = 1.0;
+
+    /**
+     * Localidades usadas em moradas, origens e destinos.
+     */
+    private static final String[] LOCALIDADES = {
+            "Porto", "Lisboa", "Braga", "Coimbra", "Aveiro", "Gaia", "Matosinhos", "Maia", "Gondomar",
+            "Valongo", "Guimaraes", "Viana do Castelo", "Povoa de Varzim", "Vila do Conde", "Espinho",
+            "Amadora", "Sintra", "Cascais", "Oeiras", "Almada", "Setubal", "Faro", "Leiria", "Viseu",
+            "Aeroporto", "Estacao de Campanha", "Hospital de Sao Joao", "Universidade"
+    };
+
+    /**
+     * Nomes próprios.
+     */
+    private static final String[] NOMES = {
+            "Joao", "Maria", "Ana", "Pedro", "Luisa", "Carlos", "Sofia", "Tiago", "Ines", "Rui",
+            "Beatriz", "Miguel", "Marta", "Andre", "Catarina", "Diogo", "Rita", "Bruno", "Joana", "Nuno"
+    };
+
+    /**
+     * Apelidos.
+     */
+    private static final String[] APELIDOS = {
+            "Silva", "Santos", "Ferreira", "Pereira", "Oliveira", "Costa", "Rodrigues", "Martins",
+            "Sousa", "Fernandes", "Goncalves", "Gomes", "Lopes", "Marques", "Alves", "Almeida",
+            "Ribeiro", "Pinto", "Carvalho", "Teixeira"
+    };
+
+    /**
+     * Pares marca/modelo das viaturas.
+     */
+    private static final String[][] MODELOS = {
+            {"Toyota", "Corolla"}, {"Tesla", "Model 3"}, {"Renault", "Clio"}, {"Peugeot", "308"},
+            {"Mercedes", "Classe E"}, {"Skoda", "Octavia"}, {"Hyundai", "Ioniq"}, {"Kia", "Niro"},
+            {"Volkswagen", "Passat"}, {"Nissan", "Leaf"}
+    };
+
+    /**
+     * Semente do gerador.
+     */
+    private final long semente;
+
+    /**
+     * Número de viaturas.
+     */
+    private int viaturas;
+
+    /**
+     * Número de condutores.
+     */
+    private int condutores;
+
+    /**
+     * Número de clientes.
+     */
+    private int clientes;
+
+    /**
+     * Número de viagens.
+     */
+    private long viagens;
+
+    /**
+     * Número de reservas pendentes.
+     */
+    private int reservas;
+
+    /**
+     * Número de destinos distintos.
+     */
+    private int destinos;
+
+    /**
+     * Data da primeira viagem.
+     */
+    private LocalDate inicio;
+
+    /**
+     * Cria um gerador com os tamanhos ajustados a um número de viagens.
+     * <p>
+     * Por defeito há um condutor e uma viatura por cada 1000 viagens, um cliente por cada 50,
+     * uma reserva pendente por cada 100 viagens (mínimos de 10) e 200 destinos; a primeira
+     * viagem é a 1 de janeiro de 2025. Os valores podem ser alterados com os métodos "set".
+     * </p>
+     *
+     * @param semente Semente do gerador aleatório.
+     * @param viagens Número de viagens a gerar.
+     * @throws IllegalArgumentException se o número de viagens for negativo.
+     */
+    public GeradorDados(long semente, long viagens) {
+        if (viagens < 0) {
+            throw new IllegalArgumentException("Número de viagens inválido: " + viagens);
+        }
+        this.semente = semente;
+        this.viagens = viagens;
+        this.viaturas = (int) Math.min(MAXIMO_MATRICULAS, Math.max(10, viagens / 1000));
+        this.condutores = this.viaturas;
+        this.clientes = (int) Math.min(AMPLITUDE_NIF, Math.max(10, viagens / 50));
+        this.reservas = (int) Math.min(Integer.MAX_VALUE, Math.max(10, viagens / 100));
+        this.destinos = 200;
+        this.inicio = LocalDate.of(2025, 1, 1);
+    }
+
+    /**
+     * Define o número de viaturas.
+     *
+     * @param viaturas Número de viaturas (1 a 45 697 600).
+     * @throws IllegalArgumentException se o número for inválido.
+     */
+    public void setViaturas(int viaturas) {
+        if (viaturas <= 0 || viaturas > MAXIMO_MATRICULAS) {
+            throw new IllegalArgumentException("Número de viaturas inválido: " + viaturas);
+        }
+        this.viaturas = viaturas;
+    }
+
+    /**
+     * Define o número de condutores.
+     *
+     * @param condutores Número de condutores (1 a 10 000 000).
+     * @throws IllegalArgumentException se o número for inválido.
+     */
+    public void setCondutores(int condutores) {
+        if (condutores <= 0 || condutores > AMPLITUDE_NIF) {
+            throw new IllegalArgumentException("Número de condutores inválido: " + condutores);
+        }
+        this.condutores = condutores;
+    }
+
+    /**
+     * Define o número de clientes.
+     *
+     * @param clientes Número de clientes (1 a 10 000 000).
+     * @throws IllegalArgumentException se o número for inválido.
+     */
+    public void setClientes(int clientes) {
+        if (clientes <= 0 || clientes > AMPLITUDE_NIF) {
+            throw new IllegalArgumentException("Número de clientes inválido: " + clientes);
+        }
+        this.clientes = clientes;
+    }
+
+    /**
+     * Define o número de reservas pendentes.
+     *
+     * @param reservas Número de reservas.
+     * @throws IllegalArgumentException se o número for negativo.
+     */
+    public void setReservas(int reservas) {
+        if (reservas < 0) {
+            throw new IllegalArgumentException("Número de reservas inválido: " + reservas);
+        }
+        this.reservas = reservas;
+    }
+
+    /**
+     * Define o número de destinos distintos.
+     *
+     * @param destinos Número de destinos.
+     * @throws IllegalArgumentException se o número não for positivo.
+     */
+    public void setDestinos(int destinos) {
+        if (destinos <= 0) {
+            throw new IllegalArgumentException("Número de destinos inválido: " + destinos);
+        }
+        this.destinos = destinos;
+    }
+
+    /**
+     * Define a data da primeira viagem.
+     *
+     * @param inicio A data.
+     * @throws IllegalArgumentException se for null.
+     */
+    public void setInicio(LocalDate inicio) {
+        if (inicio == null) {
+            throw new IllegalArgumentException("Data de início não pode ser nula");
+        }
+        this.inicio = inicio;
+    }
+
+    /**
+     * Gera os ficheiros da empresa, substituindo os que existirem.
+     *
+     * @param nomeEmpresa Nome da empresa (a pasta é "Empresas/Logs_NomeEmpresa").
+     * @return A pasta onde os ficheiros foram escritos.
+     * @throws IOException se não for possível criar a pasta ou escrever os ficheiros.
+     */
+    public Path gerar(String nomeEmpresa) throws IOException {
+        Path pasta = Path.of(Empresa.caminhoPastaEmpresa(nomeEmpresa));
+        Files.createDirectories(pasta);
+
+        // Um gerador independente por ficheiro: mudar um tamanho não altera os restantes ficheiros
+        SplittableRandom raiz = new SplittableRandom(semente);
+        SplittableRandom aleatorioViaturas = raiz.split();
+        SplittableRandom aleatorioCondutores = raiz.split();
+        SplittableRandom aleatorioClientes = raiz.split();
+        SplittableRandom aleatorioViagens = raiz.split();
+        SplittableRandom aleatorioReservas = raiz.split();
+
+        String[] nomesDestinos = baralharDestinos(raiz.split());
+        double[] acumuladaZipf = distribuicaoZipf(destinos);
+
+        gerarViaturas(pasta.resolve("viaturas.txt"), aleatorioViaturas);
+        gerarCondutores(pasta.resolve("condutores.txt"), aleatorioCondutores);
+        gerarClientes(pasta.resolve("clientes.txt"), aleatorioClientes);
+        LocalDateTime fim = gerarViagens(pasta.resolve("viagens.txt"), aleatorioViagens, nomesDestinos, acumuladaZipf);
+        gerarReservas(pasta.resolve("reservas.txt"), aleatorioReservas, nomesDestinos, acumuladaZipf,
+                fim.toLocalDate().plusDays(1).atStartOfDay());
+        return pasta;
+    }
+
+    /**
+     * Escreve as viaturas: matricula;marca;modelo;anoFabrico.
+     *
+     * @param ficheiro   O ficheiro.
+     * @param aleatorio  Gerador aleatório.
+     * @throws IOException se não for possível escrever.
+     */
+    private void gerarViaturas(Path ficheiro, SplittableRandom aleatorio) throws IOException {
+        try (BufferedWriter out = abrir(ficheiro)) {
+            StringBuilder linha = new StringBuilder(64);
+            for (int i = 0; i < viaturas; i++) {
+                String[] modelo = MODELOS[aleatorio.nextInt(MODELOS.length)];
+                linha.setLength(0);
+                linha.append(matricula(i)).append(';').append(modelo[0]).append(';').append(modelo[1])
+                        .append(';').append(2012 + aleatorio.nextInt(14)).append('\n');
+                out.append(linha);
+            }
+        }
+    }
+
+    /**
+     * Escreve os condutores: id;nome;nif;tel;morada;cartaoCid;cartaCond;segSocial.
+     *
+     * @param ficheiro  O ficheiro.
+     * @param aleatorio Gerador aleatório.
+     * @throws IOException se não for possível escrever.
+     */
+    private void gerarCondutores(Path ficheiro, SplittableRandom aleatorio) throws IOException {
+        try (BufferedWriter out = abrir(ficheiro)) {
+            StringBuilder linha = new StringBuilder(128);
+            for (int i = 0; i < condutores; i++) {
+                linha.setLength(0);
+                linha.append(i + 1).append(';');
+                nome(linha, aleatorio).append(';').append(nifCondutor(i)).append(';')
+                        .append(telemovel(aleatorio)).append(';')
+                        .append(LOCALIDADES[aleatorio.nextInt(LOCALIDADES.length)]).append(';')
+                        .append(10_000_000 + aleatorio.nextInt(90_000_000)).append(';')
+                        .append("P-").append(1_000_000 + i).append(';')
+                        .append(10_000_000 + aleatorio.nextInt(90_000_000)).append('\n');
+                out.append(linha);
+            }
+        }
+    }
+
+    /**
+     * Escreve os clientes: nome;nif;tel;morada;cartaoCid.
+     *
+     * @param ficheiro  O ficheiro.
+     * @param aleatorio Gerador aleatório.
+     * @throws IOException se não for possível escrever.
+     */
+    private void gerarClientes(Path ficheiro, SplittableRandom aleatorio) throws IOException {
+        try (BufferedWriter out = abrir(ficheiro)) {
+            StringBuilder linha = new StringBuilder(128);
+            for (int i = 0; i < clientes; i++) {
+                linha.setLength(0);
+                nome(linha, aleatorio).append(';').append(nifCliente(i)).append(';')
+                        .append(telemovel(aleatorio)).append(';')
+                        .append(LOCALIDADES[aleatorio.nextInt(LOCALIDADES.length)]).append(';')
+                        .append(10_000_000 + aleatorio.nextInt(90_000_000)).append('\n');
+                out.append(linha);
+            }
+        }
+    }
+
+    /**
+     * Escreve o histórico de viagens:
+     * idCondutor;nifCliente;matricula;dataInicio;dataFim;origem;destino;kms;custo.
+     * <p>
+     * Em cada bloco de uma hora há no máximo um par por condutor/viatura e os clientes são
+     * escolhidos a partir de uma posição aleatória, de forma consecutiva, pelo que são distintos.
+     * As viagens começam e acabam dentro do bloco.
+     * </p>
+     *
+     * @param ficheiro      O ficheiro.
+     * @param aleatorio     Gerador aleatório.
+     * @param nomesDestinos Destinos por ordem de popularidade.
+     * @param acumuladaZipf Distribuição acumulada da popularidade dos destinos.
+     * @return Data/hora de fim da última viagem (ou do início, se não houver viagens).
+     * @throws IOException se não for possível escrever.
+     */
+    private LocalDateTime gerarViagens(Path ficheiro, SplittableRandom aleatorio, String[] nomesDestinos,
+                                       double[] acumuladaZipf) throws IOException {
+        int pares = Math.min(Math.min(viaturas, condutores), clientes);
+        LocalDateTime fim = inicio.atStartOfDay();
+        try (BufferedWriter out = abrir(ficheiro)) {
+            StringBuilder linha = new StringBuilder(160);
+            long geradas = 0;
+            for (long bloco = 0; geradas < viagens; bloco++) {
+                LocalDateTime inicioBloco = inicio.atStartOfDay().plusMinutes(bloco * MINUTOS_BLOCO);
+                int ocupacao = OCUPACAO_POR_HORA[inicioBloco.getHour()];
+                int primeiroCliente = aleatorio.nextInt(clientes);
+                int clientesNoBloco = 0;
+                for (int par = 0; par < pares && geradas < viagens; par++) {
+                    if (aleatorio.nextInt(100) >= ocupacao) {
+                        continue;
+                    }
+                    // Rodar condutores e viaturas entre blocos, mantendo-os distintos dentro do bloco
+                    int condutor = (int) ((par + bloco) % condutores);
+                    int viatura = (int) ((par + bloco * 7) % viaturas);
+                    int cliente = (primeiroCliente + clientesNoBloco++) % clientes;
+
+                    long centesimosKm = distancia(aleatorio);
+                    int duracao = (int) Math.min(MINUTOS_BLOCO - FOLGA_BLOCO, 4 + centesimosKm * 16 / 1000);
+                    int atraso = aleatorio.nextInt(MINUTOS_BLOCO - FOLGA_BLOCO - duracao + 1);
+                    LocalDateTime partida = inicioBloco.plusMinutes(atraso);
+                    LocalDateTime chegada = partida.plusMinutes(duracao);
+                    int destino = zipf(aleatorio, acumuladaZipf);
+                    String origem = LOCALIDADES[aleatorio.nextInt(LOCALIDADES.length)];
+                    // Tarifa base + preço por km, com agravamento nas horas de ponta
+                    long centesimosCusto = 350 + centesimosKm * 80 / 100;
+                    if (ocupacao >= 75) {
+                        centesimosCusto = centesimosCusto * 6 / 5;
+                    }
+
+                    linha.setLength(0);
+                    linha.append(condutor + 1).append(';').append(nifCliente(cliente)).append(';')
+                            .append(matricula(viatura)).append(';');
+                    FORMATO_DATA.formatTo(partida, linha);
+                    linha.append(';');
+                    FORMATO_DATA.formatTo(chegada, linha);
+                    linha.append(';').append(origem).append(';').append(nomesDestinos[destino]).append(';');
+                    decimal(linha, centesimosKm).append(';');
+                    decimal(linha, centesimosCusto).append('\n');
+                    out.append(linha);
+
+                    geradas++;
+                    fim = chegada;
+                }
+            }
+        }
+        return fim;
+    }
+
+    /**
+     * Escreve as reservas pendentes: nifCliente;dataHora;origem;destino;kms.
+     *
+     * @param ficheiro      O ficheiro.
+     * @param aleatorio     Gerador aleatório.
+     * @param nomesDestinos Destinos por ordem de popularidade.
+     * @param acumuladaZipf Distribuição acumulada da popularidade dos destinos.
+     * @param primeira      Data/hora da primeira reserva.
+     * @throws IOException se não for possível escrever.
+     */
+    private void gerarReservas(Path ficheiro, SplittableRandom aleatorio, String[] nomesDestinos,
+                               double[] acumuladaZipf, LocalDateTime primeira) throws IOException {
+        int porBloco = Math.max(1, Math.min(Math.min(viaturas, condutores), clientes) / 2);
+        try (BufferedWriter out = abrir(ficheiro)) {
+            StringBuilder linha = new StringBuilder(128);
+            int geradas = 0;
+            for (long bloco = 0; geradas < reservas; bloco++) {
+                LocalDateTime data = primeira.plusMinutes(bloco * Empresa.DURACAO_CONVERSAO_MINUTOS);
+                int primeiroCliente = aleatorio.nextInt(clientes);
+                int quantas = Math.min(reservas - geradas, 1 + aleatorio.nextInt(porBloco));
+                for (int k = 0; k < quantas; k++) {
+                    long centesimosKm = distancia(aleatorio);
+                    linha.setLength(0);
+                    linha.append(nifCliente((primeiroCliente + k) % clientes)).append(';');
+                    FORMATO_DATA.formatTo(data, linha);
+                    linha.append(';').append(LOCALIDADES[aleatorio.nextInt(LOCALIDADES.length)])
+                            .append(';').append(nomesDestinos[zipf(aleatorio, acumuladaZipf)]).append(';');
+                    decimal(linha, centesimosKm).append('\n');
+                    out.append(linha);
+                }
+                geradas += quantas;
+            }
+        }
+    }
+
+    /**
+     * Abre um ficheiro para escrita, com buffer, substituindo o conteúdo anterior.
+     *
+     * @param ficheiro O ficheiro.
+     * @return O escritor.
+     * @throws IOException se não for possível abrir o ficheiro.
+     */
+    private static BufferedWriter abrir(Path ficheiro) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(ficheiro, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+
+    /**
+     * Obtém a matrícula (formato AA-00-AA) de uma viatura.
+     *
+     * @param indice Índice da viatura.
+     * @return A matrícula, única para cada índice.
+     */
+    private static String matricula(int indice) {
+        int letras = indice / 100;
+        int numero = indice % 100;
+        char[] texto = {
+                (char) ('A' + letras / (26 * 26 * 26) % 26), (char) ('A' + letras / (26 * 26) % 26), '-',
+                (char) ('0' + numero / 10), (char) ('0' + numero % 10), '-',
+                (char) ('A' + letras / 26 % 26), (char) ('A' + letras % 26)
+        };
+        return new String(texto);
+    }
+
+    /**
+     * Obtém o NIF de um cliente (começa por 1).
+     *
+     * @param indice Índice do cliente.
+     * @return NIF válido, único para cada índice.
+     */
+    private static int nifCliente(int indice) {
+        return nif(1, indice);
+    }
+
+    /**
+     * Obtém o NIF de um condutor (começa por 2).
+     *
+     * @param indice Índice do condutor.
+     * @return NIF válido, único para cada índice.
+     */
+    private static int nifCondutor(int indice) {
+        return nif(2, indice);
+    }
+
+    /**
+     * Constrói um NIF de 9 dígitos: prefixo, 7 dígitos baralhados a partir do índice e dígito de controlo.
+     *
+     * @param prefixo Primeiro dígito (1 a 3 para pessoas singulares).
+     * @param indice  Índice (0 a 9 999 999).
+     * @return O NIF.
+     */
+    private static int nif(int prefixo, int indice) {
+        int base = prefixo * AMPLITUDE_NIF + (int) (indice * BARALHO_NIF % AMPLITUDE_NIF);
+        // Dígito de controlo (módulo 11): pesos 9 a 2 sobre os 8 primeiros dígitos
+        int soma = 0;
+        int resto = base;
+        for (int peso = 2; peso <= 9; peso++) {
+            soma += (resto % 10) * peso;
+            resto /= 10;
+        }
+        int controlo = 11 - soma % 11;
+        return base * 10 + (controlo >= 10 ? 0 : controlo);
+    }
+
+    /**
+     * Gera um número de telemóvel de 9 dígitos (91, 92, 93 ou 96).
+     *
+     * @param aleatorio Gerador aleatório.
+     * @return O número.
+     */
+    private static int telemovel(SplittableRandom aleatorio) {
+        int[] prefixos = {91, 92, 93, 96};
+        return prefixos[aleatorio.nextInt(prefixos.length)] * 10_000_000 + aleatorio.nextInt(10_000_000);
+    }
+
+    /**
+     * Acrescenta um nome completo (nome próprio e dois apelidos).
+     *
+     * @param linha     Onde escrever.
+     * @param aleatorio Gerador aleatório.
+     * @return A mesma linha.
+     */
+    private static StringBuilder nome(StringBuilder linha, SplittableRandom aleatorio) {
+        return linha.append(NOMES[aleatorio.nextInt(NOMES.length)]).append(' ')
+                .append(APELIDOS[aleatorio.nextInt(APELIDOS.length)]).append(' ')
+                .append(APELIDOS[aleatorio.nextInt(APELIDOS.length)]);
+    }
+
+    /**
+     * Gera uma distância log-normal (mediana de cerca de 6 km, entre 0,5 e 80 km).
+     *
+     * @param aleatorio Gerador aleatório.
+     * @return A distância em centésimos de km.
+     */
+    private static long distancia(SplittableRandom aleatorio) {
+        double kms = Math.exp(1.8 + 0.7 * aleatorio.nextGaussian());
+        return Math.round(Math.max(0.5, Math.min(80.0, kms)) * 100);
+    }
+
+    /**
+     * Acrescenta um valor em centésimos com duas casas decimais e ponto como separador.
+     *
+     * @param linha      Onde escrever.
+     * @param centesimos O valor em centésimos.
+     * @return A mesma linha.
+     */
+    private static StringBuilder decimal(StringBuilder linha, long centesimos) {
+        long decimais = centesimos % 100;
+        return linha.append(centesimos / 100).append('.').append(decimais < 10 ? "0" : "").append(decimais);
+    }
+
+    /**
+     * Baralha os nomes dos destinos, para que o mais popular não seja sempre o mesmo.
+     *
+     * @param aleatorio Gerador aleatório.
+     * @return Nomes dos destinos por ordem de popularidade.
+     */
+    private String[] baralharDestinos(SplittableRandom aleatorio) {
+        String[] nomes = new String[destinos];
+        for (int i = 0; i < destinos; i++) {
+            String localidade = LOCALIDADES[i % LOCALIDADES.length];
+            nomes[i] = i < LOCALIDADES.length ? localidade : localidade + " " + (i / LOCALIDADES.length + 1);
+        }
+        for (int i = destinos - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            String troca = nomes[i];
+            nomes[i] = nomes[j];
+            nomes[j] = troca;
+        }
+        return nomes;
+    }
+
+    /**
+     * Calcula a distribuição acumulada de Zipf para um número de destinos.
+     *
+     * @param destinos Número de destinos.
+     * @return Probabilidade acumulada de cada posição (a última é 1).
+     */
+    private static double[] distribuicaoZipf(int destinos) {
+        double[] acumulada = new double[destinos];
+        double soma = 0;
+        for (int k = 0; k < destinos; k++) {
+            soma += 1.0 / Math.pow(k + 1, EXPOENTE_ZIPF);
+            acumulada[k] = soma;
+        }
+        for (int k = 0; k < destinos; k++) {
+            acumulada[k] /= soma;
+        }
+        return acumulada;
+    }
+
+    /**
+     * Sorteia uma posição segundo a distribuição de Zipf (pesquisa binária na acumulada).
+     *
+     * @param aleatorio Gerador aleatório.
+     * @param acumulada Distribuição acumulada.
+     * @return A posição sorteada.
+     */
+    private static int zipf(SplittableRandom aleatorio, double[] acumulada) {
+        double u = aleatorio.nextDouble();
+        int baixo = 0;
+        int alto = acumulada.length - 1;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (acumulada[meio] < u) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    /**
+     * Ponto de entrada do gerador.
+     *
+     * @param args Nome da empresa, número de viagens e opções (ver a descrição da classe).
+     * @throws IOException se não for possível escrever os ficheiros.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Utilização: java Desempenho.GeradorDados nomeEmpresa viagens [--semente n] "
+                    + "[--viaturas n] [--condutores n] [--clientes n] [--reservas n] [--destinos n] [--inicio aaaa-mm-dd]");
+            return;
+        }
+        long semente = 42;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--semente")) {
+                semente = Long.parseLong(args[i + 1]);
+            }
+        }
+        GeradorDados gerador = new GeradorDados(semente, Long.parseLong(args[1].replace("_", "")));
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1].replace("_", "");
+            switch (args[i]) {
+                case "--semente" -> { }
+                case "--viaturas" -> gerador.setViaturas(Integer.parseInt(valor));
+                case "--condutores" -> gerador.setCondutores(Integer.parseInt(valor));
+                case "--clientes" -> gerador.setClientes(Integer.parseInt(valor));
+                case "--reservas" -> gerador.setReservas(Integer.parseInt(valor));
+                case "--destinos" -> gerador.setDestinos(Integer.parseInt(valor));
+                case "--inicio" -> gerador.setInicio(LocalDate.parse(valor));
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        long inicio = System.nanoTime();
+        Path pasta = gerador.gerar(args[0]);
+        System.out.printf("Empresa '%s' gerada em %s (%.1f s): %d viaturas, %d condutores, %d clientes, "
+                        + "%d viagens, %d reservas.%n", args[0], pasta, (System.nanoTime() - inicio) / 1e9,
+                gerador.viaturas, gerador.condutores, gerador.clientes, gerador.viagens, gerador.reservas);
+    }
+}
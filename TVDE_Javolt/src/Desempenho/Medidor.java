@@ -0,0 +1,442 @@
+package Desempenho;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Mede o custo de uma operação, com aquecimento, várias iterações e perfis de GC e de alocação.
+ * <p>
+ * Segue o modelo do JMH sem depender dele: cada iteração repete a operação durante um tempo fixo
+ * e regista o tempo médio por operação; as iterações de aquecimento permitem ao JIT compilar o
+ * código antes da medição. Os resultados das operações são consumidos por {@link #consumir(Object)}
+ * para que o JIT não elimine chamadas cujo resultado não é usado.
+ * </p>
+ * <p>
+ * Por cada medição são também recolhidos:
+ * <ul>
+ *   <li>bytes alocados por operação (contador de alocação da thread, quando a JVM o suporta);</li>
+ *   <li>número de recolhas e tempo gasto pelo GC durante as iterações medidas.</li>
+ * </ul>
+ * Operações que alteram o estado ou são demasiado lentas para repetir (ex: gravar ficheiros)
+ * usam {@link #medirUnica}, que prepara o estado fora do tempo medido e executa a operação uma vez
+ * por iteração.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Medidor {
+
+    /**
+     * Acumulador dos resultados consumidos (impede a eliminação de código pelo JIT).
+     */
+    private static volatile int sumidouro;
+
+    /**
+     * Número de iterações de aquecimento.
+     */
+    private final int iteracoesAquecimento;
+
+    /**
+     * Número de iterações medidas.
+     */
+    private final int iteracoesMedidas;
+
+    /**
+     * Duração de cada iteração, em nanossegundos.
+     */
+    private final long duracaoIteracaoNs;
+
+    /**
+     * Cria um medidor.
+     *
+     * @param iteracoesAquecimento Número de iterações de aquecimento.
+     * @param iteracoesMedidas     Número de iterações medidas.
+     * @param duracaoIteracaoMs    Duração de cada iteração, em milissegundos.
+     * @throws IllegalArgumentException se algum valor não for válido.
+     */
+    public Medidor(int iteracoesAquecimento, int iteracoesMedidas, long duracaoIteracaoMs) {
+        if (iteracoesAquecimento < 0 || iteracoesMedidas <= 0 || duracaoIteracaoMs <= 0) {
+            throw new IllegalArgumentException("Configuração de medição inválida");
+        }
+        this.iteracoesAquecimento = iteracoesAquecimento;
+        this.iteracoesMedidas = iteracoesMedidas;
+        this.duracaoIteracaoNs = duracaoIteracaoMs * 1_000_000L;
+    }
+
+    /**
+     * Mede uma operação repetida durante cada iteração (tempo médio por operação).
+     *
+     * @param nome     Nome da medição.
+     * @param tamanho  Tamanho dos dados (ex: número de viagens).
+     * @param operacao Operação a medir; o resultado é consumido.
+     * @return O resultado da medição.
+     */
+    public Resultado medir(String nome, int tamanho, Operacao operacao) {
+        for (int i = 0; i < iteracoesAquecimento; i++) {
+            iteracao(operacao);
+        }
+        Perfil perfil = Perfil.iniciar();
+        double[] nsPorOperacao = new double[iteracoesMedidas];
+        long operacoes = 0;
+        for (int i = 0; i < iteracoesMedidas; i++) {
+            long[] medida = iteracao(operacao);
+            nsPorOperacao[i] = (double) medida[1] / medida[0];
+            operacoes += medida[0];
+        }
+        perfil.suspender();
+        return perfil.terminar(nome, tamanho, nsPorOperacao, operacoes);
+    }
+
+    /**
+     * Mede uma operação executada uma única vez por iteração, com preparação fora do tempo medido.
+     *
+     * @param nome       Nome da medição.
+     * @param tamanho    Tamanho dos dados.
+     * @param preparacao Prepara o estado antes de cada execução (não medido).
+     * @param operacao   Operação a medir.
+     * @return O resultado da medição.
+     */
+    public Resultado medirUnica(String nome, int tamanho, Runnable preparacao, Operacao operacao) {
+        return medirUnica(nome, tamanho, preparacao, operacao, 1);
+    }
+
+    /**
+     * Mede uma operação executada uma única vez por iteração, com preparação fora do tempo medido.
+     * Se cada execução fizer várias operações (ex: um lote de marcações), os tempos e a alocação
+     * são divididos por esse número.
+     *
+     * @param nome                 Nome da medição.
+     * @param tamanho              Tamanho dos dados.
+     * @param preparacao           Prepara o estado antes de cada execução (não medido).
+     * @param operacao             Operação a medir.
+     * @param operacoesPorExecucao Número de operações feitas em cada execução.
+     * @return O resultado da medição.
+     * @throws IllegalArgumentException se o número de operações não for positivo.
+     */
+    public Resultado medirUnica(String nome, int tamanho, Runnable preparacao, Operacao operacao,
+                                int operacoesPorExecucao) {
+        if (operacoesPorExecucao <= 0) {
+            throw new IllegalArgumentException("Número de operações inválido: " + operacoesPorExecucao);
+        }
+        for (int i = 0; i < iteracoesAquecimento; i++) {
+            preparacao.run();
+            consumir(operacao.executar());
+        }
+        double[] nsPorOperacao = new double[iteracoesMedidas];
+        Perfil perfil = new Perfil();
+        for (int i = 0; i < iteracoesMedidas; i++) {
+            preparacao.run();
+            perfil.retomar();
+            long inicio = System.nanoTime();
+            consumir(operacao.executar());
+            nsPorOperacao[i] = (double) (System.nanoTime() - inicio) / operacoesPorExecucao;
+            perfil.suspender();
+        }
+        return perfil.terminar(nome, tamanho, nsPorOperacao, (long) iteracoesMedidas * operacoesPorExecucao);
+    }
+
+    /**
+     * Consome o resultado de uma operação, para que o JIT não a possa eliminar.
+     *
+     * @param resultado O resultado (pode ser {@code null}).
+     */
+    public static void consumir(Object resultado) {
+        if (resultado != null) {
+            sumidouro += System.identityHashCode(resultado);
+        }
+    }
+
+    /**
+     * Executa uma iteração: repete a operação até esgotar o tempo da iteração.
+     *
+     * @param operacao A operação.
+     * @return Número de operações e tempo decorrido (ns).
+     */
+    private long[] iteracao(Operacao operacao) {
+        long operacoes = 0;
+        long inicio = System.nanoTime();
+        long decorrido;
+        do {
+            // Blocos de operações para que a leitura do relógio não domine operações muito rápidas
+            for (int i = 0; i < 16; i++) {
+                consumir(operacao.executar());
+            }
+            operacoes += 16;
+            decorrido = System.nanoTime() - inicio;
+        } while (decorrido < duracaoIteracaoNs);
+        return new long[]{operacoes, decorrido};
+    }
+
+    /**
+     * Operação a medir.
+     */
+    @FunctionalInterface
+    public interface Operacao {
+
+        /**
+         * Executa a operação uma vez.
+         *
+         * @return O resultado da operação (consumido pelo medidor), ou {@code null}.
+         */
+        Object executar();
+    }
+
+    /**
+     * Contadores de GC e de alocação recolhidos durante as iterações medidas.
+     */
+    private static final class Perfil {
+
+        /**
+         * Bytes alocados pela thread (acumulado das fases medidas).
+         */
+        private long bytes;
+
+        /**
+         * Número de recolhas do GC (acumulado das fases medidas).
+         */
+        private long recolhas;
+
+        /**
+         * Tempo gasto pelo GC em milissegundos (acumulado das fases medidas).
+         */
+        private long tempoGcMs;
+
+        /**
+         * Leituras no início da fase atual.
+         */
+        private long[] inicioFase;
+
+        /**
+         * Inicia o perfil.
+         *
+         * @return O perfil, já a contar.
+         */
+        private static Perfil iniciar() {
+            Perfil perfil = new Perfil();
+            perfil.retomar();
+            return perfil;
+        }
+
+        /**
+         * Começa uma nova fase medida.
+         */
+        private void retomar() {
+            inicioFase = ler();
+        }
+
+        /**
+         * Termina a fase medida atual.
+         */
+        private void suspender() {
+            long[] fim = ler();
+            bytes += fim[0] - inicioFase[0];
+            recolhas += fim[1] - inicioFase[1];
+            tempoGcMs += fim[2] - inicioFase[2];
+        }
+
+        /**
+         * Termina o perfil e junta-o aos tempos medidos.
+         *
+         * @param nome          Nome da medição.
+         * @param tamanho       Tamanho dos dados.
+         * @param nsPorOperacao Tempo por operação de cada iteração.
+         * @param operacoes     Número total de operações medidas.
+         * @return O resultado.
+         */
+        private Resultado terminar(String nome, int tamanho, double[] nsPorOperacao, long operacoes) {
+            long bytesPorOperacao = contadorAlocacao() != null ? bytes / Math.max(1, operacoes) : -1;
+            return new Resultado(nome, tamanho, nsPorOperacao, bytesPorOperacao, recolhas, tempoGcMs);
+        }
+
+        /**
+         * Lê os contadores atuais.
+         *
+         * @return Bytes alocados pela thread (0 se não suportado), recolhas e tempo de GC.
+         */
+        private static long[] ler() {
+            com.sun.management.ThreadMXBean contador = contadorAlocacao();
+            long alocados = contador != null ? contador.getCurrentThreadAllocatedBytes() : 0;
+            long recolhas = 0;
+            long tempo = 0;
+            List<GarbageCollectorMXBean> coletores = ManagementFactory.getGarbageCollectorMXBeans();
+            for (GarbageCollectorMXBean coletor : coletores) {
+                recolhas += Math.max(0, coletor.getCollectionCount());
+                tempo += Math.max(0, coletor.getCollectionTime());
+            }
+            return new long[]{alocados, recolhas, tempo};
+        }
+
+        /**
+         * Obtém o contador de alocação por thread da JVM (extensão HotSpot).
+         *
+         * @return O contador, ou {@code null} se a JVM não contabilizar a alocação por thread.
+         */
+        private static com.sun.management.ThreadMXBean contadorAlocacao() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+                return sun;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resultado de uma medição.
+     */
+    public static final class Resultado {
+
+        /**
+         * Nome da medição.
+         */
+        private final String nome;
+
+        /**
+         * Tamanho dos dados.
+         */
+        private final int tamanho;
+
+        /**
+         * Tempo médio por operação (ns).
+         */
+        private final double media;
+
+        /**
+         * Desvio padrão entre iterações (ns).
+         */
+        private final double desvio;
+
+        /**
+         * Bytes alocados por operação (negativo se não disponível).
+         */
+        private final long bytesPorOperacao;
+
+        /**
+         * Recolhas do GC durante a medição.
+         */
+        private final long recolhas;
+
+        /**
+         * Tempo de GC durante a medição (ms).
+         */
+        private final long tempoGcMs;
+
+        /**
+         * Cria um resultado.
+         *
+         * @param nome             Nome da medição.
+         * @param tamanho          Tamanho dos dados.
+         * @param nsPorOperacao    Tempo por operação de cada iteração.
+         * @param bytesPorOperacao Bytes alocados por operação.
+         * @param recolhas         Recolhas do GC.
+         * @param tempoGcMs        Tempo de GC (ms).
+         */
+        private Resultado(String nome, int tamanho, double[] nsPorOperacao, long bytesPorOperacao,
+                          long recolhas, long tempoGcMs) {
+            this.nome = nome;
+            this.tamanho = tamanho;
+            double soma = 0;
+            for (double valor : nsPorOperacao) {
+                soma += valor;
+            }
+            this.media = soma / nsPorOperacao.length;
+            double quadrados = 0;
+            for (double valor : nsPorOperacao) {
+                quadrados += (valor - media) * (valor - media);
+            }
+            this.desvio = nsPorOperacao.length > 1 ? Math.sqrt(quadrados / (nsPorOperacao.length - 1)) : 0.0;
+            this.bytesPorOperacao = bytesPorOperacao;
+            this.recolhas = recolhas;
+            this.tempoGcMs = tempoGcMs;
+        }
+
+        /**
+         * Obtém o nome da medição.
+         *
+         * @return O nome.
+         */
+        public String getNome() {
+            return nome;
+        }
+
+        /**
+         * Obtém o tamanho dos dados.
+         *
+         * @return O tamanho.
+         */
+        public int getTamanho() {
+            return tamanho;
+        }
+
+        /**
+         * Obtém o tempo médio por operação.
+         *
+         * @return Nanossegundos por operação.
+         */
+        public double getMedia() {
+            return media;
+        }
+
+        /**
+         * Obtém o desvio padrão entre iterações.
+         *
+         * @return Nanossegundos.
+         */
+        public double getDesvio() {
+            return desvio;
+        }
+
+        /**
+         * Obtém os bytes alocados por operação.
+         *
+         * @return Bytes, ou um valor negativo se a JVM não os contabilizar.
+         */
+        public long getBytesPorOperacao() {
+            return bytesPorOperacao;
+        }
+
+        /**
+         * Obtém o número de recolhas do GC durante a medição.
+         *
+         * @return Número de recolhas.
+         */
+        public long getRecolhas() {
+            return recolhas;
+        }
+
+        /**
+         * Obtém o tempo gasto pelo GC durante a medição.
+         *
+         * @return Milissegundos.
+         */
+        public long getTempoGcMs() {
+            return tempoGcMs;
+        }
+
+        /**
+         * Devolve o resultado numa linha CSV: nome;tamanho;ns/op;desvio;B/op;recolhas;gc ms.
+         *
+         * @return A linha CSV.
+         */
+        public String paraCsv() {
+            return String.format(Locale.ROOT, "%s;%d;%.1f;%.1f;%d;%d;%d",
+                    nome, tamanho, media, desvio, bytesPorOperacao, recolhas, tempoGcMs);
+        }
+
+        /**
+         * Devolve o resultado formatado para a consola.
+         *
+         * @return Linha com tempo, desvio, alocação e GC.
+         */
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-30s %10d %16.1f ± %-12.1f %12s %8d %8d",
+                    nome, tamanho, media, desvio, bytesPorOperacao < 0 ? "n/d" : String.valueOf(bytesPorOperacao),
+                    recolhas, tempoGcMs);
+        }
+    }
+}
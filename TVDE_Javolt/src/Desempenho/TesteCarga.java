@@ -0,0 +1,682 @@
+package Desempenho;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Entidades.Viatura;
+import Gestao.Empresa;
+import Gestao.Histograma;
+import Gestao.ModoMarcacao;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Teste de carga com tráfego misto sobre uma {@link Empresa}.
+ * <p>
+ * Lança N clientes virtuais (um por thread virtual) que, durante um tempo fixo, escolhem ao acaso
+ * uma operação segundo uma mistura configurável: marcações de viagens, criação de reservas,
+ * conversão das suas reservas em viagens, consultas de disponibilidade e relatórios. Os horários
+ * pedidos caem numa janela curta no futuro, para que os clientes disputem os mesmos condutores,
+ * viaturas e horários e haja recusas por sobreposição, como numa hora de ponta.
+ * </p>
+ * <p>
+ * A latência de cada operação é registada num {@link Histograma} por tipo. No fim são apresentados
+ * o débito e os percentis p50/p99/p99.9, seguidos da verificação dos invariantes:
+ * <ul>
+ *   <li>nenhum condutor nem viatura tem viagens sobrepostas;</li>
+ *   <li>nenhum cliente tem reservas pendentes sobrepostas;</li>
+ *   <li>o número de viagens é o inicial mais as marcações e conversões aceites;</li>
+ *   <li>nenhuma reserva convertida continua pendente;</li>
+ *   <li>as estatísticas (vistas materializadas) coincidem com o cálculo direto sobre o histórico.</li>
+ * </ul>
+ * Se houver violações, o processo termina com código 1.
+ * </p>
+ * <p>
+ * Os dados iniciais vêm do {@link GeradorDados} (mesma semente, mesmos dados). O alvo pode ser a
+ * empresa nesta JVM (por defeito), a API HTTP embutida ({@code --http}) ou uma API externa
+ * ({@code --url}), que deve servir uma empresa gerada com a mesma semente e tamanho; neste último
+ * caso os invariantes não são verificados. Durante o teste as mensagens da consola da empresa são
+ * suprimidas, para não medir a escrita no terminal.
+ * </p>
+ * <p>
+ * Utilização: {@code java Desempenho.TesteCarga [--clientes n] [--duracao segundos] [--viagens n]
+ * [--semente n] [--mix marcacao=30,reserva=20,conversao=10,disponibilidade=25,relatorio=15]
+ * [--dias n] [--pausa ms] [--otimista] [--http | --url endereco]}
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class TesteCarga {
+
+    /**
+     * Número máximo de violações de cada invariante mostradas no relatório.
+     */
+    private static final int MAXIMO_VIOLACOES_MOSTRADAS = 10;
+
+    /**
+     * Granularidade dos horários pedidos, em minutos.
+     */
+    private static final int GRANULARIDADE_MINUTOS = 5;
+
+    /**
+     * Moradas usadas nas operações geradas.
+     */
+    private static final String[] MORADAS = {"Porto", "Lisboa", "Braga", "Gaia", "Maia", "Aeroporto"};
+
+    /**
+     * Tipos de operação do teste.
+     */
+    private enum Operacao {
+        /** Marcação direta de uma viagem. */
+        MARCACAO("marcacao"),
+        /** Criação de uma reserva. */
+        RESERVA("reserva"),
+        /** Conversão de uma reserva do próprio cliente virtual. */
+        CONVERSAO("conversao"),
+        /** Consulta de condutores, viaturas ou clientes disponíveis. */
+        DISPONIBILIDADE("disponibilidade"),
+        /** Um dos relatórios de estatísticas. */
+        RELATORIO("relatorio");
+
+        /**
+         * Nome usado na linha de comandos e no relatório.
+         */
+        private final String nome;
+
+        /**
+         * Cria o tipo.
+         *
+         * @param nome Nome usado na linha de comandos.
+         */
+        Operacao(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    /**
+     * Número de clientes virtuais.
+     */
+    private int clientesVirtuais = 256;
+
+    /**
+     * Duração do teste, em segundos.
+     */
+    private int duracaoSegundos = 10;
+
+    /**
+     * Número de viagens iniciais.
+     */
+    private int viagensIniciais = 10_000;
+
+    /**
+     * Semente dos dados e dos clientes virtuais.
+     */
+    private long semente = 42;
+
+    /**
+     * Peso de cada operação na mistura.
+     */
+    private final int[] pesos = {30, 20, 10, 25, 15};
+
+    /**
+     * Número de dias da janela de horários disputados.
+     */
+    private int dias = 2;
+
+    /**
+     * Pausa entre operações de cada cliente virtual, em milissegundos.
+     */
+    private int pausaMs;
+
+    /**
+     * Se a marcação usa o modo otimista.
+     */
+    private boolean otimista;
+
+    /**
+     * Se o alvo é a API HTTP embutida.
+     */
+    private boolean http;
+
+    /**
+     * Endereço de uma API externa, ou {@code null}.
+     */
+    private String url;
+
+    /**
+     * Latências de cada tipo de operação (ns).
+     */
+    private final Histograma[] latencias = new Histograma[Operacao.values().length];
+
+    /**
+     * Operações aceites, por tipo.
+     */
+    private final LongAdder[] aceites = new LongAdder[Operacao.values().length];
+
+    /**
+     * Operações recusadas (regra de negócio), por tipo.
+     */
+    private final LongAdder[] recusadas = new LongAdder[Operacao.values().length];
+
+    /**
+     * Operações com erro inesperado, por tipo.
+     */
+    private final LongAdder[] erros = new LongAdder[Operacao.values().length];
+
+    /**
+     * Primeiros erros inesperados (para diagnóstico).
+     */
+    private final ConcurrentLinkedQueue<String> mensagensErro = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Reservas convertidas com sucesso (NIF e data/hora).
+     */
+    private final ConcurrentLinkedQueue<String> convertidas = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Construtor privado: a configuração é lida da linha de comandos.
+     */
+    private TesteCarga() {
+        for (int i = 0; i < latencias.length; i++) {
+            latencias[i] = new Histograma();
+            aceites[i] = new LongAdder();
+            recusadas[i] = new LongAdder();
+            erros[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Ponto de entrada do teste de carga.
+     *
+     * @param args Opções (ver a descrição da classe).
+     * @throws IOException          se não for possível gerar os dados iniciais.
+     * @throws InterruptedException se a thread principal for interrompida.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        TesteCarga teste = new TesteCarga();
+        teste.configurar(args);
+        int violacoes = teste.executar();
+        if (violacoes > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lê as opções da linha de comandos.
+     *
+     * @param args As opções.
+     * @throws IllegalArgumentException se alguma opção for desconhecida ou inválida.
+     */
+    private void configurar(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--clientes" -> clientesVirtuais = Integer.parseInt(args[++i]);
+                case "--duracao" -> duracaoSegundos = Integer.parseInt(args[++i]);
+                case "--viagens" -> viagensIniciais = Integer.parseInt(args[++i].replace("_", ""));
+                case "--semente" -> semente = Long.parseLong(args[++i]);
+                case "--mix" -> lerMistura(args[++i]);
+                case "--dias" -> dias = Integer.parseInt(args[++i]);
+                case "--pausa" -> pausaMs = Integer.parseInt(args[++i]);
+                case "--otimista" -> otimista = true;
+                case "--http" -> http = true;
+                case "--url" -> url = args[++i];
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (clientesVirtuais <= 0 || duracaoSegundos <= 0 || dias <= 0 || pausaMs < 0) {
+            throw new IllegalArgumentException("Configuração inválida");
+        }
+    }
+
+    /**
+     * Lê a mistura de operações (ex: {@code marcacao=30,reserva=20}); as omitidas ficam com peso 0.
+     *
+     * @param texto A mistura.
+     * @throws IllegalArgumentException se a mistura for inválida.
+     */
+    private void lerMistura(String texto) {
+        Arrays.fill(pesos, 0);
+        for (String parte : texto.split(",")) {
+            String[] chaveValor = parte.trim().split("=");
+            Operacao operacao = null;
+            for (Operacao candidata : Operacao.values()) {
+                if (candidata.nome.equalsIgnoreCase(chaveValor[0].trim())) {
+                    operacao = candidata;
+                }
+            }
+            if (operacao == null || chaveValor.length != 2) {
+                throw new IllegalArgumentException("Mistura inválida: " + parte);
+            }
+            pesos[operacao.ordinal()] = Integer.parseInt(chaveValor[1].trim());
+        }
+        if (Arrays.stream(pesos).sum() <= 0 || Arrays.stream(pesos).anyMatch(p -> p < 0)) {
+            throw new IllegalArgumentException("A mistura tem de ter pesos positivos: " + texto);
+        }
+    }
+
+    /**
+     * Prepara os dados, executa o teste e apresenta o relatório.
+     *
+     * @return Número de violações de invariantes encontradas.
+     * @throws IOException          se não for possível gerar os dados iniciais.
+     * @throws InterruptedException se a thread principal for interrompida.
+     */
+    private int executar() throws IOException, InterruptedException {
+        Empresa empresa = prepararEmpresa();
+        empresa.setModoMarcacao(otimista ? ModoMarcacao.OTIMISTA : ModoMarcacao.BLOQUEIO);
+        Dados dados = new Dados(empresa, dias);
+        int viagensAntes = empresa.getViagens().size();
+
+        System.out.printf("Teste de carga: %d clientes virtuais, %d s, %d viagens iniciais, alvo %s, mistura %s%n",
+                clientesVirtuais, duracaoSegundos, viagensAntes,
+                url != null ? url : (http ? "API HTTP embutida" : "empresa local"), descreverMistura());
+
+        long decorrido;
+        PrintStream consola = System.out;
+        try (AlvoCarga alvo = url != null ? new AlvoHttp(url) : (http ? AlvoHttp.embutido(empresa) : new AlvoLocal(empresa))) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            decorrido = correr(alvo, dados);
+        } finally {
+            System.setOut(consola);
+        }
+
+        imprimirLatencias(decorrido);
+        return url != null ? 0 : verificarInvariantes(empresa, viagensAntes);
+    }
+
+    /**
+     * Gera a empresa inicial com o {@link GeradorDados} e carrega-a (a pasta é apagada no fim).
+     *
+     * @return A empresa carregada.
+     * @throws IOException se não for possível gerar os ficheiros.
+     */
+    private Empresa prepararEmpresa() throws IOException {
+        String nome = "Carga_" + viagensIniciais + "_" + semente;
+        new GeradorDados(semente, viagensIniciais).gerar(nome);
+        Empresa empresa = new Empresa(nome, Integer.MAX_VALUE);
+        PrintStream consola = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            empresa.carregarDados();
+        } finally {
+            System.setOut(consola);
+            File pasta = new File(empresa.getCaminhoPastaEmpresa());
+            File[] ficheiros = pasta.listFiles();
+            if (ficheiros != null) {
+                for (File ficheiro : ficheiros) {
+                    ficheiro.delete();
+                }
+            }
+            pasta.delete();
+        }
+        return empresa;
+    }
+
+    /**
+     * Lança os clientes virtuais e espera que terminem.
+     *
+     * @param alvo  O alvo das operações.
+     * @param dados Identificadores e janela de horários.
+     * @return Duração efetiva do teste (ns).
+     * @throws InterruptedException se a thread principal for interrompida.
+     */
+    private long correr(AlvoCarga alvo, Dados dados) throws InterruptedException {
+        SplittableRandom raiz = new SplittableRandom(semente);
+        CountDownLatch partida = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(clientesVirtuais);
+        long[] prazo = new long[1];
+        for (int i = 0; i < clientesVirtuais; i++) {
+            SplittableRandom aleatorio = raiz.split();
+            threads.add(Thread.ofVirtual().name("carga-" + i).start(() -> {
+                try {
+                    partida.await();
+                    clienteVirtual(alvo, dados, aleatorio, prazo[0]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        long inicio = System.nanoTime();
+        prazo[0] = inicio + duracaoSegundos * 1_000_000_000L;
+        partida.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    /**
+     * Ciclo de um cliente virtual: escolhe e executa operações até ao fim do teste.
+     *
+     * @param alvo      O alvo das operações.
+     * @param dados     Identificadores e janela de horários.
+     * @param aleatorio Gerador próprio do cliente virtual.
+     * @param prazo     Instante ({@link System#nanoTime()}) em que o teste termina.
+     * @throws InterruptedException se a thread for interrompida durante a pausa.
+     */
+    private void clienteVirtual(AlvoCarga alvo, Dados dados, SplittableRandom aleatorio, long prazo)
+            throws InterruptedException {
+        int somaPesos = Arrays.stream(pesos).sum();
+        ArrayList<Object[]> minhasReservas = new ArrayList<>();
+        while (System.nanoTime() < prazo) {
+            Operacao operacao = sortear(aleatorio, somaPesos);
+            if (operacao == Operacao.CONVERSAO && minhasReservas.isEmpty()) {
+                operacao = Operacao.RESERVA;
+            }
+            LocalDateTime inicio = dados.horario(aleatorio);
+            LocalDateTime fim = inicio.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS);
+            int condutor = dados.idsCondutores[aleatorio.nextInt(dados.idsCondutores.length)];
+            String matricula = dados.matriculas[aleatorio.nextInt(dados.matriculas.length)];
+            int nif = dados.nifsClientes[aleatorio.nextInt(dados.nifsClientes.length)];
+            double kms = 1 + aleatorio.nextInt(300) / 10.0;
+            String origem = MORADAS[aleatorio.nextInt(MORADAS.length)];
+            String destino = MORADAS[aleatorio.nextInt(MORADAS.length)];
+
+            long t0 = System.nanoTime();
+            boolean aceite;
+            try {
+                aceite = switch (operacao) {
+                    case MARCACAO -> alvo.marcarViagem(condutor, nif, matricula, inicio, fim, origem, destino,
+                            kms, kms * 1.2);
+                    case RESERVA -> {
+                        boolean criada = alvo.reservar(nif, inicio, origem, destino, kms);
+                        if (criada) {
+                            minhasReservas.add(new Object[]{nif, inicio});
+                        }
+                        yield criada;
+                    }
+                    case CONVERSAO -> {
+                        Object[] reserva = minhasReservas.remove(aleatorio.nextInt(minhasReservas.size()));
+                        boolean convertida = alvo.converter((Integer) reserva[0], (LocalDateTime) reserva[1],
+                                condutor, matricula, kms * 1.2);
+                        if (convertida) {
+                            convertidas.add(reserva[0] + "@" + reserva[1]);
+                        }
+                        yield convertida;
+                    }
+                    case DISPONIBILIDADE -> alvo.consultarDisponibilidade(aleatorio.nextInt(3), inicio, fim);
+                    case RELATORIO -> alvo.consultarRelatorio(aleatorio.nextInt(7), condutor, nif, matricula,
+                            dados.inicioHistorico, inicio);
+                };
+            } catch (RuntimeException e) {
+                latencias[operacao.ordinal()].registar(System.nanoTime() - t0);
+                erros[operacao.ordinal()].increment();
+                if (mensagensErro.size() < MAXIMO_VIOLACOES_MOSTRADAS) {
+                    mensagensErro.add(operacao.nome + ": " + e);
+                }
+                continue;
+            }
+            latencias[operacao.ordinal()].registar(System.nanoTime() - t0);
+            (aceite ? aceites : recusadas)[operacao.ordinal()].increment();
+            if (pausaMs > 0) {
+                Thread.sleep(pausaMs);
+            }
+        }
+    }
+
+    /**
+     * Sorteia uma operação segundo os pesos da mistura.
+     *
+     * @param aleatorio Gerador aleatório.
+     * @param somaPesos Soma dos pesos.
+     * @return A operação.
+     */
+    private Operacao sortear(SplittableRandom aleatorio, int somaPesos) {
+        int valor = aleatorio.nextInt(somaPesos);
+        for (Operacao operacao : Operacao.values()) {
+            valor -= pesos[operacao.ordinal()];
+            if (valor < 0) {
+                return operacao;
+            }
+        }
+        return Operacao.RELATORIO;
+    }
+
+    /**
+     * Apresenta o débito e as latências de cada tipo de operação.
+     *
+     * @param decorrido Duração efetiva do teste (ns).
+     */
+    private void imprimirLatencias(long decorrido) {
+        double segundos = decorrido / 1e9;
+        System.out.printf("%-16s %10s %10s %10s %8s %12s %10s %10s %10s %10s%n", "Operação", "total", "aceites",
+                "recusadas", "erros", "ops/s", "p50 µs", "p99 µs", "p99.9 µs", "máx µs");
+        long total = 0;
+        for (Operacao operacao : Operacao.values()) {
+            Histograma histograma = latencias[operacao.ordinal()];
+            long contagem = histograma.getContagem();
+            total += contagem;
+            if (contagem == 0) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-16s %10d %10d %10d %8d %12.0f %10.1f %10.1f %10.1f %10.1f%n",
+                    operacao.nome, contagem, aceites[operacao.ordinal()].sum(), recusadas[operacao.ordinal()].sum(),
+                    erros[operacao.ordinal()].sum(), contagem / segundos, histograma.percentil(50) / 1e3,
+                    histograma.percentil(99) / 1e3, histograma.percentil(99.9) / 1e3, histograma.getMaximo() / 1e3);
+        }
+        System.out.printf(Locale.ROOT, "Total: %d operações em %.1f s (%.0f ops/s)%n", total, segundos, total / segundos);
+        for (String mensagem : mensagensErro) {
+            System.out.println(">> Erro: " + mensagem);
+        }
+    }
+
+    /**
+     * Verifica os invariantes da empresa depois do teste.
+     *
+     * @param empresa      A empresa.
+     * @param viagensAntes Número de viagens antes do teste.
+     * @return Número total de violações.
+     */
+    private int verificarInvariantes(Empresa empresa, int viagensAntes) {
+        List<String> violacoes = new ArrayList<>();
+        List<Viagem> viagens = empresa.getViagens();
+        List<Reserva> reservas = empresa.getReservas();
+
+        verificarSobreposicoes(viagens, viagem -> "condutor " + viagem.getCondutor().getNumeroIdentificacao(),
+                violacoes);
+        verificarSobreposicoes(viagens, viagem -> "viatura " + viagem.getViatura().getMatricula(), violacoes);
+
+        ArrayList<Reserva> porCliente = new ArrayList<>(reservas);
+        porCliente.sort(Comparator.comparingInt((Reserva reserva) -> reserva.getCliente().getNif())
+                .thenComparing(Reserva::getDataHoraInicio));
+        for (int i = 1; i < porCliente.size(); i++) {
+            Reserva anterior = porCliente.get(i - 1);
+            Reserva atual = porCliente.get(i);
+            if (anterior.getCliente().getNif() == atual.getCliente().getNif()
+                    && anterior.getDataHoraInicio().plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS)
+                    .isAfter(atual.getDataHoraInicio())) {
+                violacoes.add("Reservas sobrepostas do cliente " + atual.getCliente().getNif() + " às "
+                        + anterior.getDataHoraInicio() + " e " + atual.getDataHoraInicio());
+            }
+        }
+
+        long esperadas = viagensAntes + aceites[Operacao.MARCACAO.ordinal()].sum()
+                + aceites[Operacao.CONVERSAO.ordinal()].sum();
+        if (viagens.size() != esperadas) {
+            violacoes.add("Número de viagens: " + viagens.size() + " (esperado " + esperadas + ")");
+        }
+
+        HashSet<String> pendentes = new HashSet<>();
+        for (Reserva reserva : reservas) {
+            pendentes.add(reserva.getCliente().getNif() + "@" + reserva.getDataHoraInicio());
+        }
+        for (String convertida : convertidas) {
+            if (pendentes.contains(convertida)) {
+                violacoes.add("Reserva convertida continua pendente: " + convertida);
+            }
+        }
+
+        verificarEstatisticas(empresa, viagens, violacoes);
+
+        System.out.println("Invariantes: " + (violacoes.isEmpty() ? "todos respeitados."
+                : violacoes.size() + " violação(ões)."));
+        for (int i = 0; i < Math.min(violacoes.size(), MAXIMO_VIOLACOES_MOSTRADAS); i++) {
+            System.out.println(">> " + violacoes.get(i));
+        }
+        return violacoes.size();
+    }
+
+    /**
+     * Procura viagens sobrepostas do mesmo recurso (condutor ou viatura).
+     *
+     * @param viagens   As viagens.
+     * @param recurso   Identificação do recurso de cada viagem.
+     * @param violacoes Lista onde são acrescentadas as violações.
+     */
+    private static void verificarSobreposicoes(List<Viagem> viagens, Function<Viagem, String> recurso,
+                                               List<String> violacoes) {
+        ArrayList<Viagem> ordenadas = new ArrayList<>(viagens);
+        ordenadas.sort(Comparator.comparing(recurso).thenComparing(Viagem::getDataHoraInicio));
+        for (int i = 1; i < ordenadas.size(); i++) {
+            Viagem anterior = ordenadas.get(i - 1);
+            Viagem atual = ordenadas.get(i);
+            String recursoAtual = recurso.apply(atual);
+            if (recursoAtual.equals(recurso.apply(anterior))
+                    && anterior.getDataHoraFim().isAfter(atual.getDataHoraInicio())) {
+                violacoes.add("Dupla marcação do " + recursoAtual + ": " + anterior.getDataHoraInicio()
+                        + "-" + anterior.getDataHoraFim() + " e " + atual.getDataHoraInicio()
+                        + "-" + atual.getDataHoraFim());
+            }
+        }
+    }
+
+    /**
+     * Compara as estatísticas servidas pelas vistas com o cálculo direto sobre o histórico.
+     *
+     * @param empresa   A empresa.
+     * @param viagens   O histórico.
+     * @param violacoes Lista onde são acrescentadas as violações.
+     */
+    private static void verificarEstatisticas(Empresa empresa, List<Viagem> viagens, List<String> violacoes) {
+        HashMap<Integer, Double> faturacao = new HashMap<>();
+        double kms = 0;
+        for (Viagem viagem : viagens) {
+            faturacao.merge(viagem.getCondutor().getNumeroIdentificacao(), viagem.getCusto(), Double::sum);
+            kms += viagem.getKms();
+        }
+        for (Condutor condutor : empresa.getCondutores()) {
+            int id = condutor.getNumeroIdentificacao();
+            double esperada = faturacao.getOrDefault(id, 0.0);
+            double obtida = empresa.calcularFaturacaoCondutor(id, LocalDateTime.MIN, LocalDateTime.MAX);
+            if (Math.abs(esperada - obtida) > 1e-6 * Math.max(1, esperada)) {
+                violacoes.add("Faturação do condutor " + id + ": " + obtida + " (esperado " + esperada + ")");
+            }
+        }
+        double mediaEsperada = viagens.isEmpty() ? 0 : kms / viagens.size();
+        double mediaObtida = empresa.calcularDistanciaMedia(LocalDateTime.MIN, LocalDateTime.MAX);
+        if (Math.abs(mediaEsperada - mediaObtida) > 1e-6 * Math.max(1, mediaEsperada)) {
+            violacoes.add("Distância média: " + mediaObtida + " (esperado " + mediaEsperada + ")");
+        }
+    }
+
+    /**
+     * Descreve a mistura de operações.
+     *
+     * @return Texto (ex: "marcacao=30,reserva=20,...").
+     */
+    private String descreverMistura() {
+        StringBuilder texto = new StringBuilder();
+        for (Operacao operacao : Operacao.values()) {
+            if (texto.length() > 0) {
+                texto.append(',');
+            }
+            texto.append(operacao.nome).append('=').append(pesos[operacao.ordinal()]);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Identificadores das entidades da empresa e janela de horários disputados.
+     */
+    private static final class Dados {
+
+        /**
+         * Números de identificação dos condutores.
+         */
+        private final int[] idsCondutores;
+
+        /**
+         * Matrículas das viaturas.
+         */
+        private final String[] matriculas;
+
+        /**
+         * NIFs dos clientes.
+         */
+        private final int[] nifsClientes;
+
+        /**
+         * Início do histórico (para os relatórios).
+         */
+        private final LocalDateTime inicioHistorico;
+
+        /**
+         * Início da janela de horários (depois das viagens e reservas iniciais, e no futuro).
+         */
+        private final LocalDateTime inicioJanela;
+
+        /**
+         * Número de horários possíveis na janela.
+         */
+        private final int horarios;
+
+        /**
+         * Recolhe os identificadores e calcula a janela.
+         *
+         * @param empresa A empresa.
+         * @param dias    Duração da janela, em dias.
+         */
+        private Dados(Empresa empresa, int dias) {
+            List<Condutor> condutores = empresa.getCondutores();
+            List<Viatura> viaturas = empresa.getViaturas();
+            List<Cliente> clientes = empresa.getClientes();
+            this.idsCondutores = condutores.stream().mapToInt(Condutor::getNumeroIdentificacao).toArray();
+            this.matriculas = viaturas.stream().map(Viatura::getMatricula).toArray(String[]::new);
+            this.nifsClientes = clientes.stream().mapToInt(Cliente::getNif).toArray();
+
+            LocalDateTime primeira = LocalDateTime.MAX;
+            LocalDateTime ultima = LocalDateTime.now();
+            for (Viagem viagem : empresa.getViagens()) {
+                primeira = viagem.getDataHoraInicio().isBefore(primeira) ? viagem.getDataHoraInicio() : primeira;
+                ultima = viagem.getDataHoraFim().isAfter(ultima) ? viagem.getDataHoraFim() : ultima;
+            }
+            for (Reserva reserva : empresa.getReservas()) {
+                LocalDateTime fim = reserva.getDataHoraInicio().plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS);
+                ultima = fim.isAfter(ultima) ? fim : ultima;
+            }
+            this.inicioHistorico = primeira.equals(LocalDateTime.MAX) ? ultima : primeira;
+            this.inicioJanela = ultima.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            this.horarios = dias * 24 * 60 / GRANULARIDADE_MINUTOS;
+        }
+
+        /**
+         * Sorteia um horário de início dentro da janela.
+         *
+         * @param aleatorio Gerador aleatório.
+         * @return A data/hora.
+         */
+        private LocalDateTime horario(SplittableRandom aleatorio) {
+            return inicioJanela.plusMinutes((long) aleatorio.nextInt(horarios) * GRANULARIDADE_MINUTOS);
+        }
+    }
+}
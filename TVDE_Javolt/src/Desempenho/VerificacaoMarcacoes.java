@@ -0,0 +1,496 @@
+package Desempenho;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Viagem;
+import Entidades.Viatura;
+import Gestao.Agenda;
+import Gestao.Empresa;
+import Gestao.ModoMarcacao;
+import Gestao.ResultadoLote;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Verificação da correção da {@link Agenda} e das marcações concorrentes da {@link Empresa}.
+ * <p>
+ * A primeira parte aplica sequências aleatórias de marcações e desmarcações a uma Agenda e,
+ * depois de cada passo, compara todas as consultas (sobreposição, viagens sobrepostas, viagens
+ * iniciadas num intervalo, tamanho, fim mais tardio e última viagem) com uma lista simples
+ * percorrida por inteiro. Os inícios caem numa janela curta, para haver muitos empates e
+ * desmarcações de viagens com a mesma hora de início.
+ * </p>
+ * <p>
+ * A segunda parte, para cada {@link ModoMarcacao}, lança várias threads que disputam poucos
+ * condutores, viaturas e clientes com viagens que se sobrepõem, tanto uma a uma como em lotes
+ * (parciais e "tudo ou nada"). No fim verifica que:
+ * <ul>
+ *   <li>nenhum condutor nem viatura ficou com viagens sobrepostas;</li>
+ *   <li>o histórico tem exatamente as viagens aceites;</li>
+ *   <li>as agendas coincidem com o histórico: cada viagem ocupa o seu recurso e os intervalos
+ *       livres entre viagens continuam livres.</li>
+ * </ul>
+ * Se houver falhas, o processo termina com código 1.
+ * </p>
+ * <p>
+ * Utilização: {@code java Desempenho.VerificacaoMarcacoes [rondas] [threads] [semente]}
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class VerificacaoMarcacoes {
+
+    /**
+     * Número de operações aplicadas à Agenda em cada ronda aleatória.
+     */
+    private static final int OPERACOES_POR_RONDA = 400;
+
+    /**
+     * Largura, em minutos, da janela onde caem os inícios das viagens da parte aleatória.
+     */
+    private static final int JANELA_MINUTOS = 240;
+
+    /**
+     * Número de condutores, viaturas e clientes disputados na parte concorrente.
+     */
+    private static final int RECURSOS = 4;
+
+    /**
+     * Operações feitas por cada thread na parte concorrente.
+     */
+    private static final int OPERACOES_POR_THREAD = 300;
+
+    /**
+     * Número máximo de falhas mostradas no relatório.
+     */
+    private static final int MAXIMO_FALHAS_MOSTRADAS = 20;
+
+    /**
+     * Data/hora de referência das viagens geradas.
+     */
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 8, 0);
+
+    /**
+     * Ponto de entrada da verificação.
+     *
+     * @param args Argumentos opcionais: rondas aleatórias, threads e semente.
+     * @throws InterruptedException Se a thread principal for interrompida.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int rondas = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        long semente = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        List<String> falhas = new ArrayList<>();
+        for (int r = 0; r < rondas; r++) {
+            verificarAgenda(new SplittableRandom(semente + r), falhas);
+        }
+        System.out.println("Agenda: " + rondas + " rondas x " + OPERACOES_POR_RONDA + " operações");
+
+        for (ModoMarcacao modo : ModoMarcacao.values()) {
+            verificarMarcacoes(modo, threads, semente, falhas);
+        }
+
+        System.out.println("Verificação: " + (falhas.isEmpty() ? "sem falhas." : falhas.size() + " falha(s)."));
+        for (int i = 0; i < Math.min(falhas.size(), MAXIMO_FALHAS_MOSTRADAS); i++) {
+            System.out.println(">> " + falhas.get(i));
+        }
+        if (!falhas.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Aplica uma sequência aleatória de marcações e desmarcações a uma Agenda, comparando-a
+     * depois de cada passo com uma lista ordenada pela data/hora de início (empates pela ordem de marcação).
+     *
+     * @param aleatorio Gerador aleatório da ronda.
+     * @param falhas    Lista onde são acrescentadas as falhas.
+     */
+    private static void verificarAgenda(SplittableRandom aleatorio, List<String> falhas) {
+        Condutor condutor = new Condutor(1, "Condutor", 200000000, 930000000, "Porto", 10000000, "C-1", 10000);
+        Cliente cliente = new Cliente("Cliente", 100000000, 910000000, "Porto", 10000001);
+        Viatura viatura = new Viatura("00-00-AA", "Marca", "Modelo", 2022);
+
+        Agenda agenda = Agenda.VAZIA;
+        ArrayList<Viagem> oraculo = new ArrayList<>();
+        for (int passo = 0; passo < OPERACOES_POR_RONDA; passo++) {
+            int escolha = aleatorio.nextInt(10);
+            if (escolha < 5 || oraculo.isEmpty()) {
+                Viagem viagem = gerarViagem(aleatorio, condutor, cliente, viatura);
+                agenda = agenda.comViagem(viagem);
+                inserirOrdenada(oraculo, viagem);
+            } else if (escolha < 6) {
+                // Lote ordenado: numa agenda vazia a árvore é construída de uma só vez
+                ArrayList<Viagem> lote = new ArrayList<>();
+                for (int i = aleatorio.nextInt(1, 16); i > 0; i--) {
+                    inserirOrdenada(lote, gerarViagem(aleatorio, condutor, cliente, viatura));
+                }
+                if (aleatorio.nextBoolean()) {
+                    agenda = Agenda.VAZIA;
+                    oraculo.clear();
+                }
+                agenda = agenda.comViagens(lote);
+                for (Viagem viagem : lote) {
+                    inserirOrdenada(oraculo, viagem);
+                }
+            } else if (escolha < 9) {
+                Viagem viagem = oraculo.get(aleatorio.nextInt(oraculo.size()));
+                agenda = agenda.semViagem(viagem);
+                oraculo.remove(indicePorIdentidade(oraculo, viagem));
+            } else {
+                // Desmarcar uma viagem que não está na agenda não a altera
+                Agenda antes = agenda;
+                agenda = agenda.semViagem(gerarViagem(aleatorio, condutor, cliente, viatura));
+                if (agenda != antes) {
+                    falhas.add("semViagem de uma viagem ausente devolveu outra agenda");
+                }
+            }
+            compararAgenda(agenda, oraculo, aleatorio, falhas);
+        }
+    }
+
+    /**
+     * Gera uma viagem com início na janela aleatória, em múltiplos de 5 minutos, para provocar empates.
+     *
+     * @param aleatorio Gerador aleatório.
+     * @param condutor  Condutor da viagem.
+     * @param cliente   Cliente da viagem.
+     * @param viatura   Viatura da viagem.
+     * @return A viagem gerada.
+     */
+    private static Viagem gerarViagem(SplittableRandom aleatorio, Condutor condutor, Cliente cliente,
+                                      Viatura viatura) {
+        LocalDateTime inicio = BASE.plusMinutes(5L * aleatorio.nextInt(JANELA_MINUTOS / 5));
+        LocalDateTime fim = inicio.plusMinutes(aleatorio.nextInt(1, 90));
+        return new Viagem(condutor, cliente, viatura, inicio, fim, "Origem", "Destino", 1.0, 1.0);
+    }
+
+    /**
+     * Insere uma viagem depois de todas as que começam à mesma hora ou antes.
+     *
+     * @param lista  Lista ordenada pela data/hora de início.
+     * @param viagem A viagem a inserir.
+     */
+    private static void inserirOrdenada(List<Viagem> lista, Viagem viagem) {
+        int i = lista.size();
+        while (i > 0 && lista.get(i - 1).getDataHoraInicio().isAfter(viagem.getDataHoraInicio())) {
+            i--;
+        }
+        lista.add(i, viagem);
+    }
+
+    /**
+     * Procura a posição de uma viagem na lista, por identidade.
+     *
+     * @param lista  A lista.
+     * @param viagem A viagem.
+     * @return A posição, ou -1 se não existir.
+     */
+    private static int indicePorIdentidade(List<Viagem> lista, Viagem viagem) {
+        for (int i = 0; i < lista.size(); i++) {
+            if (lista.get(i) == viagem) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compara as consultas da Agenda com o cálculo direto sobre a lista, para um intervalo aleatório.
+     *
+     * @param agenda    A agenda.
+     * @param oraculo   As mesmas viagens, ordenadas.
+     * @param aleatorio Gerador aleatório.
+     * @param falhas    Lista onde são acrescentadas as falhas.
+     */
+    private static void compararAgenda(Agenda agenda, List<Viagem> oraculo, SplittableRandom aleatorio,
+                                       List<String> falhas) {
+        LocalDateTime inicio = BASE.plusMinutes(aleatorio.nextInt(-60, JANELA_MINUTOS + 60));
+        LocalDateTime fim = inicio.plusMinutes(aleatorio.nextInt(0, 120));
+
+        ArrayList<Viagem> sobrepostas = new ArrayList<>();
+        ArrayList<Viagem> iniciadas = new ArrayList<>();
+        LocalDateTime fimMaximo = null;
+        for (Viagem viagem : oraculo) {
+            if (viagem.getDataHoraInicio().isBefore(fim) && viagem.getDataHoraFim().isAfter(inicio)) {
+                sobrepostas.add(viagem);
+            }
+            if (!viagem.getDataHoraInicio().isBefore(inicio) && !viagem.getDataHoraInicio().isAfter(fim)) {
+                iniciadas.add(viagem);
+            }
+            if (fimMaximo == null || viagem.getDataHoraFim().isAfter(fimMaximo)) {
+                fimMaximo = viagem.getDataHoraFim();
+            }
+        }
+
+        String intervalo = " em [" + inicio + ", " + fim + "]";
+        if (agenda.tamanho() != oraculo.size() || agenda.isVazia() != oraculo.isEmpty()) {
+            falhas.add("Tamanho " + agenda.tamanho() + " (esperado " + oraculo.size() + ")");
+        }
+        if (agenda.temSobreposicao(inicio, fim) != !sobrepostas.isEmpty()) {
+            falhas.add("temSobreposicao devolveu " + !sobrepostas.isEmpty() + intervalo);
+        }
+        if (!mesmasViagens(agenda.sobrepostas(inicio, fim), sobrepostas)) {
+            falhas.add("sobrepostas diferentes" + intervalo);
+        }
+        if (!mesmasViagens(agenda.iniciadasEntre(inicio, fim), iniciadas)) {
+            falhas.add("iniciadasEntre diferentes" + intervalo);
+        }
+        if (fimMaximo == null ? agenda.getFimMaximo() != null : !fimMaximo.equals(agenda.getFimMaximo())) {
+            falhas.add("Fim máximo " + agenda.getFimMaximo() + " (esperado " + fimMaximo + ")");
+        }
+        Viagem ultima = oraculo.isEmpty() ? null : oraculo.get(oraculo.size() - 1);
+        if (agenda.getUltima() != ultima) {
+            falhas.add("Última viagem diferente da esperada");
+        }
+    }
+
+    /**
+     * Compara duas listas de viagens, por identidade e pela mesma ordem.
+     *
+     * @param obtidas   Lista obtida.
+     * @param esperadas Lista esperada.
+     * @return {@code true} se forem iguais.
+     */
+    private static boolean mesmasViagens(List<Viagem> obtidas, List<Viagem> esperadas) {
+        if (obtidas.size() != esperadas.size()) {
+            return false;
+        }
+        for (int i = 0; i < obtidas.size(); i++) {
+            if (obtidas.get(i) != esperadas.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lança threads que marcam viagens sobrepostas sobre poucos recursos e verifica o resultado.
+     *
+     * @param modo    Modo de marcação a usar.
+     * @param threads Número de threads.
+     * @param semente Semente do gerador aleatório.
+     * @param falhas  Lista onde são acrescentadas as falhas.
+     * @throws InterruptedException Se a thread principal for interrompida.
+     */
+    private static void verificarMarcacoes(ModoMarcacao modo, int threads, long semente, List<String> falhas)
+            throws InterruptedException {
+        Empresa empresa = new Empresa("Verificacao", Integer.MAX_VALUE);
+        empresa.setModoMarcacao(modo);
+
+        // Um recurso a mais de cada tipo, nunca marcado, serve para consultar as agendas dos outros
+        Condutor[] condutores = new Condutor[RECURSOS + 1];
+        Viatura[] viaturas = new Viatura[RECURSOS + 1];
+        Cliente[] clientes = new Cliente[RECURSOS];
+        for (int i = 0; i <= RECURSOS; i++) {
+            condutores[i] = new Condutor(i + 1, "Condutor " + i, 200000000 + i, 930000000 + i,
+                    "Porto", 10000000 + i, "C-" + i, 10000 + i);
+            viaturas[i] = new Viatura(String.format("%02d-%02d-VM", i / 100, i % 100), "Marca", "Modelo", 2022);
+            empresa.adicionarCondutor(condutores[i]);
+            empresa.adicionarViatura(viaturas[i]);
+        }
+        for (int i = 0; i < RECURSOS; i++) {
+            clientes[i] = new Cliente("Cliente " + i, 100000000 + i, 910000000 + i, "Porto", 20000000 + i);
+            empresa.adicionarCliente(clientes[i]);
+        }
+
+        AtomicInteger aceites = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+        CountDownLatch partida = new CountDownLatch(1);
+        CountDownLatch chegada = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom aleatorio = new SplittableRandom(semente * 31 + t);
+            Thread despacho = new Thread(() -> {
+                try {
+                    partida.await();
+                    for (int k = 0; k < OPERACOES_POR_THREAD; k++) {
+                        if (aleatorio.nextInt(4) != 0) {
+                            if (empresa.adicionarViagem(gerarViagem(aleatorio, condutores, clientes, viaturas))) {
+                                aceites.incrementAndGet();
+                            }
+                        } else {
+                            ArrayList<Viagem> lote = new ArrayList<>();
+                            for (int i = aleatorio.nextInt(2, 5); i > 0; i--) {
+                                lote.add(gerarViagem(aleatorio, condutores, clientes, viaturas));
+                            }
+                            ResultadoLote resultado = empresa.adicionarViagens(lote, aleatorio.nextBoolean());
+                            aceites.addAndGet(resultado.getAceites().size());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    erros.incrementAndGet();
+                } finally {
+                    chegada.countDown();
+                }
+            }, "verificacao-" + t);
+            despacho.start();
+        }
+
+        // As recusas por sobreposição são esperadas e escrevem na consola
+        PrintStream consola = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            partida.countDown();
+            chegada.await();
+        } finally {
+            System.setOut(consola);
+        }
+
+        List<Viagem> viagens = empresa.getViagens();
+        int antes = falhas.size();
+        if (erros.get() != 0) {
+            falhas.add(modo + ": " + erros.get() + " thread(s) terminaram com exceção");
+        }
+        if (viagens.size() != aceites.get()) {
+            falhas.add(modo + ": " + viagens.size() + " viagens no histórico (aceites " + aceites.get() + ")");
+        }
+        verificarRecurso(modo, viagens, viagem -> "condutor " + viagem.getCondutor().getNumeroIdentificacao(),
+                falhas);
+        verificarRecurso(modo, viagens, viagem -> "viatura " + viagem.getViatura().getMatricula(), falhas);
+        verificarAgendas(modo, empresa, viagens, condutores, viaturas, clientes, falhas);
+
+        System.out.println(modo + ": " + threads + " threads, " + aceites.get() + " viagens aceites, "
+                + (falhas.size() - antes) + " falha(s)");
+    }
+
+    /**
+     * Gera uma viagem sobre um dos recursos disputados, com início numa janela de um dia.
+     *
+     * @param aleatorio  Gerador aleatório.
+     * @param condutores Condutores (o último não é usado).
+     * @param clientes   Clientes.
+     * @param viaturas   Viaturas (a última não é usada).
+     * @return A viagem gerada.
+     */
+    private static Viagem gerarViagem(SplittableRandom aleatorio, Condutor[] condutores, Cliente[] clientes,
+                                      Viatura[] viaturas) {
+        LocalDateTime inicio = BASE.plusMinutes(5L * aleatorio.nextInt(24 * 12));
+        LocalDateTime fim = inicio.plusMinutes(aleatorio.nextInt(10, 90));
+        return new Viagem(condutores[aleatorio.nextInt(RECURSOS)], clientes[aleatorio.nextInt(RECURSOS)],
+                viaturas[aleatorio.nextInt(RECURSOS)], inicio, fim, "Origem", "Destino", 5.0, 8.0);
+    }
+
+    /**
+     * Procura viagens sobrepostas do mesmo recurso (condutor ou viatura).
+     *
+     * @param modo      Modo de marcação (para o relatório).
+     * @param viagens   O histórico.
+     * @param recurso   Identificação do recurso de cada viagem.
+     * @param falhas    Lista onde são acrescentadas as falhas.
+     */
+    private static void verificarRecurso(ModoMarcacao modo, List<Viagem> viagens, Function<Viagem, String> recurso,
+                                         List<String> falhas) {
+        ArrayList<Viagem> ordenadas = new ArrayList<>(viagens);
+        ordenadas.sort(Comparator.comparing(recurso).thenComparing(Viagem::getDataHoraInicio));
+        for (int i = 1; i < ordenadas.size(); i++) {
+            Viagem anterior = ordenadas.get(i - 1);
+            Viagem atual = ordenadas.get(i);
+            String recursoAtual = recurso.apply(atual);
+            if (recursoAtual.equals(recurso.apply(anterior))
+                    && anterior.getDataHoraFim().isAfter(atual.getDataHoraInicio())) {
+                falhas.add(modo + ": dupla marcação do " + recursoAtual + ": " + anterior.getDataHoraInicio()
+                        + "-" + anterior.getDataHoraFim() + " e " + atual.getDataHoraInicio()
+                        + "-" + atual.getDataHoraFim());
+            }
+        }
+    }
+
+    /**
+     * Verifica que as agendas da empresa coincidem com o histórico: cada viagem ocupa o seu condutor
+     * e a sua viatura, os intervalos entre viagens consecutivas continuam livres, e as viagens de cada
+     * cliente obtidas pela agenda são as do histórico.
+     *
+     * @param modo       Modo de marcação (para o relatório).
+     * @param empresa    A empresa.
+     * @param viagens    O histórico.
+     * @param condutores Condutores (o último nunca é marcado).
+     * @param viaturas   Viaturas (a última nunca é marcada).
+     * @param clientes   Clientes.
+     * @param falhas     Lista onde são acrescentadas as falhas.
+     */
+    private static void verificarAgendas(ModoMarcacao modo, Empresa empresa, List<Viagem> viagens,
+                                         Condutor[] condutores, Viatura[] viaturas, Cliente[] clientes,
+                                         List<String> falhas) {
+        Condutor condutorLivre = condutores[RECURSOS];
+        Viatura viaturaLivre = viaturas[RECURSOS];
+        for (int i = 0; i < RECURSOS; i++) {
+            Condutor condutor = condutores[i];
+            Viatura viatura = viaturas[i];
+            Cliente cliente = clientes[i];
+            ArrayList<Viagem> doCondutor = new ArrayList<>();
+            ArrayList<Viagem> daViatura = new ArrayList<>();
+            ArrayList<Viagem> doCliente = new ArrayList<>();
+            for (Viagem viagem : viagens) {
+                if (viagem.getCondutor() == condutor) {
+                    doCondutor.add(viagem);
+                }
+                if (viagem.getViatura() == viatura) {
+                    daViatura.add(viagem);
+                }
+                if (viagem.getCliente() == cliente) {
+                    doCliente.add(viagem);
+                }
+            }
+            doCondutor.sort(Comparator.comparing(Viagem::getDataHoraInicio));
+            daViatura.sort(Comparator.comparing(Viagem::getDataHoraInicio));
+
+            for (int k = 0; k < doCondutor.size(); k++) {
+                Viagem viagem = doCondutor.get(k);
+                if (!empresa.verificarSobreposicao(viaturaLivre, condutor, viagem.getDataHoraInicio(),
+                        viagem.getDataHoraFim())) {
+                    falhas.add(modo + ": viagem do histórico ausente da agenda do condutor "
+                            + condutor.getNumeroIdentificacao() + " às " + viagem.getDataHoraInicio());
+                }
+                if (k > 0 && doCondutor.get(k - 1).getDataHoraFim().isBefore(viagem.getDataHoraInicio())
+                        && empresa.verificarSobreposicao(viaturaLivre, condutor,
+                        doCondutor.get(k - 1).getDataHoraFim(), viagem.getDataHoraInicio())) {
+                    falhas.add(modo + ": agenda do condutor " + condutor.getNumeroIdentificacao()
+                            + " ocupada fora do histórico antes de " + viagem.getDataHoraInicio());
+                }
+            }
+            for (int k = 0; k < daViatura.size(); k++) {
+                Viagem viagem = daViatura.get(k);
+                if (!empresa.verificarSobreposicao(viatura, condutorLivre, viagem.getDataHoraInicio(),
+                        viagem.getDataHoraFim())) {
+                    falhas.add(modo + ": viagem do histórico ausente da agenda da viatura "
+                            + viatura.getMatricula() + " às " + viagem.getDataHoraInicio());
+                }
+                if (k > 0 && daViatura.get(k - 1).getDataHoraFim().isBefore(viagem.getDataHoraInicio())
+                        && empresa.verificarSobreposicao(viatura, condutorLivre,
+                        daViatura.get(k - 1).getDataHoraFim(), viagem.getDataHoraInicio())) {
+                    falhas.add(modo + ": agenda da viatura " + viatura.getMatricula()
+                            + " ocupada fora do histórico antes de " + viagem.getDataHoraInicio());
+                }
+            }
+            // As viagens de um cliente podem começar à mesma hora: compara-se o conjunto e a ordenação
+            ArrayList<Viagem> daAgenda = empresa.getViagensClientePorDatas(cliente.getNif(), LocalDateTime.MIN,
+                    LocalDateTime.MAX);
+            Set<Viagem> porIdentidade = Collections.newSetFromMap(new IdentityHashMap<>());
+            porIdentidade.addAll(daAgenda);
+            boolean ordenada = true;
+            for (int k = 1; k < daAgenda.size(); k++) {
+                ordenada &= !daAgenda.get(k - 1).getDataHoraInicio().isAfter(daAgenda.get(k).getDataHoraInicio());
+            }
+            if (!ordenada || daAgenda.size() != doCliente.size() || !porIdentidade.containsAll(doCliente)) {
+                falhas.add(modo + ": agenda do cliente " + cliente.getNif() + " diferente do histórico");
+            }
+        }
+    }
+}
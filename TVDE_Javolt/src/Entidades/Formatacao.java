@@ -0,0 +1,92 @@
+package Entidades;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escrita de datas ({@code dd-MM-yyyy HH:mm}) e de valores decimais num {@link StringBuilder}.
+ * <p>
+ * Usada pelas representações textuais de {@link Viagem} e {@link Reserva}: os dígitos são escritos
+ * diretamente no destino, sem criar um formatador nem textos intermédios, pelo que listar ou
+ * exportar milhões de linhas não cria objetos por linha. O resultado é sempre igual ao de
+ * {@link DateTimeFormatter#format} e {@link Double#toString(double)}.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Formatacao {
+
+    /**
+     * Formatador partilhado para o formato de apresentação (usado apenas para anos fora de 0-9999).
+     */
+    public static final DateTimeFormatter FORMATO_DATA_HORA = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
+    /**
+     * Classe utilitária: não deve ser instanciada.
+     */
+    private Formatacao() {
+    }
+
+    /**
+     * Acrescenta uma data/hora no formato {@code dd-MM-yyyy HH:mm}.
+     *
+     * @param dataHora A data/hora.
+     * @param destino  Onde escrever.
+     * @return O próprio destino.
+     */
+    public static StringBuilder dataHora(LocalDateTime dataHora, StringBuilder destino) {
+        int ano = dataHora.getYear();
+        if (ano < 0 || ano > 9999) {
+            FORMATO_DATA_HORA.formatTo(dataHora, destino);
+            return destino;
+        }
+        doisDigitos(dataHora.getDayOfMonth(), destino).append('-');
+        doisDigitos(dataHora.getMonthValue(), destino).append('-');
+        doisDigitos(ano / 100, destino);
+        doisDigitos(ano % 100, destino).append(' ');
+        doisDigitos(dataHora.getHour(), destino).append(':');
+        return doisDigitos(dataHora.getMinute(), destino);
+    }
+
+    /**
+     * Acrescenta um valor decimal, com o mesmo texto que {@link Double#toString(double)}.
+     * <p>
+     * Os valores positivos com até duas casas decimais (distâncias e custos) são escritos dígito a dígito;
+     * os restantes usam {@link StringBuilder#append(double)}.
+     * </p>
+     *
+     * @param valor   O valor.
+     * @param destino Onde escrever.
+     * @return O próprio destino.
+     */
+    public static StringBuilder decimal(double valor, StringBuilder destino) {
+        if (!(valor >= 0.01 && valor < 1e7)) {
+            return destino.append(valor);
+        }
+        long centesimas = Math.round(valor * 100);
+        if (centesimas / 100.0 != valor) {
+            return destino.append(valor);
+        }
+        // Entre 0.001 e 10^7 o Double.toString não usa notação científica e, havendo uma representação
+        // com duas casas que identifica o valor, é a mais curta: basta tirar os zeros finais (mantendo um).
+        int resto = (int) (centesimas % 100);
+        destino.append(centesimas / 100).append('.').append((char) ('0' + resto / 10));
+        if (resto % 10 != 0) {
+            destino.append((char) ('0' + resto % 10));
+        }
+        return destino;
+    }
+
+    /**
+     * Acrescenta um valor entre 0 e 99 com dois dígitos.
+     *
+     * @param valor   O valor.
+     * @param destino Onde escrever.
+     * @return O próprio destino.
+     */
+    private static StringBuilder doisDigitos(int valor, StringBuilder destino) {
+        return destino.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+    }
+}
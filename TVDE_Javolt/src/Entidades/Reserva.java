@@ -1,7 +1,6 @@
 package Entidades;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 
 /**
@@ -156,12 +155,27 @@ public class Reserva {
      * </p>
      *
      * @return Uma String formatada com os detalhes da reserva.
+     * @see #formatar(StringBuilder)
      */
     @Override
     public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
-        return "[" + getDataHoraInicio().format(formatter) + "] " + getCliente().getNome() + " | " +
-                getMoradaOrigem() + " -> " + getMoradaDestino() + " (" + getKms() + " km)";
+        return formatar(new StringBuilder(96)).toString();
+    }
+
+    /**
+     * Acrescenta a representação textual da Reserva (a mesma de {@link #toString()}) a um destino.
+     *
+     * @param destino Onde escrever.
+     * @return O próprio destino.
+     */
+    public StringBuilder formatar(StringBuilder destino) {
+        destino.append('[');
+        Formatacao.dataHora(dataHoraInicio, destino)
+                .append("] ").append(cliente.getNome())
+                .append(" | ").append(moradaOrigem).append(" -> ").append(moradaDestino)
+                .append(" (");
+        Formatacao.decimal(kms, destino).append(" km)");
+        return destino;
     }
 }
 
@@ -1,7 +1,6 @@
 package Entidades;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Representa uma Viagem realizada no âmbito da atividade da empresa TVDE.
@@ -278,16 +277,32 @@ public class Viagem {
      * </p>
      *
      * @return Uma String formatada com os detalhes da viagem.
+     * @see #formatar(StringBuilder)
      */
     @Override
     public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
-
-        return "[" + dataHoraInicio.format(formatter) + "] " +
-                "Condutor: " + condutor.getNome() +
-                " | Cliente: " + cliente.getNome() +
-                " | Matricula viatura: " + viatura.getMatricula() +
-                " | " + moradaOrigem + " -> " + moradaDestino +
-                " (" + kms + " km)" + " | Custo: " + custo + "€";
+        return formatar(new StringBuilder(160)).toString();
+    }
+
+    /**
+     * Acrescenta a representação textual da Viagem (a mesma de {@link #toString()}) a um destino.
+     * <p>
+     * Não cria textos intermédios: nas listagens, o mesmo destino pode ser reutilizado para todas as linhas.
+     * </p>
+     *
+     * @param destino Onde escrever.
+     * @return O próprio destino.
+     */
+    public StringBuilder formatar(StringBuilder destino) {
+        destino.append('[');
+        Formatacao.dataHora(dataHoraInicio, destino)
+                .append("] Condutor: ").append(condutor.getNome())
+                .append(" | Cliente: ").append(cliente.getNome())
+                .append(" | Matricula viatura: ").append(viatura.getMatricula())
+                .append(" | ").append(moradaOrigem).append(" -> ").append(moradaDestino)
+                .append(" (");
+        Formatacao.decimal(kms, destino).append(" km) | Custo: ");
+        Formatacao.decimal(custo, destino).append('€');
+        return destino;
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package Estatisticas;
+
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+
+/**
+ * Soma e contagem de valores, usadas pelas vistas materializadas.
+ * <p>
+ * Guardar a contagem permite calcular médias e saber quando um grupo ficou vazio
+ * (a soma em vírgula flutuante pode não voltar exatamente a zero).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+final class Acumulado {
+
+    /**
+     * Soma dos valores.
+     */
+    private double soma;
+
+    /**
+     * Número de valores.
+     */
+    private long contagem;
+
+    /**
+     * Acrescenta (sinal 1) ou retira (sinal -1) um valor.
+     *
+     * @param valor O valor.
+     * @param sinal 1 para acrescentar, -1 para retirar.
+     */
+    void somar(double valor, int sinal) {
+        contagem += sinal;
+        soma = contagem == 0 ? 0.0 : soma + sinal * valor;
+    }
+
+    /**
+     * Obtém a soma.
+     *
+     * @return A soma dos valores.
+     */
+    double getSoma() {
+        return soma;
+    }
+
+    /**
+     * Obtém a contagem.
+     *
+     * @return O número de valores.
+     */
+    long getContagem() {
+        return contagem;
+    }
+
+    /**
+     * Obtém a média.
+     *
+     * @return A média, ou 0 se não houver valores.
+     */
+    double getMedia() {
+        return contagem == 0 ? 0.0 : soma / contagem;
+    }
+
+    /**
+     * Acrescenta ou retira um valor no grupo de uma data, apagando o grupo quando fica vazio.
+     *
+     * @param datas Grupos por data.
+     * @param data  A data.
+     * @param valor O valor.
+     * @param sinal 1 para acrescentar, -1 para retirar.
+     */
+    static void somar(NavigableMap<LocalDateTime, Acumulado> datas, LocalDateTime data, double valor, int sinal) {
+        Acumulado acumulado = datas.computeIfAbsent(data, d -> new Acumulado());
+        acumulado.somar(valor, sinal);
+        if (acumulado.contagem == 0) {
+            datas.remove(data);
+        }
+    }
+
+    /**
+     * Junta os grupos de um intervalo de datas (inclusive).
+     *
+     * @param datas  Grupos por data.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return O total do intervalo.
+     */
+    static Acumulado total(NavigableMap<LocalDateTime, Acumulado> datas, LocalDateTime inicio, LocalDateTime fim) {
+        Acumulado total = new Acumulado();
+        if (fim.isBefore(inicio)) {
+            return total;
+        }
+        for (Acumulado acumulado : datas.subMap(inicio, true, fim, true).values()) {
+            total.soma += acumulado.soma;
+            total.contagem += acumulado.contagem;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,127 @@
+package Estatisticas;
+
+import Entidades.Viagem;
+import Gestao.EventoDominio;
+import Gestao.TipoEvento;
+import Gestao.VistaMaterializada;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Número de viagens por destino, mantido de forma incremental.
+ * <p>
+ * As contagens são agrupadas pela data/hora de início, pelo que contar os destinos de um
+ * intervalo só percorre as datas desse intervalo. Os destinos são comparados sem distinguir
+ * maiúsculas, e é apresentado o nome com que cada destino apareceu pela primeira vez.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class VistaDestinos implements VistaMaterializada {
+
+    /**
+     * Contagem de cada destino (chave normalizada), por data/hora de início.
+     */
+    private final TreeMap<LocalDateTime, HashMap<String, Integer>> porData;
+
+    /**
+     * Nome a apresentar de cada destino (pela chave normalizada).
+     */
+    private final HashMap<String, String> nomes;
+
+    /**
+     * Número total de viagens de cada destino (pela chave normalizada), para esquecer o nome
+     * quando deixa de haver viagens para esse destino.
+     */
+    private final HashMap<String, Integer> totais;
+
+    /**
+     * Cria uma vista vazia.
+     */
+    public VistaDestinos() {
+        this.porData = new TreeMap<>();
+        this.nomes = new HashMap<>();
+        this.totais = new HashMap<>();
+    }
+
+    /**
+     * Os destinos dependem apenas das viagens registadas e removidas.
+     *
+     * @return Os tipos de eventos de viagens.
+     */
+    @Override
+    public Set<TipoEvento> getTipos() {
+        return EnumSet.of(TipoEvento.VIAGEM_ADICIONADA, TipoEvento.VIAGEM_REMOVIDA);
+    }
+
+    /**
+     * Conta ou desconta o destino da viagem do evento.
+     * As contagens podem ficar negativas enquanto a remoção de uma viagem chega antes do seu registo.
+     *
+     * @param evento O evento.
+     */
+    @Override
+    public synchronized void aplicar(EventoDominio evento) {
+        Viagem viagem = evento.getViagem();
+        int sinal = evento.getTipo() == TipoEvento.VIAGEM_ADICIONADA ? 1 : -1;
+        String chave = chave(viagem.getMoradaDestino());
+        int total = totais.getOrDefault(chave, 0) + sinal;
+        if (total == 0) {
+            totais.remove(chave);
+            nomes.remove(chave);
+        } else {
+            totais.put(chave, total);
+            nomes.putIfAbsent(chave, viagem.getMoradaDestino());
+        }
+
+        LocalDateTime data = viagem.getDataHoraInicio();
+        HashMap<String, Integer> daData = porData.computeIfAbsent(data, d -> new HashMap<>());
+        int contagem = daData.getOrDefault(chave, 0) + sinal;
+        if (contagem == 0) {
+            daData.remove(chave);
+            if (daData.isEmpty()) {
+                porData.remove(data);
+            }
+        } else {
+            daData.put(chave, contagem);
+        }
+    }
+
+    /**
+     * Conta as viagens de cada destino iniciadas num intervalo (inclusive).
+     *
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return Contagem por nome de destino, pela ordem cronológica em que cada destino aparece.
+     */
+    public synchronized LinkedHashMap<String, Integer> getContagens(LocalDateTime inicio, LocalDateTime fim) {
+        LinkedHashMap<String, Integer> porChave = new LinkedHashMap<>();
+        if (!fim.isBefore(inicio)) {
+            for (Map<String, Integer> daData : porData.subMap(inicio, true, fim, true).values()) {
+                daData.forEach((chave, contagem) -> porChave.merge(chave, contagem, Integer::sum));
+            }
+        }
+        LinkedHashMap<String, Integer> resultado = new LinkedHashMap<>();
+        porChave.forEach((chave, contagem) -> resultado.put(nomes.get(chave), contagem));
+        return resultado;
+    }
+
+    /**
+     * Normaliza o nome de um destino para comparação sem distinguir maiúsculas.
+     *
+     * @param destino O destino.
+     * @return A chave do destino.
+     */
+    public static String chave(String destino) {
+        return destino.toLowerCase(Locale.ROOT);
+    }
+}
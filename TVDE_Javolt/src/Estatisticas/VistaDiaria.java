@@ -0,0 +1,469 @@
+package Estatisticas;
+
+import Entidades.Viagem;
+import Gestao.EventoDominio;
+import Gestao.TipoEvento;
+import Gestao.VistaMaterializada;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Formatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Resumos diários das viagens por condutor, viatura e destino, mantidos de forma incremental.
+ * <p>
+ * Para cada dia e cada condutor, viatura ou destino guarda o número de viagens, os quilómetros,
+ * a faturação e os minutos ocupados. Um relatório de vários meses junta apenas os resumos dos dias
+ * do intervalo (algumas centenas de entradas), sem percorrer as viagens; o histórico completo fica
+ * para as consultas de detalhe.
+ * </p>
+ * <p>
+ * Cada viagem conta por inteiro no dia em que começa. Os condutores são identificados pelo número
+ * de identificação, as viaturas pela matrícula em maiúsculas e os destinos sem distinguir maiúsculas
+ * (com o nome com que cada destino apareceu pela primeira vez).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class VistaDiaria implements VistaMaterializada {
+
+    /**
+     * Dimensões pelas quais as viagens são resumidas.
+     */
+    public enum Dimensao {
+
+        /**
+         * Por condutor (número de identificação).
+         */
+        CONDUTOR,
+
+        /**
+         * Por viatura (matrícula em maiúsculas).
+         */
+        VIATURA,
+
+        /**
+         * Por destino (nome sem distinguir maiúsculas).
+         */
+        DESTINO
+    }
+
+    /**
+     * Totais de um conjunto de viagens.
+     */
+    public static final class Resumo {
+
+        /**
+         * Número de viagens.
+         */
+        private long viagens;
+
+        /**
+         * Quilómetros percorridos.
+         */
+        private double kms;
+
+        /**
+         * Faturação (€).
+         */
+        private double faturacao;
+
+        /**
+         * Minutos ocupados.
+         */
+        private long minutosOcupados;
+
+        /**
+         * Cria um resumo vazio.
+         */
+        Resumo() {
+        }
+
+        /**
+         * Acrescenta (sinal 1) ou retira (sinal -1) uma viagem.
+         *
+         * @param viagem  A viagem.
+         * @param minutos Duração da viagem em minutos.
+         * @param sinal   1 para acrescentar, -1 para retirar.
+         */
+        private void somar(Viagem viagem, long minutos, int sinal) {
+            viagens += sinal;
+            if (viagens == 0) {
+                kms = 0.0;
+                faturacao = 0.0;
+                minutosOcupados = 0;
+                return;
+            }
+            kms += sinal * viagem.getKms();
+            faturacao += sinal * viagem.getCusto();
+            minutosOcupados += sinal * minutos;
+        }
+
+        /**
+         * Junta outro resumo a este.
+         *
+         * @param outro O outro resumo.
+         */
+        private void juntar(Resumo outro) {
+            viagens += outro.viagens;
+            kms += outro.kms;
+            faturacao += outro.faturacao;
+            minutosOcupados += outro.minutosOcupados;
+        }
+
+        /**
+         * Obtém o número de viagens.
+         *
+         * @return O número de viagens.
+         */
+        public long getViagens() {
+            return viagens;
+        }
+
+        /**
+         * Obtém os quilómetros percorridos.
+         *
+         * @return Os quilómetros.
+         */
+        public double getKms() {
+            return kms;
+        }
+
+        /**
+         * Obtém a faturação.
+         *
+         * @return A faturação (€).
+         */
+        public double getFaturacao() {
+            return faturacao;
+        }
+
+        /**
+         * Obtém os minutos ocupados.
+         *
+         * @return Os minutos.
+         */
+        public long getMinutosOcupados() {
+            return minutosOcupados;
+        }
+
+        /**
+         * Devolve uma representação textual do resumo.
+         *
+         * @return String com os totais.
+         */
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d viagens, %.2f km, %.2f €, %d min",
+                    viagens, kms, faturacao, minutosOcupados);
+        }
+    }
+
+    /**
+     * Resumos de cada dimensão: por dia e, dentro do dia, por condutor, viatura ou destino.
+     */
+    private final EnumMap<Dimensao, TreeMap<LocalDate, HashMap<Object, Resumo>>> porDimensao;
+
+    /**
+     * Nome a apresentar de cada destino (pela chave normalizada).
+     */
+    private final HashMap<String, String> nomesDestinos;
+
+    /**
+     * Cria uma vista vazia.
+     */
+    public VistaDiaria() {
+        this.porDimensao = new EnumMap<>(Dimensao.class);
+        for (Dimensao dimensao : Dimensao.values()) {
+            porDimensao.put(dimensao, new TreeMap<>());
+        }
+        this.nomesDestinos = new HashMap<>();
+    }
+
+    /**
+     * Acrescenta uma viagem aos resumos (ex: ao calcular os resumos das viagens de um instantâneo).
+     *
+     * @param viagem A viagem.
+     */
+    public synchronized void acrescentar(Viagem viagem) {
+        somar(viagem, 1);
+    }
+
+    /**
+     * Os resumos dependem apenas das viagens registadas e removidas.
+     *
+     * @return Os tipos de eventos de viagens.
+     */
+    @Override
+    public Set<TipoEvento> getTipos() {
+        return EnumSet.of(TipoEvento.VIAGEM_ADICIONADA, TipoEvento.VIAGEM_REMOVIDA);
+    }
+
+    /**
+     * Acrescenta ou retira a viagem do evento nos resumos do seu dia.
+     *
+     * @param evento O evento.
+     */
+    @Override
+    public synchronized void aplicar(EventoDominio evento) {
+        somar(evento.getViagem(), evento.getTipo() == TipoEvento.VIAGEM_ADICIONADA ? 1 : -1);
+    }
+
+    /**
+     * Obtém o resumo de um condutor, viatura ou destino nos dias de um intervalo (inclusive).
+     *
+     * @param dimensao A dimensão.
+     * @param chave    Número de identificação do condutor, matrícula ou destino.
+     * @param inicio   Primeiro dia.
+     * @param fim      Último dia.
+     * @return O resumo (vazio se não houver viagens).
+     */
+    public synchronized Resumo getResumo(Dimensao dimensao, Object chave, LocalDate inicio, LocalDate fim) {
+        Object normalizada = normalizar(dimensao, chave);
+        Resumo total = new Resumo();
+        for (HashMap<Object, Resumo> doDia : dias(dimensao, inicio, fim).values()) {
+            Resumo resumo = doDia.get(normalizada);
+            if (resumo != null) {
+                total.juntar(resumo);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Obtém o resumo de cada condutor, viatura ou destino nos dias de um intervalo (inclusive).
+     *
+     * @param dimensao A dimensão.
+     * @param inicio   Primeiro dia.
+     * @param fim      Último dia.
+     * @return Resumo por número de identificação (Integer), matrícula ou nome do destino,
+     * pela ordem em que aparecem no intervalo.
+     */
+    public synchronized LinkedHashMap<Object, Resumo> getResumos(Dimensao dimensao, LocalDate inicio, LocalDate fim) {
+        LinkedHashMap<Object, Resumo> porChave = new LinkedHashMap<>();
+        for (HashMap<Object, Resumo> doDia : dias(dimensao, inicio, fim).values()) {
+            doDia.forEach((chave, resumo) -> porChave.computeIfAbsent(chave, c -> new Resumo()).juntar(resumo));
+        }
+        if (dimensao != Dimensao.DESTINO) {
+            return porChave;
+        }
+        LinkedHashMap<Object, Resumo> porNome = new LinkedHashMap<>();
+        porChave.forEach((chave, resumo) -> porNome.put(nomesDestinos.get(chave), resumo));
+        return porNome;
+    }
+
+    /**
+     * Obtém o resumo de cada dia de um intervalo (inclusive), somando todas as viagens da empresa.
+     *
+     * @param inicio Primeiro dia.
+     * @param fim    Último dia.
+     * @return Resumo por dia, por ordem cronológica (só os dias com viagens).
+     */
+    public synchronized TreeMap<LocalDate, Resumo> getResumosPorDia(LocalDate inicio, LocalDate fim) {
+        TreeMap<LocalDate, Resumo> porDia = new TreeMap<>();
+        dias(Dimensao.CONDUTOR, inicio, fim).forEach((dia, doDia) -> {
+            Resumo total = new Resumo();
+            for (Resumo resumo : doDia.values()) {
+                total.juntar(resumo);
+            }
+            porDia.put(dia, total);
+        });
+        return porDia;
+    }
+
+    /**
+     * Escreve os resumos, uma linha por dia, dimensão e chave:
+     * {@code dia;dimensao;chave;viagens;kms;faturacao;minutosOcupados}.
+     *
+     * @param destino Onde escrever.
+     */
+    public synchronized void gravar(Formatter destino) {
+        for (Map.Entry<Dimensao, TreeMap<LocalDate, HashMap<Object, Resumo>>> dimensao : porDimensao.entrySet()) {
+            for (Map.Entry<LocalDate, HashMap<Object, Resumo>> dia : dimensao.getValue().entrySet()) {
+                for (Map.Entry<Object, Resumo> entrada : dia.getValue().entrySet()) {
+                    Object chave = dimensao.getKey() == Dimensao.DESTINO
+                            ? nomesDestinos.get(entrada.getKey()) : entrada.getKey();
+                    Resumo resumo = entrada.getValue();
+                    destino.format(Locale.ROOT, "%s;%s;%s;%d;%.2f;%.2f;%d%n", dia.getKey(), dimensao.getKey(), chave,
+                            resumo.viagens, resumo.kms, resumo.faturacao, resumo.minutosOcupados);
+                }
+            }
+        }
+    }
+
+    /**
+     * Conta os resumos guardados, isto é, as linhas escritas por {@link #gravar(Formatter)}.
+     *
+     * @return O número de resumos.
+     */
+    public synchronized long contarResumos() {
+        long total = 0;
+        for (TreeMap<LocalDate, HashMap<Object, Resumo>> dias : porDimensao.values()) {
+            for (HashMap<Object, Resumo> doDia : dias.values()) {
+                total += doDia.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Lê resumos no formato de {@link #gravar(Formatter)} e junta-os aos desta vista.
+     * As linhas mal formadas são ignoradas.
+     *
+     * @param ler De onde ler.
+     */
+    public synchronized void carregar(Scanner ler) {
+        while (ler.hasNextLine()) {
+            String[] dados = ler.nextLine().split(";");
+            if (dados.length < 7) {
+                continue;
+            }
+            try {
+                LocalDate dia = LocalDate.parse(dados[0]);
+                Dimensao dimensao = Dimensao.valueOf(dados[1]);
+                Object chave = dimensao == Dimensao.CONDUTOR ? Integer.valueOf(dados[2]) : dados[2];
+                Object normalizada = normalizar(dimensao, chave);
+                if (dimensao == Dimensao.DESTINO) {
+                    nomesDestinos.putIfAbsent((String) normalizada, dados[2]);
+                }
+                Resumo resumo = new Resumo();
+                resumo.viagens = Long.parseLong(dados[3]);
+                resumo.kms = Double.parseDouble(dados[4]);
+                resumo.faturacao = Double.parseDouble(dados[5]);
+                resumo.minutosOcupados = Long.parseLong(dados[6]);
+                porDimensao.get(dimensao).computeIfAbsent(dia, d -> new HashMap<>())
+                        .merge(normalizada, resumo, (atual, novo) -> {
+                            atual.juntar(novo);
+                            return atual;
+                        });
+            } catch (RuntimeException e) {
+                // Linha inválida: ignorada
+            }
+        }
+    }
+
+    /**
+     * Verifica se esta vista tem os mesmos resumos que outra, com a precisão com que são gravados
+     * (quilómetros e faturação a duas casas decimais). A outra vista não deve estar a ser alterada.
+     *
+     * @param outra A outra vista.
+     * @return {@code true} se os resumos forem os mesmos.
+     */
+    public synchronized boolean corresponde(VistaDiaria outra) {
+        synchronized (outra) {
+            for (Dimensao dimensao : Dimensao.values()) {
+                TreeMap<LocalDate, HashMap<Object, Resumo>> estes = porDimensao.get(dimensao);
+                TreeMap<LocalDate, HashMap<Object, Resumo>> aqueles = outra.porDimensao.get(dimensao);
+                if (!estes.keySet().equals(aqueles.keySet())) {
+                    return false;
+                }
+                for (Map.Entry<LocalDate, HashMap<Object, Resumo>> dia : estes.entrySet()) {
+                    HashMap<Object, Resumo> doOutro = aqueles.get(dia.getKey());
+                    if (doOutro.size() != dia.getValue().size()) {
+                        return false;
+                    }
+                    for (Map.Entry<Object, Resumo> entrada : dia.getValue().entrySet()) {
+                        if (!iguais(entrada.getValue(), doOutro.get(entrada.getKey()))) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Compara dois resumos com a precisão com que são gravados.
+     *
+     * @param um    Um resumo.
+     * @param outro O outro resumo (pode ser {@code null}).
+     * @return {@code true} se forem iguais.
+     */
+    private static boolean iguais(Resumo um, Resumo outro) {
+        return outro != null && um.viagens == outro.viagens && um.minutosOcupados == outro.minutosOcupados
+                && Math.abs(um.kms - outro.kms) < 0.01 && Math.abs(um.faturacao - outro.faturacao) < 0.01;
+    }
+
+    /**
+     * Acrescenta ou retira uma viagem nos resumos do seu dia, nas três dimensões.
+     *
+     * @param viagem A viagem.
+     * @param sinal  1 para acrescentar, -1 para retirar.
+     */
+    private void somar(Viagem viagem, int sinal) {
+        LocalDate dia = viagem.getDataHoraInicio().toLocalDate();
+        long minutos = Duration.between(viagem.getDataHoraInicio(), viagem.getDataHoraFim()).toMinutes();
+        String destino = VistaDestinos.chave(viagem.getMoradaDestino());
+        nomesDestinos.putIfAbsent(destino, viagem.getMoradaDestino());
+
+        somar(Dimensao.CONDUTOR, dia, viagem.getCondutor().getNumeroIdentificacao(), viagem, minutos, sinal);
+        somar(Dimensao.VIATURA, dia, normalizar(Dimensao.VIATURA, viagem.getViatura().getMatricula()), viagem,
+                minutos, sinal);
+        somar(Dimensao.DESTINO, dia, destino, viagem, minutos, sinal);
+    }
+
+    /**
+     * Acrescenta ou retira uma viagem no resumo de uma chave num dia, apagando os resumos que ficam vazios.
+     *
+     * @param dimensao A dimensão.
+     * @param dia      O dia.
+     * @param chave    A chave (já normalizada).
+     * @param viagem   A viagem.
+     * @param minutos  Duração da viagem em minutos.
+     * @param sinal    1 para acrescentar, -1 para retirar.
+     */
+    private void somar(Dimensao dimensao, LocalDate dia, Object chave, Viagem viagem, long minutos, int sinal) {
+        TreeMap<LocalDate, HashMap<Object, Resumo>> dias = porDimensao.get(dimensao);
+        HashMap<Object, Resumo> doDia = dias.computeIfAbsent(dia, d -> new HashMap<>());
+        Resumo resumo = doDia.computeIfAbsent(chave, c -> new Resumo());
+        resumo.somar(viagem, minutos, sinal);
+        if (resumo.viagens == 0) {
+            doDia.remove(chave);
+            if (doDia.isEmpty()) {
+                dias.remove(dia);
+            }
+        }
+    }
+
+    /**
+     * Obtém os resumos de uma dimensão nos dias de um intervalo (inclusive).
+     *
+     * @param dimensao A dimensão.
+     * @param inicio   Primeiro dia.
+     * @param fim      Último dia.
+     * @return Os resumos de cada dia do intervalo.
+     */
+    private Map<LocalDate, HashMap<Object, Resumo>> dias(Dimensao dimensao, LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            return Map.of();
+        }
+        return porDimensao.get(dimensao).subMap(inicio, true, fim, true);
+    }
+
+    /**
+     * Normaliza a chave de uma dimensão (matrícula em maiúsculas, destino sem distinguir maiúsculas).
+     *
+     * @param dimensao A dimensão.
+     * @param chave    A chave.
+     * @return A chave normalizada.
+     */
+    private static Object normalizar(Dimensao dimensao, Object chave) {
+        return switch (dimensao) {
+            case CONDUTOR -> chave;
+            case VIATURA -> chave.toString().toUpperCase(Locale.ROOT);
+            case DESTINO -> VistaDestinos.chave(chave.toString());
+        };
+    }
+}
@@ -0,0 +1,208 @@
+package Estatisticas;
+
+import Entidades.Cliente;
+import Entidades.Viagem;
+import Gestao.EventoDominio;
+import Gestao.TipoEvento;
+import Gestao.VistaMaterializada;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Quilómetros percorridos, mantidos de forma incremental.
+ * <p>
+ * Guarda os quilómetros agrupados pela data/hora de início (para médias num intervalo),
+ * o total de cada cliente e, para cada distância, os clientes que fizeram viagens com essa
+ * distância (para pesquisar clientes por intervalo de quilómetros).
+ * </p>
+ * <p>
+ * Cada viagem recebe um número de sequência pela ordem em que foi registada, para que a pesquisa
+ * por intervalo de quilómetros devolva os clientes pela ordem do histórico. Uma remoção que chegue
+ * antes do registo da viagem fica pendente e anula esse registo quando ele chegar.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class VistaDistancias implements VistaMaterializada {
+
+    /**
+     * Quilómetros somados por data/hora de início.
+     */
+    private final TreeMap<LocalDateTime, Acumulado> porData;
+
+    /**
+     * Quilómetros somados de cada cliente (pelo NIF).
+     */
+    private final HashMap<Integer, Acumulado> porCliente;
+
+    /**
+     * Para cada distância, as sequências das viagens de cada cliente (pelo NIF) com essa distância.
+     */
+    private final TreeMap<Double, HashMap<Integer, TreeSet<Long>>> porDistancia;
+
+    /**
+     * Sequência de cada viagem contada (por identidade).
+     */
+    private final IdentityHashMap<Viagem, Long> sequencias;
+
+    /**
+     * Viagens cuja remoção chegou antes do registo (por identidade).
+     */
+    private final Set<Viagem> removidasAntes;
+
+    /**
+     * Próxima sequência a atribuir.
+     */
+    private long proximaSequencia;
+
+    /**
+     * Clientes com viagens (pelo NIF).
+     */
+    private final HashMap<Integer, Cliente> clientes;
+
+    /**
+     * Cria uma vista vazia.
+     */
+    public VistaDistancias() {
+        this.porData = new TreeMap<>();
+        this.porCliente = new HashMap<>();
+        this.porDistancia = new TreeMap<>();
+        this.clientes = new HashMap<>();
+        this.sequencias = new IdentityHashMap<>();
+        this.removidasAntes = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * As distâncias dependem apenas das viagens registadas e removidas.
+     *
+     * @return Os tipos de eventos de viagens.
+     */
+    @Override
+    public Set<TipoEvento> getTipos() {
+        return EnumSet.of(TipoEvento.VIAGEM_ADICIONADA, TipoEvento.VIAGEM_REMOVIDA);
+    }
+
+    /**
+     * Acrescenta ou retira os quilómetros da viagem do evento.
+     *
+     * @param evento O evento.
+     */
+    @Override
+    public synchronized void aplicar(EventoDominio evento) {
+        Viagem viagem = evento.getViagem();
+        int sinal = evento.getTipo() == TipoEvento.VIAGEM_ADICIONADA ? 1 : -1;
+        Long sequencia;
+        if (sinal > 0) {
+            if (removidasAntes.remove(viagem)) {
+                return;
+            }
+            sequencia = proximaSequencia++;
+            sequencias.put(viagem, sequencia);
+        } else {
+            sequencia = sequencias.remove(viagem);
+            if (sequencia == null) {
+                removidasAntes.add(viagem);
+                return;
+            }
+        }
+        Cliente cliente = viagem.getCliente();
+        int nif = cliente.getNif();
+
+        Acumulado.somar(porData, viagem.getDataHoraInicio(), viagem.getKms(), sinal);
+
+        Acumulado doCliente = porCliente.computeIfAbsent(nif, n -> new Acumulado());
+        doCliente.somar(viagem.getKms(), sinal);
+        if (doCliente.getContagem() == 0) {
+            porCliente.remove(nif);
+            clientes.remove(nif);
+        } else {
+            clientes.put(nif, cliente);
+        }
+
+        HashMap<Integer, TreeSet<Long>> daDistancia = porDistancia.computeIfAbsent(viagem.getKms(),
+                kms -> new HashMap<>());
+        TreeSet<Long> doNif = daDistancia.computeIfAbsent(nif, n -> new TreeSet<>());
+        if (sinal > 0) {
+            doNif.add(sequencia);
+        } else {
+            doNif.remove(sequencia);
+            if (doNif.isEmpty()) {
+                daDistancia.remove(nif);
+                if (daDistancia.isEmpty()) {
+                    porDistancia.remove(viagem.getKms());
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula a média de quilómetros das viagens iniciadas num intervalo (inclusive).
+     *
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return Média de quilómetros, ou 0 se não houver viagens.
+     */
+    public synchronized double getDistanciaMedia(LocalDateTime inicio, LocalDateTime fim) {
+        return Acumulado.total(porData, inicio, fim).getMedia();
+    }
+
+    /**
+     * Obtém o total de quilómetros percorridos por um cliente.
+     *
+     * @param nif NIF do cliente.
+     * @return Total de quilómetros.
+     */
+    public synchronized double getTotalKmsCliente(int nif) {
+        Acumulado doCliente = porCliente.get(nif);
+        return doCliente == null ? 0.0 : doCliente.getSoma();
+    }
+
+    /**
+     * Obtém os clientes (sem repetições) com viagens cuja distância está num intervalo (inclusive).
+     *
+     * @param minKms Distância mínima.
+     * @param maxKms Distância máxima.
+     * @return Lista de clientes, pela ordem no histórico da primeira viagem de cada um no intervalo.
+     */
+    public synchronized ArrayList<Cliente> getClientesPorIntervaloKms(double minKms, double maxKms) {
+        HashMap<Integer, Long> primeiras = new HashMap<>();
+        if (maxKms < minKms) {
+            return new ArrayList<>();
+        }
+        for (Map<Integer, TreeSet<Long>> daDistancia : porDistancia.subMap(minKms, true, maxKms, true).values()) {
+            daDistancia.forEach((nif, doNif) -> primeiras.merge(nif, doNif.first(), Math::min));
+        }
+        ArrayList<Integer> nifs = new ArrayList<>(primeiras.keySet());
+        nifs.sort(Comparator.comparing(primeiras::get));
+        ArrayList<Cliente> resultado = new ArrayList<>(nifs.size());
+        for (Integer nif : nifs) {
+            resultado.add(clientes.get(nif));
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtém o total de quilómetros de todas as viagens.
+     *
+     * @return Total de quilómetros.
+     */
+    public synchronized double getTotalKms() {
+        double total = 0.0;
+        for (Acumulado doCliente : porCliente.values()) {
+            total += doCliente.getSoma();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,104 @@
+package Estatisticas;
+
+import Entidades.Viagem;
+import Gestao.EventoDominio;
+import Gestao.TipoEvento;
+import Gestao.VistaMaterializada;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Faturação por condutor, mantida de forma incremental.
+ * <p>
+ * Para cada condutor guarda a soma dos custos das viagens agrupada pela data/hora de início,
+ * pelo que a faturação num intervalo só percorre as datas desse condutor dentro do intervalo,
+ * e nunca o histórico completo da empresa.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class VistaFaturacao implements VistaMaterializada {
+
+    /**
+     * Custos somados de cada condutor (pelo número de identificação), por data/hora de início.
+     */
+    private final HashMap<Integer, TreeMap<LocalDateTime, Acumulado>> porCondutor;
+
+    /**
+     * Faturação total da empresa.
+     */
+    private final Acumulado total;
+
+    /**
+     * Cria uma vista vazia.
+     */
+    public VistaFaturacao() {
+        this.porCondutor = new HashMap<>();
+        this.total = new Acumulado();
+    }
+
+    /**
+     * A faturação depende apenas das viagens registadas e removidas.
+     *
+     * @return Os tipos de eventos de viagens.
+     */
+    @Override
+    public Set<TipoEvento> getTipos() {
+        return EnumSet.of(TipoEvento.VIAGEM_ADICIONADA, TipoEvento.VIAGEM_REMOVIDA);
+    }
+
+    /**
+     * Acrescenta ou retira o custo da viagem do evento.
+     *
+     * @param evento O evento.
+     */
+    @Override
+    public synchronized void aplicar(EventoDominio evento) {
+        Viagem viagem = evento.getViagem();
+        int sinal = evento.getTipo() == TipoEvento.VIAGEM_ADICIONADA ? 1 : -1;
+        TreeMap<LocalDateTime, Acumulado> datas =
+                porCondutor.computeIfAbsent(viagem.getCondutor().getNumeroIdentificacao(), id -> new TreeMap<>());
+        Acumulado.somar(datas, viagem.getDataHoraInicio(), viagem.getCusto(), sinal);
+        if (datas.isEmpty()) {
+            porCondutor.remove(viagem.getCondutor().getNumeroIdentificacao());
+        }
+        total.somar(viagem.getCusto(), sinal);
+    }
+
+    /**
+     * Calcula o total faturado por um condutor num intervalo (inclusive).
+     *
+     * @param numeroIdentificacao Número de ID do condutor.
+     * @param inicio              Início do intervalo.
+     * @param fim                 Fim do intervalo.
+     * @return Total faturado.
+     */
+    public synchronized double getFaturacaoCondutor(int numeroIdentificacao, LocalDateTime inicio, LocalDateTime fim) {
+        TreeMap<LocalDateTime, Acumulado> datas = porCondutor.get(numeroIdentificacao);
+        return datas == null ? 0.0 : Acumulado.total(datas, inicio, fim).getSoma();
+    }
+
+    /**
+     * Obtém a faturação total da empresa.
+     *
+     * @return Soma dos custos de todas as viagens.
+     */
+    public synchronized double getFaturacaoTotal() {
+        return total.getSoma();
+    }
+
+    /**
+     * Obtém o número total de viagens faturadas.
+     *
+     * @return Número de viagens.
+     */
+    public synchronized long getNumeroViagens() {
+        return total.getContagem();
+    }
+}
@@ -0,0 +1,126 @@
+package Estatisticas;
+
+import Gestao.EventoDominio;
+import Gestao.TipoEvento;
+import Gestao.VistaMaterializada;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores do ciclo de vida das reservas (criadas, convertidas, canceladas e expiradas).
+ * Cada evento só incrementa um contador, pelo que a vista não precisa de sincronização.
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class VistaReservas implements VistaMaterializada {
+
+    /**
+     * Reservas que ficaram pendentes.
+     */
+    private final LongAdder adicionadas;
+
+    /**
+     * Reservas convertidas em viagem.
+     */
+    private final LongAdder convertidas;
+
+    /**
+     * Reservas canceladas.
+     */
+    private final LongAdder removidas;
+
+    /**
+     * Reservas que expiraram sem ser convertidas.
+     */
+    private final LongAdder expiradas;
+
+    /**
+     * Cria uma vista vazia.
+     */
+    public VistaReservas() {
+        this.adicionadas = new LongAdder();
+        this.convertidas = new LongAdder();
+        this.removidas = new LongAdder();
+        this.expiradas = new LongAdder();
+    }
+
+    /**
+     * A vista depende de todos os eventos de reservas.
+     *
+     * @return Os tipos de eventos de reservas.
+     */
+    @Override
+    public Set<TipoEvento> getTipos() {
+        return EnumSet.of(TipoEvento.RESERVA_ADICIONADA, TipoEvento.RESERVA_CONVERTIDA,
+                TipoEvento.RESERVA_REMOVIDA, TipoEvento.RESERVA_EXPIRADA);
+    }
+
+    /**
+     * Incrementa o contador do evento.
+     *
+     * @param evento O evento.
+     */
+    @Override
+    public void aplicar(EventoDominio evento) {
+        switch (evento.getTipo()) {
+            case RESERVA_ADICIONADA -> adicionadas.increment();
+            case RESERVA_CONVERTIDA -> convertidas.increment();
+            case RESERVA_REMOVIDA -> removidas.increment();
+            case RESERVA_EXPIRADA -> expiradas.increment();
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Obtém o número de reservas que ficaram pendentes.
+     *
+     * @return Número de reservas.
+     */
+    public long getAdicionadas() {
+        return adicionadas.sum();
+    }
+
+    /**
+     * Obtém o número de reservas convertidas em viagem.
+     *
+     * @return Número de reservas.
+     */
+    public long getConvertidas() {
+        return convertidas.sum();
+    }
+
+    /**
+     * Obtém o número de reservas canceladas.
+     *
+     * @return Número de reservas.
+     */
+    public long getRemovidas() {
+        return removidas.sum();
+    }
+
+    /**
+     * Obtém o número de reservas expiradas.
+     *
+     * @return Número de reservas.
+     */
+    public long getExpiradas() {
+        return expiradas.sum();
+    }
+
+    /**
+     * Calcula a percentagem de reservas concluídas (convertidas, canceladas ou expiradas)
+     * que foram convertidas em viagem.
+     *
+     * @return Taxa de conversão (0 a 100), ou 0 se nenhuma reserva foi concluída.
+     */
+    public double getTaxaConversao() {
+        long convertidasAgora = convertidas.sum();
+        long concluidas = convertidasAgora + removidas.sum() + expiradas.sum();
+        return concluidas == 0 ? 0.0 : 100.0 * convertidasAgora / concluidas;
+    }
+}
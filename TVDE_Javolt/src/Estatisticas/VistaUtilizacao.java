@@ -0,0 +1,203 @@
+package Estatisticas;
+
+import Entidades.Cliente;
+import Entidades.Viagem;
+import Gestao.EventoDominio;
+import Gestao.TipoEvento;
+import Gestao.VistaMaterializada;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Utilização de condutores e viaturas, mantida de forma incremental.
+ * <p>
+ * Guarda, para cada condutor e viatura, o número de viagens e os minutos ocupados,
+ * e para cada viatura os clientes que a utilizaram (pela ordem da primeira viagem).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class VistaUtilizacao implements VistaMaterializada {
+
+    /**
+     * Minutos ocupados de cada condutor (pelo número de identificação).
+     */
+    private final HashMap<Integer, Acumulado> porCondutor;
+
+    /**
+     * Minutos ocupados de cada viatura (pela matrícula em maiúsculas).
+     */
+    private final HashMap<String, Acumulado> porViatura;
+
+    /**
+     * Clientes de cada viatura e número de viagens de cada um.
+     */
+    private final HashMap<String, LinkedHashMap<Integer, Integer>> clientesViatura;
+
+    /**
+     * Clientes com viagens (pelo NIF).
+     */
+    private final HashMap<Integer, Cliente> clientes;
+
+    /**
+     * Cria uma vista vazia.
+     */
+    public VistaUtilizacao() {
+        this.porCondutor = new HashMap<>();
+        this.porViatura = new HashMap<>();
+        this.clientesViatura = new HashMap<>();
+        this.clientes = new HashMap<>();
+    }
+
+    /**
+     * A utilização depende apenas das viagens registadas e removidas.
+     *
+     * @return Os tipos de eventos de viagens.
+     */
+    @Override
+    public Set<TipoEvento> getTipos() {
+        return EnumSet.of(TipoEvento.VIAGEM_ADICIONADA, TipoEvento.VIAGEM_REMOVIDA);
+    }
+
+    /**
+     * Acrescenta ou retira a ocupação da viagem do evento.
+     *
+     * @param evento O evento.
+     */
+    @Override
+    public synchronized void aplicar(EventoDominio evento) {
+        Viagem viagem = evento.getViagem();
+        int sinal = evento.getTipo() == TipoEvento.VIAGEM_ADICIONADA ? 1 : -1;
+        double minutos = Duration.between(viagem.getDataHoraInicio(), viagem.getDataHoraFim()).toMinutes();
+        String matricula = chave(viagem.getViatura().getMatricula());
+
+        somar(porCondutor, viagem.getCondutor().getNumeroIdentificacao(), minutos, sinal);
+        somar(porViatura, matricula, minutos, sinal);
+
+        int nif = viagem.getCliente().getNif();
+        LinkedHashMap<Integer, Integer> daViatura = clientesViatura.computeIfAbsent(matricula,
+                m -> new LinkedHashMap<>());
+        int viagens = daViatura.getOrDefault(nif, 0) + sinal;
+        if (viagens == 0) {
+            daViatura.remove(nif);
+            if (daViatura.isEmpty()) {
+                clientesViatura.remove(matricula);
+            }
+        } else {
+            daViatura.put(nif, viagens);
+            clientes.put(nif, viagem.getCliente());
+        }
+    }
+
+    /**
+     * Obtém os clientes (sem repetições) que viajaram numa viatura.
+     *
+     * @param matricula Matrícula da viatura (sem distinguir maiúsculas).
+     * @return Lista de clientes, pela ordem da primeira viagem de cada um.
+     */
+    public synchronized ArrayList<Cliente> getClientesPorViatura(String matricula) {
+        ArrayList<Cliente> resultado = new ArrayList<>();
+        LinkedHashMap<Integer, Integer> daViatura = clientesViatura.get(chave(matricula));
+        if (daViatura != null) {
+            for (Integer nif : daViatura.keySet()) {
+                resultado.add(clientes.get(nif));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtém os minutos ocupados de um condutor.
+     *
+     * @param numeroIdentificacao Número de ID do condutor.
+     * @return Minutos em viagem.
+     */
+    public synchronized long getMinutosCondutor(int numeroIdentificacao) {
+        Acumulado acumulado = porCondutor.get(numeroIdentificacao);
+        return acumulado == null ? 0 : Math.round(acumulado.getSoma());
+    }
+
+    /**
+     * Obtém o número de viagens de um condutor.
+     *
+     * @param numeroIdentificacao Número de ID do condutor.
+     * @return Número de viagens.
+     */
+    public synchronized long getViagensCondutor(int numeroIdentificacao) {
+        Acumulado acumulado = porCondutor.get(numeroIdentificacao);
+        return acumulado == null ? 0 : acumulado.getContagem();
+    }
+
+    /**
+     * Obtém os minutos ocupados de uma viatura.
+     *
+     * @param matricula Matrícula da viatura (sem distinguir maiúsculas).
+     * @return Minutos em viagem.
+     */
+    public synchronized long getMinutosViatura(String matricula) {
+        Acumulado acumulado = porViatura.get(chave(matricula));
+        return acumulado == null ? 0 : Math.round(acumulado.getSoma());
+    }
+
+    /**
+     * Obtém o número de viagens de uma viatura.
+     *
+     * @param matricula Matrícula da viatura (sem distinguir maiúsculas).
+     * @return Número de viagens.
+     */
+    public synchronized long getViagensViatura(String matricula) {
+        Acumulado acumulado = porViatura.get(chave(matricula));
+        return acumulado == null ? 0 : acumulado.getContagem();
+    }
+
+    /**
+     * Calcula a ocupação média dos condutores com viagens.
+     *
+     * @return Média de minutos em viagem por condutor, ou 0 se não houver viagens.
+     */
+    public synchronized double getMinutosMediosPorCondutor() {
+        if (porCondutor.isEmpty()) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (Acumulado acumulado : porCondutor.values()) {
+            total += acumulado.getSoma();
+        }
+        return total / porCondutor.size();
+    }
+
+    /**
+     * Acrescenta ou retira minutos de um recurso, apagando-o quando deixa de ter viagens.
+     *
+     * @param mapa    Ocupação por recurso.
+     * @param chave   O recurso.
+     * @param minutos Os minutos da viagem.
+     * @param sinal   1 para acrescentar, -1 para retirar.
+     * @param <K>     Tipo da chave do recurso.
+     */
+    private static <K> void somar(HashMap<K, Acumulado> mapa, K chave, double minutos, int sinal) {
+        Acumulado acumulado = mapa.computeIfAbsent(chave, c -> new Acumulado());
+        acumulado.somar(minutos, sinal);
+        if (acumulado.getContagem() == 0) {
+            mapa.remove(chave);
+        }
+    }
+
+    /**
+     * Normaliza uma matrícula (maiúsculas), como nas agendas da empresa.
+     *
+     * @param matricula A matrícula.
+     * @return A matrícula em maiúsculas.
+     */
+    private static String chave(String matricula) {
+        return matricula.toUpperCase(Locale.ROOT);
+    }
+}
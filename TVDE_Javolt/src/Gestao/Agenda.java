@@ -0,0 +1,457 @@
+package Gestao;
+
+import Entidades.Viagem;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agenda imutável de viagens de um único recurso (Condutor, Viatura ou Cliente).
+ * <p>
+ * As viagens são mantidas numa árvore AVL persistente, ordenada pela data/hora de início
+ * (em caso de empate, pela ordem de marcação). Cada alteração devolve uma nova Agenda que só
+ * copia os nós do caminho alterado, O(log n), partilhando o resto da árvore com a versão anterior:
+ * marcar ou desmarcar uma viagem não copia o histórico do recurso, e uma instância pode ser lida
+ * por várias threads em simultâneo sem qualquer bloqueio.
+ * </p>
+ * <p>
+ * Cada nó guarda o fim mais tardio das viagens da sua subárvore (árvore de intervalos), o que
+ * permite verificar sobreposições em O(log n) e listar as viagens sobrepostas sem percorrer as
+ * restantes, mesmo quando a agenda contém viagens sobrepostas (ex: histórico carregado dos ficheiros).
+ * </p>
+ * <p>
+ * A data/hora de uma viagem não pode ser alterada enquanto estiver numa agenda: a posição na
+ * árvore é a que tinha quando foi marcada.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Agenda {
+
+    /**
+     * Agenda sem viagens, partilhada por todos os recursos que ainda não têm marcações.
+     */
+    public static final Agenda VAZIA = new Agenda(null);
+
+    /**
+     * Nó imutável da árvore.
+     */
+    private static final class No {
+
+        /**
+         * Viagem deste nó.
+         */
+        final Viagem viagem;
+
+        /**
+         * Subárvore das viagens que começam antes (ou à mesma hora, marcadas antes).
+         */
+        final No esquerda;
+
+        /**
+         * Subárvore das viagens que começam depois (ou à mesma hora, marcadas depois).
+         */
+        final No direita;
+
+        /**
+         * Altura da subárvore.
+         */
+        final int altura;
+
+        /**
+         * Número de viagens da subárvore.
+         */
+        final int tamanho;
+
+        /**
+         * Data/hora de fim mais tardia de entre as viagens da subárvore.
+         */
+        final LocalDateTime fimMaximo;
+
+        /**
+         * Cria um nó, calculando a altura, o tamanho e o fim mais tardio a partir dos filhos.
+         *
+         * @param viagem   A viagem.
+         * @param esquerda Subárvore esquerda (pode ser {@code null}).
+         * @param direita  Subárvore direita (pode ser {@code null}).
+         */
+        No(Viagem viagem, No esquerda, No direita) {
+            this.viagem = viagem;
+            this.esquerda = esquerda;
+            this.direita = direita;
+            this.altura = Math.max(altura(esquerda), altura(direita)) + 1;
+            this.tamanho = tamanho(esquerda) + tamanho(direita) + 1;
+            LocalDateTime fim = viagem.getDataHoraFim();
+            if (esquerda != null) {
+                fim = maisTarde(fim, esquerda.fimMaximo);
+            }
+            if (direita != null) {
+                fim = maisTarde(fim, direita.fimMaximo);
+            }
+            this.fimMaximo = fim;
+        }
+    }
+
+    /**
+     * Raiz da árvore ({@code null} se a agenda estiver vazia).
+     */
+    private final No raiz;
+
+    /**
+     * Construtor privado. As agendas são criadas a partir de {@link #VAZIA}.
+     *
+     * @param raiz Raiz da árvore.
+     */
+    private Agenda(No raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * Verifica se existe alguma viagem nesta agenda que colida com o intervalo indicado.
+     * <p>
+     * Usa a mesma lógica de sobreposição do resto do sistema: (InicioA &lt; FimB) e (FimA &gt; InicioB).
+     * Desce um único caminho da árvore: se a subárvore esquerda tiver uma viagem que acabe depois
+     * do início pedido e nenhuma colidir, todas as da direita começam depois do fim pedido.
+     * </p>
+     *
+     * @param inicio Data/Hora de início do intervalo.
+     * @param fim    Data/Hora de fim do intervalo.
+     * @return {@code true} se houver sobreposição; {@code false} se o recurso estiver livre.
+     */
+    public boolean temSobreposicao(LocalDateTime inicio, LocalDateTime fim) {
+        No no = raiz;
+        while (no != null && no.fimMaximo.isAfter(inicio)) {
+            if (no.viagem.getDataHoraInicio().isBefore(fim) && no.viagem.getDataHoraFim().isAfter(inicio)) {
+                return true;
+            }
+            no = no.esquerda != null && no.esquerda.fimMaximo.isAfter(inicio) ? no.esquerda : no.direita;
+        }
+        return false;
+    }
+
+    /**
+     * Obtém as viagens desta agenda que se sobrepõem ao intervalo indicado.
+     *
+     * @param inicio Data/Hora de início do intervalo.
+     * @param fim    Data/Hora de fim do intervalo.
+     * @return Lista das viagens sobrepostas, ordenadas pela data/hora de início.
+     */
+    public List<Viagem> sobrepostas(LocalDateTime inicio, LocalDateTime fim) {
+        ArrayList<Viagem> resultado = new ArrayList<>();
+        juntarSobrepostas(raiz, inicio, fim, resultado);
+        return resultado;
+    }
+
+    /**
+     * Obtém as viagens desta agenda que começam num intervalo fechado [inicio, fim].
+     *
+     * @param inicio Data/Hora mínima de início.
+     * @param fim    Data/Hora máxima de início.
+     * @return Lista das viagens, ordenadas pela data/hora de início.
+     */
+    public ArrayList<Viagem> iniciadasEntre(LocalDateTime inicio, LocalDateTime fim) {
+        ArrayList<Viagem> resultado = new ArrayList<>();
+        juntarIniciadas(raiz, inicio, fim, resultado);
+        return resultado;
+    }
+
+    /**
+     * Devolve uma nova agenda que inclui a viagem indicada, mantendo a ordenação.
+     *
+     * @param viagem A viagem a acrescentar.
+     * @return Nova agenda com a viagem; a agenda atual não é alterada.
+     */
+    public Agenda comViagem(Viagem viagem) {
+        return new Agenda(inserir(raiz, viagem));
+    }
+
+    /**
+     * Devolve uma nova agenda que inclui todas as viagens indicadas.
+     * Numa agenda vazia (ex: carregamento do histórico) a árvore é construída diretamente,
+     * em O(m); caso contrário as viagens são inseridas uma a uma, em O(m log n).
+     *
+     * @param ordenadas Viagens a acrescentar, já ordenadas pela data/hora de início.
+     * @return Nova agenda com as viagens; a agenda atual não é alterada.
+     */
+    public Agenda comViagens(List<Viagem> ordenadas) {
+        if (ordenadas.isEmpty()) {
+            return this;
+        }
+        if (raiz == null) {
+            return new Agenda(construir(ordenadas, 0, ordenadas.size()));
+        }
+        No novaRaiz = raiz;
+        for (Viagem viagem : ordenadas) {
+            novaRaiz = inserir(novaRaiz, viagem);
+        }
+        return new Agenda(novaRaiz);
+    }
+
+    /**
+     * Devolve uma nova agenda sem a viagem indicada (comparação por identidade).
+     *
+     * @param viagem A viagem a retirar.
+     * @return Nova agenda sem a viagem, ou esta mesma agenda se a viagem não existir.
+     */
+    public Agenda semViagem(Viagem viagem) {
+        No novaRaiz = remover(raiz, viagem);
+        if (novaRaiz == raiz) {
+            return this;
+        }
+        return novaRaiz == null ? VAZIA : new Agenda(novaRaiz);
+    }
+
+    /**
+     * Obtém a data/hora a partir da qual o recurso fica livre de vez, isto é,
+     * o fim mais tardio de entre as suas viagens.
+     *
+     * @return O fim mais tardio, ou {@code null} se a agenda estiver vazia.
+     */
+    public LocalDateTime getFimMaximo() {
+        return raiz == null ? null : raiz.fimMaximo;
+    }
+
+    /**
+     * Obtém a viagem com a data/hora de início mais recente.
+     *
+     * @return A última viagem, ou {@code null} se a agenda estiver vazia.
+     */
+    public Viagem getUltima() {
+        No no = raiz;
+        if (no == null) {
+            return null;
+        }
+        while (no.direita != null) {
+            no = no.direita;
+        }
+        return no.viagem;
+    }
+
+    /**
+     * Indica se a agenda não tem viagens.
+     *
+     * @return {@code true} se estiver vazia.
+     */
+    public boolean isVazia() {
+        return raiz == null;
+    }
+
+    /**
+     * Obtém o número de viagens da agenda.
+     *
+     * @return Número de viagens.
+     */
+    public int tamanho() {
+        return tamanho(raiz);
+    }
+
+    /**
+     * Acrescenta à lista, por ordem de início, as viagens de uma subárvore que se sobrepõem ao intervalo.
+     * As subárvores cujas viagens acabam todas até ao início pedido não são visitadas.
+     *
+     * @param no        Raiz da subárvore.
+     * @param inicio    Data/Hora de início do intervalo.
+     * @param fim       Data/Hora de fim do intervalo.
+     * @param resultado Lista onde acrescentar as viagens.
+     */
+    private static void juntarSobrepostas(No no, LocalDateTime inicio, LocalDateTime fim, List<Viagem> resultado) {
+        if (no == null || !no.fimMaximo.isAfter(inicio)) {
+            return;
+        }
+        juntarSobrepostas(no.esquerda, inicio, fim, resultado);
+        if (!no.viagem.getDataHoraInicio().isBefore(fim)) {
+            return; // Esta e as da direita começam depois do fim pedido
+        }
+        if (no.viagem.getDataHoraFim().isAfter(inicio)) {
+            resultado.add(no.viagem);
+        }
+        juntarSobrepostas(no.direita, inicio, fim, resultado);
+    }
+
+    /**
+     * Acrescenta à lista, por ordem de início, as viagens de uma subárvore que começam em [inicio, fim].
+     *
+     * @param no        Raiz da subárvore.
+     * @param inicio    Data/Hora mínima de início.
+     * @param fim       Data/Hora máxima de início.
+     * @param resultado Lista onde acrescentar as viagens.
+     */
+    private static void juntarIniciadas(No no, LocalDateTime inicio, LocalDateTime fim, List<Viagem> resultado) {
+        if (no == null) {
+            return;
+        }
+        LocalDateTime comeco = no.viagem.getDataHoraInicio();
+        if (!comeco.isBefore(inicio)) {
+            juntarIniciadas(no.esquerda, inicio, fim, resultado);
+        }
+        if (!comeco.isBefore(inicio) && !comeco.isAfter(fim)) {
+            resultado.add(no.viagem);
+        }
+        if (!comeco.isAfter(fim)) {
+            juntarIniciadas(no.direita, inicio, fim, resultado);
+        }
+    }
+
+    /**
+     * Insere uma viagem numa subárvore, depois das que começam à mesma hora.
+     *
+     * @param no     Raiz da subárvore.
+     * @param viagem A viagem.
+     * @return Nova raiz da subárvore, equilibrada.
+     */
+    private static No inserir(No no, Viagem viagem) {
+        if (no == null) {
+            return new No(viagem, null, null);
+        }
+        if (viagem.getDataHoraInicio().isBefore(no.viagem.getDataHoraInicio())) {
+            return equilibrar(no.viagem, inserir(no.esquerda, viagem), no.direita);
+        }
+        return equilibrar(no.viagem, no.esquerda, inserir(no.direita, viagem));
+    }
+
+    /**
+     * Retira uma viagem (por identidade) de uma subárvore.
+     * Só as viagens com a mesma data/hora de início são comparadas.
+     *
+     * @param no     Raiz da subárvore.
+     * @param viagem A viagem.
+     * @return Nova raiz da subárvore, ou a mesma se a viagem não existir.
+     */
+    private static No remover(No no, Viagem viagem) {
+        if (no == null) {
+            return null;
+        }
+        int comparacao = viagem.getDataHoraInicio().compareTo(no.viagem.getDataHoraInicio());
+        if (comparacao == 0 && no.viagem == viagem) {
+            if (no.esquerda == null) {
+                return no.direita;
+            }
+            if (no.direita == null) {
+                return no.esquerda;
+            }
+            No sucessor = no.direita;
+            while (sucessor.esquerda != null) {
+                sucessor = sucessor.esquerda;
+            }
+            return equilibrar(sucessor.viagem, no.esquerda, removerPrimeiro(no.direita));
+        }
+        if (comparacao <= 0) {
+            No esquerda = remover(no.esquerda, viagem);
+            if (esquerda != no.esquerda) {
+                return equilibrar(no.viagem, esquerda, no.direita);
+            }
+        }
+        if (comparacao >= 0) {
+            No direita = remover(no.direita, viagem);
+            if (direita != no.direita) {
+                return equilibrar(no.viagem, no.esquerda, direita);
+            }
+        }
+        return no;
+    }
+
+    /**
+     * Retira a primeira viagem (a mais à esquerda) de uma subárvore não vazia.
+     *
+     * @param no Raiz da subárvore.
+     * @return Nova raiz da subárvore.
+     */
+    private static No removerPrimeiro(No no) {
+        if (no.esquerda == null) {
+            return no.direita;
+        }
+        return equilibrar(no.viagem, removerPrimeiro(no.esquerda), no.direita);
+    }
+
+    /**
+     * Constrói uma árvore equilibrada a partir de viagens já ordenadas.
+     *
+     * @param ordenadas Viagens ordenadas pela data/hora de início.
+     * @param de        Primeiro índice (inclusive).
+     * @param ate       Último índice (exclusive).
+     * @return Raiz da árvore, ou {@code null} se o intervalo estiver vazio.
+     */
+    private static No construir(List<Viagem> ordenadas, int de, int ate) {
+        if (de >= ate) {
+            return null;
+        }
+        int meio = (de + ate) >>> 1;
+        return new No(ordenadas.get(meio), construir(ordenadas, de, meio), construir(ordenadas, meio + 1, ate));
+    }
+
+    /**
+     * Cria um nó e repõe o equilíbrio AVL (diferença de alturas de no máximo 1) com uma ou duas rotações.
+     * As subárvores recebidas já estão equilibradas e diferem no máximo 2 em altura.
+     *
+     * @param viagem   A viagem do nó.
+     * @param esquerda Subárvore esquerda.
+     * @param direita  Subárvore direita.
+     * @return Raiz da subárvore equilibrada.
+     */
+    private static No equilibrar(Viagem viagem, No esquerda, No direita) {
+        int diferenca = altura(esquerda) - altura(direita);
+        if (diferenca > 1) {
+            if (altura(esquerda.esquerda) >= altura(esquerda.direita)) {
+                return new No(esquerda.viagem, esquerda.esquerda, new No(viagem, esquerda.direita, direita));
+            }
+            No meio = esquerda.direita;
+            return new No(meio.viagem,
+                    new No(esquerda.viagem, esquerda.esquerda, meio.esquerda),
+                    new No(viagem, meio.direita, direita));
+        }
+        if (diferenca < -1) {
+            if (altura(direita.direita) >= altura(direita.esquerda)) {
+                return new No(direita.viagem, new No(viagem, esquerda, direita.esquerda), direita.direita);
+            }
+            No meio = direita.esquerda;
+            return new No(meio.viagem,
+                    new No(viagem, esquerda, meio.esquerda),
+                    new No(direita.viagem, meio.direita, direita.direita));
+        }
+        return new No(viagem, esquerda, direita);
+    }
+
+    /**
+     * Obtém a altura de uma subárvore.
+     *
+     * @param no Raiz da subárvore (pode ser {@code null}).
+     * @return A altura (0 se vazia).
+     */
+    private static int altura(No no) {
+        return no == null ? 0 : no.altura;
+    }
+
+    /**
+     * Obtém o número de viagens de uma subárvore.
+     *
+     * @param no Raiz da subárvore (pode ser {@code null}).
+     * @return O número de viagens (0 se vazia).
+     */
+    private static int tamanho(No no) {
+        return no == null ? 0 : no.tamanho;
+    }
+
+    /**
+     * Devolve a mais tardia de duas datas, ignorando {@code null}.
+     *
+     * @param a Primeira data (pode ser {@code null}).
+     * @param b Segunda data.
+     * @return A data mais tardia.
+     */
+    private static LocalDateTime maisTarde(LocalDateTime a, LocalDateTime b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    /**
+     * Devolve uma representação textual resumida da agenda.
+     *
+     * @return String com o número de viagens.
+     */
+    @Override
+    public String toString() {
+        return "Agenda [" + tamanho() + " viagens]";
+    }
+}
@@ -0,0 +1,167 @@
+package Gestao;
+
+import Entidades.Reserva;
+import Entidades.Viagem;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Barramento de eventos de domínio de uma {@link Empresa}, dentro do mesmo processo.
+ * <p>
+ * Os subscritores de cada {@link TipoEvento} são guardados num array substituído por cópia na
+ * escrita, pelo que publicar não adquire bloqueios nem cria iteradores. Se um tipo de evento não
+ * tiver subscritores, publicar nem sequer cria o objeto {@link EventoDominio}.
+ * </p>
+ * <p>
+ * Os eventos são entregues de forma síncrona, na thread que fez a alteração. Os eventos de viagens
+ * são publicados depois de largar o bloqueio do histórico, pelo que eventos de threads diferentes
+ * podem chegar por outra ordem (ex: a remoção de uma viagem antes do seu registo). Os subscritores
+ * devem por isso ser rápidos (ex: atualizar contadores), tolerar essa ordem e não chamar operações
+ * da empresa.
+ * Uma exceção num subscritor é registada e não impede os restantes nem a operação original.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class BarramentoEventos {
+
+    /**
+     * Array partilhado pelos tipos de eventos sem subscritores.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Consumer<EventoDominio>[] NENHUM = new Consumer[0];
+
+    /**
+     * Subscritores de cada tipo de evento (índice = ordinal do tipo).
+     * Tanto a tabela como cada array são substituídos, nunca alterados, numa subscrição.
+     */
+    private volatile Consumer<EventoDominio>[][] subscritores;
+
+    /**
+     * Cria um barramento sem subscritores.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BarramentoEventos() {
+        Consumer<EventoDominio>[][] tabela = new Consumer[TipoEvento.values().length][];
+        Arrays.fill(tabela, NENHUM);
+        this.subscritores = tabela;
+    }
+
+    /**
+     * Subscreve um conjunto de tipos de eventos.
+     *
+     * @param tipos      Os tipos de eventos.
+     * @param subscritor Quem recebe os eventos.
+     */
+    public synchronized void subscrever(Set<TipoEvento> tipos, Consumer<EventoDominio> subscritor) {
+        for (TipoEvento tipo : tipos) {
+            Consumer<EventoDominio>[] atuais = lerArray(tipo);
+            Consumer<EventoDominio>[] novos = Arrays.copyOf(atuais, atuais.length + 1);
+            novos[atuais.length] = subscritor;
+            substituirArray(tipo, novos);
+        }
+    }
+
+    /**
+     * Cancela todas as subscrições de um subscritor.
+     *
+     * @param subscritor O subscritor.
+     * @return {@code true} se estava subscrito a algum tipo de evento.
+     */
+    public synchronized boolean cancelar(Consumer<EventoDominio> subscritor) {
+        boolean encontrado = false;
+        for (TipoEvento tipo : TipoEvento.values()) {
+            Consumer<EventoDominio>[] atuais = lerArray(tipo);
+            @SuppressWarnings("unchecked")
+            Consumer<EventoDominio>[] restantes = Arrays.stream(atuais)
+                    .filter(atual -> atual != subscritor)
+                    .toArray(Consumer[]::new);
+            if (restantes.length != atuais.length) {
+                encontrado = true;
+                substituirArray(tipo, restantes.length == 0 ? NENHUM : restantes);
+            }
+        }
+        return encontrado;
+    }
+
+    /**
+     * Indica se um tipo de evento tem subscritores.
+     *
+     * @param tipo O tipo de evento.
+     * @return {@code true} se alguém recebe este tipo de evento.
+     */
+    public boolean temSubscritores(TipoEvento tipo) {
+        return lerArray(tipo).length > 0;
+    }
+
+    /**
+     * Publica um evento para todos os subscritores do seu tipo.
+     *
+     * @param tipo    Tipo do evento.
+     * @param viagem  Viagem envolvida (ou {@code null}).
+     * @param reserva Reserva envolvida (ou {@code null}).
+     */
+    void publicar(TipoEvento tipo, Viagem viagem, Reserva reserva) {
+        Consumer<EventoDominio>[] destino = lerArray(tipo);
+        if (destino.length == 0) {
+            return;
+        }
+        EventoDominio evento = new EventoDominio(tipo, viagem, reserva);
+        for (Consumer<EventoDominio> subscritor : destino) {
+            entregar(subscritor, evento);
+        }
+    }
+
+    /**
+     * Entrega um evento a um único subscritor (usado para o pôr a par do estado atual).
+     *
+     * @param subscritor O subscritor.
+     * @param tipo       Tipo do evento.
+     * @param viagem     Viagem envolvida (ou {@code null}).
+     * @param reserva    Reserva envolvida (ou {@code null}).
+     */
+    static void entregar(Consumer<EventoDominio> subscritor, TipoEvento tipo, Viagem viagem, Reserva reserva) {
+        entregar(subscritor, new EventoDominio(tipo, viagem, reserva));
+    }
+
+    /**
+     * Entrega um evento, isolando as exceções do subscritor.
+     *
+     * @param subscritor O subscritor.
+     * @param evento     O evento.
+     */
+    private static void entregar(Consumer<EventoDominio> subscritor, EventoDominio evento) {
+        try {
+            subscritor.accept(evento);
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao processar o evento " + evento.getTipo() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lê os subscritores atuais de um tipo de evento.
+     *
+     * @param tipo O tipo de evento.
+     * @return O array de subscritores (não deve ser alterado).
+     */
+    private Consumer<EventoDominio>[] lerArray(TipoEvento tipo) {
+        return subscritores[tipo.ordinal()];
+    }
+
+    /**
+     * Substitui os subscritores de um tipo de evento, publicando uma nova tabela.
+     * Só é chamado com o monitor do barramento.
+     *
+     * @param tipo  O tipo de evento.
+     * @param array O novo array de subscritores.
+     */
+    private void substituirArray(TipoEvento tipo, Consumer<EventoDominio>[] array) {
+        Consumer<EventoDominio>[][] tabela = subscritores.clone();
+        tabela[tipo.ordinal()] = array;
+        subscritores = tabela;
+    }
+}
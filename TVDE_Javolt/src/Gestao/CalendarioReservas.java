@@ -0,0 +1,291 @@
+package Gestao;
+
+import Entidades.Reserva;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Temporizadores do ciclo de vida das reservas pendentes de uma empresa.
+ * <p>
+ * Para cada reserva são agendados três eventos ({@link EventoReserva}): o prazo de despacho e o
+ * aviso de recolha (antes da data/hora de início) e a expiração (depois). Os temporizadores vivem
+ * numa {@link RodaTemporal} com resolução de um minuto, pelo que agendar, cancelar e fazer avançar
+ * o relógio não percorre as reservas pendentes.
+ * </p>
+ * <p>
+ * O relógio é avançado por {@link Empresa#processarEventosReservas(LocalDateTime)}. Se a data de
+ * uma reserva for alterada depois de agendada, os seus eventos são reagendados quando o primeiro
+ * deles vencer. As alterações às antecedências só se aplicam às reservas agendadas depois.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class CalendarioReservas {
+
+    /**
+     * Roda temporal com os eventos pendentes (um tick por minuto).
+     */
+    private final RodaTemporal<Alarme> roda;
+
+    /**
+     * Temporizadores de cada reserva agendada (comparação por identidade).
+     */
+    private final IdentityHashMap<Reserva, List<RodaTemporal.Temporizador<Alarme>>> temporizadores;
+
+    /**
+     * Quem é avisado quando um evento dispara.
+     */
+    private final CopyOnWriteArrayList<BiConsumer<EventoReserva, Reserva>> ouvintes;
+
+    /**
+     * Antecedência do prazo de despacho em relação ao início da reserva.
+     */
+    private volatile Duration antecedenciaDespacho;
+
+    /**
+     * Antecedência do aviso de recolha em relação ao início da reserva.
+     */
+    private volatile Duration antecedenciaRecolha;
+
+    /**
+     * Tempo, depois do início da reserva, até esta expirar se não for convertida.
+     */
+    private volatile Duration toleranciaExpiracao;
+
+    /**
+     * Cria um calendário vazio.
+     *
+     * @param agora Data/hora atual.
+     */
+    CalendarioReservas(LocalDateTime agora) {
+        this.roda = new RodaTemporal<>(minuto(agora));
+        this.temporizadores = new IdentityHashMap<>();
+        this.ouvintes = new CopyOnWriteArrayList<>();
+        this.antecedenciaDespacho = Duration.ofMinutes(30);
+        this.antecedenciaRecolha = Duration.ofMinutes(15);
+        this.toleranciaExpiracao = Duration.ofHours(1);
+    }
+
+    /**
+     * Regista quem deve ser avisado quando um evento de reserva dispara.
+     * Os ouvintes são chamados na thread que faz avançar o relógio, fora de qualquer bloqueio da empresa.
+     *
+     * @param ouvinte Ação a executar com o evento e a reserva.
+     */
+    public void adicionarOuvinte(BiConsumer<EventoReserva, Reserva> ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    /**
+     * Deixa de avisar um ouvinte.
+     *
+     * @param ouvinte O ouvinte a remover.
+     * @return {@code true} se estava registado.
+     */
+    public boolean removerOuvinte(BiConsumer<EventoReserva, Reserva> ouvinte) {
+        return ouvintes.remove(ouvinte);
+    }
+
+    /**
+     * Obtém a antecedência do prazo de despacho.
+     *
+     * @return Tempo antes do início da reserva.
+     */
+    public Duration getAntecedenciaDespacho() {
+        return antecedenciaDespacho;
+    }
+
+    /**
+     * Define a antecedência do prazo de despacho.
+     *
+     * @param antecedencia Tempo antes do início da reserva.
+     * @throws IllegalArgumentException se for null ou negativa.
+     */
+    public void setAntecedenciaDespacho(Duration antecedencia) {
+        this.antecedenciaDespacho = validar(antecedencia);
+    }
+
+    /**
+     * Obtém a antecedência do aviso de recolha.
+     *
+     * @return Tempo antes do início da reserva.
+     */
+    public Duration getAntecedenciaRecolha() {
+        return antecedenciaRecolha;
+    }
+
+    /**
+     * Define a antecedência do aviso de recolha.
+     *
+     * @param antecedencia Tempo antes do início da reserva.
+     * @throws IllegalArgumentException se for null ou negativa.
+     */
+    public void setAntecedenciaRecolha(Duration antecedencia) {
+        this.antecedenciaRecolha = validar(antecedencia);
+    }
+
+    /**
+     * Obtém o tempo de tolerância até uma reserva não convertida expirar.
+     *
+     * @return Tempo depois do início da reserva.
+     */
+    public Duration getToleranciaExpiracao() {
+        return toleranciaExpiracao;
+    }
+
+    /**
+     * Define o tempo de tolerância até uma reserva não convertida expirar.
+     *
+     * @param tolerancia Tempo depois do início da reserva.
+     * @throws IllegalArgumentException se for null ou negativa.
+     */
+    public void setToleranciaExpiracao(Duration tolerancia) {
+        this.toleranciaExpiracao = validar(tolerancia);
+    }
+
+    /**
+     * Obtém o número de eventos agendados e ainda por disparar.
+     *
+     * @return Número de temporizadores pendentes.
+     */
+    public synchronized int getEventosPendentes() {
+        return roda.tamanho();
+    }
+
+    /**
+     * Agenda os eventos de uma reserva.
+     *
+     * @param reserva A reserva pendente.
+     */
+    synchronized void agendar(Reserva reserva) {
+        LocalDateTime inicio = reserva.getDataHoraInicio();
+        List<RodaTemporal.Temporizador<Alarme>> lista = new ArrayList<>(3);
+        lista.add(roda.agendar(minuto(inicio.minus(antecedenciaDespacho)),
+                new Alarme(EventoReserva.PRAZO_DESPACHO, reserva, inicio)));
+        lista.add(roda.agendar(minuto(inicio.minus(antecedenciaRecolha)),
+                new Alarme(EventoReserva.RECOLHA_PROXIMA, reserva, inicio)));
+        lista.add(roda.agendar(minuto(inicio.plus(toleranciaExpiracao)),
+                new Alarme(EventoReserva.EXPIRACAO, reserva, inicio)));
+        List<RodaTemporal.Temporizador<Alarme>> anteriores = temporizadores.put(reserva, lista);
+        if (anteriores != null) {
+            anteriores.forEach(roda::cancelar);
+        }
+    }
+
+    /**
+     * Cancela os eventos de uma reserva (convertida, removida ou expirada).
+     *
+     * @param reserva A reserva.
+     */
+    synchronized void cancelar(Reserva reserva) {
+        List<RodaTemporal.Temporizador<Alarme>> lista = temporizadores.remove(reserva);
+        if (lista != null) {
+            lista.forEach(roda::cancelar);
+        }
+    }
+
+    /**
+     * Faz avançar o relógio e devolve os eventos que venceram.
+     * Os eventos de reservas cuja data foi alterada são reagendados em vez de devolvidos.
+     *
+     * @param agora Data/hora atual.
+     * @return Os eventos a processar, por ordem.
+     */
+    synchronized List<Alarme> avancar(LocalDateTime agora) {
+        List<Alarme> vencidos = roda.avancar(minuto(agora));
+        List<Alarme> validos = new ArrayList<>(vencidos.size());
+        for (Alarme alarme : vencidos) {
+            if (!temporizadores.containsKey(alarme.reserva)) {
+                continue; // Reserva já reagendada ou cancelada entretanto
+            }
+            if (!alarme.reserva.getDataHoraInicio().equals(alarme.inicio)) {
+                agendar(alarme.reserva);
+                continue;
+            }
+            if (alarme.evento == EventoReserva.EXPIRACAO) {
+                temporizadores.remove(alarme.reserva);
+            }
+            validos.add(alarme);
+        }
+        return validos;
+    }
+
+    /**
+     * Avisa todos os ouvintes de um evento.
+     *
+     * @param evento  O evento.
+     * @param reserva A reserva.
+     */
+    void notificar(EventoReserva evento, Reserva reserva) {
+        for (BiConsumer<EventoReserva, Reserva> ouvinte : ouvintes) {
+            ouvinte.accept(evento, reserva);
+        }
+    }
+
+    /**
+     * Converte uma data/hora no tick da roda (minutos desde a época).
+     *
+     * @param data A data/hora.
+     * @return O minuto correspondente.
+     */
+    private static long minuto(LocalDateTime data) {
+        return Math.floorDiv(data.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Valida uma duração de configuração.
+     *
+     * @param duracao A duração.
+     * @return A mesma duração.
+     * @throws IllegalArgumentException se for null ou negativa.
+     */
+    private static Duration validar(Duration duracao) {
+        if (duracao == null || duracao.isNegative()) {
+            throw new IllegalArgumentException("Duração inválida: " + duracao);
+        }
+        return duracao;
+    }
+
+    /**
+     * Evento agendado para uma reserva.
+     */
+    static final class Alarme {
+
+        /**
+         * O evento.
+         */
+        final EventoReserva evento;
+
+        /**
+         * A reserva.
+         */
+        final Reserva reserva;
+
+        /**
+         * Data/hora de início da reserva quando o evento foi agendado.
+         */
+        private final LocalDateTime inicio;
+
+        /**
+         * Cria um alarme.
+         *
+         * @param evento  O evento.
+         * @param reserva A reserva.
+         * @param inicio  Data/hora de início da reserva no momento do agendamento.
+         */
+        private Alarme(EventoReserva evento, Reserva reserva, LocalDateTime inicio) {
+            this.evento = evento;
+            this.reserva = reserva;
+            this.inicio = inicio;
+        }
+    }
+}
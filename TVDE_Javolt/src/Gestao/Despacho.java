@@ -0,0 +1,474 @@
+package Gestao;
+
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Entidades.Viatura;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Atribuição automática de condutor e viatura às reservas de uma empresa.
+ * <p>
+ * Mantém duas filas de prioridade (min-heaps), uma de condutores e outra de viaturas,
+ * ordenadas pela data/hora a partir da qual cada recurso fica livre (fim da sua última viagem).
+ * Para despachar uma reserva basta retirar do topo os recursos livres à hora pedida, sem
+ * percorrer todos os condutores e viaturas: O(log n) por recurso considerado. Entre os
+ * candidatos, a escolha segue a {@link PoliticaDespacho} configurada.
+ * </p>
+ * <p>
+ * Se nenhum recurso estiver livre de vez à hora pedida (ex: reserva anterior a viagens já
+ * marcadas), o despacho recorre às agendas da empresa para encontrar intervalos livres.
+ * A conversão segue a mesma lógica de {@link Empresa#converterReservaEmViagem}, pelo que as regras
+ * de sobreposição e limite continuam a ser verificadas; se as filas estiverem desatualizadas
+ * (marcações feitas por outra via), o recurso é reavaliado e é tentado o par seguinte.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Despacho {
+
+    /**
+     * Número máximo de candidatos de cada tipo considerados por reserva.
+     */
+    private static final int MAXIMO_CANDIDATOS = 32;
+
+    /**
+     * Número máximo de pares condutor/viatura tentados por reserva.
+     */
+    private static final int MAXIMO_TENTATIVAS = 3;
+
+    /**
+     * Empresa cujas reservas são despachadas.
+     */
+    private final Empresa empresa;
+
+    /**
+     * Critério de desempate entre recursos livres.
+     */
+    private PoliticaDespacho politica;
+
+    /**
+     * Condutores ordenados pela data/hora em que ficam livres.
+     */
+    private final PriorityQueue<Estado<Condutor>> condutores;
+
+    /**
+     * Viaturas ordenadas pela data/hora em que ficam livres.
+     */
+    private final PriorityQueue<Estado<Viatura>> viaturas;
+
+    /**
+     * Estado de cada condutor, pelo número de identificação.
+     */
+    private final HashMap<Integer, Estado<Condutor>> estadosCondutores;
+
+    /**
+     * Estado de cada viatura, pela matrícula (em maiúsculas).
+     */
+    private final HashMap<String, Estado<Viatura>> estadosViaturas;
+
+    /**
+     * Contador usado para desempatar recursos livres desde o mesmo instante (ordem de registo).
+     */
+    private long sequencia;
+
+    /**
+     * Cria um despacho para a empresa, com as filas construídas a partir das agendas atuais.
+     *
+     * @param empresa  A empresa.
+     * @param politica O critério de desempate.
+     * @throws IllegalArgumentException se algum dos parâmetros for null.
+     */
+    public Despacho(Empresa empresa, PoliticaDespacho politica) {
+        if (empresa == null) {
+            throw new IllegalArgumentException("Empresa não pode ser null");
+        }
+        this.empresa = empresa;
+        this.condutores = new PriorityQueue<>();
+        this.viaturas = new PriorityQueue<>();
+        this.estadosCondutores = new HashMap<>();
+        this.estadosViaturas = new HashMap<>();
+        setPolitica(politica);
+        atualizar();
+    }
+
+    /**
+     * Obtém o critério de desempate em uso.
+     *
+     * @return A política de despacho.
+     */
+    public synchronized PoliticaDespacho getPolitica() {
+        return politica;
+    }
+
+    /**
+     * Define o critério de desempate entre recursos livres.
+     *
+     * @param politica A nova política.
+     * @throws IllegalArgumentException se a política for null.
+     */
+    public synchronized void setPolitica(PoliticaDespacho politica) {
+        if (politica == null) {
+            throw new IllegalArgumentException("Política de despacho não pode ser null");
+        }
+        this.politica = politica;
+    }
+
+    /**
+     * Reconstrói as filas a partir dos condutores, viaturas e agendas atuais da empresa.
+     * Útil depois de muitas marcações ou remoções feitas fora do despacho.
+     */
+    public synchronized void atualizar() {
+        condutores.clear();
+        viaturas.clear();
+        estadosCondutores.clear();
+        estadosViaturas.clear();
+        for (Condutor condutor : empresa.getCondutores()) {
+            condutores.add(novoEstado(condutor));
+        }
+        for (Viatura viatura : empresa.getViaturas()) {
+            viaturas.add(novoEstado(viatura));
+        }
+    }
+
+    /**
+     * Converte uma reserva em viagem, escolhendo automaticamente o condutor e a viatura.
+     *
+     * @param reserva A reserva pendente.
+     * @param custo   O custo da viagem.
+     * @return A viagem criada, ou {@code null} se não houver condutor e viatura livres
+     *         (ou se a reserva já não estiver pendente).
+     * @throws IllegalArgumentException se a reserva for null.
+     */
+    public synchronized Viagem despachar(Reserva reserva, double custo) {
+        if (reserva == null) {
+            throw new IllegalArgumentException("Reserva não pode ser null");
+        }
+        LocalDateTime inicio = reserva.getDataHoraInicio();
+        LocalDateTime fim = inicio.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS);
+
+        ArrayList<Estado<Condutor>> candidatosCondutores = retirarLivres(condutores, inicio);
+        ArrayList<Estado<Viatura>> candidatosViaturas = retirarLivres(viaturas, inicio);
+        try {
+            if (candidatosCondutores.isEmpty()) {
+                procurarCondutoresNasAgendas(candidatosCondutores, inicio, fim);
+            }
+            if (candidatosViaturas.isEmpty()) {
+                procurarViaturasNasAgendas(candidatosViaturas, inicio, fim);
+            }
+            candidatosCondutores.sort(ordem());
+            candidatosViaturas.sort(ordem());
+
+            int tentativas = Math.min(MAXIMO_TENTATIVAS,
+                    Math.min(candidatosCondutores.size(), candidatosViaturas.size()));
+            for (int i = 0; i < tentativas; i++) {
+                Estado<Condutor> condutor = candidatosCondutores.get(i);
+                Estado<Viatura> viatura = escolherViatura(condutor, candidatosViaturas, i);
+
+                Viagem viagem = empresa.converterReserva(reserva, condutor.recurso, viatura.recurso, custo);
+                if (viagem != null) {
+                    condutor.registar(fim, viatura.recurso);
+                    viatura.registar(fim, null);
+                    return viagem;
+                }
+                if (!empresa.verificarSobreposicao(viatura.recurso, condutor.recurso, inicio, fim)) {
+                    return null; // Os recursos estavam livres: a reserva já não existe ou o limite foi atingido
+                }
+                // Filas desatualizadas: reavaliar os dois recursos a partir das agendas
+                recarregar(condutor, empresa.agendaCondutor(condutor.recurso));
+                recarregar(viatura, empresa.agendaViatura(viatura.recurso));
+            }
+            return null;
+        } finally {
+            condutores.addAll(candidatosCondutores);
+            viaturas.addAll(candidatosViaturas);
+        }
+    }
+
+    /**
+     * Despacha todas as reservas pendentes da empresa, por ordem de data/hora de início.
+     * As reservas para as quais não há recursos livres continuam pendentes.
+     *
+     * @param precoPorKm Preço por quilómetro usado para calcular o custo de cada viagem.
+     * @return As viagens criadas.
+     */
+    public synchronized List<Viagem> despacharPendentes(double precoPorKm) {
+        List<Reserva> pendentes = empresa.getReservasPorData();
+
+        ArrayList<Viagem> criadas = new ArrayList<>();
+        for (Reserva reserva : pendentes) {
+            Viagem viagem = despachar(reserva, reserva.getKms() * precoPorKm);
+            if (viagem != null) {
+                criadas.add(viagem);
+            }
+        }
+        return criadas;
+    }
+
+    /**
+     * Passa a despachar automaticamente cada reserva quando chega o seu prazo de despacho
+     * ({@link EventoReserva#PRAZO_DESPACHO}), em vez de esperar por um pedido explícito.
+     *
+     * @param precoPorKm Preço por quilómetro usado para calcular o custo de cada viagem.
+     * @return O ouvinte registado no calendário da empresa (para o poder remover).
+     */
+    public BiConsumer<EventoReserva, Reserva> despacharNoPrazo(double precoPorKm) {
+        BiConsumer<EventoReserva, Reserva> ouvinte = (evento, reserva) -> {
+            if (evento == EventoReserva.PRAZO_DESPACHO) {
+                despachar(reserva, reserva.getKms() * precoPorKm);
+            }
+        };
+        empresa.getCalendarioReservas().adicionarOuvinte(ouvinte);
+        return ouvinte;
+    }
+
+    /**
+     * Retira do topo da fila os recursos que estão livres de vez à hora indicada.
+     * Os recursos entretanto removidos da empresa são descartados.
+     *
+     * @param fila   A fila de condutores ou viaturas.
+     * @param inicio A data/hora pretendida.
+     * @param <T>    Tipo de recurso.
+     * @return Os candidatos retirados (no máximo {@value #MAXIMO_CANDIDATOS}).
+     */
+    private <T> ArrayList<Estado<T>> retirarLivres(PriorityQueue<Estado<T>> fila, LocalDateTime inicio) {
+        ArrayList<Estado<T>> livres = new ArrayList<>();
+        while (livres.size() < MAXIMO_CANDIDATOS && !fila.isEmpty()
+                && !fila.peek().livreDesde.isAfter(inicio)) {
+            Estado<T> estado = fila.poll();
+            if (aindaRegistado(estado.recurso)) {
+                livres.add(estado);
+            } else {
+                descartar(estado.recurso);
+            }
+        }
+        return livres;
+    }
+
+    /**
+     * Procura nas agendas da empresa condutores com o intervalo livre (caminho lento).
+     *
+     * @param candidatos Lista onde acrescentar os condutores encontrados.
+     * @param inicio     Data/hora de início.
+     * @param fim        Data/hora de fim.
+     */
+    private void procurarCondutoresNasAgendas(ArrayList<Estado<Condutor>> candidatos,
+                                              LocalDateTime inicio, LocalDateTime fim) {
+        for (Condutor condutor : empresa.getCondutoresDisponiveis(inicio, fim)) {
+            if (candidatos.size() == MAXIMO_CANDIDATOS) {
+                break;
+            }
+            Estado<Condutor> estado = estadosCondutores.get(condutor.getNumeroIdentificacao());
+            if (estado == null || estado.recurso != condutor) {
+                estado = novoEstado(condutor); // Condutor registado depois da última atualização
+            } else {
+                condutores.remove(estado);
+            }
+            candidatos.add(estado);
+        }
+    }
+
+    /**
+     * Procura nas agendas da empresa viaturas com o intervalo livre (caminho lento).
+     *
+     * @param candidatos Lista onde acrescentar as viaturas encontradas.
+     * @param inicio     Data/hora de início.
+     * @param fim        Data/hora de fim.
+     */
+    private void procurarViaturasNasAgendas(ArrayList<Estado<Viatura>> candidatos,
+                                            LocalDateTime inicio, LocalDateTime fim) {
+        for (Viatura viatura : empresa.getViaturasDisponiveis(inicio, fim)) {
+            if (candidatos.size() == MAXIMO_CANDIDATOS) {
+                break;
+            }
+            Estado<Viatura> estado = estadosViaturas.get(Empresa.chaveViatura(viatura));
+            if (estado == null || estado.recurso != viatura) {
+                estado = novoEstado(viatura); // Viatura registada depois da última atualização
+            } else {
+                viaturas.remove(estado);
+            }
+            candidatos.add(estado);
+        }
+    }
+
+    /**
+     * Escolhe a viatura a tentar com o condutor indicado.
+     * <p>
+     * Na política {@link PoliticaDespacho#PAR_PREFERIDO} é escolhida a viatura da última viagem
+     * do condutor, se estiver entre as livres; nos restantes casos, a i-ésima da lista ordenada.
+     * </p>
+     *
+     * @param condutor   O condutor.
+     * @param candidatas Viaturas livres, já ordenadas.
+     * @param tentativa  Número da tentativa (0 para a primeira).
+     * @return A viatura escolhida.
+     */
+    private Estado<Viatura> escolherViatura(Estado<Condutor> condutor, ArrayList<Estado<Viatura>> candidatas,
+                                            int tentativa) {
+        if (politica == PoliticaDespacho.PAR_PREFERIDO && condutor.ultimaViatura != null) {
+            for (Estado<Viatura> viatura : candidatas) {
+                if (viatura.recurso == condutor.ultimaViatura) {
+                    return viatura;
+                }
+            }
+        }
+        return candidatas.get(tentativa);
+    }
+
+    /**
+     * Obtém a ordem dos candidatos segundo a política em uso.
+     *
+     * @return O comparador.
+     */
+    private Comparator<Estado<?>> ordem() {
+        return switch (politica) {
+            case MENOS_CARREGADO -> Comparator.<Estado<?>>comparingInt(estado -> estado.viagens)
+                    .thenComparing(Comparator.naturalOrder());
+            case MAIS_TEMPO_PARADO, PAR_PREFERIDO -> Comparator.naturalOrder();
+        };
+    }
+
+    /**
+     * Cria e regista o estado de um condutor a partir da sua agenda.
+     *
+     * @param condutor O condutor.
+     * @return O novo estado.
+     */
+    private Estado<Condutor> novoEstado(Condutor condutor) {
+        Estado<Condutor> estado = new Estado<>(condutor, sequencia++);
+        recarregar(estado, empresa.agendaCondutor(condutor));
+        estadosCondutores.put(condutor.getNumeroIdentificacao(), estado);
+        return estado;
+    }
+
+    /**
+     * Cria e regista o estado de uma viatura a partir da sua agenda.
+     *
+     * @param viatura A viatura.
+     * @return O novo estado.
+     */
+    private Estado<Viatura> novoEstado(Viatura viatura) {
+        Estado<Viatura> estado = new Estado<>(viatura, sequencia++);
+        recarregar(estado, empresa.agendaViatura(viatura));
+        estadosViaturas.put(Empresa.chaveViatura(viatura), estado);
+        return estado;
+    }
+
+    /**
+     * Atualiza um estado com a informação da agenda do recurso.
+     * O estado não pode estar dentro de uma fila (a ordem da fila depende dele).
+     *
+     * @param estado O estado a atualizar.
+     * @param agenda A agenda atual do recurso.
+     */
+    private static void recarregar(Estado<?> estado, Agenda agenda) {
+        LocalDateTime fimMaximo = agenda.getFimMaximo();
+        Viagem ultima = agenda.getUltima();
+        estado.livreDesde = fimMaximo == null ? LocalDateTime.MIN : fimMaximo;
+        estado.viagens = agenda.tamanho();
+        estado.ultimaViatura = ultima == null ? null : ultima.getViatura();
+    }
+
+    /**
+     * Verifica se o recurso continua registado na empresa (o mesmo objeto).
+     *
+     * @param recurso Condutor ou viatura.
+     * @return {@code true} se ainda estiver registado.
+     */
+    private boolean aindaRegistado(Object recurso) {
+        if (recurso instanceof Condutor condutor) {
+            return empresa.procurarCondutorPorId(condutor.getNumeroIdentificacao()) == condutor;
+        }
+        Viatura viatura = (Viatura) recurso;
+        return empresa.procurarViatura(viatura.getMatricula()) == viatura;
+    }
+
+    /**
+     * Esquece o estado de um recurso que deixou de estar registado.
+     *
+     * @param recurso Condutor ou viatura.
+     */
+    private void descartar(Object recurso) {
+        if (recurso instanceof Condutor condutor) {
+            estadosCondutores.remove(condutor.getNumeroIdentificacao());
+        } else {
+            estadosViaturas.remove(Empresa.chaveViatura((Viatura) recurso));
+        }
+    }
+
+    /**
+     * Estado de um recurso nas filas de despacho.
+     * A ordem natural é a data/hora em que o recurso fica livre (e, em empate, a ordem de registo).
+     *
+     * @param <T> Tipo de recurso (Condutor ou Viatura).
+     */
+    private static final class Estado<T> implements Comparable<Estado<?>> {
+
+        /**
+         * O condutor ou a viatura.
+         */
+        private final T recurso;
+
+        /**
+         * Ordem de registo no despacho (desempate estável).
+         */
+        private final long ordem;
+
+        /**
+         * Data/hora a partir da qual o recurso não tem mais viagens.
+         */
+        private LocalDateTime livreDesde;
+
+        /**
+         * Número de viagens marcadas.
+         */
+        private int viagens;
+
+        /**
+         * Viatura da última viagem (apenas para condutores).
+         */
+        private Viatura ultimaViatura;
+
+        /**
+         * Cria o estado de um recurso.
+         *
+         * @param recurso O recurso.
+         * @param ordem   Ordem de registo.
+         */
+        private Estado(T recurso, long ordem) {
+            this.recurso = recurso;
+            this.ordem = ordem;
+        }
+
+        /**
+         * Regista uma nova viagem despachada para este recurso.
+         *
+         * @param fim     Fim da viagem.
+         * @param viatura Viatura usada (apenas para condutores).
+         */
+        private void registar(LocalDateTime fim, Viatura viatura) {
+            if (fim.isAfter(livreDesde)) {
+                livreDesde = fim;
+            }
+            viagens++;
+            if (viatura != null) {
+                ultimaViatura = viatura;
+            }
+        }
+
+        @Override
+        public int compareTo(Estado<?> outro) {
+            int comparacao = livreDesde.compareTo(outro.livreDesde);
+            return comparacao != 0 ? comparacao : Long.compare(ordem, outro.ordem);
+        }
+    }
+}
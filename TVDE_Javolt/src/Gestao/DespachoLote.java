@@ -0,0 +1,407 @@
+package Gestao;
+
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Entidades.Viatura;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Atribuição conjunta de condutores e viaturas a todas as reservas pendentes de uma janela de tempo.
+ * <p>
+ * Ao contrário do {@link Despacho}, que trata uma reserva de cada vez, aqui o plano é calculado
+ * para a janela inteira antes de converter qualquer reserva. Como todas as viagens convertidas têm
+ * a mesma duração ({@value Empresa#DURACAO_CONVERSAO_MINUTOS} minutos), as reservas são percorridas
+ * por ordem de fim e cada uma recebe o recurso livre que ficou disponível mais tarde (menor tempo
+ * parado). Este critério ("best fit") é o da solução ótima do escalonamento de intervalos em
+ * k recursos iguais: atribui o maior número possível de reservas e, entre essas soluções,
+ * minimiza o tempo parado. As viagens já marcadas nas agendas entram como períodos ocupados;
+ * nesse caso o plano continua válido, mas deixa de haver garantia de ótimo.
+ * </p>
+ * <p>
+ * O estado de cada condutor e viatura (viagens dentro da janela) é obtido das agendas em paralelo.
+ * O plano custa O(n log k) para n reservas e k recursos, e as viagens são registadas numa única
+ * operação em lote ({@link Empresa#adicionarViagens}).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class DespachoLote {
+
+    /**
+     * Duração das viagens convertidas, em segundos.
+     */
+    private static final long DURACAO = Empresa.DURACAO_CONVERSAO_MINUTOS * 60L;
+
+    /**
+     * Empresa cujas reservas são despachadas.
+     */
+    private final Empresa empresa;
+
+    /**
+     * Cria um despacho em lote para a empresa.
+     *
+     * @param empresa A empresa.
+     * @throws IllegalArgumentException se a empresa for null.
+     */
+    public DespachoLote(Empresa empresa) {
+        if (empresa == null) {
+            throw new IllegalArgumentException("Empresa não pode ser null");
+        }
+        this.empresa = empresa;
+    }
+
+    /**
+     * Converte em viagens as reservas pendentes com início na janela [inicio, fim].
+     *
+     * @param inicio     Início da janela.
+     * @param fim        Fim da janela.
+     * @param precoPorKm Preço por quilómetro usado para calcular o custo de cada viagem.
+     * @return O resultado, com as viagens criadas e as reservas que ficaram pendentes.
+     * @throws IllegalArgumentException se a janela for inválida.
+     */
+    public Resultado despachar(LocalDateTime inicio, LocalDateTime fim, double precoPorKm) {
+        if (inicio == null || fim == null || fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Janela de tempo inválida");
+        }
+        long tempoInicial = System.nanoTime();
+
+        List<Reserva> reservas = empresa.getReservasEntre(inicio, fim);
+
+        // Períodos ocupados de cada recurso que podem interferir com as viagens da janela
+        LocalDateTime fimJanela = fim.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS);
+        List<Recurso<Condutor>> condutores = empresa.getCondutores().parallelStream()
+                .map(condutor -> new Recurso<>(condutor,
+                        empresa.agendaCondutor(condutor).sobrepostas(inicio, fimJanela)))
+                .toList();
+        List<Recurso<Viatura>> viaturas = empresa.getViaturas().parallelStream()
+                .map(viatura -> new Recurso<>(viatura,
+                        empresa.agendaViatura(viatura).sobrepostas(inicio, fimJanela)))
+                .toList();
+
+        Planeamento<Condutor> planoCondutores = new Planeamento<>(condutores);
+        Planeamento<Viatura> planoViaturas = new Planeamento<>(viaturas);
+
+        IdentityHashMap<Reserva, Viagem> conversoes = new IdentityHashMap<>();
+        ArrayList<Reserva> semRecursos = new ArrayList<>();
+        long tempoParado = 0;
+        for (Reserva reserva : reservas) {
+            long comeco = segundos(reserva.getDataHoraInicio());
+            long termo = comeco + DURACAO;
+
+            Recurso<Condutor> condutor = planoCondutores.melhorLivre(comeco, termo);
+            Recurso<Viatura> viatura = planoViaturas.melhorLivre(comeco, termo);
+            if (condutor == null || viatura == null) {
+                semRecursos.add(reserva);
+                continue;
+            }
+            tempoParado += condutor.tempoParado(comeco) + viatura.tempoParado(comeco);
+            planoCondutores.ocupar(condutor, termo);
+            planoViaturas.ocupar(viatura, termo);
+
+            conversoes.put(reserva, new Viagem(condutor.recurso, reserva.getCliente(), viatura.recurso,
+                    reserva.getDataHoraInicio(), reserva.getDataHoraInicio().plusSeconds(DURACAO),
+                    reserva.getMoradaOrigem(), reserva.getMoradaDestino(), reserva.getKms(),
+                    reserva.getKms() * precoPorKm));
+        }
+
+        ResultadoLote registo = empresa.converterReservas(conversoes);
+        for (Reserva reserva : conversoes.keySet()) {
+            if (registo.getRejeitadas().containsKey(conversoes.get(reserva))) {
+                semRecursos.add(reserva);
+            }
+        }
+        return new Resultado(reservas.size(), registo.getAceites(), semRecursos, tempoParado,
+                (System.nanoTime() - tempoInicial) / 1_000_000);
+    }
+
+    /**
+     * Converte uma data/hora em segundos (a zona é irrelevante, só interessam as diferenças).
+     *
+     * @param data A data/hora.
+     * @return Segundos desde a época.
+     */
+    private static long segundos(LocalDateTime data) {
+        return data.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Condutor ou viatura durante o planeamento.
+     *
+     * @param <T> Tipo de recurso.
+     */
+    private static final class Recurso<T> {
+
+        /**
+         * O condutor ou a viatura.
+         */
+        private final T recurso;
+
+        /**
+         * Posição na lista de recursos (desempate estável).
+         */
+        private int ordem;
+
+        /**
+         * Início de cada período ocupado já existente, por ordem.
+         */
+        private final long[] inicios;
+
+        /**
+         * Fim de cada período ocupado já existente.
+         */
+        private final long[] fins;
+
+        /**
+         * Próximo período ocupado ainda não ultrapassado.
+         */
+        private int proximo;
+
+        /**
+         * Instante a partir do qual o recurso está livre (fim da última ocupação).
+         */
+        private long livreDesde;
+
+        /**
+         * Cria o recurso a partir das suas viagens já marcadas que tocam a janela.
+         *
+         * @param recurso  O condutor ou a viatura.
+         * @param ocupadas Viagens do recurso sobrepostas à janela, ordenadas pelo início.
+         */
+        private Recurso(T recurso, List<Viagem> ocupadas) {
+            this.recurso = recurso;
+            this.inicios = new long[ocupadas.size()];
+            this.fins = new long[ocupadas.size()];
+            for (int i = 0; i < ocupadas.size(); i++) {
+                inicios[i] = segundos(ocupadas.get(i).getDataHoraInicio());
+                fins[i] = segundos(ocupadas.get(i).getDataHoraFim());
+            }
+            this.livreDesde = Long.MIN_VALUE;
+        }
+
+        /**
+         * Início do próximo período ocupado.
+         *
+         * @return O instante, ou {@link Long#MAX_VALUE} se não houver mais.
+         */
+        private long proximaOcupacao() {
+            return proximo < inicios.length ? inicios[proximo] : Long.MAX_VALUE;
+        }
+
+        /**
+         * Tempo parado entre a última ocupação e o instante indicado.
+         *
+         * @param comeco O instante.
+         * @return Segundos parado, ou 0 se o recurso ainda não tiver tido ocupações na janela.
+         */
+        private long tempoParado(long comeco) {
+            return livreDesde == Long.MIN_VALUE ? 0 : comeco - livreDesde;
+        }
+    }
+
+    /**
+     * Planeamento de um tipo de recurso (condutores ou viaturas) ao longo da janela.
+     * <p>
+     * Os recursos disponíveis estão num conjunto ordenado por {@code livreDesde}, o que permite
+     * encontrar em O(log k) o que ficou livre mais tarde antes do início de uma reserva.
+     * Os que têm viagens já marcadas estão também numa fila pela próxima ocupação: quando uma
+     * reserva termina depois do início dessa ocupação, o recurso passa a estar livre apenas no fim dela.
+     * </p>
+     *
+     * @param <T> Tipo de recurso.
+     */
+    private static final class Planeamento<T> {
+
+        /**
+         * Recursos por instante em que ficam livres.
+         */
+        private final TreeSet<Recurso<T>> porLivreDesde;
+
+        /**
+         * Recursos com ocupações futuras, pelo início da próxima.
+         */
+        private final PriorityQueue<Recurso<T>> porOcupacao;
+
+        /**
+         * Recurso fictício usado como limite de pesquisa: fica depois de todos os reais com o mesmo instante.
+         */
+        private final Recurso<T> sonda;
+
+        /**
+         * Cria o planeamento para um conjunto de recursos.
+         *
+         * @param recursos Os recursos.
+         */
+        private Planeamento(List<Recurso<T>> recursos) {
+            Comparator<Recurso<T>> ordem = Comparator.<Recurso<T>>comparingLong(r -> r.livreDesde)
+                    .thenComparingInt(r -> r.ordem);
+            this.porLivreDesde = new TreeSet<>(ordem);
+            this.porOcupacao = new PriorityQueue<>(Comparator.comparingLong(Recurso::proximaOcupacao));
+            this.sonda = new Recurso<>(null, List.of());
+            this.sonda.ordem = Integer.MAX_VALUE;
+            for (int i = 0; i < recursos.size(); i++) {
+                Recurso<T> recurso = recursos.get(i);
+                recurso.ordem = i;
+                porLivreDesde.add(recurso);
+                if (recurso.proximaOcupacao() != Long.MAX_VALUE) {
+                    porOcupacao.add(recurso);
+                }
+            }
+        }
+
+        /**
+         * Encontra o recurso livre em [comeco, termo) que ficou disponível mais tarde.
+         * As reservas têm de ser pedidas por ordem crescente de fim.
+         *
+         * @param comeco Início da viagem (segundos).
+         * @param termo  Fim da viagem (segundos).
+         * @return O recurso, ou {@code null} se nenhum estiver livre.
+         */
+        private Recurso<T> melhorLivre(long comeco, long termo) {
+            // Ocupações que começam antes do fim da viagem bloqueiam o recurso até terminarem
+            while (!porOcupacao.isEmpty() && porOcupacao.peek().proximaOcupacao() < termo) {
+                Recurso<T> recurso = porOcupacao.poll();
+                porLivreDesde.remove(recurso);
+                while (recurso.proximaOcupacao() < termo) {
+                    recurso.livreDesde = Math.max(recurso.livreDesde, recurso.fins[recurso.proximo++]);
+                }
+                porLivreDesde.add(recurso);
+                if (recurso.proximaOcupacao() != Long.MAX_VALUE) {
+                    porOcupacao.add(recurso);
+                }
+            }
+            sonda.livreDesde = comeco;
+            return porLivreDesde.floor(sonda);
+        }
+
+        /**
+         * Marca o recurso como ocupado até ao fim da viagem atribuída.
+         *
+         * @param recurso O recurso escolhido.
+         * @param termo   Fim da viagem (segundos).
+         */
+        private void ocupar(Recurso<T> recurso, long termo) {
+            porLivreDesde.remove(recurso);
+            recurso.livreDesde = termo;
+            porLivreDesde.add(recurso);
+        }
+    }
+
+    /**
+     * Resultado de um despacho em lote.
+     */
+    public static final class Resultado {
+
+        /**
+         * Número de reservas pendentes na janela.
+         */
+        private final int reservas;
+
+        /**
+         * Viagens criadas.
+         */
+        private final List<Viagem> viagens;
+
+        /**
+         * Reservas que ficaram pendentes por falta de condutor ou viatura.
+         */
+        private final List<Reserva> pendentes;
+
+        /**
+         * Soma do tempo parado (em segundos) de condutores e viaturas antes de cada viagem atribuída.
+         */
+        private final long tempoParado;
+
+        /**
+         * Duração do despacho em milissegundos.
+         */
+        private final long duracaoMs;
+
+        /**
+         * Cria o resultado.
+         *
+         * @param reservas    Número de reservas na janela.
+         * @param viagens     Viagens criadas.
+         * @param pendentes   Reservas não atribuídas.
+         * @param tempoParado Tempo parado em segundos.
+         * @param duracaoMs   Duração em milissegundos.
+         */
+        private Resultado(int reservas, List<Viagem> viagens, List<Reserva> pendentes,
+                          long tempoParado, long duracaoMs) {
+            this.reservas = reservas;
+            this.viagens = viagens;
+            this.pendentes = Collections.unmodifiableList(pendentes);
+            this.tempoParado = tempoParado;
+            this.duracaoMs = duracaoMs;
+        }
+
+        /**
+         * Obtém o número de reservas pendentes que havia na janela.
+         *
+         * @return Número de reservas consideradas.
+         */
+        public int getReservas() {
+            return reservas;
+        }
+
+        /**
+         * Obtém as viagens criadas.
+         *
+         * @return Lista (só de leitura) das viagens.
+         */
+        public List<Viagem> getViagens() {
+            return viagens;
+        }
+
+        /**
+         * Obtém as reservas que continuam pendentes.
+         *
+         * @return Lista (só de leitura) das reservas.
+         */
+        public List<Reserva> getPendentes() {
+            return pendentes;
+        }
+
+        /**
+         * Obtém o tempo parado dos recursos antes das viagens atribuídas (primeira viagem de cada
+         * recurso na janela não conta, por não haver ocupação anterior).
+         *
+         * @return Tempo parado em minutos.
+         */
+        public long getTempoParadoMinutos() {
+            return tempoParado / 60;
+        }
+
+        /**
+         * Obtém a duração do despacho.
+         *
+         * @return Duração em milissegundos.
+         */
+        public long getDuracaoMs() {
+            return duracaoMs;
+        }
+
+        /**
+         * Devolve um resumo do resultado.
+         *
+         * @return String com o número de reservas atribuídas e pendentes.
+         */
+        @Override
+        public String toString() {
+            return "Despacho em lote [reservas=" + reservas + ", atribuídas=" + viagens.size()
+                    + ", pendentes=" + pendentes.size() + ", tempo parado=" + getTempoParadoMinutos()
+                    + " min, duração=" + duracaoMs + " ms]";
+        }
+    }
+}
@@ -1,22 +1,61 @@
 package Gestao;
 
 import Entidades.*;
+import Estatisticas.VistaDestinos;
+import Estatisticas.VistaDiaria;
+import Estatisticas.VistaDistancias;
+import Estatisticas.VistaFaturacao;
+import Estatisticas.VistaReservas;
+import Estatisticas.VistaUtilizacao;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.io.File;
 import java.util.Formatter;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.Set;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
 /**
  * Classe central de gestão do sistema (Lógica de negócio).
  * <p>
- * Esta classe armazena todas as listas de dados em memória (ArrayLists) e contém
+ * Esta classe armazena todas as listas de dados em memória e contém
  * a lógica para adicionar, remover e pesquisar dados, bem como as regras de negócio
  * (ex: verificar sobreposições de horários) e a persistência em ficheiros.
  * </p>
+ * <p>
+ * Pode ser usada por várias threads em simultâneo (ex: pedidos da API HTTP): as alterações às
+ * listas de registos são protegidas por um bloqueio de leitura/escrita e as listas devolvidas pelos
+ * métodos {@code get...()} são cópias. Cada alteração publica uma versão imutável das listas
+ * ({@link ListaVersionada}); o {@link #instantaneo()} reúne as versões de um mesmo instante, para
+ * relatórios e gravações consistentes que não bloqueiam as marcações.
+ * </p>
+ * <p>
+ * Cada alteração a viagens e reservas é publicada como evento de domínio no
+ * {@link BarramentoEventos}. As estatísticas são lidas de vistas materializadas
+ * ({@link VistaMaterializada}) atualizadas por esses eventos, em vez de percorrerem o histórico.
+ * </p>
+ * <p>
+ * A duração de cada operação ({@link OperacaoEmpresa}), as recusas e o número de registos ficam
+ * disponíveis nas {@link #getMetricas() métricas} da empresa, quando estas estão ativas.
+ * </p>
  *
  * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
  * @version 2.0
@@ -28,31 +67,188 @@ public class Empresa {
      * Lista de viaturas registadas na empresa.
      * Cada viatura é única e identificada pela matrícula.
      */
-    private final ArrayList<Viatura> viaturas;
+    private final ListaVersionada<Viatura> viaturas;
 
     /**
      * Lista de condutores que trabalham na empresa.
      * Cada condutor é único e identificado pelo NIF.
      */
-    private final ArrayList<Condutor> condutores;
+    private final ListaVersionada<Condutor> condutores;
 
     /**
      * Lista de clientes registados na plataforma.
      * Cada cliente é único e identificado pelo NIF.
      */
-    private final ArrayList<Cliente> clientes;
+    private final ListaVersionada<Cliente> clientes;
 
     /**
      * Histórico de viagens realizadas.
      * Contém todas as viagens já efetuadas no sistema.
      */
-    private final ArrayList<Viagem> viagens;
+    private final ListaVersionada<Viagem> viagens;
 
     /**
      * Lista de reservas futuras efetuadas por clientes.
      * As reservas podem ser convertidas em viagens quando atribuídas a condutores e viaturas.
      */
-    private final ArrayList<Reserva> reservas;
+    private final ListaVersionada<Reserva> reservas;
+
+    /**
+     * Índice das viaturas pela matrícula (em maiúsculas), para pesquisas sem percorrer a lista.
+     */
+    private final HashMap<String, Viatura> indiceViaturas;
+
+    /**
+     * Índice dos condutores pelo número de identificação.
+     */
+    private final HashMap<Integer, Condutor> indiceCondutores;
+
+    /**
+     * Índice dos condutores pelo NIF.
+     */
+    private final HashMap<Integer, Condutor> indiceCondutoresNif;
+
+    /**
+     * Índice dos clientes pelo NIF.
+     */
+    private final HashMap<Integer, Cliente> indiceClientes;
+
+    /**
+     * Agenda de viagens de cada condutor, pelo número de identificação do condutor.
+     * Permite verificar a disponibilidade de um condutor sem percorrer todo o histórico.
+     * Cada agenda é imutável e substituída por compare-and-set.
+     */
+    private final TabelaRecursos<Condutor> tabelaCondutores;
+
+    /**
+     * Agenda de viagens de cada viatura, pela matrícula da viatura.
+     */
+    private final TabelaRecursos<Viatura> tabelaViaturas;
+
+    /**
+     * Agenda de viagens de cada cliente, pelo NIF do cliente.
+     */
+    private final TabelaRecursos<Cliente> tabelaClientes;
+
+    /**
+     * Reservas pendentes de cada cliente, indexadas pelo NIF e ordenadas pela data/hora de início.
+     * Junto com {@link #tabelaClientes}, forma a linha temporal do cliente
+     * (protegido por {@link #bloqueioRegistos}).
+     */
+    private final HashMap<Integer, FilaReservas> reservasClientes;
+
+    /**
+     * Estratégia usada por {@link #adicionarViagem(Viagem)} (por defeito, bloqueio por recurso).
+     */
+    private volatile ModoMarcacao modoMarcacao;
+
+    /**
+     * Número máximo de objetos por tipo nesta empresa.
+     */
+    private final int limiteMaximo;
+
+    /**
+     * Bloqueios por recurso usados na marcação e remoção de viagens.
+     * Só são bloqueados o Condutor, a Viatura e o Cliente envolvidos em cada operação.
+     */
+    private final FaixasBloqueio faixas;
+
+    /**
+     * Eventos do ciclo de vida das reservas pendentes (despacho, recolha e expiração).
+     */
+    private final CalendarioReservas calendarioReservas;
+
+    /**
+     * Barramento onde são publicados os eventos de domínio (viagens e reservas).
+     */
+    private final BarramentoEventos barramento;
+
+    /**
+     * Número de alterações ao histórico de viagens já feitas mas cujo evento ainda não foi publicado.
+     * Os eventos das viagens são publicados depois de largar o monitor da lista, para que as vistas
+     * não fiquem dentro dele; {@link #registarVista(VistaMaterializada)} espera que este número
+     * chegue a zero antes de pôr uma vista nova a par do histórico. Só aumenta com o monitor da lista.
+     * O próprio objeto serve de monitor para essa espera (ver {@link #esperarPublicacoes()}).
+     */
+    private final AtomicInteger publicacoesPendentes;
+
+    /**
+     * Número de threads à espera que {@link #publicacoesPendentes} chegue a zero; enquanto for zero,
+     * quem publica não precisa de as acordar.
+     */
+    private final AtomicInteger esperasPublicacoes;
+
+    /**
+     * Vista materializada da faturação por condutor.
+     */
+    private final VistaFaturacao vistaFaturacao;
+
+    /**
+     * Vista materializada dos quilómetros percorridos.
+     */
+    private final VistaDistancias vistaDistancias;
+
+    /**
+     * Vista materializada dos destinos das viagens.
+     */
+    private final VistaDestinos vistaDestinos;
+
+    /**
+     * Vista materializada da utilização de condutores e viaturas.
+     */
+    private final VistaUtilizacao vistaUtilizacao;
+
+    /**
+     * Vista materializada do ciclo de vida das reservas.
+     */
+    private final VistaReservas vistaReservas;
+
+    /**
+     * Resumos diários das viagens por condutor, viatura e destino.
+     */
+    private final VistaDiaria vistaDiaria;
+
+    /**
+     * Reservas pendentes ordenadas pela data/hora de início (protegida por {@link #bloqueioRegistos}).
+     */
+    private final FilaReservas filaReservas;
+
+    /**
+     * Métricas de funcionamento: duração das operações, recusas e número de registos.
+     */
+    private final Metricas metricas;
+
+    /**
+     * Temporizador de cada operação medida (índice = ordinal da {@link OperacaoEmpresa}).
+     */
+    private final Metricas.Temporizador[] temporizadores;
+
+    /**
+     * Recusas por limite máximo de objetos atingido.
+     */
+    private final Metricas.Contador recusasLimite;
+
+    /**
+     * Recusas por registo duplicado (matrícula, NIF ou número de identificação já existente).
+     */
+    private final Metricas.Contador recusasDuplicado;
+
+    /**
+     * Recusas por sobreposição de horários.
+     */
+    private final Metricas.Contador recusasSobreposicao;
+
+    /**
+     * Remoções recusadas por o registo ter viagens ou reservas associadas.
+     */
+    private final Metricas.Contador recusasDependencias;
+
+    /**
+     * Bloqueio de leitura/escrita das listas de viaturas, condutores, clientes e reservas.
+     * Várias consultas podem correr em simultâneo; as alterações são exclusivas.
+     * Quando é preciso também uma faixa, este bloqueio é sempre adquirido primeiro.
+     */
+    private final ReentrantReadWriteLock bloqueioRegistos;
 
     /**
      * Nome da Empresa.
@@ -70,10 +266,25 @@ public class Empresa {
     private static final String NOME_PASTA_BASE = "Empresas";
 
     /**
-     * Limite máximo de objetos por tipo.
+     * Ficheiro onde as métricas são exportadas ao gravar os dados (se estiverem ativas).
+     */
+    private static final String FICHEIRO_METRICAS = "metricas.prom";
+
+    /**
+     * Limite máximo de objetos por tipo (valor por defeito).
      */
     private static final int LIMITE_MAXIMO = 100;
 
+    /**
+     * Duração (em minutos) atribuída às viagens criadas a partir de reservas.
+     */
+    public static final int DURACAO_CONVERSAO_MINUTOS = 30;
+
+    /**
+     * Número de faixas de bloqueio partilhadas por todos os recursos.
+     */
+    private static final int NUMERO_FAIXAS = 256;
+
 
     /**
      * Construtor da classe Empresa.
@@ -82,12 +293,71 @@ public class Empresa {
      * @param nomeEmpresa O nome da empresa.
      */
     public Empresa(String nomeEmpresa) {
-        this.viaturas = new ArrayList<>();
-        this.condutores = new ArrayList<>();
-        this.clientes = new ArrayList<>();
-        this.viagens = new ArrayList<>();
-        this.reservas = new ArrayList<>();
+        this(nomeEmpresa, LIMITE_MAXIMO);
+    }
+
+    /**
+     * Construtor da classe Empresa com um limite de objetos por tipo à medida.
+     * Útil para testes de carga e empresas com frotas grandes.
+     *
+     * @param nomeEmpresa  O nome da empresa.
+     * @param limiteMaximo Número máximo de viaturas, clientes, viagens e reservas.
+     * @throws IllegalArgumentException se o limite não for positivo.
+     */
+    public Empresa(String nomeEmpresa, int limiteMaximo) {
+        if (limiteMaximo <= 0) {
+            throw new IllegalArgumentException("Limite máximo deve ser positivo");
+        }
+        this.viaturas = new ListaVersionada<>();
+        this.condutores = new ListaVersionada<>();
+        this.clientes = new ListaVersionada<>();
+        this.viagens = new ListaVersionada<>();
+        this.reservas = new ListaVersionada<>();
+        this.indiceViaturas = new HashMap<>();
+        this.indiceCondutores = new HashMap<>();
+        this.indiceCondutoresNif = new HashMap<>();
+        this.indiceClientes = new HashMap<>();
+        this.tabelaCondutores = new TabelaRecursos<>(Condutor::getNumeroIdentificacao);
+        this.tabelaViaturas = new TabelaRecursos<>(Empresa::chaveViatura);
+        this.tabelaClientes = new TabelaRecursos<>(Cliente::getNif);
+        this.reservasClientes = new HashMap<>();
+        this.faixas = new FaixasBloqueio(NUMERO_FAIXAS);
+        this.calendarioReservas = new CalendarioReservas(LocalDateTime.now());
+        this.filaReservas = new FilaReservas();
+        this.barramento = new BarramentoEventos();
+        this.publicacoesPendentes = new AtomicInteger();
+        this.esperasPublicacoes = new AtomicInteger();
+        this.vistaFaturacao = new VistaFaturacao();
+        this.vistaDistancias = new VistaDistancias();
+        this.vistaDestinos = new VistaDestinos();
+        this.vistaUtilizacao = new VistaUtilizacao();
+        this.vistaReservas = new VistaReservas();
+        this.vistaDiaria = new VistaDiaria();
+        for (VistaMaterializada vista : List.of(vistaFaturacao, vistaDistancias, vistaDestinos,
+                vistaUtilizacao, vistaReservas, vistaDiaria)) {
+            barramento.subscrever(vista.getTipos(), vista);
+        }
+        this.bloqueioRegistos = new ReentrantReadWriteLock();
+        this.modoMarcacao = ModoMarcacao.BLOQUEIO;
+        this.limiteMaximo = limiteMaximo;
         this.nomeEmpresa = nomeEmpresa;
+
+        this.metricas = new Metricas(Map.of("empresa", nomeEmpresa));
+        this.temporizadores = new Metricas.Temporizador[OperacaoEmpresa.values().length];
+        for (OperacaoEmpresa operacao : OperacaoEmpresa.values()) {
+            temporizadores[operacao.ordinal()] = metricas.temporizador("javolt_operacao_segundos",
+                    "Duração das operações da empresa.", "operacao", operacao.getMetodo());
+        }
+        String ajudaRecusas = "Operações recusadas, por motivo.";
+        this.recusasLimite = metricas.contador("javolt_recusas_total", ajudaRecusas, "motivo", "limite");
+        this.recusasDuplicado = metricas.contador("javolt_recusas_total", ajudaRecusas, "motivo", "duplicado");
+        this.recusasSobreposicao = metricas.contador("javolt_recusas_total", ajudaRecusas, "motivo", "sobreposicao");
+        this.recusasDependencias = metricas.contador("javolt_recusas_total", ajudaRecusas, "motivo", "dependencias");
+        metricas.medidor("javolt_viaturas", "Viaturas registadas.", () -> contarRegistos(viaturas));
+        metricas.medidor("javolt_condutores", "Condutores registados.", () -> contarRegistos(condutores));
+        metricas.medidor("javolt_clientes", "Clientes registados.", () -> contarRegistos(clientes));
+        metricas.medidor("javolt_reservas_pendentes", "Reservas por converter.", () -> contarRegistos(reservas));
+        metricas.medidor("javolt_viagens", "Viagens no histórico.", this::contarViagens);
     }
 
     /**
@@ -99,6 +369,236 @@ public class Empresa {
         return nomeEmpresa;
     }
 
+    /**
+     * Obtém a estratégia de marcação de viagens em uso.
+     *
+     * @return O modo de marcação atual.
+     */
+    public ModoMarcacao getModoMarcacao() {
+        return modoMarcacao;
+    }
+
+    /**
+     * Define a estratégia de marcação de viagens usada por {@link #adicionarViagem(Viagem)}.
+     * Os dois modos podem coexistir: ambos atualizam as agendas por compare-and-set.
+     *
+     * @param modoMarcacao O novo modo de marcação.
+     * @throws IllegalArgumentException se o modo for null.
+     */
+    public void setModoMarcacao(ModoMarcacao modoMarcacao) {
+        if (modoMarcacao == null) {
+            throw new IllegalArgumentException("Modo de marcação não pode ser null");
+        }
+        this.modoMarcacao = modoMarcacao;
+    }
+
+    /**
+     * Obtém o calendário de eventos das reservas pendentes, onde se podem registar ouvintes
+     * e configurar as antecedências.
+     *
+     * @return O calendário de reservas.
+     */
+    public CalendarioReservas getCalendarioReservas() {
+        return calendarioReservas;
+    }
+
+    /**
+     * Obtém o barramento de eventos de domínio desta empresa.
+     *
+     * @return O barramento.
+     */
+    public BarramentoEventos getBarramentoEventos() {
+        return barramento;
+    }
+
+    /**
+     * Regista uma vista materializada, pondo-a primeiro a par do estado atual.
+     * <p>
+     * A vista recebe um evento de adição por cada viagem do histórico e por cada reserva pendente
+     * (consoante os tipos que subscreve) e, a partir daí, todas as alterações. A passagem inicial
+     * é feita uma única vez, com as alterações suspensas, para que nenhum evento se perca ou repita.
+     * </p>
+     * <p>
+     * Os eventos de viagens já alteradas mas ainda não publicados têm de chegar às vistas antes da
+     * passagem inicial. A espera por esses eventos é feita sem bloqueios; se entretanto houver novas
+     * alterações por publicar, os bloqueios são largados e a espera repete-se.
+     * </p>
+     *
+     * @param vista A vista a registar.
+     */
+    public void registarVista(VistaMaterializada vista) {
+        Set<TipoEvento> tipos = vista.getTipos();
+        while (true) {
+            esperarPublicacoes();
+            bloqueioRegistos.writeLock().lock();
+            try {
+                synchronized (viagens) {
+                    // Só aumenta com o monitor da lista: se for zero aqui, continua a ser até o largar
+                    if (publicacoesPendentes.get() != 0) {
+                        continue;
+                    }
+                    if (tipos.contains(TipoEvento.VIAGEM_ADICIONADA)) {
+                        for (Viagem viagem : viagens) {
+                            BarramentoEventos.entregar(vista, TipoEvento.VIAGEM_ADICIONADA, viagem, null);
+                        }
+                    }
+                    if (tipos.contains(TipoEvento.RESERVA_ADICIONADA)) {
+                        for (Reserva reserva : reservas) {
+                            BarramentoEventos.entregar(vista, TipoEvento.RESERVA_ADICIONADA, null, reserva);
+                        }
+                    }
+                    barramento.subscrever(tipos, vista);
+                    return;
+                }
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Espera, sem bloqueios da empresa, que não haja eventos de viagens por publicar.
+     * Uma interrupção não termina a espera (a vista tem de ser registada), mas é reposta no fim.
+     */
+    private void esperarPublicacoes() {
+        boolean interrompida = false;
+        esperasPublicacoes.incrementAndGet();
+        try {
+            synchronized (publicacoesPendentes) {
+                while (publicacoesPendentes.get() != 0) {
+                    try {
+                        publicacoesPendentes.wait();
+                    } catch (InterruptedException e) {
+                        interrompida = true;
+                    }
+                }
+            }
+        } finally {
+            esperasPublicacoes.decrementAndGet();
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Deixa de atualizar uma vista materializada.
+     *
+     * @param vista A vista.
+     * @return {@code true} se estava registada.
+     */
+    public boolean removerVista(VistaMaterializada vista) {
+        return barramento.cancelar(vista);
+    }
+
+    /**
+     * Obtém a vista de faturação por condutor.
+     *
+     * @return A vista.
+     */
+    public VistaFaturacao getVistaFaturacao() {
+        return vistaFaturacao;
+    }
+
+    /**
+     * Obtém a vista de quilómetros percorridos.
+     *
+     * @return A vista.
+     */
+    public VistaDistancias getVistaDistancias() {
+        return vistaDistancias;
+    }
+
+    /**
+     * Obtém a vista de destinos das viagens.
+     *
+     * @return A vista.
+     */
+    public VistaDestinos getVistaDestinos() {
+        return vistaDestinos;
+    }
+
+    /**
+     * Obtém a vista de utilização de condutores e viaturas.
+     *
+     * @return A vista.
+     */
+    public VistaUtilizacao getVistaUtilizacao() {
+        return vistaUtilizacao;
+    }
+
+    /**
+     * Obtém a vista do ciclo de vida das reservas.
+     *
+     * @return A vista.
+     */
+    public VistaReservas getVistaReservas() {
+        return vistaReservas;
+    }
+
+    /**
+     * Obtém os resumos diários das viagens (por condutor, viatura e destino).
+     *
+     * @return A vista dos resumos diários.
+     */
+    public VistaDiaria getVistaDiaria() {
+        return vistaDiaria;
+    }
+
+    /**
+     * Executa uma alteração a objetos já registados (ex: mudar a morada de um cliente)
+     * em exclusivo, sem que outras threads leiam os registos a meio da alteração.
+     *
+     * @param alteracao A alteração a aplicar.
+     */
+    public void alterarRegistos(Runnable alteracao) {
+        bloqueioRegistos.writeLock().lock();
+        try {
+            alteracao.run();
+        } finally {
+            bloqueioRegistos.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Obtém as métricas de funcionamento da empresa (desativadas por defeito,
+     * ver {@link Metricas#PROPRIEDADE_ATIVAS}).
+     *
+     * @return O registo de métricas.
+     */
+    public Metricas getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Termina a medição da duração de uma operação.
+     *
+     * @param operacao A operação.
+     * @param medicao  O valor devolvido por {@link Metricas#iniciar()} no início da operação.
+     */
+    private void terminar(OperacaoEmpresa operacao, long medicao) {
+        temporizadores[operacao.ordinal()].terminar(medicao);
+    }
+
+    /**
+     * Conta os registos de uma lista, na sua versão atual (usado pelas métricas).
+     *
+     * @param lista A lista.
+     * @return O número de registos.
+     */
+    private static long contarRegistos(List<?> lista) {
+        return lista.size();
+    }
+
+    /**
+     * Conta as viagens do histórico.
+     *
+     * @return O número de viagens.
+     */
+    private long contarViagens() {
+        return viagens.size();
+    }
+
     /**
      * Retorna o caminho completo da pasta da empresa.
      * Formato: "Empresas/Logs_NomeEmpresa"
@@ -106,6 +606,17 @@ public class Empresa {
      * @return Caminho completo para a pasta da empresa.
      */
     public String getCaminhoPastaEmpresa() {
+        return caminhoPastaEmpresa(nomeEmpresa);
+    }
+
+    /**
+     * Retorna o caminho da pasta de uma empresa a partir do nome (ex: para gerar dados sem a carregar).
+     * Formato: "Empresas/Logs_NomeEmpresa"
+     *
+     * @param nomeEmpresa Nome da empresa.
+     * @return Caminho completo para a pasta da empresa.
+     */
+    public static String caminhoPastaEmpresa(String nomeEmpresa) {
         return NOME_PASTA_BASE + "/" + PREFIXO_LOGS + nomeEmpresa;
     }
 
@@ -153,7 +664,7 @@ public class Empresa {
      * @return {@code true} se a empresa existe, {@code false} caso contrário.
      */
     public static boolean empresaExiste(String nomeEmpresa) {
-        File pastaEmpresas = new File(NOME_PASTA_BASE + "/" + PREFIXO_LOGS + nomeEmpresa);
+        File pastaEmpresas = new File(caminhoPastaEmpresa(nomeEmpresa));
         return pastaEmpresas.exists() && pastaEmpresas.isDirectory();
     }
 
@@ -170,24 +681,38 @@ public class Empresa {
      * {@code false} se já existir uma viatura com a mesma matrícula ou limite atingido.
      */
     public boolean adicionarViatura(Viatura viatura) {
-        if (viaturas.size() >= LIMITE_MAXIMO) {
-            System.out.println("ATENÇÃO: Limite máximo de " + LIMITE_MAXIMO + " viaturas atingido!");
-            return false;
-        }
-        if (procurarViatura(viatura.getMatricula()) == null) {
-            viaturas.add(viatura);
-            return true;
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                if (viaturas.size() >= limiteMaximo) {
+                    recusasLimite.incrementar();
+                    System.out.println("ATENÇÃO: Limite máximo de " + limiteMaximo + " viaturas atingido!");
+                    return false;
+                }
+                if (procurarViatura(viatura.getMatricula()) == null) {
+                    viaturas.add(viatura);
+                    indiceViaturas.put(chaveViatura(viatura), viatura);
+                    tabelaViaturas.registar(viatura);
+                    return true;
+                }
+                recusasDuplicado.incrementar();
+                return false; // Matrícula já existe
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.ADICIONAR_VIATURA, medicao);
         }
-        return false; // Matrícula já existe
     }
 
     /**
      * Obtém a lista completa de viaturas.
      *
-     * @return ArrayList contendo todas as viaturas registadas.
+     * @return Cópia (ArrayList) contendo todas as viaturas registadas.
      */
     public ArrayList<Viatura> getViaturas() {
-        return viaturas;
+        return new ArrayList<>(viaturas.versao());
     }
 
     /**
@@ -197,12 +722,12 @@ public class Empresa {
      * @return O objeto {@link Viatura} se encontrado, ou {@code null} se não existir.
      */
     public Viatura procurarViatura(String matricula) {
-        for (Viatura viatura : viaturas) {
-            if (viatura.getMatricula().equalsIgnoreCase(matricula)) {
-                return viatura;
-            }
+        bloqueioRegistos.readLock().lock();
+        try {
+            return matricula == null ? null : indiceViaturas.get(matricula.toUpperCase(Locale.ROOT));
+        } finally {
+            bloqueioRegistos.readLock().unlock();
         }
-        return null;
     }
 
     /**
@@ -214,20 +739,36 @@ public class Empresa {
      * {@code false} se a viatura não existir ou tiver viagens associadas.
      */
     public boolean removerViatura(String matricula) {
-        Viatura viatura = procurarViatura(matricula);
-        if (viatura != null) {
-            // Verificar dependências em Viagens
-            for (Viagem viagem : viagens) {
-                if (viagem.getViatura().getMatricula().equalsIgnoreCase(matricula)) {
-                    System.out.println("Erro: Não é possível remover. Viatura associada a uma viagem.");
-                    return false;
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                Viatura viatura = procurarViatura(matricula);
+                if (viatura != null) {
+                    int[] bloqueadas = faixas.bloquear(faixaViatura(viatura));
+                    try {
+                        // Verificar dependências em Viagens
+                        if (!agendaViatura(viatura).isVazia()) {
+                            recusasDependencias.incrementar();
+                            System.out.println("Erro: Não é possível remover. Viatura associada a uma viagem.");
+                            return false;
+                        }
+                        // Se não houver dependências, remove
+                        viaturas.remove(viatura);
+                        indiceViaturas.remove(chaveViatura(viatura));
+                        tabelaViaturas.libertar(viatura);
+                        return true;
+                    } finally {
+                        faixas.desbloquear(bloqueadas);
+                    }
                 }
+                return false;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
             }
-            // Se não houver dependências, remove
-            viaturas.remove(viatura);
-            return true;
+        } finally {
+            terminar(OperacaoEmpresa.REMOVER_VIATURA, medicao);
         }
-        return false;
     }
 
     // ==========================================================
@@ -242,24 +783,38 @@ public class Empresa {
      * @return {@code true} se adicionado com sucesso; {@code false} se o NIF já existir.
      */
     public boolean adicionarCliente(Cliente cliente) {
-        if (clientes.size() >= LIMITE_MAXIMO) {
-            System.out.println("ATENÇÃO: Limite máximo de " + LIMITE_MAXIMO + " clientes atingido!");
-            return false;
-        }
-        if (procurarCliente(cliente.getNif()) == null) {
-            clientes.add(cliente);
-            return true;
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                if (clientes.size() >= limiteMaximo) {
+                    recusasLimite.incrementar();
+                    System.out.println("ATENÇÃO: Limite máximo de " + limiteMaximo + " clientes atingido!");
+                    return false;
+                }
+                if (procurarCliente(cliente.getNif()) == null) {
+                    clientes.add(cliente);
+                    indiceClientes.put(cliente.getNif(), cliente);
+                    tabelaClientes.registar(cliente);
+                    return true;
+                }
+                recusasDuplicado.incrementar();
+                return false;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.ADICIONAR_CLIENTE, medicao);
         }
-        return false;
     }
 
     /**
      * Obtém a lista completa de clientes.
      *
-     * @return Lista contendo todos os clientes.
+     * @return Cópia da lista contendo todos os clientes.
      */
     public ArrayList<Cliente> getClientes() {
-        return clientes;
+        return new ArrayList<>(clientes.versao());
     }
 
     /**
@@ -269,12 +824,12 @@ public class Empresa {
      * @return O objeto {@link Cliente} se encontrado, ou {@code null} caso contrário.
      */
     public Cliente procurarCliente(int nif) {
-        for (Cliente cliente : clientes) {
-            if (cliente.getNif() == nif) {
-                return cliente;
-            }
+        bloqueioRegistos.readLock().lock();
+        try {
+            return indiceClientes.get(nif);
+        } finally {
+            bloqueioRegistos.readLock().unlock();
         }
-        return null;
     }
 
     /**
@@ -286,26 +841,41 @@ public class Empresa {
      * {@code false} se tiver dependências ou não existir.
      */
     public boolean removerCliente(int nif) {
-        Cliente cliente = procurarCliente(nif);
-        if (cliente != null) {
-            // Verificar dependências em Viagens
-            for (Viagem viagem : viagens) {
-                if (viagem.getCliente().getNif() == nif) {
-                    System.out.println("Erro: Cliente possui histórico de viagens.");
-                    return false;
-                }
-            }
-            // Verificar dependências em Reservas
-            for (Reserva reserva : reservas) {
-                if (reserva.getCliente().getNif() == nif) {
-                    System.out.println("Erro: Cliente possui reservas ativas.");
-                    return false;
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                Cliente cliente = procurarCliente(nif);
+                if (cliente != null) {
+                    int[] bloqueadas = faixas.bloquear(faixaCliente(cliente));
+                    try {
+                        // Verificar dependências em Viagens
+                        if (!agendaCliente(cliente).isVazia()) {
+                            recusasDependencias.incrementar();
+                            System.out.println("Erro: Cliente possui histórico de viagens.");
+                            return false;
+                        }
+                        // Verificar dependências em Reservas
+                        if (reservasClientes.containsKey(nif)) {
+                            recusasDependencias.incrementar();
+                            System.out.println("Erro: Cliente possui reservas ativas.");
+                            return false;
+                        }
+                        clientes.remove(cliente);
+                        indiceClientes.remove(cliente.getNif());
+                        tabelaClientes.libertar(cliente);
+                        return true;
+                    } finally {
+                        faixas.desbloquear(bloqueadas);
+                    }
                 }
+                return false;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
             }
-            clientes.remove(cliente);
-            return true;
+        } finally {
+            terminar(OperacaoEmpresa.REMOVER_CLIENTE, medicao);
         }
-        return false;
     }
 
     // ==========================================================
@@ -320,316 +890,1506 @@ public class Empresa {
      * @return {@code true} se adicionado com sucesso; {@code false} se o ID já existir.
      */
     public boolean adicionarCondutor(Condutor condutor) {
-        if (procurarCondutorPorId(condutor.getNumeroIdentificacao()) == null) {
-            condutores.add(condutor);
-            return true;
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                if (procurarCondutorPorId(condutor.getNumeroIdentificacao()) == null) {
+                    registarCondutor(condutor);
+                    return true;
+                }
+                recusasDuplicado.incrementar();
+                return false;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.ADICIONAR_CONDUTOR, medicao);
+        }
+    }
+
+    /**
+     * Acrescenta um condutor à lista e aos índices. Deve ser chamado com o bloqueio de escrita.
+     *
+     * @param condutor O condutor a registar.
+     */
+    private void registarCondutor(Condutor condutor) {
+        condutores.add(condutor);
+        indiceCondutores.put(condutor.getNumeroIdentificacao(), condutor);
+        tabelaCondutores.registar(condutor);
+        // Se houver NIFs repetidos, a pesquisa por NIF devolve o primeiro registado
+        indiceCondutoresNif.putIfAbsent(condutor.getNif(), condutor);
+    }
+
+    /**
+     * Retira um condutor da lista e dos índices. Deve ser chamado com o bloqueio de escrita.
+     *
+     * @param condutor O condutor a retirar.
+     */
+    private void esquecerCondutor(Condutor condutor) {
+        condutores.remove(condutor);
+        indiceCondutores.remove(condutor.getNumeroIdentificacao());
+        tabelaCondutores.libertar(condutor);
+        if (indiceCondutoresNif.remove(condutor.getNif(), condutor)) {
+            for (Condutor outro : condutores) {
+                if (outro.getNif() == condutor.getNif()) {
+                    indiceCondutoresNif.put(outro.getNif(), outro);
+                    break;
+                }
+            }
         }
-        return false;
     }
 
     /**
      * Obtém a lista completa de condutores.
      *
-     * @return Lista de condutores.
+     * @return Cópia da lista de condutores.
      */
     public ArrayList<Condutor> getCondutores() {
-        return condutores;
+        return new ArrayList<>(condutores.versao());
+    }
+
+    /**
+     * Procura um condutor pelo número de identificação da empresa.
+     *
+     * @param numeroIdentificacao O número de ID do condutor na empresa.
+     * @return O objeto {@link Condutor} se encontrado, ou {@code null} caso contrário.
+     */
+    public Condutor procurarCondutorPorId(int numeroIdentificacao) {
+        bloqueioRegistos.readLock().lock();
+        try {
+            return indiceCondutores.get(numeroIdentificacao);
+        } finally {
+            bloqueioRegistos.readLock().unlock();
+        }
+    }
+
+    /**
+     * Procura um condutor pelo NIF (para compatibilidade).
+     *
+     * @param nif O NIF do condutor.
+     * @return O objeto {@link Condutor} se encontrado, ou {@code null} caso contrário.
+     */
+    public Condutor procurarCondutorPorNif(int nif) {
+        bloqueioRegistos.readLock().lock();
+        try {
+            return indiceCondutoresNif.get(nif);
+        } finally {
+            bloqueioRegistos.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um condutor do sistema se este não tiver viagens realizadas.
+     *
+     * @param numeroIdentificacao O número de ID do condutor a remover.
+     * @return {@code true} se removido com sucesso; {@code false} caso contrário.
+     */
+    public boolean removerCondutor(int numeroIdentificacao) {
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                Condutor condutor = procurarCondutorPorId(numeroIdentificacao);
+                if (condutor != null) {
+                    int[] bloqueadas = faixas.bloquear(faixaCondutor(condutor));
+                    try {
+                        if (!agendaCondutor(condutor).isVazia()) {
+                            recusasDependencias.incrementar();
+                            System.out.println(">> Erro: Condutor possui histórico de viagens.");
+                            return false;
+                        }
+                        esquecerCondutor(condutor);
+                        return true;
+                    } finally {
+                        faixas.desbloquear(bloqueadas);
+                    }
+                }
+                return false;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.REMOVER_CONDUTOR, medicao);
+        }
+    }
+
+    // ==========================================================
+    //                  REGISTO DE PESSOAS EM LOTE
+    // ==========================================================
+
+    /**
+     * Regista vários clientes de uma só vez (ex: importação de um ficheiro), com uma única
+     * aquisição do bloqueio de escrita. A unicidade do NIF é verificada no índice.
+     *
+     * @param lote Os clientes a registar.
+     * @return Para cada cliente, pela mesma ordem, {@code null} se foi registado ou o motivo da rejeição.
+     */
+    public String[] adicionarClientes(List<Cliente> lote) {
+        long medicao = metricas.iniciar();
+        try {
+            String[] motivos = new String[lote.size()];
+            bloqueioRegistos.writeLock().lock();
+            try {
+                for (int i = 0; i < lote.size(); i++) {
+                    Cliente cliente = lote.get(i);
+                    if (clientes.size() >= limiteMaximo) {
+                        recusasLimite.incrementar();
+                        motivos[i] = "Limite máximo de " + limiteMaximo + " clientes atingido.";
+                    } else if (indiceClientes.containsKey(cliente.getNif())) {
+                        recusasDuplicado.incrementar();
+                        motivos[i] = "NIF já registado: " + cliente.getNif();
+                    } else {
+                        clientes.add(cliente);
+                        indiceClientes.put(cliente.getNif(), cliente);
+                        tabelaClientes.registar(cliente);
+                    }
+                }
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+            return motivos;
+        } finally {
+            terminar(OperacaoEmpresa.ADICIONAR_CLIENTES, medicao);
+        }
+    }
+
+    /**
+     * Regista vários condutores de uma só vez (ex: importação de um ficheiro), com uma única
+     * aquisição do bloqueio de escrita. São verificados no índice tanto o número de
+     * identificação como o NIF.
+     *
+     * @param lote Os condutores a registar.
+     * @return Para cada condutor, pela mesma ordem, {@code null} se foi registado ou o motivo da rejeição.
+     */
+    public String[] adicionarCondutores(List<Condutor> lote) {
+        long medicao = metricas.iniciar();
+        try {
+            String[] motivos = new String[lote.size()];
+            bloqueioRegistos.writeLock().lock();
+            try {
+                for (int i = 0; i < lote.size(); i++) {
+                    Condutor condutor = lote.get(i);
+                    if (indiceCondutores.containsKey(condutor.getNumeroIdentificacao())) {
+                        recusasDuplicado.incrementar();
+                        motivos[i] = "Número de identificação já registado: " + condutor.getNumeroIdentificacao();
+                    } else if (indiceCondutoresNif.containsKey(condutor.getNif())) {
+                        recusasDuplicado.incrementar();
+                        motivos[i] = "NIF já registado: " + condutor.getNif();
+                    } else {
+                        registarCondutor(condutor);
+                    }
+                }
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+            return motivos;
+        } finally {
+            terminar(OperacaoEmpresa.ADICIONAR_CONDUTORES, medicao);
+        }
+    }
+
+    // ==========================================================
+    //                 GESTÃO DE VIAGENS E RESERVAS
+    // ==========================================================
+
+    /**
+     * Obtém uma lista de condutores que não têm viagens marcadas no intervalo de tempo fornecido.
+     * <p>
+     * Percorre a lista de condutores e, para cada um, verifica se existe alguma sobreposição
+     * com as viagens da sua agenda (pesquisa binária, sem percorrer o histórico completo).
+     * </p>
+     *
+     * @param inicio Data e Hora de início pretendida para o serviço.
+     * @param fim    Data e Hora de fim pretendida para o serviço.
+     * @return Uma lista (ArrayList) contendo apenas os condutores disponíveis.
+     */
+    public ArrayList<Condutor> getCondutoresDisponiveis(LocalDateTime inicio, LocalDateTime fim) {
+        long medicao = metricas.iniciar();
+        try {
+            EventosJfr.Disponibilidade evento = new EventosJfr.Disponibilidade();
+            evento.begin();
+            bloqueioRegistos.readLock().lock();
+            try {
+                ArrayList<Condutor> condutoresDisponiveis = new ArrayList<>();
+
+                for (Condutor condutor : condutores) {
+                    // Verifica se este condutor tem alguma viagem que colida com o horário
+                    boolean estaOcupado = agendaCondutor(condutor).temSobreposicao(inicio, fim);
+
+                    // Se não encontrou conflito, adiciona à lista
+                    if (!estaOcupado) {
+                        condutoresDisponiveis.add(condutor);
+                    }
+                }
+                evento.terminar(nomeEmpresa, "condutores", inicio, fim, condutores.size(), condutoresDisponiveis.size());
+                return condutoresDisponiveis;
+            } finally {
+                bloqueioRegistos.readLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.CONDUTORES_DISPONIVEIS, medicao);
+        }
+    }
+
+    /**
+     * Obtém uma lista de viaturas que não estão a ser usadas em nenhuma viagem no intervalo.
+     *
+     * @param inicio Data/Hora de início.
+     * @param fim    Data/Hora de fim.
+     * @return Lista de viaturas disponíveis.
+     */
+    public ArrayList<Viatura> getViaturasDisponiveis(LocalDateTime inicio, LocalDateTime fim) {
+        long medicao = metricas.iniciar();
+        try {
+            EventosJfr.Disponibilidade evento = new EventosJfr.Disponibilidade();
+            evento.begin();
+            bloqueioRegistos.readLock().lock();
+            try {
+                ArrayList<Viatura> viaturasDisponiveis = new ArrayList<>();
+
+                for (Viatura viatura : viaturas) {
+                    //Verifica se esta Viatura tem alguma viagem que colida com o horário.
+                    boolean estaOcupado = agendaViatura(viatura).temSobreposicao(inicio, fim);
+                    //Se não encontrou conflito, adicionamos a viatura à lista
+                    if (!estaOcupado) {
+                        viaturasDisponiveis.add(viatura);
+                    }
+                }
+                evento.terminar(nomeEmpresa, "viaturas", inicio, fim, viaturas.size(), viaturasDisponiveis.size());
+                return viaturasDisponiveis;
+            } finally {
+                bloqueioRegistos.readLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.VIATURAS_DISPONIVEIS, medicao);
+        }
+    }
+
+    /**
+     * Obtém uma lista de clientes que não têm viagens nem reservas pendentes no intervalo.
+     * Cada reserva ocupa {@value #DURACAO_CONVERSAO_MINUTOS} minutos a partir do seu início.
+     *
+     * @param inicio Data/Hora de início.
+     * @param fim    Data/Hora de fim.
+     * @return Lista de clientes disponíveis (livres).
+     */
+    public ArrayList<Cliente> getClientesDisponiveis(LocalDateTime inicio, LocalDateTime fim) {
+        long medicao = metricas.iniciar();
+        try {
+            EventosJfr.Disponibilidade evento = new EventosJfr.Disponibilidade();
+            evento.begin();
+            bloqueioRegistos.readLock().lock();
+            try {
+                ArrayList<Cliente> clientesDisponiveis = new ArrayList<>();
+
+                //Verifica se o Cliente tem alguma viagem ou reserva que colida com o horário.
+                for (Cliente cliente : clientes) {
+                    boolean estaOcupado = clienteOcupado(cliente, inicio, fim);
+                    //Se não encontrou conflito, adicionamos o Cliente à lista
+                    if (!estaOcupado) {
+                        clientesDisponiveis.add(cliente);
+                    }
+                }
+                evento.terminar(nomeEmpresa, "clientes", inicio, fim, clientes.size(), clientesDisponiveis.size());
+                return clientesDisponiveis;
+            } finally {
+                bloqueioRegistos.readLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.CLIENTES_DISPONIVEIS, medicao);
+        }
+    }
+
+    /**
+     * Verifica se existe sobreposição de horários para a Viatura ou Condutor.
+     * <p>
+     * A sobreposição é detetada se o intervalo de tempo da nova viagem colidir
+     * com qualquer viagem já existente para o mesmo carro ou motorista.
+     * Apenas são consultadas as agendas desses dois recursos.
+     * </p>
+     *
+     * @param viatura  A Viatura da nova viagem.
+     * @param condutor O condutor da nova viagem.
+     * @param inicio   Data/Hora de Início.
+     * @param fim      Data/Hora de Fim.
+     * @return {@code true} se houver sobreposição (ocupado); {@code false} se estiver livre.
+     */
+    public boolean verificarSobreposicao(Viatura viatura, Condutor condutor, LocalDateTime inicio, LocalDateTime fim) {
+        long medicao = metricas.iniciar();
+        try {
+            return agendaViatura(viatura).temSobreposicao(inicio, fim)
+                    || agendaCondutor(condutor).temSobreposicao(inicio, fim);
+        } finally {
+            terminar(OperacaoEmpresa.VERIFICAR_SOBREPOSICAO, medicao);
+        }
+    }
+
+    /**
+     * Verifica se um cliente está livre num intervalo, isto é, se não tem viagens nem reservas
+     * pendentes que colidam com ele.
+     *
+     * @param cliente O cliente.
+     * @param inicio  Data/Hora de início.
+     * @param fim     Data/Hora de fim.
+     * @return {@code true} se o cliente estiver livre.
+     */
+    public boolean isClienteDisponivel(Cliente cliente, LocalDateTime inicio, LocalDateTime fim) {
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.readLock().lock();
+            try {
+                return !clienteOcupado(cliente, inicio, fim);
+            } finally {
+                bloqueioRegistos.readLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.CLIENTE_DISPONIVEL, medicao);
+        }
+    }
+
+    /**
+     * Consulta a linha temporal do cliente (viagens e reservas pendentes) em O(log n).
+     * Deve ser chamado com o bloqueio dos registos.
+     *
+     * @param cliente O cliente.
+     * @param inicio  Data/Hora de início.
+     * @param fim     Data/Hora de fim.
+     * @return {@code true} se houver sobreposição.
+     */
+    private boolean clienteOcupado(Cliente cliente, LocalDateTime inicio, LocalDateTime fim) {
+        if (agendaCliente(cliente).temSobreposicao(inicio, fim)) {
+            return true;
+        }
+        FilaReservas doCliente = reservasClientes.get(cliente.getNif());
+        return doCliente != null && doCliente.temSobreposicao(inicio, fim, DURACAO_CONVERSAO_MINUTOS);
+    }
+
+    /**
+     * Regista uma nova viagem realizada no sistema após verificar conflitos.
+     * Respeitando um valor máximo de 100 objetos.
+     * <p>
+     * No modo {@link ModoMarcacao#BLOQUEIO} bloqueia apenas o Condutor, a Viatura e o Cliente
+     * da viagem (por ordem fixa de faixa), pelo que a verificação e a inserção são atómicas para
+     * esses recursos sem impedir marcações simultâneas de outros condutores.
+     * No modo {@link ModoMarcacao#OTIMISTA} não bloqueia: ver {@link #adicionarViagemOtimista(Viagem)}.
+     * </p>
+     *
+     * @param viagem A viagem a adicionar ao histórico.
+     * @return {@code true} se adicionada com sucesso; {@code false} se houver sobreposição de horários.
+     */
+    public boolean adicionarViagem(Viagem viagem) {
+        String resultado = registarViagem(viagem);
+        imprimirRecusa(resultado);
+        return resultado.equals(EventosJfr.ACEITE);
+    }
+
+    /**
+     * Regista uma nova viagem como {@link #adicionarViagem(Viagem)}, mas sem mensagens na consola.
+     *
+     * @param viagem A viagem a adicionar ao histórico.
+     * @return {@link EventosJfr#ACEITE}, {@link EventosJfr#SOBREPOSICAO} ou {@link EventosJfr#LIMITE}.
+     */
+    private String registarViagem(Viagem viagem) {
+        long medicao = metricas.iniciar();
+        ModoMarcacao modo = modoMarcacao;
+        EventosJfr.Marcacao evento = new EventosJfr.Marcacao();
+        evento.begin();
+        try {
+            if (modo == ModoMarcacao.OTIMISTA) {
+                marcarERegistar(viagem, evento);
+                return evento.resultado;
+            }
+
+            long espera = evento.relogio();
+            int[] bloqueadas = bloquearRecursos(viagem);
+            evento.espera = evento.relogio() - espera;
+            try {
+                marcarERegistar(viagem, evento);
+                return evento.resultado;
+            } finally {
+                faixas.desbloquear(bloqueadas);
+            }
+        } finally {
+            evento.terminar(nomeEmpresa, viagem, modo);
+            terminar(OperacaoEmpresa.ADICIONAR_VIAGEM, medicao);
+        }
+    }
+
+    /**
+     * Regista uma nova viagem sem bloquear threads (marcação otimista).
+     * <p>
+     * A viagem é inserida na agenda do Condutor e depois na da Viatura por compare-and-set.
+     * Se outra thread alterar a mesma agenda entretanto, a operação é repetida sobre a nova
+     * versão em vez de esperar por um bloqueio. Se a Viatura estiver ocupada, a marcação já
+     * feita no Condutor é desfeita. Enquanto a operação decorre, a viagem pode ser vista como
+     * ocupação provisória nas agendas, mas nunca surge no histórico sem estar nas duas.
+     * </p>
+     *
+     * @param viagem A viagem a adicionar ao histórico.
+     * @return {@code true} se adicionada com sucesso; {@code false} se houver sobreposição de horários.
+     */
+    public boolean adicionarViagemOtimista(Viagem viagem) {
+        long medicao = metricas.iniciar();
+        EventosJfr.Marcacao evento = new EventosJfr.Marcacao();
+        evento.begin();
+        try {
+            boolean registada = marcarERegistar(viagem, evento);
+            imprimirRecusa(evento.resultado);
+            return registada;
+        } finally {
+            evento.terminar(nomeEmpresa, viagem, ModoMarcacao.OTIMISTA);
+            terminar(OperacaoEmpresa.ADICIONAR_VIAGEM_OTIMISTA, medicao);
+        }
+    }
+
+    /**
+     * Mostra na consola o motivo pelo qual uma viagem não foi registada.
+     *
+     * @param resultado Resultado da marcação ({@link EventosJfr#ACEITE} não mostra nada).
+     */
+    private void imprimirRecusa(String resultado) {
+        if (resultado.equals(EventosJfr.SOBREPOSICAO)) {
+            System.out.println(">> Erro: Sobreposição detetada. " +
+                    "Viatura ou Condutor ocupados neste horário.");
+        } else if (resultado.equals(EventosJfr.LIMITE)) {
+            System.out.println("ATENÇÃO: Limite máximo de " + limiteMaximo + " viagens atingido!");
+        }
+    }
+
+    /**
+     * Marca a viagem nas agendas e acrescenta-a ao histórico, desfazendo a marcação
+     * se o limite de viagens tiver sido atingido. Não escreve na consola.
+     *
+     * @param viagem A viagem a registar.
+     * @param evento Evento JFR da marcação, onde ficam o resultado e o tempo de verificação.
+     * @return {@code true} se registada; {@code false} se houver sobreposição ou limite atingido.
+     */
+    private boolean marcarERegistar(Viagem viagem, EventosJfr.Marcacao evento) {
+        long verificacao = evento.relogio();
+        boolean marcada = marcarAgendas(viagem);
+        evento.verificacao = evento.relogio() - verificacao;
+        if (!marcada) {
+            evento.resultado = EventosJfr.SOBREPOSICAO;
+            recusasSobreposicao.incrementar();
+            return false;
+        }
+        if (!registarNoHistorico(viagem)) {
+            evento.resultado = EventosJfr.LIMITE;
+            desmarcarAgendas(viagem);
+            return false;
+        }
+        evento.resultado = EventosJfr.ACEITE;
+        return true;
+    }
+
+    /**
+     * Acrescenta a viagem ao histórico, respeitando o limite máximo.
+     * O bloqueio da lista cobre apenas o limite e a inserção, não a verificação de horários
+     * nem a publicação do evento (feita depois, para que as vistas não fiquem dentro do bloqueio).
+     *
+     * @param viagem A viagem já marcada nas agendas.
+     * @return {@code true} se foi registada; {@code false} se o limite foi atingido.
+     */
+    private boolean registarNoHistorico(Viagem viagem) {
+        synchronized (viagens) {
+            if (viagens.size() >= limiteMaximo) {
+                recusasLimite.incrementar();
+                return false;
+            }
+            viagens.add(viagem);
+            publicacoesPendentes.incrementAndGet();
+        }
+        publicarViagens(TipoEvento.VIAGEM_ADICIONADA, List.of(viagem));
+        return true;
+    }
+
+    /**
+     * Publica os eventos de viagens acabadas de acrescentar ou retirar do histórico, fora do monitor
+     * da lista, e desconta-as de {@link #publicacoesPendentes} (acordando quem espera que chegue a zero).
+     *
+     * @param tipo      Tipo dos eventos.
+     * @param alteradas As viagens (já contadas em {@link #publicacoesPendentes}).
+     */
+    private void publicarViagens(TipoEvento tipo, List<Viagem> alteradas) {
+        try {
+            for (Viagem viagem : alteradas) {
+                barramento.publicar(tipo, viagem, null);
+            }
+        } finally {
+            if (publicacoesPendentes.addAndGet(-alteradas.size()) == 0 && esperasPublicacoes.get() != 0) {
+                synchronized (publicacoesPendentes) {
+                    publicacoesPendentes.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtém o histórico completo de viagens.
+     *
+     * @return Cópia da lista de viagens.
+     */
+    public ArrayList<Viagem> getViagens() {
+        long medicao = metricas.iniciar();
+        try {
+            return new ArrayList<>(viagens.versao());
+        } finally {
+            terminar(OperacaoEmpresa.LISTAR_VIAGENS, medicao);
+        }
+    }
+
+    /**
+     * Procura a viagem de um condutor que começa numa data/hora, na agenda do condutor
+     * (sem percorrer o histórico).
+     *
+     * @param idCondutor Número de identificação do condutor.
+     * @param inicio     Data/Hora de início da viagem.
+     * @return A viagem, ou {@code null} se o condutor não tiver nenhuma viagem a começar nesse instante.
+     */
+    public Viagem procurarViagem(int idCondutor, LocalDateTime inicio) {
+        long medicao = metricas.iniciar();
+        try {
+            TabelaRecursos.Entrada entrada = tabelaCondutores.entradaPorIdentificador(idCondutor);
+            if (entrada == null) {
+                return null;
+            }
+            ArrayList<Viagem> encontradas = entrada.agenda.get().iniciadasEntre(inicio, inicio);
+            return encontradas.isEmpty() ? null : encontradas.get(0);
+        } finally {
+            terminar(OperacaoEmpresa.PROCURAR_VIAGEM, medicao);
+        }
+    }
+
+    /**
+     * Obtém um cursor sobre o histórico de viagens, sem copiar a lista completa.
+     * <p>
+     * O cursor percorre a versão do histórico publicada quando foi criado: pode ser usado enquanto
+     * outras threads registam ou removem viagens, não lança
+     * {@link java.util.ConcurrentModificationException} nem bloqueia as marcações, e nunca devolve
+     * a mesma viagem duas vezes, mas não reflete alterações feitas depois de criado.
+     * </p>
+     *
+     * @return Iterador sobre as viagens, pela ordem de registo.
+     */
+    public Iterator<Viagem> cursorViagens() {
+        return viagens.versao().iterator();
+    }
+
+    /**
+     * Percorre o histórico de viagens sem o copiar, entregando à ação cada viagem que satisfaça o filtro.
+     *
+     * @param filtro Condição que a viagem tem de cumprir.
+     * @param acao   Ação a executar para cada viagem selecionada.
+     */
+    public void percorrerViagens(Predicate<Viagem> filtro, Consumer<Viagem> acao) {
+        Iterator<Viagem> cursor = cursorViagens();
+        while (cursor.hasNext()) {
+            Viagem viagem = cursor.next();
+            if (filtro.test(viagem)) {
+                acao.accept(viagem);
+            }
+        }
+    }
+
+    /**
+     * Obtém o estado de todos os registos num instante, sem copiar as listas.
+     * <p>
+     * O instantâneo é consistente: nenhuma alteração fica refletida só em parte (ex: uma reserva
+     * convertida aparece como viagem ou como reserva, nunca nas duas nem em nenhuma). Só espera pelas
+     * alterações aos registos em curso; as marcações de viagens não são bloqueadas.
+     * </p>
+     *
+     * @return O instantâneo atual.
+     */
+    public Instantaneo instantaneo() {
+        bloqueioRegistos.readLock().lock();
+        try {
+            return new Instantaneo(viaturas.versao(), condutores.versao(), clientes.versao(),
+                    viagens.versao(), reservas.versao());
+        } finally {
+            bloqueioRegistos.readLock().unlock();
+        }
+    }
+
+    /**
+     * Regista uma nova reserva no sistema respeitando um limite máximo de 100 objetos.
+     * <p>
+     * A reserva ocupa {@value #DURACAO_CONVERSAO_MINUTOS} minutos do cliente e é recusada se
+     * colidir com outra reserva pendente ou com uma viagem do mesmo cliente.
+     * </p>
+     *
+     * @param reserva A reserva a adicionar.
+     * @return {@code true} se a reserva foi adicionada com sucesso;
+     * {@code false} se o limite foi atingido ou o cliente estiver ocupado.
+     */
+    public boolean adicionarReserva(Reserva reserva) {
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                if (reservas.size() >= limiteMaximo) {
+                    recusasLimite.incrementar();
+                    System.out.println("ATENÇÃO: Limite máximo de " + limiteMaximo + " reservas atingido!");
+                    return false;
+                }
+                LocalDateTime inicio = reserva.getDataHoraInicio();
+                if (clienteOcupado(reserva.getCliente(), inicio, inicio.plusMinutes(DURACAO_CONVERSAO_MINUTOS))) {
+                    recusasSobreposicao.incrementar();
+                    System.out.println(">> Erro: Sobreposição detetada. " +
+                            "O cliente já tem uma reserva ou viagem neste horário.");
+                    return false;
+                }
+                reservas.add(reserva);
+                indexarReserva(reserva);
+                barramento.publicar(TipoEvento.RESERVA_ADICIONADA, null, reserva);
+                return true;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.ADICIONAR_RESERVA, medicao);
+        }
+    }
+
+    /**
+     * Obtém a lista de reservas ativas (pendentes).
+     *
+     * @return Cópia (ArrayList) das reservas.
+     */
+    public ArrayList<Reserva> getReservas() {
+        return new ArrayList<>(reservas.versao());
+    }
+
+    /**
+     * Obtém as próximas reservas pendentes a partir de uma data/hora, por ordem de início.
+     * Custa O(log n + limite), pelo que é adequado para mostrar as próximas recolhas
+     * mesmo com muitas reservas em aberto.
+     *
+     * @param aPartirDe Data/hora mínima de início (inclusive); {@code null} para começar na primeira.
+     * @param limite    Número máximo de reservas.
+     * @return Lista com as reservas, ordenada por data/hora de início.
+     */
+    public List<Reserva> getProximasReservas(LocalDateTime aPartirDe, int limite) {
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.readLock().lock();
+            try {
+                return filaReservas.proximas(aPartirDe, limite);
+            } finally {
+                bloqueioRegistos.readLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.PROXIMAS_RESERVAS, medicao);
+        }
+    }
+
+    /**
+     * Obtém todas as reservas pendentes por ordem de data/hora de início.
+     *
+     * @return Lista ordenada com as reservas.
+     */
+    public List<Reserva> getReservasPorData() {
+        return getProximasReservas(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Obtém as reservas pendentes com início num intervalo, por ordem de início.
+     *
+     * @param inicio Data/hora mínima (inclusive).
+     * @param fim    Data/hora máxima (inclusive).
+     * @return Lista ordenada com as reservas do intervalo.
+     */
+    public List<Reserva> getReservasEntre(LocalDateTime inicio, LocalDateTime fim) {
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.readLock().lock();
+            try {
+                return filaReservas.entre(inicio, fim);
+            } finally {
+                bloqueioRegistos.readLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.RESERVAS_ENTRE, medicao);
+        }
+    }
+
+    /**
+     * Altera a data/hora de início de uma reserva, mantendo a ordem das reservas pendentes
+     * e os seus eventos ({@link CalendarioReservas}) atualizados.
+     * A alteração é recusada se a reserva já não estiver pendente (convertida, expirada ou removida)
+     * ou se o cliente já estiver ocupado no novo horário; em ambos os casos a reserva não é alterada.
+     *
+     * @param reserva  A reserva.
+     * @param novaData Nova data/hora de início.
+     * @return {@code true} se a data foi alterada; {@code false} se a reserva já não estiver pendente
+     * ou houver sobreposição.
+     * @throws IllegalArgumentException se a nova data for null.
+     */
+    public boolean alterarDataReserva(Reserva reserva, LocalDateTime novaData) {
+        long medicao = metricas.iniciar();
+        try {
+            if (novaData == null) {
+                throw new IllegalArgumentException("Data/hora de início inválida");
+            }
+            bloqueioRegistos.writeLock().lock();
+            try {
+                if (!filaReservas.contem(reserva)) {
+                    System.out.println(">> Erro: A reserva já não está pendente.");
+                    return false;
+                }
+                // A própria reserva não conta como conflito
+                FilaReservas doCliente = reservasClientes.get(reserva.getCliente().getNif());
+                boolean pendente = doCliente != null && doCliente.remover(reserva);
+                boolean ocupado = clienteOcupado(reserva.getCliente(), novaData,
+                        novaData.plusMinutes(DURACAO_CONVERSAO_MINUTOS));
+                if (!ocupado) {
+                    reserva.setDataHoraInicio(novaData);
+                }
+                if (pendente) {
+                    doCliente.adicionar(reserva);
+                }
+                if (ocupado) {
+                    recusasSobreposicao.incrementar();
+                    System.out.println(">> Erro: Sobreposição detetada. " +
+                            "O cliente já tem uma reserva ou viagem neste horário.");
+                    return false;
+                }
+                if (filaReservas.reindexar(reserva)) {
+                    calendarioReservas.agendar(reserva);
+                }
+                return true;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.ALTERAR_DATA_RESERVA, medicao);
+        }
+    }
+
+    /**
+     * Verifica se uma reserva ainda está pendente (não foi convertida, expirada nem removida).
+     *
+     * @param reserva A reserva.
+     * @return {@code true} se a reserva estiver pendente.
+     */
+    public boolean isReservaPendente(Reserva reserva) {
+        bloqueioRegistos.readLock().lock();
+        try {
+            return filaReservas.contem(reserva);
+        } finally {
+            bloqueioRegistos.readLock().unlock();
+        }
+    }
+
+    /**
+     * Converte uma Reserva em Viagem, atribuindo os recursos que faltavam.
+     * Remove a reserva da lista se a conversão for bem-sucedida.
+     * <p>
+     * Assume uma duração fixa de 30 minutos por defeito.
+     * </p>
+     *
+     * @param reserva  A reserva original.
+     * @param condutor O condutor selecionado.
+     * @param viatura  A viatura selecionada.
+     * @param custo    O custo final calculado.
+     * @return A viagem registada, ou {@code null} se a conversão falhar.
+     */
+    public Viagem converterReservaEmViagem(Reserva reserva, Condutor condutor, Viatura viatura, double custo) {
+        long medicao = metricas.iniciar();
+        try {
+            // Validações básicas
+            if (reserva == null || condutor == null || viatura == null) {
+                System.out.println("Erro: Parâmetros não podem ser null.");
+                return null;
+            }
+
+            Viagem viagem = converterReserva(reserva, condutor, viatura, custo);
+            if (viagem != null) {
+                System.out.println("Reserva convertida em viagem com sucesso.");
+                return viagem;
+            }
+
+            if (verificarSobreposicao(viatura, condutor, reserva.getDataHoraInicio(),
+                    reserva.getDataHoraInicio().plusMinutes(DURACAO_CONVERSAO_MINUTOS))) {
+                System.out.println(">> Erro: Sobreposição detetada. " +
+                        "Viatura ou Condutor ocupados neste horário.");
+            }
+            System.out.println(">>Erro: Não foi possível converter a reserva em viagem.");
+            return null;
+        } finally {
+            terminar(OperacaoEmpresa.CONVERTER_RESERVA, medicao);
+        }
+    }
+
+    /**
+     * Converte uma Reserva em Viagem sem mensagens na consola (usado pelo {@link Despacho}).
+     * Assume a mesma duração fixa de {@value #DURACAO_CONVERSAO_MINUTOS} minutos.
+     *
+     * @param reserva  A reserva original.
+     * @param condutor O condutor atribuído.
+     * @param viatura  A viatura atribuída.
+     * @param custo    O custo final.
+     * @return A viagem criada, ou {@code null} se a reserva já não existir, os recursos estiverem
+     * ocupados ou o limite de viagens tiver sido atingido.
+     */
+    Viagem converterReserva(Reserva reserva, Condutor condutor, Viatura viatura, double custo) {
+        bloqueioRegistos.writeLock().lock();
+        try {
+            if (!filaReservas.contem(reserva)) {
+                return null;
+            }
+
+            // Cria a viagem com duração fixa de 30 minutos
+            LocalDateTime dataHoraFim = reserva.getDataHoraInicio().plusMinutes(DURACAO_CONVERSAO_MINUTOS);
+            Viagem novaViagem = new Viagem(condutor, reserva.getCliente(), viatura, reserva.getDataHoraInicio(),
+                    dataHoraFim, reserva.getMoradaOrigem(), reserva.getMoradaDestino(), reserva.getKms(), custo);
+
+            // Regista como adicionarViagem (verifica sobreposição e limite), mas sem mensagens
+            if (!registarViagem(novaViagem).equals(EventosJfr.ACEITE)) {
+                return null;
+            }
+            reservas.remove(reserva);
+            desindexarReserva(reserva);
+            barramento.publicar(TipoEvento.RESERVA_CONVERTIDA, novaViagem, reserva);
+            return novaViagem;
+        } finally {
+            bloqueioRegistos.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Converte várias reservas em viagens numa única operação (usado pelo {@link DespachoLote}).
+     * <p>
+     * As viagens são registadas com {@link #adicionarViagens(Collection)}, pelo que continuam
+     * sujeitas às regras de sobreposição e ao limite; só são retiradas as reservas cuja viagem
+     * foi aceite.
+     * </p>
+     *
+     * @param conversoes Viagem planeada para cada reserva (comparação por identidade).
+     * @return O resultado do registo das viagens.
+     */
+    ResultadoLote converterReservas(IdentityHashMap<Reserva, Viagem> conversoes) {
+        bloqueioRegistos.writeLock().lock();
+        try {
+            ArrayList<Viagem> planeadas = new ArrayList<>();
+            ArrayList<Viagem> semReserva = new ArrayList<>();
+            for (Map.Entry<Reserva, Viagem> conversao : conversoes.entrySet()) {
+                (filaReservas.contem(conversao.getKey()) ? planeadas : semReserva).add(conversao.getValue());
+            }
+
+            ResultadoLote resultado = adicionarViagens(planeadas);
+            rejeitarTodas(semReserva, resultado, "Reserva já não está pendente.");
+
+            Set<Viagem> aceites = Collections.newSetFromMap(new IdentityHashMap<>());
+            aceites.addAll(resultado.getAceites());
+            reservas.removeIf(reserva -> {
+                Viagem viagem = conversoes.get(reserva);
+                if (!aceites.contains(viagem)) {
+                    return false;
+                }
+                desindexarReserva(reserva);
+                barramento.publicar(TipoEvento.RESERVA_CONVERTIDA, viagem, reserva);
+                return true;
+            });
+            return resultado;
+        } finally {
+            bloqueioRegistos.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove uma reserva específica da lista de reservas.
+     *
+     * @param reserva A reserva a remover.
+     * @return {@code true} se foi removida com sucesso.
+     */
+    public boolean removerReserva(Reserva reserva) {
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                boolean removida = filaReservas.contem(reserva) && reservas.remove(reserva);
+                if (removida) {
+                    desindexarReserva(reserva);
+                    barramento.publicar(TipoEvento.RESERVA_REMOVIDA, null, reserva);
+                }
+                return removida;
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.REMOVER_RESERVA, medicao);
+        }
+    }
+
+    /**
+     * Regista uma reserva pendente na fila ordenada e no calendário de eventos.
+     * Deve ser chamado com o bloqueio de escrita.
+     *
+     * @param reserva A reserva acabada de acrescentar.
+     */
+    private void indexarReserva(Reserva reserva) {
+        filaReservas.adicionar(reserva);
+        reservasClientes.computeIfAbsent(reserva.getCliente().getNif(), nif -> new FilaReservas()).adicionar(reserva);
+        calendarioReservas.agendar(reserva);
+    }
+
+    /**
+     * Retira uma reserva da fila ordenada e cancela os seus eventos.
+     * Deve ser chamado com o bloqueio de escrita.
+     *
+     * @param reserva A reserva que deixou de estar pendente.
+     */
+    private void desindexarReserva(Reserva reserva) {
+        filaReservas.remover(reserva);
+        int nif = reserva.getCliente().getNif();
+        FilaReservas doCliente = reservasClientes.get(nif);
+        if (doCliente != null && doCliente.remover(reserva) && doCliente.tamanho() == 0) {
+            reservasClientes.remove(nif);
+        }
+        calendarioReservas.cancelar(reserva);
+    }
+
+    /**
+     * Faz avançar o relógio das reservas e trata os eventos que venceram.
+     * <p>
+     * As reservas expiradas (não convertidas dentro da tolerância) são retiradas das reservas
+     * pendentes, deixando de contar para as estatísticas. Depois, os ouvintes do
+     * {@link #getCalendarioReservas() calendário} são avisados de cada evento, fora de qualquer bloqueio.
+     * O custo depende apenas do número de eventos vencidos, não do número de reservas pendentes.
+     * </p>
+     *
+     * @param agora Data/hora atual.
+     */
+    public void processarEventosReservas(LocalDateTime agora) {
+        long medicao = metricas.iniciar();
+        try {
+            List<CalendarioReservas.Alarme> alarmes = calendarioReservas.avancar(agora);
+            if (alarmes.isEmpty()) {
+                return;
+            }
+
+            ArrayList<Reserva> expiradas = new ArrayList<>();
+            for (CalendarioReservas.Alarme alarme : alarmes) {
+                if (alarme.evento == EventoReserva.EXPIRACAO) {
+                    expiradas.add(alarme.reserva);
+                }
+            }
+            Set<Reserva> removidas = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (!expiradas.isEmpty()) {
+                bloqueioRegistos.writeLock().lock();
+                try {
+                    // Só expiram as reservas ainda pendentes (consulta no mapa de identidade da fila)
+                    for (Reserva reserva : expiradas) {
+                        if (filaReservas.contem(reserva)) {
+                            removidas.add(reserva);
+                        }
+                    }
+                    if (!removidas.isEmpty()) {
+                        // Uma única versão nova da lista para todas as reservas expiradas neste avanço
+                        reservas.removeIf(removidas::contains);
+                        for (Reserva reserva : removidas) {
+                            desindexarReserva(reserva);
+                            barramento.publicar(TipoEvento.RESERVA_EXPIRADA, null, reserva);
+                        }
+                    }
+                } finally {
+                    bloqueioRegistos.writeLock().unlock();
+                }
+            }
+
+            for (CalendarioReservas.Alarme alarme : alarmes) {
+                // Uma reserva convertida entretanto não expira
+                if (alarme.evento != EventoReserva.EXPIRACAO || removidas.contains(alarme.reserva)) {
+                    calendarioReservas.notificar(alarme.evento, alarme.reserva);
+                }
+            }
+        } finally {
+            terminar(OperacaoEmpresa.PROCESSAR_EVENTOS_RESERVAS, medicao);
+        }
+    }
+
+    /**
+     * Remove uma viagem específica do histórico.
+     * Liberta também o horário nas agendas do Condutor, Viatura e Cliente.
+     *
+     * @param viagem A viagem a remover.
+     * @return {@code true} se foi removida com sucesso.
+     */
+    public boolean removerViagens(Viagem viagem) {
+        long medicao = metricas.iniciar();
+        try {
+            int[] bloqueadas = bloquearRecursos(viagem);
+            try {
+                boolean removida;
+                synchronized (viagens) {
+                    removida = viagens.remove(viagem);
+                    if (removida) {
+                        publicacoesPendentes.incrementAndGet();
+                    }
+                }
+                if (removida) {
+                    publicarViagens(TipoEvento.VIAGEM_REMOVIDA, List.of(viagem));
+                    desmarcarAgendas(viagem);
+                }
+                return removida;
+            } finally {
+                faixas.desbloquear(bloqueadas);
+            }
+        } finally {
+            terminar(OperacaoEmpresa.REMOVER_VIAGEM, medicao);
+        }
+    }
+
+    // ==========================================================
+    //                  MARCAÇÃO DE VIAGENS EM LOTE
+    // ==========================================================
+
+    /**
+     * Regista um lote de viagens (ex: a escala de um dia), rejeitando individualmente as que colidem.
+     *
+     * @param lote As viagens a registar.
+     * @return O resultado, com as viagens aceites e o motivo de cada rejeição.
+     * @see #adicionarViagens(Collection, boolean)
+     */
+    public ResultadoLote adicionarViagens(Collection<Viagem> lote) {
+        return adicionarViagens(lote, false);
+    }
+
+    /**
+     * Regista um lote de viagens com uma única validação para todo o lote.
+     * <p>
+     * O lote é ordenado por data/hora de início e percorrido uma só vez: cada viagem é comparada
+     * com a última viagem aceite do mesmo Condutor e da mesma Viatura dentro do lote e com a
+     * agenda já existente (pesquisa binária). As viagens aceites são depois fundidas em cada
+     * agenda numa única passagem, em vez de uma cópia da agenda por viagem.
+     * </p>
+     * <p>
+     * São bloqueados apenas os recursos envolvidos no lote, como em {@link #adicionarViagem(Viagem)}.
+     * Ao contrário da marcação individual, o lote não escreve mensagens por cada viagem rejeitada:
+     * os motivos ficam no {@link ResultadoLote}.
+     * </p>
+     *
+     * @param lote       As viagens a registar.
+     * @param tudoOuNada Se {@code true}, basta uma rejeição para que nenhuma viagem seja registada.
+     * @return O resultado, com as viagens aceites e o motivo de cada rejeição.
+     */
+    public ResultadoLote adicionarViagens(Collection<Viagem> lote, boolean tudoOuNada) {
+        long medicao = metricas.iniciar();
+        try {
+            ArrayList<Viagem> ordenadas = new ArrayList<>(lote);
+            ordenadas.sort(Comparator.comparing(Viagem::getDataHoraInicio));
+            ResultadoLote resultado = new ResultadoLote();
+
+            int[] indices = new int[ordenadas.size() * 3];
+            for (int i = 0; i < ordenadas.size(); i++) {
+                Viagem viagem = ordenadas.get(i);
+                indices[3 * i] = faixaCondutor(viagem.getCondutor());
+                indices[3 * i + 1] = faixaViatura(viagem.getViatura());
+                indices[3 * i + 2] = faixaCliente(viagem.getCliente());
+            }
+            int[] bloqueadas = faixas.bloquear(indices);
+            try {
+                ArrayList<Viagem> candidatas = validarLote(ordenadas, resultado);
+
+                if (tudoOuNada && !resultado.isTotalmenteAceite()) {
+                    rejeitarTodas(candidatas, resultado, "Lote cancelado: existem viagens rejeitadas.");
+                    return resultado;
+                }
+
+                ArrayList<Viagem> marcadas = marcarLote(candidatas, resultado);
+                if (tudoOuNada && !resultado.isTotalmenteAceite()) {
+                    for (Viagem viagem : marcadas) {
+                        desmarcarAgendas(viagem);
+                    }
+                    rejeitarTodas(marcadas, resultado, "Lote cancelado: existem viagens rejeitadas.");
+                    return resultado;
+                }
+
+                registarLoteNoHistorico(marcadas, tudoOuNada, resultado);
+                return resultado;
+            } finally {
+                faixas.desbloquear(bloqueadas);
+            }
+        } finally {
+            terminar(OperacaoEmpresa.ADICIONAR_VIAGENS, medicao);
+        }
+    }
+
+    /**
+     * Primeira fase do lote: valida todas as viagens numa única passagem, sem alterar nada.
+     *
+     * @param ordenadas As viagens do lote, ordenadas pela data/hora de início.
+     * @param resultado Onde são registadas as rejeições.
+     * @return As viagens sem conflitos, pela mesma ordem.
+     */
+    private ArrayList<Viagem> validarLote(ArrayList<Viagem> ordenadas, ResultadoLote resultado) {
+        // Maior data/hora de fim já aceite no lote, por recurso. Como o lote está ordenado
+        // pelo início, uma viagem colide com as anteriores do mesmo recurso se começar antes dessa data.
+        // Os recursos são identificados como nas agendas (número de identificação e matrícula),
+        // sem criar entradas nas tabelas: a validação não altera nada, mesmo que o lote seja recusado.
+        HashMap<Integer, LocalDateTime> fimCondutor = new HashMap<>();
+        HashMap<String, LocalDateTime> fimViatura = new HashMap<>();
+        ArrayList<Viagem> candidatas = new ArrayList<>(ordenadas.size());
+
+        for (Viagem viagem : ordenadas) {
+            Integer condutor = viagem.getCondutor().getNumeroIdentificacao();
+            String viatura = chaveViatura(viagem.getViatura());
+            LocalDateTime inicio = viagem.getDataHoraInicio();
+            LocalDateTime fim = viagem.getDataHoraFim();
+
+            LocalDateTime ocupadoCondutor = fimCondutor.get(condutor);
+            LocalDateTime ocupadoViatura = fimViatura.get(viatura);
+            if (ocupadoCondutor != null && ocupadoCondutor.isAfter(inicio)) {
+                recusasSobreposicao.incrementar();
+                resultado.rejeitar(viagem, "Condutor com outra viagem do lote neste horário.");
+            } else if (ocupadoViatura != null && ocupadoViatura.isAfter(inicio)) {
+                recusasSobreposicao.incrementar();
+                resultado.rejeitar(viagem, "Viatura com outra viagem do lote neste horário.");
+            } else if (agendaCondutor(viagem.getCondutor()).temSobreposicao(inicio, fim)) {
+                recusasSobreposicao.incrementar();
+                resultado.rejeitar(viagem, "Condutor ocupado neste horário.");
+            } else if (agendaViatura(viagem.getViatura()).temSobreposicao(inicio, fim)) {
+                recusasSobreposicao.incrementar();
+                resultado.rejeitar(viagem, "Viatura ocupada neste horário.");
+            } else {
+                fimCondutor.merge(condutor, fim, (a, b) -> a.isAfter(b) ? a : b);
+                fimViatura.merge(viatura, fim, (a, b) -> a.isAfter(b) ? a : b);
+                candidatas.add(viagem);
+            }
+        }
+        return candidatas;
+    }
+
+    /**
+     * Segunda fase do lote: funde as viagens validadas nas agendas, recurso a recurso.
+     * <p>
+     * As faixas dos recursos já estão bloqueadas, mas no modo {@link ModoMarcacao#OTIMISTA}
+     * uma marcação individual pode ter entrado entretanto; as viagens que passem a colidir
+     * são rejeitadas e retiradas das agendas onde já tinham sido marcadas.
+     * </p>
+     *
+     * @param candidatas As viagens validadas, ordenadas pela data/hora de início.
+     * @param resultado  Onde são registadas as rejeições.
+     * @return As viagens marcadas em todas as agendas, pela mesma ordem.
+     */
+    private ArrayList<Viagem> marcarLote(ArrayList<Viagem> candidatas, ResultadoLote resultado) {
+        ArrayList<Viagem> marcadas = new ArrayList<>(candidatas);
+
+        List<Viagem> conflitos = marcarGrupos(marcadas, 0, true);
+        for (Viagem viagem : conflitos) {
+            recusasSobreposicao.incrementar();
+            resultado.rejeitar(viagem, "Condutor ocupado neste horário.");
+        }
+        marcadas.removeAll(conflitos);
+
+        conflitos = marcarGrupos(marcadas, 1, true);
+        for (Viagem viagem : conflitos) {
+            desmarcar(referenciaAgenda(viagem, 0), viagem);
+            recusasSobreposicao.incrementar();
+            resultado.rejeitar(viagem, "Viatura ocupada neste horário.");
+        }
+        marcadas.removeAll(conflitos);
+
+        marcarGrupos(marcadas, 2, false);
+        return marcadas;
     }
 
     /**
-     * Procura um condutor pelo número de identificação da empresa.
+     * Agrupa as viagens por recurso (Condutor, Viatura ou Cliente) e funde cada grupo na agenda
+     * desse recurso com um único compare-and-set.
      *
-     * @param numeroIdentificacao O número de ID do condutor na empresa.
-     * @return O objeto {@link Condutor} se encontrado, ou {@code null} caso contrário.
+     * @param viagens    As viagens, ordenadas pela data/hora de início.
+     * @param recurso    0 = Condutor, 1 = Viatura, 2 = Cliente (ver {@link #referenciaAgenda}).
+     * @param verificar  Se deve verificar sobreposições com a versão atual da agenda.
+     * @return As viagens que não foram marcadas por colidirem com a agenda.
      */
-    public Condutor procurarCondutorPorId(int numeroIdentificacao) {
-        for (Condutor condutor : condutores) {
-            if (condutor.getNumeroIdentificacao() == numeroIdentificacao) {
-                return condutor;
+    private List<Viagem> marcarGrupos(ArrayList<Viagem> viagens, int recurso, boolean verificar) {
+        IdentityHashMap<AtomicReference<Agenda>, ArrayList<Viagem>> grupos = new IdentityHashMap<>();
+        for (Viagem viagem : viagens) {
+            grupos.computeIfAbsent(referenciaAgenda(viagem, recurso), r -> new ArrayList<>()).add(viagem);
+        }
+
+        ArrayList<Viagem> conflitos = new ArrayList<>();
+        for (Map.Entry<AtomicReference<Agenda>, ArrayList<Viagem>> grupo : grupos.entrySet()) {
+            AtomicReference<Agenda> referencia = grupo.getKey();
+            Agenda atual;
+            ArrayList<Viagem> livres;
+            do {
+                atual = referencia.get();
+                livres = new ArrayList<>(grupo.getValue().size());
+                for (Viagem viagem : grupo.getValue()) {
+                    if (verificar && atual.temSobreposicao(viagem.getDataHoraInicio(), viagem.getDataHoraFim())) {
+                        continue;
+                    }
+                    livres.add(viagem);
+                }
+            } while (!referencia.compareAndSet(atual, atual.comViagens(livres)));
+
+            if (livres.size() != grupo.getValue().size()) {
+                ArrayList<Viagem> rejeitadas = new ArrayList<>(grupo.getValue());
+                rejeitadas.removeAll(livres);
+                conflitos.addAll(rejeitadas);
             }
         }
-        return null;
+        return conflitos;
     }
 
     /**
-     * Procura um condutor pelo NIF (para compatibilidade).
+     * Última fase do lote: acrescenta as viagens marcadas ao histórico, respeitando o limite.
+     * As viagens que excedam o limite (ou todas, num lote "tudo ou nada") são desmarcadas.
      *
-     * @param nif O NIF do condutor.
-     * @return O objeto {@link Condutor} se encontrado, ou {@code null} caso contrário.
+     * @param marcadas   As viagens já marcadas nas agendas, ordenadas pela data/hora de início.
+     * @param tudoOuNada Se o lote deve ser cancelado quando não couber inteiro.
+     * @param resultado  Onde são registadas as viagens aceites e rejeitadas.
      */
-    public Condutor procurarCondutorPorNif(int nif) {
-        for (Condutor condutor : condutores) {
-            if (condutor.getNif() == nif) {
-                return condutor;
+    private void registarLoteNoHistorico(ArrayList<Viagem> marcadas, boolean tudoOuNada, ResultadoLote resultado) {
+        int registadas;
+        synchronized (viagens) {
+            int livres = Math.max(0, limiteMaximo - viagens.size());
+            registadas = marcadas.size() <= livres ? marcadas.size() : (tudoOuNada ? 0 : livres);
+            viagens.addAll(marcadas.subList(0, registadas));
+            publicacoesPendentes.addAndGet(registadas);
+        }
+        publicarViagens(TipoEvento.VIAGEM_ADICIONADA, marcadas.subList(0, registadas));
+
+        for (int i = 0; i < marcadas.size(); i++) {
+            Viagem viagem = marcadas.get(i);
+            if (i < registadas) {
+                resultado.aceitar(viagem);
+            } else {
+                desmarcarAgendas(viagem);
+                recusasLimite.incrementar();
+                resultado.rejeitar(viagem, "Limite máximo de " + limiteMaximo + " viagens atingido.");
             }
         }
-        return null;
     }
 
     /**
-     * Remove um condutor do sistema se este não tiver viagens realizadas.
+     * Rejeita todas as viagens indicadas com o mesmo motivo.
      *
-     * @param numeroIdentificacao O número de ID do condutor a remover.
-     * @return {@code true} se removido com sucesso; {@code false} caso contrário.
+     * @param viagens   As viagens a rejeitar.
+     * @param resultado Onde são registadas as rejeições.
+     * @param motivo    O motivo.
      */
-    public boolean removerCondutor(int numeroIdentificacao) {
-        Condutor condutor = procurarCondutorPorId(numeroIdentificacao);
-        if (condutor != null) {
-            for (Viagem viagem : viagens) {
-                if (viagem.getCondutor().getNumeroIdentificacao() == numeroIdentificacao) {
-                    System.out.println(">> Erro: Condutor possui histórico de viagens.");
-                    return false;
-                }
-            }
-            condutores.remove(condutor);
-            return true;
+    private static void rejeitarTodas(List<Viagem> viagens, ResultadoLote resultado, String motivo) {
+        for (Viagem viagem : viagens) {
+            resultado.rejeitar(viagem, motivo);
         }
-        return false;
     }
 
     // ==========================================================
-    //                 GESTÃO DE VIAGENS E RESERVAS
+    //              AGENDAS E BLOQUEIOS POR RECURSO
     // ==========================================================
 
     /**
-     * Obtém uma lista de condutores que não têm viagens marcadas no intervalo de tempo fornecido.
-     * <p>
-     * Percorre a lista de condutores e, para cada um, verifica se existe alguma sobreposição
-     * com as viagens já registadas no sistema.
-     * </p>
+     * Obtém a agenda de viagens de um condutor.
      *
-     * @param inicio Data e Hora de início pretendida para o serviço.
-     * @param fim    Data e Hora de fim pretendida para o serviço.
-     * @return Uma lista (ArrayList) contendo apenas os condutores disponíveis.
+     * @param condutor O condutor.
+     * @return A agenda do condutor (vazia se ainda não tiver viagens).
      */
-    public ArrayList<Condutor> getCondutoresDisponiveis(LocalDateTime inicio, LocalDateTime fim) {
-        ArrayList<Condutor> condutoresDisponiveis = new ArrayList<>();
-
-        for (Condutor condutor : condutores) {
-            boolean estaOcupado = false;
-
-            // Verifica se este condutor tem alguma viagem que colida com o horário
-            for (Viagem viagem : viagens) {
-                if (viagem.getCondutor().getNumeroIdentificacao() == condutor.getNumeroIdentificacao()) {
-                    // Lógica de sobreposição (InicioA < FimB) && (FimA > InicioB)
-                    if (inicio.isBefore(viagem.getDataHoraFim()) && fim.isAfter(viagem.getDataHoraInicio())) {
-                        estaOcupado = true;
-                        break; // Já sabemos que o condutor está ocupado
-                    }
-                }
-            }
-
-            // Se não encontrou conflito, adiciona à lista
-            if (!estaOcupado) {
-                condutoresDisponiveis.add(condutor);
-            }
-        }
-        return condutoresDisponiveis;
+    Agenda agendaCondutor(Condutor condutor) {
+        return tabelaCondutores.agendaAtual(condutor);
     }
 
     /**
-     * Obtém uma lista de viaturas que não estão a ser usadas em nenhuma viagem no intervalo.
+     * Obtém a agenda de viagens de uma viatura.
      *
-     * @param inicio Data/Hora de início.
-     * @param fim    Data/Hora de fim.
-     * @return Lista de viaturas disponíveis.
+     * @param viatura A viatura.
+     * @return A agenda da viatura (vazia se ainda não tiver viagens).
      */
-    public ArrayList<Viatura> getViaturasDisponiveis(LocalDateTime inicio, LocalDateTime fim) {
-        ArrayList<Viatura> viaturasDisponiveis = new ArrayList<>();
-
-        for (Viatura viatura : viaturas) {
-            //Verifica se esta Viatura tem alguma viagem que colida com o horário.
-            boolean estaOcupado = false;
-            for (Viagem viagem : viagens) {
-                if (viagem.getViatura().getMatricula().equalsIgnoreCase(viatura.getMatricula())) {
-                    //Lógica de sobreposição (InicioA < FimB) && (FimA > InicioB)
-                    if (inicio.isBefore(viagem.getDataHoraFim()) && fim.isAfter(viagem.getDataHoraInicio())) {
-                        estaOcupado = true;
-                        break;
-                    }
-                }
-            }
-            //Se correu as viagens todas e não encontrou conflito, adicionamos a viatura à lista
-            if (!estaOcupado) {
-                viaturasDisponiveis.add(viatura);
-            }
-        }
-        return viaturasDisponiveis;
+    Agenda agendaViatura(Viatura viatura) {
+        return tabelaViaturas.agendaAtual(viatura);
     }
 
     /**
-     * Obtém uma lista de clientes que não têm viagens marcadas no intervalo.
+     * Obtém a agenda de viagens de um cliente.
      *
-     * @param inicio Data/Hora de início.
-     * @param fim    Data/Hora de fim.
-     * @return Lista de clientes disponíveis (livres).
+     * @param cliente O cliente.
+     * @return A agenda do cliente (vazia se ainda não tiver viagens).
      */
-    public ArrayList<Cliente> getClientesDisponiveis(LocalDateTime inicio, LocalDateTime fim) {
-        ArrayList<Cliente> clientesDisponiveis = new ArrayList<>();
+    private Agenda agendaCliente(Cliente cliente) {
+        return tabelaClientes.agendaAtual(cliente);
+    }
 
-        //Verifica se o Cliente tem alguma viagem que colida com o horário.
-        for (Cliente cliente : clientes) {
-            boolean estaOcupado = false;
-            for (Viagem viagem : viagens) {
-                if (viagem.getCliente().getNif() == cliente.getNif()) {
-                    //Lógica de sobreposição (InicioA < FimB) && (FimA > InicioB)
-                    if (inicio.isBefore(viagem.getDataHoraFim()) && fim.isAfter(viagem.getDataHoraInicio())) {
-                        estaOcupado = true;
-                        break;
-                    }
-                }
-            }
-            if (!estaOcupado) {
-                clientesDisponiveis.add(cliente);
-            }
-        }
-        //Se correu as viagens todas e não encontrou conflito, adicionamos o Cliente à lista
-        return clientesDisponiveis;
+    /**
+     * Chave da viatura nas agendas. As matrículas são comparadas sem distinguir maiúsculas.
+     *
+     * @param viatura A viatura.
+     * @return A matrícula em maiúsculas.
+     */
+    static String chaveViatura(Viatura viatura) {
+        return viatura.getMatricula().toUpperCase(Locale.ROOT);
     }
 
     /**
-     * Verifica se existe sobreposição de horários para a Viatura ou Condutor.
-     * <p>
-     * A sobreposição é detetada se o intervalo de tempo da nova viagem colidir
-     * com qualquer viagem já existente para o mesmo carro ou motorista.
-     * </p>
+     * Obtém (ou cria) as referências atómicas das agendas dos recursos de uma viagem.
      *
-     * @param viatura  A Viatura da nova viagem.
-     * @param condutor O condutor da nova viagem.
-     * @param inicio   Data/Hora de Início.
-     * @param fim      Data/Hora de Fim.
-     * @return {@code true} se houver sobreposição (ocupado); {@code false} se estiver livre.
+     * @param viagem A viagem.
+     * @return Referências do Condutor, Viatura e Cliente, por esta ordem.
      */
-    public boolean verificarSobreposicao(Viatura viatura, Condutor condutor, LocalDateTime inicio, LocalDateTime fim) {
-        for (Viagem viagemExistente : viagens) {
-            boolean mesmaViatura = viagemExistente.getViatura().getMatricula().equalsIgnoreCase(viatura.getMatricula());
-            boolean mesmoCondutor = viagemExistente.getCondutor().getNumeroIdentificacao() == condutor.getNumeroIdentificacao();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private AtomicReference<Agenda>[] referenciasAgendas(Viagem viagem) {
+        return new AtomicReference[]{
+                tabelaCondutores.agenda(viagem.getCondutor()),
+                tabelaViaturas.agenda(viagem.getViatura()),
+                tabelaClientes.agenda(viagem.getCliente())
+        };
+    }
 
-            if (mesmaViatura || mesmoCondutor) {
-                if (inicio.isBefore(viagemExistente.getDataHoraFim()) && fim.isAfter(viagemExistente.getDataHoraInicio())) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    /**
+     * Obtém (ou cria) a referência atómica da agenda de um dos recursos de uma viagem.
+     *
+     * @param viagem  A viagem.
+     * @param recurso 0 = Condutor, 1 = Viatura, 2 = Cliente (a mesma ordem de {@link #referenciasAgendas}).
+     * @return A referência da agenda desse recurso.
+     */
+    private AtomicReference<Agenda> referenciaAgenda(Viagem viagem, int recurso) {
+        return switch (recurso) {
+            case 0 -> tabelaCondutores.agenda(viagem.getCondutor());
+            case 1 -> tabelaViaturas.agenda(viagem.getViatura());
+            default -> tabelaClientes.agenda(viagem.getCliente());
+        };
     }
 
     /**
-     * Regista uma nova viagem realizada no sistema após verificar conflitos.
-     * Respeitando um valor máximo de 100 objetos.
+     * Marca a viagem nas agendas do Condutor e da Viatura, verificando sobreposições,
+     * e depois na do Cliente (sem verificação, tal como no histórico original).
+     * <p>
+     * Cada agenda é atualizada por compare-and-set: se a versão lida já não for a atual,
+     * a verificação é repetida sobre a nova versão. Se a Viatura estiver ocupada, a
+     * marcação feita no Condutor é desfeita.
+     * </p>
      *
-     * @param viagem A viagem a adicionar ao histórico.
-     * @return {@code true} se adicionada com sucesso; {@code false} se houver sobreposição de horários.
+     * @param viagem A viagem a marcar.
+     * @return {@code true} se ficou marcada; {@code false} se houver sobreposição.
      */
-    public boolean adicionarViagem(Viagem viagem) {
-        if (viagens.size() >= LIMITE_MAXIMO) {
-            System.out.println("ATENÇÃO: Limite máximo de " + LIMITE_MAXIMO + " viagens atingido!");
+    private boolean marcarAgendas(Viagem viagem) {
+        AtomicReference<Agenda>[] referencias = referenciasAgendas(viagem);
+        if (!marcarSemSobreposicao(referencias[0], viagem)) {
             return false;
         }
-        if (verificarSobreposicao(viagem.getViatura(), viagem.getCondutor(),
-                viagem.getDataHoraInicio(), viagem.getDataHoraFim())) {
-            System.out.println(">> Erro: Sobreposição detetada. " +
-                    "Viatura ou Condutor ocupados neste horário.");
+        if (!marcarSemSobreposicao(referencias[1], viagem)) {
+            desmarcar(referencias[0], viagem);
             return false;
         }
-        viagens.add(viagem);
+        marcar(referencias[2], viagem);
         return true;
     }
 
     /**
-     * Obtém o histórico completo de viagens.
+     * Insere a viagem numa agenda por compare-and-set, sem verificar sobreposições.
      *
-     * @return Lista de viagens.
+     * @param referencia A agenda do recurso.
+     * @param viagem     A viagem a inserir.
      */
-    public ArrayList<Viagem> getViagens() {
-        return viagens;
+    private static void marcar(AtomicReference<Agenda> referencia, Viagem viagem) {
+        Agenda atual;
+        do {
+            atual = referencia.get();
+        } while (!referencia.compareAndSet(atual, atual.comViagem(viagem)));
     }
 
     /**
-     * Regista uma nova reserva no sistema respeitando um limite máximo de 100 objetos.
+     * Insere a viagem numa agenda por compare-and-set, se não houver sobreposição.
      *
-     * @param reserva A reserva a adicionar.
-     * @return {@code true} se a reserva foi adicionada com sucesso.
+     * @param referencia A agenda do recurso.
+     * @param viagem     A viagem a inserir.
+     * @return {@code true} se inserida; {@code false} se o recurso estiver ocupado.
      */
-    public boolean adicionarReserva(Reserva reserva) {
-        if (reservas.size() >= LIMITE_MAXIMO) {
-            System.out.println("ATENÇÃO: Limite máximo de " + LIMITE_MAXIMO + " reservas atingido!");
-            return false;
+    private static boolean marcarSemSobreposicao(AtomicReference<Agenda> referencia, Viagem viagem) {
+        while (true) {
+            Agenda atual = referencia.get();
+            if (atual.temSobreposicao(viagem.getDataHoraInicio(), viagem.getDataHoraFim())) {
+                return false;
+            }
+            if (referencia.compareAndSet(atual, atual.comViagem(viagem))) {
+                return true;
+            }
+            Thread.onSpinWait(); // Outra thread alterou a agenda: tentar de novo
         }
-        reservas.add(reserva);
-        return true;
     }
 
     /**
-     * Obtém a lista de reservas ativas (pendentes).
+     * Retira a viagem de uma agenda por compare-and-set.
      *
-     * @return ArrayList de reservas.
+     * @param referencia A agenda do recurso.
+     * @param viagem     A viagem a retirar.
      */
-    public ArrayList<Reserva> getReservas() {
-        return reservas;
+    private static void desmarcar(AtomicReference<Agenda> referencia, Viagem viagem) {
+        Agenda atual;
+        do {
+            atual = referencia.get();
+        } while (!referencia.compareAndSet(atual, atual.semViagem(viagem)));
     }
 
     /**
-     * Converte uma Reserva em Viagem, atribuindo os recursos que faltavam.
-     * Remove a reserva da lista se a conversão for bem-sucedida.
-     * <p>
-     * Assume uma duração fixa de 30 minutos por defeito.
-     * </p>
+     * Acrescenta às agendas uma viagem do histórico, sem verificar sobreposições
+     * (usado no carregamento de ficheiros).
      *
-     * @param reserva  A reserva original.
-     * @param condutor O condutor selecionado.
-     * @param viatura  A viatura selecionada.
-     * @param custo    O custo final calculado.
-     * @return {@code true} se sucesso; {@code false} se falhar.
+     * @param viagem A viagem já registada no histórico.
      */
-    public boolean converterReservaEmViagem(Reserva reserva, Condutor condutor, Viatura viatura, double custo) {
-        // Validações básicas
-        if (reserva == null || condutor == null || viatura == null) {
-            System.out.println("Erro: Parâmetros não podem ser null.");
-            return false;
+    private void indexarViagem(Viagem viagem) {
+        for (AtomicReference<Agenda> referencia : referenciasAgendas(viagem)) {
+            marcar(referencia, viagem);
         }
+    }
 
-        if (!reservas.contains(reserva)) {
-            System.out.println("Erro: Reserva não encontrada.");
-            return false;
+    /**
+     * Retira a viagem das agendas dos três recursos envolvidos.
+     *
+     * @param viagem A viagem a retirar.
+     */
+    private void desmarcarAgendas(Viagem viagem) {
+        for (AtomicReference<Agenda> referencia : referenciasAgendas(viagem)) {
+            desmarcar(referencia, viagem);
         }
+    }
 
-        // Cria a viagem com duração fixa de 30 minutos
-        LocalDateTime dataHoraFim = reserva.getDataHoraInicio().plusMinutes(30);
-        Viagem novaViagem = new Viagem(condutor, reserva.getCliente(), viatura, reserva.getDataHoraInicio(),
-                dataHoraFim, reserva.getMoradaOrigem(), reserva.getMoradaDestino(), reserva.getKms(), custo);
-
-        // Usa o método adicionarViagem que já verifica sobreposição
-        boolean adicionou = adicionarViagem(novaViagem);
-
-        if (adicionou) {
-            reservas.remove(reserva);
-            System.out.println("Reserva convertida em viagem com sucesso.");
-            return true;
-        }
+    /**
+     * Bloqueia as faixas do Condutor, Viatura e Cliente de uma viagem.
+     * As faixas são sempre adquiridas por ordem crescente para evitar impasses.
+     *
+     * @param viagem A viagem cujos recursos devem ser bloqueados.
+     * @return As faixas bloqueadas, a libertar com {@link FaixasBloqueio#desbloquear(int[])}.
+     */
+    private int[] bloquearRecursos(Viagem viagem) {
+        return faixas.bloquear(
+                faixaCondutor(viagem.getCondutor()),
+                faixaViatura(viagem.getViatura()),
+                faixaCliente(viagem.getCliente()));
+    }
 
-        System.out.println(">>Erro: Não foi possível converter a reserva em viagem.");
-        return false;
+    /**
+     * Calcula a faixa de bloqueio de um condutor, a partir do identificador (sem criar a entrada
+     * na tabela, para que um pedido recusado não a faça crescer).
+     *
+     * @param condutor O condutor.
+     * @return Índice da faixa.
+     */
+    private int faixaCondutor(Condutor condutor) {
+        return faixas.faixaDe(FaixasBloqueio.CONDUTOR, condutor.getNumeroIdentificacao());
     }
 
     /**
-     * Remove uma reserva específica da lista de reservas.
+     * Calcula a faixa de bloqueio de uma viatura.
      *
-     * @param reserva A reserva a remover.
-     * @return {@code true} se foi removida com sucesso.
+     * @param viatura A viatura.
+     * @return Índice da faixa.
      */
-    public boolean removerReserva(Reserva reserva) {
-        return reservas.remove(reserva);
+    private int faixaViatura(Viatura viatura) {
+        return faixas.faixaDe(FaixasBloqueio.VIATURA, chaveViatura(viatura).hashCode());
     }
 
     /**
-     * Remove uma viagem específica do histórico.
+     * Calcula a faixa de bloqueio de um cliente.
      *
-     * @param viagem A viagem a remover.
-     * @return {@code true} se foi removida com sucesso.
+     * @param cliente O cliente.
+     * @return Índice da faixa.
      */
-    public boolean removerViagens(Viagem viagem) {
-        return viagens.remove(viagem);
+    private int faixaCliente(Cliente cliente) {
+        return faixas.faixaDe(FaixasBloqueio.CLIENTE, cliente.getNif());
     }
 
     // ==========================================================
@@ -645,15 +2405,12 @@ public class Empresa {
      * @return Total faturado.
      */
     public double calcularFaturacaoCondutor(int numeroIdentificacao, LocalDateTime inicio, LocalDateTime fim) {
-        double total = 0.0;
-        for (Viagem viagem : viagens) {
-            if (viagem.getCondutor().getNumeroIdentificacao() == numeroIdentificacao) {
-                if (isDentroDoPrazo(viagem.getDataHoraInicio(), inicio, fim)) {
-                    total += viagem.getCusto();
-                }
-            }
+        long medicao = metricas.iniciar();
+        try {
+            return vistaFaturacao.getFaturacaoCondutor(numeroIdentificacao, inicio, fim);
+        } finally {
+            terminar(OperacaoEmpresa.FATURACAO_CONDUTOR, medicao);
         }
-        return total;
     }
 
     /**
@@ -663,50 +2420,11 @@ public class Empresa {
      * @return Lista de clientes (sem duplicados).
      */
     public ArrayList<Cliente> getClientesPorViatura(String matricula) {
-        ArrayList<Cliente> clientesViatura = new ArrayList<>();
-
-        for (Viagem viagem : viagens) {
-            if (viagem.getViatura().getMatricula().equalsIgnoreCase(matricula)) {
-                Cliente cliente = viagem.getCliente();
-
-                boolean jaExiste = false;
-                for (Cliente existente : clientesViatura) {
-                    if (existente.getNif() == cliente.getNif()) {
-                        jaExiste = true;
-                        break;
-                    }
-                }
-                if (!jaExiste) {
-                    clientesViatura.add(cliente);
-                }
-            }
-        }
-        return clientesViatura;
-    }
-
-    /**
-     * Método auxiliar para contabilizar a frequência de um destino na lista de estatísticas.
-     *
-     * @param destino      O nome do destino.
-     * @param nomesDestino Lista com os nomes dos destinos já encontrados.
-     * @param contagens    Lista com as contagens correspondentes.
-     */
-    private void contabilizarDestino(String destino, ArrayList<String> nomesDestino, ArrayList<Integer> contagens) {
-        int index = -1;
-
-        for (int i = 0; i < nomesDestino.size(); i++) {
-            if (nomesDestino.get(i).equalsIgnoreCase(destino)) {
-                index = i;
-                break;
-            }
-        }
-
-        if (index != -1) {
-            int valorAtual = contagens.get(index);
-            contagens.set(index, valorAtual + 1);
-        } else {
-            nomesDestino.add(destino);
-            contagens.add(1);
+        long medicao = metricas.iniciar();
+        try {
+            return vistaUtilizacao.getClientesPorViatura(matricula);
+        } finally {
+            terminar(OperacaoEmpresa.CLIENTES_POR_VIATURA, medicao);
         }
     }
 
@@ -722,19 +2440,12 @@ public class Empresa {
      * @return Média de Kms.
      */
     public double calcularDistanciaMedia(LocalDateTime inicio, LocalDateTime fim) {
-        double totalKms = 0;
-        int contador = 0;
-
-        for (Viagem viagem : viagens) {
-            if (isDentroDoPrazo(viagem.getDataHoraInicio(), inicio, fim)) {
-                totalKms += viagem.getKms();
-                contador++;
-            }
-        }
-        if (contador == 0) {
-            return 0.0;
+        long medicao = metricas.iniciar();
+        try {
+            return vistaDistancias.getDistanciaMedia(inicio, fim);
+        } finally {
+            terminar(OperacaoEmpresa.DISTANCIA_MEDIA, medicao);
         }
-        return totalKms / contador;
     }
 
     /**
@@ -746,26 +2457,12 @@ public class Empresa {
      * @return Lista de clientes únicos que cumprem o critério.
      */
     public ArrayList<Cliente> getClientesPorIntervaloKms(double minKms, double maxKms) {
-        ArrayList<Cliente> resultado = new ArrayList<>();
-
-        for (Viagem viagem : viagens) {
-            if (viagem.getKms() >= minKms && viagem.getKms() <= maxKms) {
-                Cliente cliente = viagem.getCliente();
-
-                //Verificar duplicados para não listar o mesmo cliente duas vezes.
-                boolean jaExiste = false;
-                for (Cliente existente : resultado) {
-                    if (existente.getNif() == cliente.getNif()) {
-                        jaExiste = true;
-                        break;
-                    }
-                }
-                if (!jaExiste) {
-                    resultado.add(cliente);
-                }
-            }
+        long medicao = metricas.iniciar();
+        try {
+            return vistaDistancias.getClientesPorIntervaloKms(minKms, maxKms);
+        } finally {
+            terminar(OperacaoEmpresa.CLIENTES_POR_KMS, medicao);
         }
-        return resultado;
     }
 
     /**
@@ -774,35 +2471,39 @@ public class Empresa {
      * @param nifCliente NIF do Cliente a pesquisar.
      * @param inicio     Data de inicio.
      * @param fim        Data de fim.
-     * @return Lista de Viagens encontradas.
+     * @return Lista de Viagens encontradas, ordenadas pela data/hora de início.
      */
     public ArrayList<Viagem> getViagensClientePorDatas(int nifCliente, LocalDateTime inicio, LocalDateTime fim) {
-        ArrayList<Viagem> resultado = new ArrayList<>();
-
-        for (Viagem viagem : viagens) {
-            if (viagem.getCliente().getNif() == nifCliente) {
-                if (isDentroDoPrazo(viagem.getDataHoraInicio(), inicio, fim)) {
-                    resultado.add(viagem);
-                }
-            }
+        long medicao = metricas.iniciar();
+        try {
+            TabelaRecursos.Entrada entrada = tabelaClientes.entradaPorIdentificador(nifCliente);
+            return entrada == null ? new ArrayList<>() : entrada.agenda.get().iniciadasEntre(inicio, fim);
+        } finally {
+            terminar(OperacaoEmpresa.VIAGENS_CLIENTE_POR_DATAS, medicao);
         }
-        return resultado;
     }
 
     /**
      * Obtém a lista de todas as reservas pendentes associadas a um determinado cliente.
      *
      * @param nifCliente NIF do Cliente.
-     * @return Lista contendo as reservas desse cliente.
+     * @return Lista contendo as reservas desse cliente, ordenadas pela data/hora de início.
      */
     public ArrayList<Reserva> getReservasDoCliente(int nifCliente) {
-        ArrayList<Reserva> resultado = new ArrayList<>();
-        for (Reserva reservas : reservas) {
-            if (reservas.getCliente().getNif() == nifCliente) {
-                resultado.add(reservas);
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.readLock().lock();
+            try {
+                FilaReservas doCliente = reservasClientes.get(nifCliente);
+                return doCliente == null
+                        ? new ArrayList<>()
+                        : new ArrayList<>(doCliente.proximas(null, Integer.MAX_VALUE));
+            } finally {
+                bloqueioRegistos.readLock().unlock();
             }
+        } finally {
+            terminar(OperacaoEmpresa.RESERVAS_DO_CLIENTE, medicao);
         }
-        return resultado;
     }
 
     /**
@@ -814,37 +2515,42 @@ public class Empresa {
      * @return Uma string com o nome do destino e o número de ocorrências.
      */
     public String getDestinoMaisSolicitado(LocalDateTime inicio, LocalDateTime fim) {
-        ArrayList<String> destinos = new ArrayList<>();
-        ArrayList<Integer> contagens = new ArrayList<>();
-
-        //1. Verificar em Viagens
-        for (Viagem v : viagens) {
-            if (isDentroDoPrazo(v.getDataHoraInicio(), inicio, fim)) {
-                contabilizarDestino(v.getMoradaDestino(), destinos, contagens);
-            }
-        }
-
-        //2. Verificar em Reservas
-        for (Reserva r : reservas) {
-            if (isDentroDoPrazo(r.getDataHoraInicio(), inicio, fim)) {
-                contabilizarDestino(r.getMoradaDestino(), destinos, contagens);
-            }
-        }
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.readLock().lock();
+            try {
+                //1. Viagens (vista materializada) e 2. Reservas do intervalo (fila ordenada)
+                LinkedHashMap<String, Integer> contagens = new LinkedHashMap<>();
+                LinkedHashMap<String, String> nomes = new LinkedHashMap<>();
+                vistaDestinos.getContagens(inicio, fim).forEach((destino, contagem) -> {
+                    contagens.merge(VistaDestinos.chave(destino), contagem, Integer::sum);
+                    nomes.putIfAbsent(VistaDestinos.chave(destino), destino);
+                });
+                for (Reserva r : filaReservas.entre(inicio, fim)) {
+                    contagens.merge(VistaDestinos.chave(r.getMoradaDestino()), 1, Integer::sum);
+                    nomes.putIfAbsent(VistaDestinos.chave(r.getMoradaDestino()), r.getMoradaDestino());
+                }
 
-        if (destinos.isEmpty()) {
-            return "Sem dados neste período.";
-        }
+                if (contagens.isEmpty()) {
+                    return "Sem dados neste período.";
+                }
 
-        //Encontrar o maior
-        int maxIndex = -1;
-        int maxValor = -1;
-        for (int i = 0; i < contagens.size(); i++) {
-            if (contagens.get(i) > maxValor) {
-                maxValor = contagens.get(i);
-                maxIndex = i;
+                //Encontrar o maior
+                String maisSolicitado = null;
+                int maxValor = -1;
+                for (Map.Entry<String, Integer> contagem : contagens.entrySet()) {
+                    if (contagem.getValue() > maxValor) {
+                        maxValor = contagem.getValue();
+                        maisSolicitado = contagem.getKey();
+                    }
+                }
+                return nomes.get(maisSolicitado) + " (" + maxValor + " vezes)";
+            } finally {
+                bloqueioRegistos.readLock().unlock();
             }
+        } finally {
+            terminar(OperacaoEmpresa.DESTINO_MAIS_SOLICITADO, medicao);
         }
-        return destinos.get(maxIndex) + " (" + maxValor + " vezes)";
     }
 
     /**
@@ -854,26 +2560,12 @@ public class Empresa {
      * @return Total de quilómetros percorridos pelo cliente.
      */
     public double calcularTotalKmsCliente(int nifCliente) {
-        double totalKms = 0;
-        for (Viagem viagem : viagens) {
-            if (viagem.getCliente().getNif() == nifCliente) {
-                totalKms += viagem.getKms();
-            }
+        long medicao = metricas.iniciar();
+        try {
+            return vistaDistancias.getTotalKmsCliente(nifCliente);
+        } finally {
+            terminar(OperacaoEmpresa.TOTAL_KMS_CLIENTE, medicao);
         }
-        return totalKms;
-    }
-
-    /**
-     * Método auxiliar privado para verificar se uma data se encontra dentro de um intervalo fechado [inicio, fim].
-     *
-     * @param data   A data a verificar.
-     * @param inicio O limite inferior do intervalo.
-     * @param fim    O limite superior do intervalo.
-     * @return {@code true} se a data for igual ou posterior ao início e igual ou anterior ao fim.
-     */
-    private boolean isDentroDoPrazo(LocalDateTime data, LocalDateTime inicio, LocalDateTime fim) {
-        //Verifica se é (Depois ou Igual ao Início) e (Antes ou Igual ao Fim)
-        return (data.isAfter(inicio) || data.equals(inicio)) && (data.isBefore(fim) || data.equals(fim));
     }
 
     // ==========================================================
@@ -884,34 +2576,52 @@ public class Empresa {
      * Grava todos os dados em ficheiros de texto.
      * <p>
      * Cria automaticamente a estrutura de pastas "Empresas/Logs_NomeEmpresa"
-     * se esta ainda não existir.
+     * se esta ainda não existir. Se as {@link #getMetricas() métricas} estiverem ativas,
+     * são também exportadas para "metricas.prom" (formato de texto do Prometheus).
      * </p>
      */
     public void gravarDados() {
-        // 1. Obter o caminho completo da pasta (Ex: "Empresas/Logs_Javolt")
-        String caminho = getCaminhoPastaEmpresa();
-        File pasta = new File(caminho);
-
-        // 2. Criar a estrutura de diretorias
-        // O método mkdirs() cria a pasta pai "Empresas" e a filha "Logs_..." se não existirem
-        if (!pasta.exists()) {
-            if (pasta.mkdirs()) {
-                System.out.println(">> Estrutura de pastas criada com sucesso: " + caminho);
-            } else {
-                System.out.println(">> Erro fatal: Não foi possível criar a pasta " + caminho);
-                return; // Se não há pasta, aborta a gravação para evitar erros
-            }
-        }
-        // 3. Tentar gravar os ficheiros individuais
+        long medicao = metricas.iniciar();
         try {
-            gravarViaturas();
-            gravarClientes();
-            gravarCondutores();
-            gravarViagens();
-            gravarReservas();
-            System.out.println("Dados guardados com sucesso em " + caminho);
-        } catch (IOException e) {
-            System.out.println("Erro crítico: Não foi possível gravar ficheiros: " + e.getMessage());
+            // 1. Obter o caminho completo da pasta (Ex: "Empresas/Logs_Javolt")
+            String caminho = getCaminhoPastaEmpresa();
+            File pasta = new File(caminho);
+
+            // 2. Criar a estrutura de diretorias
+            // O método mkdirs() cria a pasta pai "Empresas" e a filha "Logs_..." se não existirem
+            if (!pasta.exists()) {
+                if (pasta.mkdirs()) {
+                    System.out.println(">> Estrutura de pastas criada com sucesso: " + caminho);
+                } else {
+                    System.out.println(">> Erro fatal: Não foi possível criar a pasta " + caminho);
+                    return; // Se não há pasta, aborta a gravação para evitar erros
+                }
+            }
+            // 3. Gravar os ficheiros individuais a partir de um instantâneo (sem bloquear a empresa)
+            Instantaneo estado = instantaneo();
+            try {
+                executarFase(true, "viaturas.txt", () -> contarRegistos(estado.getViaturas()),
+                        () -> gravarViaturas(estado.getViaturas()));
+                executarFase(true, "clientes.txt", () -> contarRegistos(estado.getClientes()),
+                        () -> gravarClientes(estado.getClientes()));
+                executarFase(true, "condutores.txt", () -> contarRegistos(estado.getCondutores()),
+                        () -> gravarCondutores(estado.getCondutores()));
+                VistaDiaria resumos = new VistaDiaria();
+                executarFase(true, "viagens.txt", () -> contarRegistos(estado.getViagens()),
+                        () -> gravarViagens(estado.getViagens(), resumos));
+                executarFase(true, "reservas.txt", () -> contarRegistos(estado.getReservas()),
+                        () -> gravarReservas(estado.getReservas()));
+                executarFase(true, "resumos_diarios.txt", resumos::contarResumos,
+                        () -> gravarResumosDiarios(resumos));
+                if (metricas.isAtiva()) {
+                    metricas.gravar(new File(caminho, FICHEIRO_METRICAS));
+                }
+                System.out.println("Dados guardados com sucesso em " + caminho);
+            } catch (IOException e) {
+                System.out.println("Erro crítico: Não foi possível gravar ficheiros: " + e.getMessage());
+            }
+        } finally {
+            terminar(OperacaoEmpresa.GRAVAR_DADOS, medicao);
         }
     }
 
@@ -920,22 +2630,35 @@ public class Empresa {
      * Este método deve ser chamado no arranque da aplicação.
      */
     public void carregarDados() {
-        String caminho = getCaminhoPastaEmpresa();
-        File pastaDados = new File(caminho);
+        long medicao = metricas.iniciar();
+        try {
+            bloqueioRegistos.writeLock().lock();
+            try {
+                String caminho = getCaminhoPastaEmpresa();
+                File pastaDados = new File(caminho);
+
+                if (!pastaDados.exists()) {
+                    System.out.println(">> Aviso: Pasta de dados '" + caminho + "' não encontrada.");
+                    System.out.println(">> O sistema iniciará com as listas vazias.");
+                    return;
+                }
 
-        if (!pastaDados.exists()) {
-            System.out.println(">> Aviso: Pasta de dados '" + caminho + "' não encontrada.");
-            System.out.println(">> O sistema iniciará com as listas vazias.");
-            return;
+                System.out.println("A carregar dados de: " + caminho);
+                executarFase(false, "viaturas.txt", () -> contarRegistos(viaturas), this::carregarViaturas);
+                executarFase(false, "clientes.txt", () -> contarRegistos(clientes), this::carregarClientes);
+                executarFase(false, "condutores.txt", () -> contarRegistos(condutores), this::carregarCondutores);
+                executarFase(false, "viagens.txt", this::contarViagens, this::carregarViagens);
+                executarFase(false, "reservas.txt", () -> contarRegistos(reservas), this::carregarReservas);
+                VistaDiaria resumosGravados = new VistaDiaria();
+                executarFase(false, "resumos_diarios.txt", resumosGravados::contarResumos,
+                        () -> carregarResumosDiarios(resumosGravados));
+                System.out.println("Carregamento concluído.");
+            } finally {
+                bloqueioRegistos.writeLock().unlock();
+            }
+        } finally {
+            terminar(OperacaoEmpresa.CARREGAR_DADOS, medicao);
         }
-
-        System.out.println("A carregar dados de: " + caminho);
-        carregarViaturas();
-        carregarClientes();
-        carregarCondutores();
-        carregarViagens();
-        carregarReservas();
-        System.out.println("Carregamento concluído.");
     }
 
     // ==========================================================
@@ -943,11 +2666,66 @@ public class Empresa {
     //               (com throws IOException)
     // ==========================================================
 
+    /**
+     * Executa uma fase da gravação ou do carregamento (um ficheiro) e emite o respetivo evento JFR
+     * ({@link EventosJfr.Persistencia}) com o número de registos e o tamanho do ficheiro.
+     * Se o evento não estiver ativo, a fase é apenas executada.
+     *
+     * @param gravacao     {@code true} numa gravação; {@code false} num carregamento.
+     * @param nomeFicheiro Nome do ficheiro na pasta da empresa.
+     * @param contagem     Conta os registos do tipo do ficheiro (no carregamento, conta-se a diferença).
+     * @param fase         A fase a executar.
+     * @param <E>          Exceção lançada pela fase.
+     * @throws E Se a fase falhar.
+     */
+    private <E extends Exception> void executarFase(boolean gravacao, String nomeFicheiro, LongSupplier contagem,
+                                                    FasePersistencia<E> fase) throws E {
+        EventosJfr.Persistencia evento = new EventosJfr.Persistencia();
+        if (!evento.isEnabled()) {
+            fase.executar();
+            return;
+        }
+        long antes = contagem.getAsLong();
+        evento.begin();
+        try {
+            fase.executar();
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                File ficheiro = new File(getCaminhoPastaEmpresa(), nomeFicheiro);
+                long depois = contagem.getAsLong();
+                evento.empresa = nomeEmpresa;
+                evento.operacao = gravacao ? "gravar" : "carregar";
+                evento.ficheiro = ficheiro.getPath();
+                evento.registos = gravacao ? depois : depois - antes;
+                evento.bytes = ficheiro.length();
+                evento.commit();
+            }
+        }
+    }
+
+    /**
+     * Uma fase da gravação ou do carregamento dos dados.
+     *
+     * @param <E> Exceção lançada pela fase.
+     */
+    @FunctionalInterface
+    private interface FasePersistencia<E extends Exception> {
+
+        /**
+         * Executa a fase.
+         *
+         * @throws E Se a fase falhar.
+         */
+        void executar() throws E;
+    }
+
     /**
      * Escreve a lista de viaturas no ficheiro "viaturas.txt".
+     * @param viaturas A lista a gravar.
      * @throws IOException Se ocorrer um erro de escrita.
      */
-    private void gravarViaturas() throws IOException {
+    private void gravarViaturas(List<Viatura> viaturas) throws IOException {
         String ficheiro = getCaminhoPastaEmpresa() + "/viaturas.txt";
         try (Formatter out = new Formatter(new File(ficheiro))) {
             for (Viatura v : viaturas) {
@@ -959,9 +2737,10 @@ public class Empresa {
 
     /**
      * Escreve a lista de clientes no ficheiro "clientes.txt".
+     * @param clientes A lista a gravar.
      * @throws IOException Se ocorrer um erro de escrita.
      */
-    private void gravarClientes() throws IOException {
+    private void gravarClientes(List<Cliente> clientes) throws IOException {
         String ficheiro = getCaminhoPastaEmpresa() + "/clientes.txt";
         try (Formatter out = new Formatter(new File(ficheiro))) {
             for (Cliente cliente : clientes) {
@@ -974,9 +2753,10 @@ public class Empresa {
 
     /**
      * Escreve a lista de condutores no ficheiro "condutores.txt".
+     * @param condutores A lista a gravar.
      * @throws IOException Se ocorrer um erro de escrita.
      */
-    private void gravarCondutores() throws IOException {
+    private void gravarCondutores(List<Condutor> condutores) throws IOException {
         String ficheiro = getCaminhoPastaEmpresa() + "/condutores.txt";
         try (Formatter out = new Formatter(new File(ficheiro))) {
             for (Condutor condutor : condutores) {
@@ -989,10 +2769,13 @@ public class Empresa {
     }
 
     /**
-     * Escreve o histórico de viagens no ficheiro "viagens.txt".
+     * Escreve o histórico de viagens no ficheiro "viagens.txt", acumulando os resumos diários das
+     * viagens gravadas na mesma passagem.
+     * @param viagens As viagens a gravar.
+     * @param resumos Onde acumular os resumos diários.
      * @throws IOException Se ocorrer um erro de escrita.
      */
-    private void gravarViagens() throws IOException {
+    private void gravarViagens(List<Viagem> viagens, VistaDiaria resumos) throws IOException {
         String ficheiro = getCaminhoPastaEmpresa() + "/viagens.txt";
         try (Formatter out = new Formatter(new File(ficheiro))) {
             DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
@@ -1008,15 +2791,17 @@ public class Empresa {
                         viagem.getMoradaDestino(),
                         viagem.getKms(),
                         viagem.getCusto());
+                resumos.acrescentar(viagem);
             }
         }
     }
 
     /**
      * Escreve a lista de reservas pendentes no ficheiro "reservas.txt".
+     * @param reservas A lista a gravar.
      * @throws IOException Se ocorrer um erro de escrita.
      */
-    private void gravarReservas() throws IOException {
+    private void gravarReservas(List<Reserva> reservas) throws IOException {
         String ficheiro = getCaminhoPastaEmpresa() + "/reservas.txt";
         try (Formatter out = new Formatter(new File(ficheiro))) {
             DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
@@ -1032,6 +2817,23 @@ public class Empresa {
         }
     }
 
+    /**
+     * Escreve os resumos diários das viagens no ficheiro "resumos_diarios.txt" (ver {@link VistaDiaria#gravar}).
+     * <p>
+     * Os resumos são calculados ao gravar "viagens.txt", a partir das mesmas viagens do instantâneo,
+     * pelo que os dois ficheiros correspondem ao mesmo instante. Ao carregar, o ficheiro é comparado
+     * com os resumos reconstruídos a partir das viagens (ver {@link #carregarResumosDiarios(VistaDiaria)}).
+     * </p>
+     * @param resumos Os resumos das viagens gravadas.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    private void gravarResumosDiarios(VistaDiaria resumos) throws IOException {
+        String ficheiro = getCaminhoPastaEmpresa() + "/resumos_diarios.txt";
+        try (Formatter out = new Formatter(new File(ficheiro))) {
+            resumos.gravar(out);
+        }
+    }
+
     // ==========================================================
     //       MÉTODOS PRIVADOS DE CARREGAMENTO DE FICHEIROS
     //        (com try-catch interno, pois se os ficheiros
@@ -1146,7 +2948,12 @@ public class Empresa {
                             double custo = Double.parseDouble(dados[8]);
 
                             Viagem v = new Viagem(condutor, cliente, viatura, dataHoraInicio, dataHoraFim, dados[5], dados[6], kms, custo);
-                            viagens.add(v);
+                            synchronized (viagens) {
+                                viagens.add(v);
+                                publicacoesPendentes.incrementAndGet();
+                            }
+                            publicarViagens(TipoEvento.VIAGEM_ADICIONADA, List.of(v));
+                            indexarViagem(v);
                         } catch (Exception e) {
                             System.out.println(">> Erro: Impossível carregar viagens: " + e.getMessage());
                         }
@@ -1159,6 +2966,31 @@ public class Empresa {
         }
     }
 
+    /**
+     * Lê o ficheiro "resumos_diarios.txt" e compara-o com os resumos reconstruídos a partir das
+     * viagens carregadas. Se não corresponderem (ex: "viagens.txt" foi alterado à mão), avisa e
+     * mantém os resumos das viagens, que são a fonte de verdade.
+     * Se o ficheiro não existir (dados gravados por uma versão anterior), ignora silenciosamente.
+     *
+     * @param resumosGravados Vista vazia onde ler os resumos do ficheiro.
+     */
+    private void carregarResumosDiarios(VistaDiaria resumosGravados) {
+        File ficheiro = new File(getCaminhoPastaEmpresa() + "/resumos_diarios.txt");
+        if (!ficheiro.exists()) {
+            return;
+        }
+        try (Scanner ler = new Scanner(ficheiro)) {
+            resumosGravados.carregar(ler);
+        } catch (Exception e) {
+            System.out.println(">> Aviso: Resumos diários ilegíveis; reconstruídos a partir das viagens.");
+            return;
+        }
+        if (!resumosGravados.corresponde(vistaDiaria)) {
+            System.out.println(">> Aviso: Os resumos diários gravados não correspondem às viagens; "
+                    + "reconstruídos a partir das viagens.");
+        }
+    }
+
     /**
      * Lê o ficheiro "reservas.txt" e carrega as reservas pendentes para o sistema.
      * <p>
@@ -1192,6 +3024,8 @@ public class Empresa {
 
                             Reserva reserva = new Reserva(cliente, dataHoraInicio, moradaOrigem, moradaDestino, kms);
                             reservas.add(reserva);
+                            indexarReserva(reserva);
+                            barramento.publicar(TipoEvento.RESERVA_ADICIONADA, null, reserva);
                         } catch (Exception e) {
                             System.out.println("Erro ao carregar reservas: " + e.getMessage());
                         }
@@ -0,0 +1,462 @@
+package Gestao;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Estatisticas.VistaDestinos;
+
+import java.io.Serial;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Estatísticas calculadas em paralelo sobre um {@link Instantaneo}, num {@link ForkJoinPool}.
+ * <p>
+ * O histórico é dividido com o {@link Spliterator} das listas do instantâneo (que parte o array
+ * ao meio, sem copiar) até cada parte ter poucos milhares de viagens. Cada parte é acumulada num
+ * resultado parcial e os parciais são juntos dois a dois, sempre a parte anterior com a seguinte:
+ * como as junções são associativas, o resultado é o mesmo que o de uma passagem sequencial
+ * (a menos de arredondamentos nas somas), incluindo as ordens de aparecimento.
+ * </p>
+ * <p>
+ * Serve os relatórios sobre todo o histórico num instante; as consultas pontuais da {@link Empresa}
+ * continuam a ser lidas das vistas materializadas. Os intervalos de datas são inclusivos e
+ * referem-se à data/hora de início, como nas vistas.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class EstatisticasParalelas {
+
+    /**
+     * Motor partilhado, no pool comum (usa todos os processadores disponíveis).
+     */
+    public static final EstatisticasParalelas PADRAO = new EstatisticasParalelas(ForkJoinPool.commonPool());
+
+    /**
+     * Tamanho mínimo de uma parte: abaixo disto, dividir custa mais do que percorrer.
+     */
+    private static final int LIMIAR_MINIMO = 4096;
+
+    /**
+     * Número de partes por thread do pool (para equilibrar partes mais lentas).
+     */
+    private static final int PARTES_POR_THREAD = 4;
+
+    /**
+     * Pool onde as partes são executadas.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Cria um motor que executa no pool indicado.
+     *
+     * @param pool O pool (ex: {@code new ForkJoinPool(1)} para uma execução sequencial).
+     */
+    public EstatisticasParalelas(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Reduz uma lista em paralelo: cada parte é acumulada num resultado novo, e os resultados
+     * das partes são juntos pela ordem da lista.
+     *
+     * @param fonte     A lista (de preferência de um {@link Instantaneo}, que se divide sem copiar).
+     * @param criar     Cria um resultado vazio.
+     * @param acumular  Acumula um elemento num resultado.
+     * @param combinar  Junta o resultado de uma parte (primeiro argumento) com o da parte seguinte;
+     *                  tem de ser associativa. Pode devolver um dos argumentos, alterado.
+     * @param <T>       Tipo dos elementos.
+     * @param <R>       Tipo do resultado.
+     * @return O resultado de toda a lista.
+     */
+    public <T, R> R reduzir(List<T> fonte, Supplier<R> criar, BiConsumer<R, ? super T> acumular,
+                            BinaryOperator<R> combinar) {
+        long limiar = Math.max(LIMIAR_MINIMO, fonte.size() / ((long) pool.getParallelism() * PARTES_POR_THREAD));
+        Reducao<T, R> reducao = new Reducao<>(criar, acumular, combinar, limiar);
+        if (fonte.size() <= limiar) {
+            return reducao.sequencial(fonte.spliterator());
+        }
+        return pool.invoke(new Parte<>(fonte.spliterator(), reducao));
+    }
+
+    /**
+     * Calcula a distância média das viagens iniciadas num intervalo.
+     *
+     * @param estado O instantâneo.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return A média dos quilómetros, ou 0 se não houver viagens.
+     */
+    public double distanciaMedia(Instantaneo estado, LocalDateTime inicio, LocalDateTime fim) {
+        Soma soma = reduzir(estado.getViagens(), Soma::new, (parcial, viagem) -> {
+            if (dentro(viagem.getDataHoraInicio(), inicio, fim)) {
+                parcial.somar(viagem.getKms());
+            }
+        }, Soma::juntar);
+        return soma.media();
+    }
+
+    /**
+     * Calcula a faturação de todos os condutores nas viagens iniciadas num intervalo.
+     *
+     * @param estado O instantâneo.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return Total faturado por condutor, pela ordem de registo dos condutores
+     * (os condutores sem viagens no intervalo aparecem com 0).
+     */
+    public LinkedHashMap<Condutor, Double> faturacaoCondutores(Instantaneo estado, LocalDateTime inicio,
+                                                               LocalDateTime fim) {
+        HashMap<Integer, Soma> porIdentificacao = reduzir(estado.getViagens(), HashMap::new, (parcial, viagem) -> {
+            if (dentro(viagem.getDataHoraInicio(), inicio, fim)) {
+                parcial.computeIfAbsent(viagem.getCondutor().getNumeroIdentificacao(), id -> new Soma())
+                        .somar(viagem.getCusto());
+            }
+        }, EstatisticasParalelas::juntarSomas);
+
+        LinkedHashMap<Condutor, Double> faturacao = new LinkedHashMap<>();
+        for (Condutor condutor : estado.getCondutores()) {
+            Soma soma = porIdentificacao.get(condutor.getNumeroIdentificacao());
+            faturacao.put(condutor, soma == null ? 0.0 : soma.total);
+        }
+        return faturacao;
+    }
+
+    /**
+     * Conta os pedidos (viagens e reservas pendentes) de cada destino iniciados num intervalo.
+     * Os destinos são comparados sem distinguir maiúsculas, e é apresentado o nome com que
+     * cada destino apareceu pela primeira vez.
+     *
+     * @param estado O instantâneo.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return Contagem por destino, pela ordem em que cada destino aparece (viagens e depois reservas).
+     */
+    public LinkedHashMap<String, Integer> contagemDestinos(Instantaneo estado, LocalDateTime inicio,
+                                                           LocalDateTime fim) {
+        LinkedHashMap<String, Contagem> porChave = reduzir(estado.getViagens(), LinkedHashMap::new,
+                (parcial, viagem) -> {
+                    if (dentro(viagem.getDataHoraInicio(), inicio, fim)) {
+                        contar(parcial, viagem.getMoradaDestino());
+                    }
+                }, EstatisticasParalelas::juntarContagens);
+        LinkedHashMap<String, Contagem> reservas = reduzir(estado.getReservas(), LinkedHashMap::new,
+                (LinkedHashMap<String, Contagem> parcial, Reserva reserva) -> {
+                    if (dentro(reserva.getDataHoraInicio(), inicio, fim)) {
+                        contar(parcial, reserva.getMoradaDestino());
+                    }
+                }, EstatisticasParalelas::juntarContagens);
+        juntarContagens(porChave, reservas);
+
+        LinkedHashMap<String, Integer> contagens = new LinkedHashMap<>();
+        for (Contagem contagem : porChave.values()) {
+            contagens.put(contagem.nome, contagem.pedidos);
+        }
+        return contagens;
+    }
+
+    /**
+     * Calcula o total de quilómetros de cada cliente em todo o histórico.
+     *
+     * @param estado O instantâneo.
+     * @return Quilómetros por NIF (só os clientes com viagens).
+     */
+    public HashMap<Integer, Double> kmsPorCliente(Instantaneo estado) {
+        HashMap<Integer, Soma> porNif = reduzir(estado.getViagens(), HashMap::new,
+                (parcial, viagem) -> parcial.computeIfAbsent(viagem.getCliente().getNif(), nif -> new Soma())
+                        .somar(viagem.getKms()),
+                EstatisticasParalelas::juntarSomas);
+
+        HashMap<Integer, Double> kms = new HashMap<>();
+        porNif.forEach((nif, soma) -> kms.put(nif, soma.total));
+        return kms;
+    }
+
+    /**
+     * Obtém os clientes (sem repetições) com viagens cuja distância está num intervalo (inclusive).
+     *
+     * @param estado O instantâneo.
+     * @param minKms Distância mínima.
+     * @param maxKms Distância máxima.
+     * @return Lista de clientes, por ordem crescente da menor distância que os incluiu (empates pelo NIF).
+     */
+    public ArrayList<Cliente> clientesPorIntervaloKms(Instantaneo estado, double minKms, double maxKms) {
+        HashMap<Integer, Viagem> maisCurta = reduzir(estado.getViagens(), HashMap::new, (parcial, viagem) -> {
+            if (viagem.getKms() >= minKms && viagem.getKms() <= maxKms) {
+                parcial.merge(viagem.getCliente().getNif(), viagem, EstatisticasParalelas::maisCurta);
+            }
+        }, (esquerda, direita) -> {
+            direita.forEach((nif, viagem) -> esquerda.merge(nif, viagem, EstatisticasParalelas::maisCurta));
+            return esquerda;
+        });
+
+        ArrayList<Viagem> ordenadas = new ArrayList<>(maisCurta.values());
+        ordenadas.sort(Comparator.comparingDouble(Viagem::getKms)
+                .thenComparingInt(viagem -> viagem.getCliente().getNif()));
+        ArrayList<Cliente> clientes = new ArrayList<>(ordenadas.size());
+        for (Viagem viagem : ordenadas) {
+            clientes.add(viagem.getCliente());
+        }
+        return clientes;
+    }
+
+    /**
+     * Verifica se uma data pertence a um intervalo (inclusive).
+     *
+     * @param data   A data.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return {@code true} se {@code inicio <= data <= fim}.
+     */
+    static boolean dentro(LocalDateTime data, LocalDateTime inicio, LocalDateTime fim) {
+        return !data.isBefore(inicio) && !data.isAfter(fim);
+    }
+
+    /**
+     * Conta um pedido para um destino.
+     *
+     * @param contagens Contagem por chave normalizada.
+     * @param destino   O destino.
+     */
+    private static void contar(Map<String, Contagem> contagens, String destino) {
+        contagens.computeIfAbsent(VistaDestinos.chave(destino), chave -> new Contagem(destino)).pedidos++;
+    }
+
+    /**
+     * Junta as contagens da parte seguinte às da anterior (mantém o primeiro nome de cada destino).
+     *
+     * @param esquerda Contagens da parte anterior (alteradas).
+     * @param direita  Contagens da parte seguinte.
+     * @return As contagens da parte anterior.
+     */
+    private static LinkedHashMap<String, Contagem> juntarContagens(LinkedHashMap<String, Contagem> esquerda,
+                                                                  LinkedHashMap<String, Contagem> direita) {
+        direita.forEach((chave, contagem) -> esquerda.merge(chave, contagem, (anterior, seguinte) -> {
+            anterior.pedidos += seguinte.pedidos;
+            return anterior;
+        }));
+        return esquerda;
+    }
+
+    /**
+     * Junta as somas por chave da parte seguinte às da anterior.
+     *
+     * @param esquerda Somas da parte anterior (alteradas).
+     * @param direita  Somas da parte seguinte.
+     * @return As somas da parte anterior.
+     */
+    private static HashMap<Integer, Soma> juntarSomas(HashMap<Integer, Soma> esquerda, HashMap<Integer, Soma> direita) {
+        direita.forEach((chave, soma) -> esquerda.merge(chave, soma, Soma::juntar));
+        return esquerda;
+    }
+
+    /**
+     * Escolhe a viagem mais curta (a primeira, em caso de empate).
+     *
+     * @param anterior A viagem já escolhida.
+     * @param seguinte A outra viagem.
+     * @return A mais curta.
+     */
+    private static Viagem maisCurta(Viagem anterior, Viagem seguinte) {
+        return seguinte.getKms() < anterior.getKms() ? seguinte : anterior;
+    }
+
+    /**
+     * Soma e contagem de valores (resultado parcial).
+     */
+    private static final class Soma {
+
+        /**
+         * Soma dos valores.
+         */
+        private double total;
+
+        /**
+         * Número de valores.
+         */
+        private long contagem;
+
+        /**
+         * Acrescenta um valor.
+         *
+         * @param valor O valor.
+         */
+        private void somar(double valor) {
+            total += valor;
+            contagem++;
+        }
+
+        /**
+         * Junta outra soma a esta.
+         *
+         * @param outra A outra soma.
+         * @return Esta soma.
+         */
+        private Soma juntar(Soma outra) {
+            total += outra.total;
+            contagem += outra.contagem;
+            return this;
+        }
+
+        /**
+         * Obtém a média.
+         *
+         * @return A média, ou 0 se não houver valores.
+         */
+        private double media() {
+            return contagem == 0 ? 0.0 : total / contagem;
+        }
+    }
+
+    /**
+     * Número de pedidos de um destino e o nome com que apareceu primeiro (resultado parcial).
+     */
+    private static final class Contagem {
+
+        /**
+         * Nome a apresentar.
+         */
+        private final String nome;
+
+        /**
+         * Número de pedidos.
+         */
+        private int pedidos;
+
+        /**
+         * Cria uma contagem a zero.
+         *
+         * @param nome Nome a apresentar.
+         */
+        private Contagem(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    /**
+     * Funções de uma redução e tamanho a partir do qual uma parte é dividida.
+     *
+     * @param <T> Tipo dos elementos.
+     * @param <R> Tipo do resultado.
+     */
+    private static final class Reducao<T, R> {
+
+        /**
+         * Cria um resultado vazio.
+         */
+        private final Supplier<R> criar;
+
+        /**
+         * Acumula um elemento num resultado.
+         */
+        private final BiConsumer<R, ? super T> acumular;
+
+        /**
+         * Junta os resultados de duas partes consecutivas.
+         */
+        private final BinaryOperator<R> combinar;
+
+        /**
+         * Partes maiores do que isto são divididas.
+         */
+        private final long limiar;
+
+        /**
+         * Cria uma redução.
+         *
+         * @param criar    Cria um resultado vazio.
+         * @param acumular Acumula um elemento num resultado.
+         * @param combinar Junta os resultados de duas partes consecutivas.
+         * @param limiar   Tamanho a partir do qual uma parte é dividida.
+         */
+        private Reducao(Supplier<R> criar, BiConsumer<R, ? super T> acumular, BinaryOperator<R> combinar,
+                        long limiar) {
+            this.criar = criar;
+            this.acumular = acumular;
+            this.combinar = combinar;
+            this.limiar = limiar;
+        }
+
+        /**
+         * Acumula uma parte na thread atual.
+         *
+         * @param parte A parte.
+         * @return O resultado da parte.
+         */
+        private R sequencial(Spliterator<T> parte) {
+            R resultado = criar.get();
+            parte.forEachRemaining(elemento -> acumular.accept(resultado, elemento));
+            return resultado;
+        }
+    }
+
+    /**
+     * Tarefa que reduz uma parte da lista, dividindo-a enquanto for maior do que o limiar.
+     *
+     * @param <T> Tipo dos elementos.
+     * @param <R> Tipo do resultado.
+     */
+    private static final class Parte<T, R> extends RecursiveTask<R> {
+
+        /**
+         * Versão de serialização (as tarefas nunca são serializadas; os campos são transientes).
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Elementos desta parte.
+         */
+        private final transient Spliterator<T> elementos;
+
+        /**
+         * A redução.
+         */
+        private final transient Reducao<T, R> reducao;
+
+        /**
+         * Cria a tarefa de uma parte.
+         *
+         * @param elementos Elementos da parte.
+         * @param reducao   A redução.
+         */
+        private Parte(Spliterator<T> elementos, Reducao<T, R> reducao) {
+            this.elementos = elementos;
+            this.reducao = reducao;
+        }
+
+        /**
+         * Divide a parte em duas (a primeira metade noutra tarefa) ou, se for pequena, acumula-a.
+         *
+         * @return O resultado da parte.
+         */
+        @Override
+        protected R compute() {
+            if (elementos.estimateSize() > reducao.limiar) {
+                Spliterator<T> primeiraMetade = elementos.trySplit();
+                if (primeiraMetade != null) {
+                    Parte<T, R> anterior = new Parte<>(primeiraMetade, reducao);
+                    anterior.fork();
+                    R seguinte = new Parte<>(elementos, reducao).compute();
+                    return reducao.combinar.apply(anterior.join(), seguinte);
+                }
+            }
+            return reducao.sequencial(elementos);
+        }
+    }
+}
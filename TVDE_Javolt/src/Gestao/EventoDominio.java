@@ -0,0 +1,83 @@
+package Gestao;
+
+import Entidades.Reserva;
+import Entidades.Viagem;
+
+/**
+ * Evento de domínio publicado por uma {@link Empresa}: o que aconteceu e a que objetos.
+ * <p>
+ * Consoante o {@link TipoEvento}, o evento refere uma viagem, uma reserva ou ambas
+ * (na conversão de uma reserva, a viagem criada). Os campos que não se aplicam são {@code null}.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class EventoDominio {
+
+    /**
+     * Tipo do evento.
+     */
+    private final TipoEvento tipo;
+
+    /**
+     * Viagem envolvida (ou {@code null}).
+     */
+    private final Viagem viagem;
+
+    /**
+     * Reserva envolvida (ou {@code null}).
+     */
+    private final Reserva reserva;
+
+    /**
+     * Cria um evento.
+     *
+     * @param tipo    Tipo do evento.
+     * @param viagem  Viagem envolvida (ou {@code null}).
+     * @param reserva Reserva envolvida (ou {@code null}).
+     */
+    EventoDominio(TipoEvento tipo, Viagem viagem, Reserva reserva) {
+        this.tipo = tipo;
+        this.viagem = viagem;
+        this.reserva = reserva;
+    }
+
+    /**
+     * Obtém o tipo do evento.
+     *
+     * @return O tipo.
+     */
+    public TipoEvento getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtém a viagem envolvida.
+     *
+     * @return A viagem, ou {@code null} se o evento só diz respeito a uma reserva.
+     */
+    public Viagem getViagem() {
+        return viagem;
+    }
+
+    /**
+     * Obtém a reserva envolvida.
+     *
+     * @return A reserva, ou {@code null} se o evento só diz respeito a uma viagem.
+     */
+    public Reserva getReserva() {
+        return reserva;
+    }
+
+    /**
+     * Devolve uma representação textual do evento.
+     *
+     * @return String com o tipo e os objetos envolvidos.
+     */
+    @Override
+    public String toString() {
+        return tipo + (viagem != null ? " " + viagem : "") + (reserva != null ? " " + reserva : "");
+    }
+}
@@ -0,0 +1,26 @@
+package Gestao;
+
+/**
+ * Eventos do ciclo de vida de uma reserva pendente, disparados pelo {@link CalendarioReservas}.
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public enum EventoReserva {
+
+    /**
+     * Chegou o prazo para atribuir condutor e viatura (ex: despacho automático).
+     */
+    PRAZO_DESPACHO,
+
+    /**
+     * A recolha do cliente está próxima.
+     */
+    RECOLHA_PROXIMA,
+
+    /**
+     * A reserva não foi convertida a tempo e foi retirada das reservas pendentes.
+     */
+    EXPIRACAO
+}
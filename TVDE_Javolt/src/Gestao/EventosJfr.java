@@ -0,0 +1,211 @@
+package Gestao;
+
+import Entidades.Viagem;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+import java.time.LocalDateTime;
+
+/**
+ * Eventos do JDK Flight Recorder emitidos pela {@link Empresa}.
+ * <p>
+ * Permitem relacionar uma marcação lenta ou uma gravação demorada com o que a JVM estava a fazer
+ * (recolha de lixo, E/S, bloqueios), numa gravação contínua em produção
+ * (ex: {@code -XX:StartFlightRecording=filename=javolt.jfr}). Os campos só são preenchidos se o
+ * evento for efetivamente gravado ({@code shouldCommit()}); com o JFR desligado, criar e terminar
+ * um evento não custa praticamente nada.
+ * </p>
+ * <p>
+ * As marcações e as consultas de disponibilidade só são gravadas a partir de 1 ms, para manter a
+ * gravação contínua pequena; o limiar pode ser alterado nas definições da gravação
+ * (ex: {@code javolt.Marcacao#threshold=0 ms}).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+final class EventosJfr {
+
+    /**
+     * Resultado de uma marcação aceite.
+     */
+    static final String ACEITE = "aceite";
+
+    /**
+     * Resultado de uma marcação recusada por sobreposição de horários.
+     */
+    static final String SOBREPOSICAO = "sobreposicao";
+
+    /**
+     * Resultado de uma marcação recusada por limite de viagens atingido.
+     */
+    static final String LIMITE = "limite";
+
+    /**
+     * Classe utilitária: não é instanciada.
+     */
+    private EventosJfr() {
+    }
+
+    /**
+     * Tentativa de marcação de uma viagem ({@link Empresa#adicionarViagem(Viagem)}).
+     * A duração do evento cobre a espera pelos bloqueios, a verificação de conflitos e o registo.
+     */
+    @Name("javolt.Marcacao")
+    @Label("Marcação de viagem")
+    @Category({"Javolt", "Empresa"})
+    @Description("Tentativa de marcação de uma viagem, com os recursos envolvidos e o resultado.")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class Marcacao extends Event {
+
+        @Label("Empresa")
+        String empresa;
+
+        @Label("Condutor")
+        int condutor;
+
+        @Label("Viatura")
+        String viatura;
+
+        @Label("Cliente")
+        int cliente;
+
+        @Label("Início da viagem")
+        String inicio;
+
+        @Label("Modo de marcação")
+        String modo;
+
+        @Label("Resultado")
+        @Description("aceite, sobreposicao ou limite")
+        String resultado;
+
+        @Label("Espera pelos bloqueios")
+        @Timespan(Timespan.NANOSECONDS)
+        long espera;
+
+        @Label("Verificação de conflitos")
+        @Timespan(Timespan.NANOSECONDS)
+        long verificacao;
+
+        /**
+         * Lê o relógio, apenas se o evento estiver ativo.
+         *
+         * @return O instante atual em nanossegundos, ou 0.
+         */
+        long relogio() {
+            return isEnabled() ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Termina o evento e grava-o, se tiver passado o limiar.
+         *
+         * @param nomeEmpresa  Nome da empresa.
+         * @param viagem       A viagem a marcar.
+         * @param modoMarcacao Modo usado na marcação.
+         */
+        void terminar(String nomeEmpresa, Viagem viagem, ModoMarcacao modoMarcacao) {
+            end();
+            if (shouldCommit()) {
+                empresa = nomeEmpresa;
+                condutor = viagem.getCondutor().getNumeroIdentificacao();
+                viatura = viagem.getViatura().getMatricula();
+                cliente = viagem.getCliente().getNif();
+                inicio = viagem.getDataHoraInicio().toString();
+                modo = modoMarcacao.name();
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Consulta dos recursos disponíveis num intervalo ({@code get...Disponiveis}).
+     */
+    @Name("javolt.Disponibilidade")
+    @Label("Consulta de disponibilidade")
+    @Category({"Javolt", "Empresa"})
+    @Description("Consulta dos condutores, viaturas ou clientes livres num intervalo.")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static final class Disponibilidade extends Event {
+
+        @Label("Empresa")
+        String empresa;
+
+        @Label("Recurso")
+        @Description("condutores, viaturas ou clientes")
+        String recurso;
+
+        @Label("Início do intervalo")
+        String inicio;
+
+        @Label("Fim do intervalo")
+        String fim;
+
+        @Label("Candidatos analisados")
+        int candidatos;
+
+        @Label("Disponíveis")
+        int disponiveis;
+
+        /**
+         * Termina o evento e grava-o, se tiver passado o limiar.
+         *
+         * @param nomeEmpresa  Nome da empresa.
+         * @param tipoRecurso  Recurso consultado.
+         * @param inicioJanela Início do intervalo.
+         * @param fimJanela    Fim do intervalo.
+         * @param analisados   Número de candidatos analisados.
+         * @param livres       Número de candidatos disponíveis.
+         */
+        void terminar(String nomeEmpresa, String tipoRecurso, LocalDateTime inicioJanela, LocalDateTime fimJanela,
+                      int analisados, int livres) {
+            end();
+            if (shouldCommit()) {
+                empresa = nomeEmpresa;
+                recurso = tipoRecurso;
+                inicio = String.valueOf(inicioJanela);
+                fim = String.valueOf(fimJanela);
+                candidatos = analisados;
+                disponiveis = livres;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Gravação ou carregamento de um ficheiro de dados da empresa.
+     */
+    @Name("javolt.Persistencia")
+    @Label("Persistência")
+    @Category({"Javolt", "Empresa"})
+    @Description("Gravação ou carregamento de um ficheiro de dados (uma fase de gravarDados/carregarDados).")
+    static final class Persistencia extends Event {
+
+        @Label("Empresa")
+        String empresa;
+
+        @Label("Operação")
+        @Description("gravar ou carregar")
+        String operacao;
+
+        @Label("Ficheiro")
+        String ficheiro;
+
+        @Label("Registos")
+        long registos;
+
+        @Label("Tamanho do ficheiro")
+        @DataAmount
+        long bytes;
+    }
+}
@@ -0,0 +1,275 @@
+package Gestao;
+
+import Entidades.Formatacao;
+import Entidades.Viagem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Exportação do histórico de viagens de uma empresa para CSV ou JSON Lines.
+ * <p>
+ * As viagens são lidas com o cursor de {@link Empresa#cursorViagens()} e escritas uma a uma
+ * num canal de ficheiro com buffer, sem nunca construir a lista completa em memória.
+ * Assim é possível exportar anos de histórico (ex: para a contabilidade) com memória constante.
+ * </p>
+ * <p>
+ * As datas são escritas no formato ISO (ex: {@code 2026-03-01T09:30}) e os valores numéricos
+ * usam sempre o ponto como separador decimal, para que os ficheiros possam ser lidos por outras ferramentas.
+ * Os valores são escritos com {@link Formatacao#decimal}, sem criar textos intermédios por viagem.
+ * </p>
+ * <p>
+ * Cada instância reutiliza o mesmo buffer de linha, pelo que deve ser usada por uma thread de cada vez.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class ExportadorViagens {
+
+    /**
+     * Formatos de exportação suportados.
+     */
+    public enum Formato {
+        /** Valores separados por ponto e vírgula, com linha de cabeçalho. */
+        CSV,
+        /** Um objeto JSON por linha. */
+        JSONL;
+
+        /**
+         * Obtém o formato a partir do nome (sem distinguir maiúsculas de minúsculas).
+         *
+         * @param nome "csv" ou "jsonl".
+         * @return O formato correspondente.
+         * @throws IllegalArgumentException Se o formato não for suportado.
+         */
+        public static Formato deNome(String nome) {
+            try {
+                return valueOf(nome.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de exportação desconhecido: " + nome + " (use csv ou jsonl).");
+            }
+        }
+    }
+
+    /**
+     * Tamanho do buffer de escrita (64 KB).
+     */
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    /**
+     * Cabeçalho do formato CSV.
+     */
+    private static final String CABECALHO_CSV =
+            "condutor;cliente;matricula;inicio;fim;origem;destino;kms;custo";
+
+    /**
+     * Formato das datas exportadas.
+     */
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * Empresa cujas viagens são exportadas.
+     */
+    private final Empresa empresa;
+
+    /**
+     * Linha em construção, reutilizada para todas as viagens.
+     */
+    private final StringBuilder linha;
+
+    /**
+     * Cria um exportador para as viagens de uma empresa.
+     *
+     * @param empresa A empresa.
+     */
+    public ExportadorViagens(Empresa empresa) {
+        this.empresa = empresa;
+        this.linha = new StringBuilder(256);
+    }
+
+    /**
+     * Cria um filtro de viagens por cliente e/ou intervalo de datas.
+     * <p>
+     * Os critérios a {@code null} são ignorados. O intervalo é fechado [inicio, fim]
+     * e aplica-se à data/hora de início da viagem.
+     * </p>
+     *
+     * @param nifCliente NIF do cliente, ou {@code null} para todos.
+     * @param inicio     Data/hora mínima de início, ou {@code null}.
+     * @param fim        Data/hora máxima de início, ou {@code null}.
+     * @return O filtro.
+     */
+    public static Predicate<Viagem> filtro(Integer nifCliente, LocalDateTime inicio, LocalDateTime fim) {
+        return viagem -> (nifCliente == null || viagem.getCliente().getNif() == nifCliente)
+                && (inicio == null || !viagem.getDataHoraInicio().isBefore(inicio))
+                && (fim == null || !viagem.getDataHoraInicio().isAfter(fim));
+    }
+
+    /**
+     * Exporta as viagens selecionadas para um ficheiro (substitui o conteúdo existente).
+     *
+     * @param destino Ficheiro de destino.
+     * @param formato Formato da exportação.
+     * @param filtro  Condição que as viagens têm de cumprir.
+     * @return Número de viagens exportadas.
+     * @throws IOException Se não for possível escrever o ficheiro.
+     */
+    public long exportar(Path destino, Formato formato, Predicate<Viagem> filtro) throws IOException {
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(
+                Channels.newWriter(canal, StandardCharsets.UTF_8.newEncoder(), TAMANHO_BUFFER), TAMANHO_BUFFER)) {
+            return exportar(out, formato, filtro);
+        }
+    }
+
+    /**
+     * Exporta as viagens selecionadas para um destino qualquer (ex: consola, resposta HTTP).
+     * O destino não é fechado.
+     *
+     * @param out     Destino da escrita.
+     * @param formato Formato da exportação.
+     * @param filtro  Condição que as viagens têm de cumprir.
+     * @return Número de viagens exportadas.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    public long exportar(Writer out, Formato formato, Predicate<Viagem> filtro) throws IOException {
+        long[] exportadas = {0};
+        try {
+            if (formato == Formato.CSV) {
+                out.write(CABECALHO_CSV);
+                out.write('\n');
+            }
+            empresa.percorrerViagens(filtro, viagem -> {
+                linha.setLength(0);
+                if (formato == Formato.CSV) {
+                    escreverCsv(viagem);
+                } else {
+                    escreverJson(viagem);
+                }
+                linha.append('\n');
+                try {
+                    out.append(linha);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exportadas[0]++;
+            });
+            out.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return exportadas[0];
+    }
+
+    /**
+     * Acrescenta à linha os campos da viagem em formato CSV.
+     *
+     * @param viagem A viagem.
+     */
+    private void escreverCsv(Viagem viagem) {
+        linha.append(viagem.getCondutor().getNumeroIdentificacao()).append(';')
+                .append(viagem.getCliente().getNif()).append(';');
+        campoCsv(viagem.getViatura().getMatricula());
+        linha.append(';');
+        FORMATO_DATA.formatTo(viagem.getDataHoraInicio(), linha);
+        linha.append(';');
+        FORMATO_DATA.formatTo(viagem.getDataHoraFim(), linha);
+        linha.append(';');
+        campoCsv(viagem.getMoradaOrigem());
+        linha.append(';');
+        campoCsv(viagem.getMoradaDestino());
+        linha.append(';');
+        Formatacao.decimal(viagem.getKms(), linha).append(';');
+        Formatacao.decimal(viagem.getCusto(), linha);
+    }
+
+    /**
+     * Acrescenta à linha os campos da viagem como um objeto JSON.
+     *
+     * @param viagem A viagem.
+     */
+    private void escreverJson(Viagem viagem) {
+        linha.append("{\"condutor\":").append(viagem.getCondutor().getNumeroIdentificacao())
+                .append(",\"cliente\":").append(viagem.getCliente().getNif())
+                .append(",\"matricula\":");
+        textoJson(viagem.getViatura().getMatricula());
+        linha.append(",\"inicio\":\"");
+        FORMATO_DATA.formatTo(viagem.getDataHoraInicio(), linha);
+        linha.append("\",\"fim\":\"");
+        FORMATO_DATA.formatTo(viagem.getDataHoraFim(), linha);
+        linha.append("\",\"origem\":");
+        textoJson(viagem.getMoradaOrigem());
+        linha.append(",\"destino\":");
+        textoJson(viagem.getMoradaDestino());
+        linha.append(",\"kms\":");
+        Formatacao.decimal(viagem.getKms(), linha).append(",\"custo\":");
+        Formatacao.decimal(viagem.getCusto(), linha).append('}');
+    }
+
+    /**
+     * Acrescenta um campo CSV, entre aspas apenas se contiver separadores, aspas ou quebras de linha.
+     *
+     * @param valor O texto do campo.
+     */
+    private void campoCsv(String valor) {
+        boolean aspas = false;
+        for (int i = 0; i < valor.length() && !aspas; i++) {
+            char c = valor.charAt(i);
+            aspas = c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!aspas) {
+            linha.append(valor);
+            return;
+        }
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linha.append('"');
+            }
+            linha.append(c);
+        }
+        linha.append('"');
+    }
+
+    /**
+     * Acrescenta um texto JSON (entre aspas, com os caracteres especiais escapados).
+     *
+     * @param valor O texto.
+     */
+    private void textoJson(String valor) {
+        linha.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> linha.append("\\\"");
+                case '\\' -> linha.append("\\\\");
+                case '\n' -> linha.append("\\n");
+                case '\r' -> linha.append("\\r");
+                case '\t' -> linha.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        linha.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        linha.append(c);
+                    }
+                }
+            }
+        }
+        linha.append('"');
+    }
+}
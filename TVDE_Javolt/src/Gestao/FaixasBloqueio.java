@@ -0,0 +1,117 @@
+package Gestao;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fixo de bloqueios ("lock striping") usado para proteger recursos individuais.
+ * <p>
+ * Em vez de um bloqueio por cada Condutor, Viatura ou Cliente (ou de um único bloqueio global),
+ * cada recurso é associado a uma de N faixas através do seu identificador. Duas operações sobre
+ * recursos diferentes raramente partilham uma faixa, pelo que podem correr em paralelo.
+ * </p>
+ * <p>
+ * Para evitar impasses (deadlocks), as faixas de uma operação são sempre adquiridas por
+ * ordem crescente de índice e libertadas pela ordem inversa.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class FaixasBloqueio {
+
+    /**
+     * Tipo de recurso: Condutor (identificado pelo número de identificação).
+     */
+    public static final int CONDUTOR = 1;
+
+    /**
+     * Tipo de recurso: Viatura (identificada pela matrícula).
+     */
+    public static final int VIATURA = 2;
+
+    /**
+     * Tipo de recurso: Cliente (identificado pelo NIF).
+     */
+    public static final int CLIENTE = 3;
+
+    /**
+     * Os bloqueios de cada faixa.
+     */
+    private final ReentrantLock[] faixas;
+
+    /**
+     * Máscara usada para converter um hash num índice de faixa.
+     */
+    private final int mascara;
+
+    /**
+     * Cria um conjunto de faixas de bloqueio.
+     *
+     * @param numeroFaixas Número pretendido de faixas (arredondado para a potência de 2 seguinte).
+     * @throws IllegalArgumentException se o número de faixas não for positivo.
+     */
+    public FaixasBloqueio(int numeroFaixas) {
+        if (numeroFaixas <= 0) {
+            throw new IllegalArgumentException("Número de faixas deve ser positivo");
+        }
+        int tamanho = Integer.highestOneBit(numeroFaixas);
+        if (tamanho < numeroFaixas) {
+            tamanho <<= 1;
+        }
+        this.faixas = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+        this.mascara = tamanho - 1;
+    }
+
+    /**
+     * Calcula a faixa correspondente a um recurso.
+     *
+     * @param tipo  Tipo de recurso ({@link #CONDUTOR}, {@link #VIATURA} ou {@link #CLIENTE}).
+     * @param chave Hash do identificador do recurso.
+     * @return O índice da faixa.
+     */
+    public int faixaDe(int tipo, int chave) {
+        int h = chave * 31 + tipo;
+        h *= 0x9E3779B9; // Espalha identificadores consecutivos por faixas diferentes
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    /**
+     * Adquire as faixas indicadas por ordem crescente, ignorando repetidas.
+     *
+     * @param indices Índices das faixas a bloquear (podem vir desordenados ou repetidos).
+     * @return Os índices efetivamente bloqueados, a passar a {@link #desbloquear(int[])}.
+     */
+    public int[] bloquear(int... indices) {
+        int[] ordenados = indices.clone();
+        Arrays.sort(ordenados);
+
+        int unicos = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            if (i == 0 || ordenados[i] != ordenados[i - 1]) {
+                ordenados[unicos++] = ordenados[i];
+            }
+        }
+        int[] adquiridos = Arrays.copyOf(ordenados, unicos);
+
+        for (int i = 0; i < adquiridos.length; i++) {
+            faixas[adquiridos[i]].lock();
+        }
+        return adquiridos;
+    }
+
+    /**
+     * Liberta as faixas adquiridas por {@link #bloquear(int...)}, pela ordem inversa.
+     *
+     * @param adquiridos Os índices devolvidos por {@link #bloquear(int...)}.
+     */
+    public void desbloquear(int[] adquiridos) {
+        for (int i = adquiridos.length - 1; i >= 0; i--) {
+            faixas[adquiridos[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package Gestao;
+
+import Entidades.Reserva;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Reservas pendentes ordenadas pela data/hora de início.
+ * <p>
+ * Cada reserva é guardada numa entrada com a data em que foi indexada e um número de ordem
+ * (que desempata reservas à mesma hora). As entradas vivem numa árvore ordenada e são
+ * encontradas a partir da reserva por um mapa de identidade: inserir, remover e reindexar custam
+ * O(log n) e obter as próximas k reservas custa O(log n + k), sem ordenar nem percorrer as restantes.
+ * </p>
+ * <p>
+ * Não é thread-safe: a {@link Empresa} só a usa com o bloqueio dos registos (leitura ou escrita).
+ * Se a data de uma reserva mudar, deve ser chamado {@link #reindexar(Reserva)}.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class FilaReservas {
+
+    /**
+     * Ordem das entradas: data/hora de início e, em caso de empate, ordem de inserção.
+     */
+    private static final Comparator<Entrada> ORDEM = Comparator
+            .comparing((Entrada entrada) -> entrada.inicio)
+            .thenComparingLong(entrada -> entrada.ordem);
+
+    /**
+     * Entradas ordenadas.
+     */
+    private final TreeSet<Entrada> entradas;
+
+    /**
+     * Entrada de cada reserva (comparação por identidade).
+     */
+    private final IdentityHashMap<Reserva, Entrada> indice;
+
+    /**
+     * Número de ordem da próxima entrada.
+     */
+    private long proximaOrdem;
+
+    /**
+     * Cria uma fila vazia.
+     */
+    public FilaReservas() {
+        this.entradas = new TreeSet<>(ORDEM);
+        this.indice = new IdentityHashMap<>();
+    }
+
+    /**
+     * Acrescenta uma reserva (ou reindexa-a, se já estiver na fila).
+     *
+     * @param reserva A reserva.
+     */
+    public void adicionar(Reserva reserva) {
+        remover(reserva);
+        Entrada entrada = new Entrada(reserva, reserva.getDataHoraInicio(), proximaOrdem++);
+        entradas.add(entrada);
+        indice.put(reserva, entrada);
+    }
+
+    /**
+     * Retira uma reserva da fila.
+     *
+     * @param reserva A reserva.
+     * @return {@code true} se estava na fila.
+     */
+    public boolean remover(Reserva reserva) {
+        Entrada entrada = indice.remove(reserva);
+        if (entrada == null) {
+            return false;
+        }
+        entradas.remove(entrada);
+        return true;
+    }
+
+    /**
+     * Volta a posicionar uma reserva cuja data/hora de início foi alterada.
+     *
+     * @param reserva A reserva.
+     * @return {@code true} se estava na fila.
+     */
+    public boolean reindexar(Reserva reserva) {
+        Entrada entrada = indice.get(reserva);
+        if (entrada == null) {
+            return false;
+        }
+        if (!entrada.inicio.equals(reserva.getDataHoraInicio())) {
+            adicionar(reserva);
+        }
+        return true;
+    }
+
+    /**
+     * Obtém as primeiras reservas a partir de uma data/hora, por ordem de início.
+     *
+     * @param aPartirDe Data/hora mínima de início (inclusive); {@code null} para começar na primeira.
+     * @param limite    Número máximo de reservas a devolver.
+     * @return As reservas encontradas (no máximo {@code limite}).
+     */
+    public List<Reserva> proximas(LocalDateTime aPartirDe, int limite) {
+        ArrayList<Reserva> resultado = new ArrayList<>(Math.min(Math.max(limite, 0), entradas.size()));
+        Iterable<Entrada> percurso = aPartirDe == null
+                ? entradas
+                : entradas.tailSet(new Entrada(null, aPartirDe, Long.MIN_VALUE), true);
+        for (Entrada entrada : percurso) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            resultado.add(entrada.reserva);
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtém as reservas com início num intervalo, por ordem de início.
+     *
+     * @param inicio Data/hora mínima (inclusive).
+     * @param fim    Data/hora máxima (inclusive).
+     * @return As reservas do intervalo.
+     */
+    public List<Reserva> entre(LocalDateTime inicio, LocalDateTime fim) {
+        ArrayList<Reserva> resultado = new ArrayList<>();
+        if (fim.isBefore(inicio)) {
+            return resultado;
+        }
+        for (Entrada entrada : entradas.subSet(new Entrada(null, inicio, Long.MIN_VALUE), true,
+                new Entrada(null, fim, Long.MAX_VALUE), true)) {
+            resultado.add(entrada.reserva);
+        }
+        return resultado;
+    }
+
+    /**
+     * Verifica se alguma reserva da fila, com a duração indicada, colide com um intervalo.
+     * <p>
+     * Usa a lógica de sobreposição do resto do sistema: (InicioA &lt; FimB) e (FimA &gt; InicioB).
+     * Como todas as reservas têm a mesma duração, basta encontrar a primeira que começa depois de
+     * {@code inicio - duracao} e ver se começa antes de {@code fim}: custa O(log n).
+     * </p>
+     *
+     * @param inicio  Data/hora de início do intervalo.
+     * @param fim     Data/hora de fim do intervalo.
+     * @param duracao Duração (em minutos) atribuída a cada reserva.
+     * @return {@code true} se houver sobreposição.
+     */
+    public boolean temSobreposicao(LocalDateTime inicio, LocalDateTime fim, long duracao) {
+        Entrada seguinte = entradas.higher(new Entrada(null, inicio.minusMinutes(duracao), Long.MAX_VALUE));
+        return seguinte != null && seguinte.inicio.isBefore(fim);
+    }
+
+    /**
+     * Verifica se uma reserva está na fila.
+     *
+     * @param reserva A reserva.
+     * @return {@code true} se está na fila.
+     */
+    public boolean contem(Reserva reserva) {
+        return indice.containsKey(reserva);
+    }
+
+    /**
+     * Obtém o número de reservas na fila.
+     *
+     * @return Número de reservas.
+     */
+    public int tamanho() {
+        return indice.size();
+    }
+
+    /**
+     * Posição de uma reserva na fila.
+     */
+    private static final class Entrada {
+
+        /**
+         * A reserva.
+         */
+        private final Reserva reserva;
+
+        /**
+         * Data/hora de início no momento em que foi indexada.
+         */
+        private final LocalDateTime inicio;
+
+        /**
+         * Número de ordem (desempate).
+         */
+        private final long ordem;
+
+        /**
+         * Cria uma entrada.
+         *
+         * @param reserva A reserva.
+         * @param inicio  Data/hora de início.
+         * @param ordem   Número de ordem.
+         */
+        private Entrada(Reserva reserva, LocalDateTime inicio, long ordem) {
+            this.reserva = reserva;
+            this.inicio = inicio;
+            this.ordem = ordem;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package Gestao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com memória fixa, no estilo do HdrHistogram.
+ * Usado pelas {@link Metricas} das empresas e pelos testes de carga.
+ * <p>
+ * Os valores (ex: nanossegundos) são contados em classes log-lineares: os valores abaixo de
+ * {@value #SUBCLASSES} têm uma classe cada e, a partir daí, cada potência de 2 é dividida em
+ * {@value #SUBCLASSES}/2 classes iguais. O erro relativo de qualquer percentil é assim inferior
+ * a 2/{@value #SUBCLASSES} (cerca de 1,6%), para valores entre 1 e {@link Long#MAX_VALUE},
+ * com cerca de 3700 contadores (30 KB) por histograma, independentemente do número de registos.
+ * </p>
+ * <p>
+ * É thread-safe e registar não bloqueia nem aloca: várias threads podem registar no mesmo
+ * histograma enquanto outra lê os percentis (a leitura é aproximada enquanto houver registos).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Histograma {
+
+    /**
+     * Bits de precisão de cada potência de 2.
+     */
+    private static final int BITS_PRECISAO = 7;
+
+    /**
+     * Número de classes exatas (valores de 0 a SUBCLASSES - 1).
+     */
+    private static final int SUBCLASSES = 1 << BITS_PRECISAO;
+
+    /**
+     * Classes por potência de 2, acima das classes exatas.
+     */
+    private static final int METADE = SUBCLASSES / 2;
+
+    /**
+     * Número total de classes (cobre todos os valores positivos de um long).
+     */
+    private static final int CLASSES = SUBCLASSES + (64 - BITS_PRECISAO) * METADE;
+
+    /**
+     * Contagem de cada classe.
+     */
+    private final AtomicLongArray contagens;
+
+    /**
+     * Número total de registos.
+     */
+    private final LongAdder total;
+
+    /**
+     * Soma dos valores registados.
+     */
+    private final LongAdder soma;
+
+    /**
+     * Maior valor registado.
+     */
+    private final AtomicLong maximo;
+
+    /**
+     * Cria um histograma vazio.
+     */
+    public Histograma() {
+        this.contagens = new AtomicLongArray(CLASSES);
+        this.total = new LongAdder();
+        this.soma = new LongAdder();
+        this.maximo = new AtomicLong();
+    }
+
+    /**
+     * Regista um valor (valores negativos contam como 0).
+     *
+     * @param valor O valor.
+     */
+    public void registar(long valor) {
+        long positivo = Math.max(0, valor);
+        contagens.incrementAndGet(classe(positivo));
+        total.increment();
+        soma.add(positivo);
+        if (positivo > maximo.get()) {
+            maximo.accumulateAndGet(positivo, Math::max);
+        }
+    }
+
+    /**
+     * Acrescenta a este histograma todos os registos de outro.
+     *
+     * @param outro O outro histograma.
+     */
+    public void juntar(Histograma outro) {
+        for (int i = 0; i < CLASSES; i++) {
+            long contagem = outro.contagens.get(i);
+            if (contagem != 0) {
+                contagens.addAndGet(i, contagem);
+            }
+        }
+        total.add(outro.total.sum());
+        soma.add(outro.soma.sum());
+        maximo.accumulateAndGet(outro.maximo.get(), Math::max);
+    }
+
+    /**
+     * Apaga todos os registos.
+     */
+    public void limpar() {
+        for (int i = 0; i < CLASSES; i++) {
+            contagens.set(i, 0);
+        }
+        total.reset();
+        soma.reset();
+        maximo.set(0);
+    }
+
+    /**
+     * Obtém o número de registos.
+     *
+     * @return Número de valores registados.
+     */
+    public long getContagem() {
+        return total.sum();
+    }
+
+    /**
+     * Obtém a soma dos valores registados.
+     *
+     * @return A soma (0 se não houver registos).
+     */
+    public long getSoma() {
+        return soma.sum();
+    }
+
+    /**
+     * Obtém a média dos valores registados.
+     *
+     * @return A média (0 se não houver registos).
+     */
+    public double getMedia() {
+        long contagem = total.sum();
+        return contagem == 0 ? 0.0 : (double) soma.sum() / contagem;
+    }
+
+    /**
+     * Obtém o maior valor registado (exato).
+     *
+     * @return O máximo (0 se não houver registos).
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Obtém o valor abaixo do qual (ou igual) está uma dada percentagem dos registos.
+     * O valor devolvido é o maior valor da classe correspondente, sem ultrapassar o máximo registado.
+     *
+     * @param percentil Percentagem entre 0 e 100 (ex: 99.9).
+     * @return O valor do percentil (0 se não houver registos).
+     * @throws IllegalArgumentException se o percentil estiver fora de [0, 100].
+     */
+    public long percentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("Percentil inválido: " + percentil);
+        }
+        long contagem = total.sum();
+        if (contagem == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(percentil / 100.0 * contagem));
+        long acumulado = 0;
+        for (int i = 0; i < CLASSES; i++) {
+            acumulado += contagens.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    /**
+     * Obtém a classe de um valor não negativo.
+     *
+     * @param valor O valor.
+     * @return O índice da classe.
+     */
+    private static int classe(long valor) {
+        if (valor < SUBCLASSES) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - BITS_PRECISAO + 1;
+        int subclasse = (int) (valor >>> deslocamento) - METADE;
+        return SUBCLASSES + (deslocamento - 1) * METADE + subclasse;
+    }
+
+    /**
+     * Obtém o maior valor que pertence a uma classe.
+     *
+     * @param classe O índice da classe.
+     * @return O limite superior (inclusive).
+     */
+    private static long limiteSuperior(int classe) {
+        if (classe < SUBCLASSES) {
+            return classe;
+        }
+        int indice = classe - SUBCLASSES;
+        int deslocamento = indice / METADE + 1;
+        long topo = indice % METADE + METADE;
+        long limite = ((topo + 1) << deslocamento) - 1;
+        return limite < 0 ? Long.MAX_VALUE : limite;
+    }
+}
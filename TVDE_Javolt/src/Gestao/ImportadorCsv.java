@@ -0,0 +1,444 @@
+package Gestao;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Importação em massa de clientes e condutores a partir de ficheiros CSV.
+ * <p>
+ * O ficheiro é lido em contínuo, em blocos de linhas, pelo que pode ter qualquer tamanho:
+ * só um número fixo de blocos está em memória de cada vez. Cada bloco é interpretado e
+ * validado em paralelo (os construtores de {@link Cliente} e {@link Condutor} validam NIF,
+ * telemóvel, etc.), e os blocos são depois inseridos na {@link Empresa} pela ordem do ficheiro,
+ * um lote de cada vez, com a unicidade de NIF e número de identificação verificada nos índices.
+ * </p>
+ * <p>
+ * As colunas são as mesmas dos ficheiros de dados da empresa, separadas por ';' ou ',':
+ * <ul>
+ *   <li>Clientes: nome;nif;tel;morada;cartaoCid</li>
+ *   <li>Condutores: id;nome;nif;tel;morada;cartaoCid;cartaCond;segSocial</li>
+ * </ul>
+ * Uma primeira linha de cabeçalho (com "nif" na coluna do NIF) é ignorada. As linhas rejeitadas são
+ * escritas num ficheiro à parte, no formato {@code numeroLinha;motivo;linhaOriginal}.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class ImportadorCsv {
+
+    /**
+     * Número de linhas por bloco.
+     */
+    private static final int LINHAS_POR_BLOCO = 8192;
+
+    /**
+     * A empresa onde os registos são inseridos.
+     */
+    private final Empresa empresa;
+
+    /**
+     * Número de threads usadas na interpretação dos blocos.
+     */
+    private final int threads;
+
+    /**
+     * Cria um importador que usa todos os processadores disponíveis.
+     *
+     * @param empresa A empresa de destino.
+     */
+    public ImportadorCsv(Empresa empresa) {
+        this(empresa, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Cria um importador com um número de threads à medida.
+     *
+     * @param empresa A empresa de destino.
+     * @param threads Número de threads de interpretação.
+     * @throws IllegalArgumentException se o número de threads não for positivo.
+     */
+    public ImportadorCsv(Empresa empresa, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Número de threads deve ser positivo");
+        }
+        this.empresa = empresa;
+        this.threads = threads;
+    }
+
+    /**
+     * Importa clientes de um ficheiro CSV.
+     *
+     * @param ficheiro    O ficheiro CSV.
+     * @param rejeitados  Ficheiro onde são escritas as linhas rejeitadas (só criado se houver rejeições).
+     * @return O relatório da importação.
+     * @throws IOException Se não for possível ler o ficheiro ou escrever as rejeições.
+     */
+    public Relatorio importarClientes(Path ficheiro, Path rejeitados) throws IOException {
+        return importar(ficheiro, rejeitados, 5, 1, ImportadorCsv::lerCliente, empresa::adicionarClientes);
+    }
+
+    /**
+     * Importa condutores de um ficheiro CSV.
+     *
+     * @param ficheiro    O ficheiro CSV.
+     * @param rejeitados  Ficheiro onde são escritas as linhas rejeitadas (só criado se houver rejeições).
+     * @return O relatório da importação.
+     * @throws IOException Se não for possível ler o ficheiro ou escrever as rejeições.
+     */
+    public Relatorio importarCondutores(Path ficheiro, Path rejeitados) throws IOException {
+        return importar(ficheiro, rejeitados, 8, 2, ImportadorCsv::lerCondutor, empresa::adicionarCondutores);
+    }
+
+    /**
+     * Converte os campos de uma linha num cliente.
+     *
+     * @param campos Os campos (nome;nif;tel;morada;cartaoCid).
+     * @return O cliente.
+     */
+    private static Cliente lerCliente(String[] campos) {
+        return new Cliente(campos[0], Integer.parseInt(campos[1]), Integer.parseInt(campos[2]),
+                campos[3], Integer.parseInt(campos[4]));
+    }
+
+    /**
+     * Converte os campos de uma linha num condutor.
+     *
+     * @param campos Os campos (id;nome;nif;tel;morada;cartaoCid;cartaCond;segSocial).
+     * @return O condutor.
+     */
+    private static Condutor lerCondutor(String[] campos) {
+        return new Condutor(Integer.parseInt(campos[0]), campos[1], Integer.parseInt(campos[2]),
+                Integer.parseInt(campos[3]), campos[4], Integer.parseInt(campos[5]), campos[6],
+                Integer.parseInt(campos[7]));
+    }
+
+    /**
+     * Ciclo de importação comum: lê blocos, interpreta-os em paralelo e insere-os por ordem.
+     *
+     * @param ficheiro   O ficheiro CSV.
+     * @param rejeitados Ficheiro das linhas rejeitadas.
+     * @param colunas    Número de colunas esperado.
+     * @param colunaNif  Posição da coluna do NIF (usada para reconhecer o cabeçalho).
+     * @param conversor  Converte os campos de uma linha num objeto (lança exceção se inválidos).
+     * @param inserir    Insere um lote na empresa e devolve o motivo de cada rejeição.
+     * @param <T>        Tipo dos objetos importados.
+     * @return O relatório da importação.
+     * @throws IOException Se não for possível ler o ficheiro ou escrever as rejeições.
+     */
+    private <T> Relatorio importar(Path ficheiro, Path rejeitados, int colunas, int colunaNif,
+                                   Function<String[], T> conversor,
+                                   Function<List<T>, String[]> inserir) throws IOException {
+        long inicio = System.nanoTime();
+        Relatorio relatorio = new Relatorio();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Limita os blocos em memória: enquanto um é inserido, os seguintes vão sendo interpretados
+        int blocosEmCurso = threads * 2;
+        ArrayDeque<CompletableFuture<Bloco<T>>> pendentes = new ArrayDeque<>();
+
+        try (BufferedReader leitor = Files.newBufferedReader(ficheiro, StandardCharsets.UTF_8);
+             EscritorRejeicoes escritor = new EscritorRejeicoes(rejeitados)) {
+            String linha = leitor.readLine();
+            if (linha == null) {
+                return relatorio.concluir(inicio);
+            }
+            Pattern separador = Pattern.compile(linha.indexOf(';') >= 0 ? ";" : ",");
+            long numeroLinha = 1;
+            String[] primeiros = separador.split(linha, -1);
+            if (primeiros.length > colunaNif && primeiros[colunaNif].trim().equalsIgnoreCase("nif")) {
+                linha = leitor.readLine(); // Cabeçalho
+                numeroLinha++;
+            }
+
+            while (linha != null) {
+                long primeira = numeroLinha;
+                ArrayList<String> linhas = new ArrayList<>(LINHAS_POR_BLOCO);
+                while (linha != null && linhas.size() < LINHAS_POR_BLOCO) {
+                    linhas.add(linha);
+                    linha = leitor.readLine();
+                    numeroLinha++;
+                }
+                pendentes.add(CompletableFuture.supplyAsync(
+                        () -> Bloco.interpretar(primeira, linhas, separador, colunas, conversor), executor));
+
+                if (pendentes.size() >= blocosEmCurso) {
+                    inserirBloco(pendentes.removeFirst().join(), inserir, escritor, relatorio);
+                }
+            }
+            while (!pendentes.isEmpty()) {
+                inserirBloco(pendentes.removeFirst().join(), inserir, escritor, relatorio);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            executor.shutdownNow();
+        }
+        return relatorio.concluir(inicio);
+    }
+
+    /**
+     * Insere os registos válidos de um bloco e escreve as rejeições (de validação e de unicidade).
+     *
+     * @param bloco     O bloco já interpretado.
+     * @param inserir   Inserção em lote na empresa.
+     * @param escritor  Destino das linhas rejeitadas.
+     * @param relatorio Relatório a atualizar.
+     * @param <T>       Tipo dos objetos importados.
+     */
+    private static <T> void inserirBloco(Bloco<T> bloco, Function<List<T>, String[]> inserir,
+                                         EscritorRejeicoes escritor, Relatorio relatorio) {
+        String[] motivos = bloco.validos.isEmpty() ? new String[0] : inserir.apply(bloco.validos);
+
+        int v = 0;
+        for (int i = 0; i < bloco.linhas.size(); i++) {
+            String motivo = bloco.erros[i];
+            if (motivo == null) {
+                motivo = motivos[v++];
+            }
+            relatorio.lidas++;
+            if (motivo == null) {
+                relatorio.importadas++;
+            } else {
+                relatorio.rejeitadas++;
+                escritor.escrever(bloco.primeiraLinha + i, motivo, bloco.linhas.get(i));
+            }
+        }
+    }
+
+    /**
+     * Bloco de linhas consecutivas do ficheiro, depois de interpretado.
+     *
+     * @param <T> Tipo dos objetos importados.
+     */
+    private static final class Bloco<T> {
+
+        /**
+         * Número (no ficheiro) da primeira linha do bloco.
+         */
+        private final long primeiraLinha;
+
+        /**
+         * As linhas originais.
+         */
+        private final List<String> linhas;
+
+        /**
+         * Erro de validação de cada linha ({@code null} se a linha é válida).
+         */
+        private final String[] erros;
+
+        /**
+         * Objetos das linhas válidas, pela ordem das linhas.
+         */
+        private final List<T> validos;
+
+        /**
+         * Construtor do bloco.
+         *
+         * @param primeiraLinha Número da primeira linha.
+         * @param linhas        As linhas originais.
+         */
+        private Bloco(long primeiraLinha, List<String> linhas) {
+            this.primeiraLinha = primeiraLinha;
+            this.linhas = linhas;
+            this.erros = new String[linhas.size()];
+            this.validos = new ArrayList<>(linhas.size());
+        }
+
+        /**
+         * Interpreta e valida todas as linhas de um bloco (corre numa thread do importador).
+         *
+         * @param primeiraLinha Número da primeira linha.
+         * @param linhas        As linhas.
+         * @param separador     Separador das colunas.
+         * @param colunas       Número de colunas esperado.
+         * @param conversor     Conversão dos campos em objeto.
+         * @param <T>           Tipo dos objetos importados.
+         * @return O bloco interpretado.
+         */
+        private static <T> Bloco<T> interpretar(long primeiraLinha, List<String> linhas, Pattern separador,
+                                                int colunas, Function<String[], T> conversor) {
+            Bloco<T> bloco = new Bloco<>(primeiraLinha, linhas);
+            for (int i = 0; i < linhas.size(); i++) {
+                String linha = linhas.get(i);
+                if (linha.isBlank()) {
+                    bloco.erros[i] = "Linha vazia.";
+                    continue;
+                }
+                String[] campos = separador.split(linha, -1);
+                if (campos.length < colunas) {
+                    bloco.erros[i] = "Esperadas " + colunas + " colunas, encontradas " + campos.length + ".";
+                    continue;
+                }
+                for (int c = 0; c < campos.length; c++) {
+                    campos[c] = campos[c].trim();
+                }
+                try {
+                    bloco.validos.add(conversor.apply(campos));
+                } catch (IllegalArgumentException e) {
+                    bloco.erros[i] = e instanceof NumberFormatException
+                            ? "Valor numérico inválido: " + e.getMessage()
+                            : e.getMessage();
+                }
+            }
+            return bloco;
+        }
+    }
+
+    /**
+     * Escritor do ficheiro de linhas rejeitadas, criado apenas na primeira rejeição.
+     */
+    private static final class EscritorRejeicoes implements AutoCloseable {
+
+        /**
+         * Caminho do ficheiro.
+         */
+        private final Path caminho;
+
+        /**
+         * Escritor aberto (ou {@code null} se ainda não houve rejeições).
+         */
+        private BufferedWriter escritor;
+
+        /**
+         * Construtor do escritor.
+         *
+         * @param caminho Caminho do ficheiro.
+         */
+        private EscritorRejeicoes(Path caminho) {
+            this.caminho = caminho;
+        }
+
+        /**
+         * Escreve uma linha rejeitada.
+         *
+         * @param numeroLinha Número da linha no ficheiro original.
+         * @param motivo      Motivo da rejeição.
+         * @param linha       A linha original.
+         */
+        private void escrever(long numeroLinha, String motivo, String linha) {
+            try {
+                if (escritor == null) {
+                    escritor = Files.newBufferedWriter(caminho, StandardCharsets.UTF_8);
+                }
+                escritor.write(numeroLinha + ";" + motivo.replace(';', ',') + ";" + linha);
+                escritor.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Fecha o ficheiro, se chegou a ser criado.
+         *
+         * @throws IOException Se a escrita final falhar.
+         */
+        @Override
+        public void close() throws IOException {
+            if (escritor != null) {
+                escritor.close();
+            }
+        }
+    }
+
+    /**
+     * Contagens de uma importação.
+     */
+    public static final class Relatorio {
+
+        /**
+         * Linhas de dados lidas (sem o cabeçalho).
+         */
+        private long lidas;
+
+        /**
+         * Linhas importadas com sucesso.
+         */
+        private long importadas;
+
+        /**
+         * Linhas rejeitadas.
+         */
+        private long rejeitadas;
+
+        /**
+         * Duração da importação em milissegundos.
+         */
+        private long duracaoMs;
+
+        /**
+         * Regista a duração total e devolve o próprio relatório.
+         *
+         * @param inicio Instante de início ({@link System#nanoTime()}).
+         * @return Este relatório.
+         */
+        private Relatorio concluir(long inicio) {
+            duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            return this;
+        }
+
+        /**
+         * Obtém o número de linhas de dados lidas.
+         *
+         * @return Número de linhas de dados lidas.
+         */
+        public long getLidas() {
+            return lidas;
+        }
+
+        /**
+         * Obtém o número de linhas importadas.
+         *
+         * @return Número de linhas importadas.
+         */
+        public long getImportadas() {
+            return importadas;
+        }
+
+        /**
+         * Obtém o número de linhas rejeitadas.
+         *
+         * @return Número de linhas rejeitadas.
+         */
+        public long getRejeitadas() {
+            return rejeitadas;
+        }
+
+        /**
+         * Obtém a duração da importação.
+         *
+         * @return Duração da importação em milissegundos.
+         */
+        public long getDuracaoMs() {
+            return duracaoMs;
+        }
+
+        /**
+         * Devolve um resumo da importação.
+         *
+         * @return String com as contagens e a duração.
+         */
+        @Override
+        public String toString() {
+            return "Importação [lidas=" + lidas + ", importadas=" + importadas
+                    + ", rejeitadas=" + rejeitadas + ", duração=" + duracaoMs + " ms]";
+        }
+    }
+}
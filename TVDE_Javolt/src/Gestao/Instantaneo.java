@@ -0,0 +1,167 @@
+package Gestao;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Entidades.Viatura;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado dos registos de uma {@link Empresa} num instante ({@link Empresa#instantaneo()}).
+ * <p>
+ * Reúne as versões das listas de viaturas, condutores, clientes, viagens e reservas publicadas
+ * no mesmo instante: uma conversão de reserva em viagem, por exemplo, aparece nas duas listas ou
+ * em nenhuma. Obter um instantâneo não copia as listas, e percorrê-lo não bloqueia a empresa, pelo
+ * que relatórios longos e gravações podem correr noutras threads sem atrasar as marcações.
+ * </p>
+ * <p>
+ * As listas são imutáveis. As entidades são as mesmas da empresa (não são copiadas).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Instantaneo {
+
+    /**
+     * Viaturas registadas.
+     */
+    private final ListaVersionada.Versao<Viatura> viaturas;
+
+    /**
+     * Condutores registados.
+     */
+    private final ListaVersionada.Versao<Condutor> condutores;
+
+    /**
+     * Clientes registados.
+     */
+    private final ListaVersionada.Versao<Cliente> clientes;
+
+    /**
+     * Histórico de viagens.
+     */
+    private final ListaVersionada.Versao<Viagem> viagens;
+
+    /**
+     * Reservas pendentes.
+     */
+    private final ListaVersionada.Versao<Reserva> reservas;
+
+    /**
+     * Cria um instantâneo a partir das versões atuais das listas (obtidas no mesmo instante).
+     *
+     * @param viaturas   Viaturas registadas.
+     * @param condutores Condutores registados.
+     * @param clientes   Clientes registados.
+     * @param viagens    Histórico de viagens.
+     * @param reservas   Reservas pendentes.
+     */
+    Instantaneo(ListaVersionada.Versao<Viatura> viaturas, ListaVersionada.Versao<Condutor> condutores,
+                ListaVersionada.Versao<Cliente> clientes, ListaVersionada.Versao<Viagem> viagens,
+                ListaVersionada.Versao<Reserva> reservas) {
+        this.viaturas = viaturas;
+        this.condutores = condutores;
+        this.clientes = clientes;
+        this.viagens = viagens;
+        this.reservas = reservas;
+    }
+
+    /**
+     * Obtém o número de alterações refletidas neste instantâneo.
+     * Cresce com cada alteração da empresa: dois instantâneos com a mesma versão têm o mesmo conteúdo.
+     *
+     * @return A versão.
+     */
+    public long getVersao() {
+        return viaturas.getNumero() + condutores.getNumero() + clientes.getNumero()
+                + viagens.getNumero() + reservas.getNumero();
+    }
+
+    /**
+     * Obtém as viaturas registadas.
+     *
+     * @return Lista imutável das viaturas.
+     */
+    public List<Viatura> getViaturas() {
+        return viaturas;
+    }
+
+    /**
+     * Obtém os condutores registados.
+     *
+     * @return Lista imutável dos condutores.
+     */
+    public List<Condutor> getCondutores() {
+        return condutores;
+    }
+
+    /**
+     * Obtém os clientes registados.
+     *
+     * @return Lista imutável dos clientes.
+     */
+    public List<Cliente> getClientes() {
+        return clientes;
+    }
+
+    /**
+     * Obtém o histórico de viagens, pela ordem de registo.
+     *
+     * @return Lista imutável das viagens.
+     */
+    public List<Viagem> getViagens() {
+        return viagens;
+    }
+
+    /**
+     * Obtém as reservas pendentes, pela ordem de registo.
+     *
+     * @return Lista imutável das reservas.
+     */
+    public List<Reserva> getReservas() {
+        return reservas;
+    }
+
+    /**
+     * Ordena os destinos pelo número de viagens e reservas iniciadas num intervalo (inclusive).
+     * Os destinos são comparados sem distinguir maiúsculas, como em
+     * {@link Empresa#getDestinoMaisSolicitado(LocalDateTime, LocalDateTime)}.
+     * A contagem é feita em paralelo ({@link EstatisticasParalelas#PADRAO}).
+     *
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return Número de pedidos por destino, do mais para o menos solicitado
+     * (empates pela ordem em que cada destino aparece).
+     */
+    public LinkedHashMap<String, Integer> getRankingDestinos(LocalDateTime inicio, LocalDateTime fim) {
+        ArrayList<Map.Entry<String, Integer>> ordenadas =
+                new ArrayList<>(EstatisticasParalelas.PADRAO.contagemDestinos(this, inicio, fim).entrySet());
+        ordenadas.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        LinkedHashMap<String, Integer> ranking = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> contagem : ordenadas) {
+            ranking.put(contagem.getKey(), contagem.getValue());
+        }
+        return ranking;
+    }
+
+    /**
+     * Calcula a faturação de todos os condutores nas viagens iniciadas num intervalo (inclusive).
+     * O cálculo é feito em paralelo ({@link EstatisticasParalelas#PADRAO}).
+     *
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return Total faturado por condutor, pela ordem de registo dos condutores
+     * (os condutores sem viagens no intervalo aparecem com 0).
+     */
+    public LinkedHashMap<Condutor, Double> getFaturacaoCondutores(LocalDateTime inicio, LocalDateTime fim) {
+        return EstatisticasParalelas.PADRAO.faturacaoCondutores(this, inicio, fim);
+    }
+}
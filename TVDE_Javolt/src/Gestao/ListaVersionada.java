@@ -0,0 +1,246 @@
+package Gestao;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+
+/**
+ * Lista cujas alterações publicam versões imutáveis, para leituras consistentes sem bloqueios.
+ * <p>
+ * Cada alteração publica uma nova {@link Versao} (array e tamanho) numa referência volátil.
+ * Obter a versão atual custa uma leitura, e uma versão nunca muda depois de publicada: pode ser
+ * percorrida noutra thread, durante o tempo que for preciso, enquanto a lista continua a ser alterada.
+ * </p>
+ * <p>
+ * Acrescentar no fim reutiliza o array da versão anterior (as versões antigas só leem até ao seu
+ * tamanho, e essas posições nunca são reescritas), pelo que custa o mesmo que num {@code ArrayList}.
+ * Remover cria um array novo, com o custo de O(n) que a remoção já tinha.
+ * </p>
+ * <p>
+ * As alterações são feitas com o monitor da lista. A leitura (iteração, {@code get}, {@code size},
+ * cópias) usa sempre a versão atual, sem bloqueios e sem {@link java.util.ConcurrentModificationException}.
+ * </p>
+ *
+ * @param <T> Tipo dos elementos.
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+final class ListaVersionada<T> extends AbstractList<T> implements RandomAccess {
+
+    /**
+     * Capacidade do primeiro array.
+     */
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    /**
+     * Estado da lista num instante: imutável depois de publicado.
+     *
+     * @param <T> Tipo dos elementos.
+     */
+    static final class Versao<T> extends AbstractList<T> implements RandomAccess {
+
+        /**
+         * Elementos (só as primeiras {@link #tamanho} posições pertencem a esta versão).
+         */
+        private final Object[] elementos;
+
+        /**
+         * Número de elementos.
+         */
+        private final int tamanho;
+
+        /**
+         * Número de alterações feitas à lista até esta versão.
+         */
+        private final long numero;
+
+        /**
+         * Cria uma versão.
+         *
+         * @param elementos Elementos.
+         * @param tamanho   Número de elementos.
+         * @param numero    Número de alterações até esta versão.
+         */
+        private Versao(Object[] elementos, int tamanho, long numero) {
+            this.elementos = elementos;
+            this.tamanho = tamanho;
+            this.numero = numero;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int indice) {
+            Objects.checkIndex(indice, tamanho);
+            return (T) elementos[indice];
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return Arrays.copyOf(elementos, tamanho);
+        }
+
+        /**
+         * Divide-se ao meio sem copiar (permite percorrer a versão em paralelo).
+         *
+         * @return Spliterator sobre os elementos da versão.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Spliterator<T> spliterator() {
+            return (Spliterator<T>) Spliterators.spliterator(elementos, 0, tamanho,
+                    Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+
+        /**
+         * Obtém o número de alterações feitas à lista até esta versão.
+         *
+         * @return O número da versão.
+         */
+        long getNumero() {
+            return numero;
+        }
+    }
+
+    /**
+     * Versão atual.
+     */
+    private volatile Versao<T> versao;
+
+    /**
+     * Cria uma lista vazia.
+     */
+    ListaVersionada() {
+        this.versao = new Versao<>(new Object[CAPACIDADE_INICIAL], 0, 0);
+    }
+
+    /**
+     * Obtém a versão atual da lista.
+     *
+     * @return A versão atual (imutável).
+     */
+    Versao<T> versao() {
+        return versao;
+    }
+
+    @Override
+    public T get(int indice) {
+        return versao.get(indice);
+    }
+
+    @Override
+    public int size() {
+        return versao.tamanho;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return versao.toArray();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return versao.iterator();
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int indice) {
+        return versao.listIterator(indice);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return versao.spliterator();
+    }
+
+    @Override
+    public synchronized boolean add(T elemento) {
+        Versao<T> atual = versao;
+        Object[] elementos = crescer(atual, 1);
+        elementos[atual.tamanho] = elemento;
+        versao = new Versao<>(elementos, atual.tamanho + 1, atual.numero + 1);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends T> novos) {
+        Object[] acrescentar = novos.toArray();
+        if (acrescentar.length == 0) {
+            return false;
+        }
+        Versao<T> atual = versao;
+        Object[] elementos = crescer(atual, acrescentar.length);
+        System.arraycopy(acrescentar, 0, elementos, atual.tamanho, acrescentar.length);
+        versao = new Versao<>(elementos, atual.tamanho + acrescentar.length, atual.numero + 1);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(Object elemento) {
+        Versao<T> atual = versao;
+        for (int i = 0; i < atual.tamanho; i++) {
+            if (Objects.equals(atual.elementos[i], elemento)) {
+                Object[] elementos = new Object[atual.elementos.length];
+                System.arraycopy(atual.elementos, 0, elementos, 0, i);
+                System.arraycopy(atual.elementos, i + 1, elementos, i, atual.tamanho - i - 1);
+                versao = new Versao<>(elementos, atual.tamanho - 1, atual.numero + 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove os elementos que satisfazem a condição, publicando uma única versão.
+     * A condição é avaliada uma vez por elemento, pela ordem da lista.
+     *
+     * @param condicao Condição de remoção.
+     * @return {@code true} se algum elemento foi removido.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized boolean removeIf(Predicate<? super T> condicao) {
+        Versao<T> atual = versao;
+        Object[] elementos = new Object[atual.elementos.length];
+        int mantidos = 0;
+        for (int i = 0; i < atual.tamanho; i++) {
+            if (!condicao.test((T) atual.elementos[i])) {
+                elementos[mantidos++] = atual.elementos[i];
+            }
+        }
+        if (mantidos == atual.tamanho) {
+            return false;
+        }
+        versao = new Versao<>(elementos, mantidos, atual.numero + 1);
+        return true;
+    }
+
+    /**
+     * Garante espaço para mais elementos a seguir à versão atual.
+     * O array só é copiado quando está cheio; as versões antigas continuam com o array anterior.
+     *
+     * @param atual      A versão atual.
+     * @param quantidade Número de elementos a acrescentar.
+     * @return O array onde escrever os novos elementos.
+     */
+    private static Object[] crescer(Versao<?> atual, int quantidade) {
+        int necessario = atual.tamanho + quantidade;
+        if (necessario <= atual.elementos.length) {
+            return atual.elementos;
+        }
+        int capacidade = Math.max(necessario, atual.elementos.length + (atual.elementos.length >> 1));
+        return Arrays.copyOf(atual.elementos, capacidade);
+    }
+}
@@ -0,0 +1,510 @@
+package Gestao;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Registo de métricas de funcionamento (ex: de uma {@link Empresa}): contadores, medidores e
+ * temporizadores com histograma de latências.
+ * <p>
+ * As métricas são criadas uma vez (no arranque) e depois usadas através do objeto devolvido,
+ * sem pesquisas por nome. Contar e medir não bloqueiam: os contadores são {@link LongAdder} e
+ * cada temporizador tem um {@link Histograma} de memória fixa, criado apenas no primeiro registo.
+ * Os medidores não guardam nada: o valor é lido só quando as métricas são exportadas.
+ * </p>
+ * <p>
+ * Enquanto o registo estiver desativado, {@link #iniciar()} não lê o relógio e contar ou terminar
+ * uma medição custa apenas a leitura de um campo. O estado inicial é dado pela propriedade de
+ * sistema {@value #PROPRIEDADE_ATIVAS} (ex: {@code -Djavolt.metricas=true}); por defeito está desativado.
+ * </p>
+ * <p>
+ * A exportação usa o formato de texto do Prometheus (ver {@link #escrever(Collection, Appendable)}),
+ * com os tempos em segundos.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Metricas {
+
+    /**
+     * Propriedade de sistema que ativa as métricas de todos os registos criados.
+     */
+    public static final String PROPRIEDADE_ATIVAS = "javolt.metricas";
+
+    /**
+     * Valor devolvido por {@link #iniciar()} quando o registo está desativado.
+     */
+    private static final long DESLIGADO = Long.MIN_VALUE;
+
+    /**
+     * Percentis exportados por cada temporizador.
+     */
+    private static final double[] QUANTIS = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Formato válido dos nomes de métricas e de etiquetas.
+     */
+    private static final Pattern NOME_VALIDO = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    /**
+     * Etiquetas comuns a todas as métricas do registo, já formatadas (ex: {@code empresa="Javolt"}).
+     */
+    private final String etiquetasComuns;
+
+    /**
+     * Métricas registadas, pela ordem de registo.
+     */
+    private final CopyOnWriteArrayList<Metrica> metricas;
+
+    /**
+     * Indica se as métricas estão a ser recolhidas.
+     */
+    private volatile boolean ativa;
+
+    /**
+     * Cria um registo vazio.
+     *
+     * @param etiquetasComuns Etiquetas acrescentadas a todas as métricas (ex: o nome da empresa).
+     * @throws IllegalArgumentException se o nome de alguma etiqueta for inválido.
+     */
+    public Metricas(Map<String, String> etiquetasComuns) {
+        StringBuilder etiquetas = new StringBuilder();
+        for (Map.Entry<String, String> etiqueta : etiquetasComuns.entrySet()) {
+            acrescentarEtiqueta(etiquetas, etiqueta.getKey(), etiqueta.getValue());
+        }
+        this.etiquetasComuns = etiquetas.toString();
+        this.metricas = new CopyOnWriteArrayList<>();
+        this.ativa = Boolean.getBoolean(PROPRIEDADE_ATIVAS);
+    }
+
+    /**
+     * Indica se as métricas estão a ser recolhidas.
+     *
+     * @return {@code true} se o registo estiver ativo.
+     */
+    public boolean isAtiva() {
+        return ativa;
+    }
+
+    /**
+     * Ativa ou desativa a recolha. Desativar não apaga os valores já recolhidos.
+     *
+     * @param ativa {@code true} para recolher métricas.
+     */
+    public void setAtiva(boolean ativa) {
+        this.ativa = ativa;
+    }
+
+    /**
+     * Regista um contador (valor que só aumenta, ex: número de recusas).
+     *
+     * @param nome      Nome da métrica (ex: {@code javolt_recusas_total}).
+     * @param ajuda     Descrição.
+     * @param etiquetas Pares nome/valor de etiquetas próprias desta série.
+     * @return O contador.
+     * @throws IllegalArgumentException se o nome ou as etiquetas forem inválidos.
+     */
+    public Contador contador(String nome, String ajuda, String... etiquetas) {
+        return registar(new Contador(nome, ajuda, etiquetas));
+    }
+
+    /**
+     * Regista um medidor (valor instantâneo, ex: número de reservas pendentes), lido apenas na exportação.
+     *
+     * @param nome      Nome da métrica.
+     * @param ajuda     Descrição.
+     * @param leitura   Função que obtém o valor atual; deve ser thread-safe.
+     * @param etiquetas Pares nome/valor de etiquetas próprias desta série.
+     * @throws IllegalArgumentException se o nome ou as etiquetas forem inválidos.
+     */
+    public void medidor(String nome, String ajuda, LongSupplier leitura, String... etiquetas) {
+        registar(new Medidor(nome, ajuda, leitura, etiquetas));
+    }
+
+    /**
+     * Regista um temporizador (distribuição de durações, ex: de uma operação).
+     *
+     * @param nome      Nome da métrica (ex: {@code javolt_operacao_segundos}).
+     * @param ajuda     Descrição.
+     * @param etiquetas Pares nome/valor de etiquetas próprias desta série.
+     * @return O temporizador.
+     * @throws IllegalArgumentException se o nome ou as etiquetas forem inválidos.
+     */
+    public Temporizador temporizador(String nome, String ajuda, String... etiquetas) {
+        return registar(new Temporizador(nome, ajuda, etiquetas));
+    }
+
+    /**
+     * Marca o início de uma medição, a terminar com {@link Temporizador#terminar(long)}.
+     *
+     * @return O instante atual em nanossegundos, ou um valor especial se o registo estiver desativado.
+     */
+    public long iniciar() {
+        return ativa ? System.nanoTime() : DESLIGADO;
+    }
+
+    /**
+     * Escreve todas as métricas deste registo no formato de texto do Prometheus.
+     *
+     * @param destino Onde escrever.
+     * @throws IOException Se a escrita falhar.
+     */
+    public void escrever(Appendable destino) throws IOException {
+        escrever(List.of(this), destino);
+    }
+
+    /**
+     * Escreve as métricas de vários registos (ex: de todas as empresas de uma {@link Plataforma})
+     * no formato de texto do Prometheus. As séries com o mesmo nome são agrupadas, pelo que a
+     * descrição e o tipo de cada métrica aparecem uma só vez.
+     *
+     * @param registos Os registos.
+     * @param destino  Onde escrever.
+     * @throws IOException Se a escrita falhar.
+     */
+    public static void escrever(Collection<Metricas> registos, Appendable destino) throws IOException {
+        LinkedHashMap<String, List<Metrica>> familias = new LinkedHashMap<>();
+        for (Metricas registo : registos) {
+            for (Metrica metrica : registo.metricas) {
+                familias.computeIfAbsent(metrica.nome, nome -> new ArrayList<>()).add(metrica);
+            }
+        }
+        for (List<Metrica> familia : familias.values()) {
+            Metrica primeira = familia.get(0);
+            destino.append("# HELP ").append(primeira.nome).append(' ')
+                    .append(primeira.ajuda.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            destino.append("# TYPE ").append(primeira.nome).append(' ').append(primeira.tipo()).append('\n');
+            for (Metrica metrica : familia) {
+                metrica.escreverAmostras(destino);
+            }
+        }
+    }
+
+    /**
+     * Grava as métricas num ficheiro de texto (substituindo o conteúdo anterior).
+     *
+     * @param ficheiro O ficheiro (ex: {@code Empresas/Logs_Javolt/metricas.prom}).
+     * @throws IOException Se a gravação falhar.
+     */
+    public void gravar(File ficheiro) throws IOException {
+        try (Writer escritor = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(ficheiro), StandardCharsets.UTF_8))) {
+            escrever(escritor);
+        }
+    }
+
+    /**
+     * Acrescenta uma métrica ao registo.
+     *
+     * @param metrica A métrica.
+     * @param <M>     Tipo da métrica.
+     * @return A mesma métrica.
+     */
+    private <M extends Metrica> M registar(M metrica) {
+        metricas.add(metrica);
+        return metrica;
+    }
+
+    /**
+     * Acrescenta uma etiqueta formatada ({@code nome="valor"}) a uma lista de etiquetas.
+     *
+     * @param etiquetas Lista onde acrescentar.
+     * @param nome      Nome da etiqueta.
+     * @param valor     Valor (aspas, barras e mudanças de linha são escapadas).
+     * @throws IllegalArgumentException se o nome for inválido.
+     */
+    private static void acrescentarEtiqueta(StringBuilder etiquetas, String nome, String valor) {
+        validarNome(nome);
+        if (!etiquetas.isEmpty()) {
+            etiquetas.append(',');
+        }
+        etiquetas.append(nome).append("=\"")
+                .append(valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append('"');
+    }
+
+    /**
+     * Verifica se um nome de métrica ou de etiqueta é válido.
+     *
+     * @param nome O nome.
+     * @throws IllegalArgumentException se não for.
+     */
+    private static void validarNome(String nome) {
+        if (nome == null || !NOME_VALIDO.matcher(nome).matches()) {
+            throw new IllegalArgumentException("Nome de métrica inválido: " + nome);
+        }
+    }
+
+    /**
+     * Série de uma métrica: nome, descrição e etiquetas.
+     */
+    private abstract class Metrica {
+
+        /**
+         * Nome da métrica.
+         */
+        private final String nome;
+
+        /**
+         * Descrição da métrica.
+         */
+        private final String ajuda;
+
+        /**
+         * Etiquetas da série (comuns e próprias), já formatadas.
+         */
+        private final String etiquetas;
+
+        /**
+         * Cria a série.
+         *
+         * @param nome      Nome da métrica.
+         * @param ajuda     Descrição.
+         * @param etiquetas Pares nome/valor de etiquetas próprias.
+         * @throws IllegalArgumentException se o nome ou as etiquetas forem inválidos.
+         */
+        private Metrica(String nome, String ajuda, String[] etiquetas) {
+            validarNome(nome);
+            if (etiquetas.length % 2 != 0) {
+                throw new IllegalArgumentException("As etiquetas têm de ser pares nome/valor");
+            }
+            StringBuilder todas = new StringBuilder(etiquetasComuns);
+            for (int i = 0; i < etiquetas.length; i += 2) {
+                acrescentarEtiqueta(todas, etiquetas[i], etiquetas[i + 1]);
+            }
+            this.nome = nome;
+            this.ajuda = ajuda;
+            this.etiquetas = todas.toString();
+        }
+
+        /**
+         * Obtém o tipo da métrica no formato do Prometheus.
+         *
+         * @return {@code counter}, {@code gauge} ou {@code summary}.
+         */
+        abstract String tipo();
+
+        /**
+         * Escreve as amostras da série.
+         *
+         * @param destino Onde escrever.
+         * @throws IOException Se a escrita falhar.
+         */
+        abstract void escreverAmostras(Appendable destino) throws IOException;
+
+        /**
+         * Escreve uma amostra: nome (com sufixo), etiquetas e valor.
+         *
+         * @param destino Onde escrever.
+         * @param sufixo  Sufixo do nome (ex: {@code _count}), ou vazio.
+         * @param extra   Etiqueta extra já formatada (ex: o quantil), ou vazio.
+         * @param valor   O valor já formatado.
+         * @throws IOException Se a escrita falhar.
+         */
+        final void escreverAmostra(Appendable destino, String sufixo, String extra, String valor) throws IOException {
+            destino.append(nome).append(sufixo);
+            if (!etiquetas.isEmpty() || !extra.isEmpty()) {
+                destino.append('{').append(etiquetas);
+                if (!etiquetas.isEmpty() && !extra.isEmpty()) {
+                    destino.append(',');
+                }
+                destino.append(extra).append('}');
+            }
+            destino.append(' ').append(valor).append('\n');
+        }
+    }
+
+    /**
+     * Contador: valor que só aumenta.
+     */
+    public final class Contador extends Metrica {
+
+        /**
+         * Valor acumulado.
+         */
+        private final LongAdder valor;
+
+        /**
+         * Cria o contador a zero.
+         *
+         * @param nome      Nome da métrica.
+         * @param ajuda     Descrição.
+         * @param etiquetas Pares nome/valor de etiquetas próprias.
+         */
+        private Contador(String nome, String ajuda, String[] etiquetas) {
+            super(nome, ajuda, etiquetas);
+            this.valor = new LongAdder();
+        }
+
+        /**
+         * Soma uma unidade, se o registo estiver ativo.
+         */
+        public void incrementar() {
+            if (ativa) {
+                valor.increment();
+            }
+        }
+
+        /**
+         * Soma uma quantidade, se o registo estiver ativo.
+         *
+         * @param quantidade A quantidade (não negativa).
+         */
+        public void adicionar(long quantidade) {
+            if (ativa) {
+                valor.add(quantidade);
+            }
+        }
+
+        /**
+         * Obtém o valor atual.
+         *
+         * @return O valor.
+         */
+        public long getValor() {
+            return valor.sum();
+        }
+
+        @Override
+        String tipo() {
+            return "counter";
+        }
+
+        @Override
+        void escreverAmostras(Appendable destino) throws IOException {
+            escreverAmostra(destino, "", "", Long.toString(valor.sum()));
+        }
+    }
+
+    /**
+     * Medidor: valor instantâneo lido na exportação.
+     */
+    private final class Medidor extends Metrica {
+
+        /**
+         * Função que obtém o valor atual.
+         */
+        private final LongSupplier leitura;
+
+        /**
+         * Cria o medidor.
+         *
+         * @param nome      Nome da métrica.
+         * @param ajuda     Descrição.
+         * @param leitura   Função que obtém o valor.
+         * @param etiquetas Pares nome/valor de etiquetas próprias.
+         */
+        private Medidor(String nome, String ajuda, LongSupplier leitura, String[] etiquetas) {
+            super(nome, ajuda, etiquetas);
+            this.leitura = leitura;
+        }
+
+        @Override
+        String tipo() {
+            return "gauge";
+        }
+
+        @Override
+        void escreverAmostras(Appendable destino) throws IOException {
+            escreverAmostra(destino, "", "", Long.toString(leitura.getAsLong()));
+        }
+    }
+
+    /**
+     * Temporizador: distribuição das durações de uma operação, exportada como {@code summary}
+     * (percentis, soma e contagem, em segundos).
+     */
+    public final class Temporizador extends Metrica {
+
+        /**
+         * Histograma das durações em nanossegundos ({@code null} até ao primeiro registo).
+         */
+        private volatile Histograma duracoes;
+
+        /**
+         * Cria o temporizador.
+         *
+         * @param nome      Nome da métrica.
+         * @param ajuda     Descrição.
+         * @param etiquetas Pares nome/valor de etiquetas próprias.
+         */
+        private Temporizador(String nome, String ajuda, String[] etiquetas) {
+            super(nome, ajuda, etiquetas);
+        }
+
+        /**
+         * Termina uma medição iniciada com {@link Metricas#iniciar()}.
+         * Não faz nada se o registo estava desativado no início da medição.
+         *
+         * @param inicio O valor devolvido por {@link Metricas#iniciar()}.
+         */
+        public void terminar(long inicio) {
+            if (inicio != DESLIGADO) {
+                histograma().registar(System.nanoTime() - inicio);
+            }
+        }
+
+        /**
+         * Obtém o histograma das durações (em nanossegundos).
+         *
+         * @return O histograma (vazio se ainda não houve medições).
+         */
+        public Histograma histograma() {
+            Histograma atual = duracoes;
+            if (atual == null) {
+                synchronized (this) {
+                    atual = duracoes;
+                    if (atual == null) {
+                        atual = new Histograma();
+                        duracoes = atual;
+                    }
+                }
+            }
+            return atual;
+        }
+
+        @Override
+        String tipo() {
+            return "summary";
+        }
+
+        @Override
+        void escreverAmostras(Appendable destino) throws IOException {
+            Histograma atual = duracoes;
+            if (atual == null) {
+                return;
+            }
+            for (double quantil : QUANTIS) {
+                escreverAmostra(destino, "", "quantile=\"" + quantil + "\"", segundos(atual.percentil(quantil * 100)));
+            }
+            escreverAmostra(destino, "_sum", "", segundos(atual.getSoma()));
+            escreverAmostra(destino, "_count", "", Long.toString(atual.getContagem()));
+        }
+
+        /**
+         * Converte nanossegundos em segundos.
+         *
+         * @param nanos Duração em nanossegundos.
+         * @return A duração em segundos, formatada.
+         */
+        private String segundos(long nanos) {
+            return Double.toString(nanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package Gestao;
+
+/**
+ * Estratégias disponíveis para a marcação de viagens em {@link Empresa#adicionarViagem(Entidades.Viagem)}.
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public enum ModoMarcacao {
+
+    /**
+     * Bloqueia as faixas do Condutor, Viatura e Cliente durante a verificação e inserção.
+     * Indicado quando há pouca disputa pelos mesmos recursos.
+     */
+    BLOQUEIO,
+
+    /**
+     * Não bloqueia: as agendas são atualizadas por compare-and-set e a operação é repetida
+     * em caso de alteração concorrente. Evita filas de espera em condutores muito solicitados.
+     */
+    OTIMISTA
+}
@@ -0,0 +1,76 @@
+package Gestao;
+
+/**
+ * Operações públicas de uma {@link Empresa} cuja duração é medida nas suas {@link Metricas}.
+ * <p>
+ * Cada operação é exportada com a etiqueta {@code operacao} igual ao nome do método.
+ * As pesquisas por índice ({@code procurar...}) e as listas de viaturas, condutores e clientes
+ * não são medidas: ler o relógio duas vezes custaria tanto como a própria operação.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public enum OperacaoEmpresa {
+
+    ADICIONAR_VIATURA("adicionarViatura"),
+    REMOVER_VIATURA("removerViatura"),
+    ADICIONAR_CLIENTE("adicionarCliente"),
+    REMOVER_CLIENTE("removerCliente"),
+    ADICIONAR_CONDUTOR("adicionarCondutor"),
+    REMOVER_CONDUTOR("removerCondutor"),
+    ADICIONAR_CLIENTES("adicionarClientes"),
+    ADICIONAR_CONDUTORES("adicionarCondutores"),
+    CONDUTORES_DISPONIVEIS("getCondutoresDisponiveis"),
+    VIATURAS_DISPONIVEIS("getViaturasDisponiveis"),
+    CLIENTES_DISPONIVEIS("getClientesDisponiveis"),
+    VERIFICAR_SOBREPOSICAO("verificarSobreposicao"),
+    CLIENTE_DISPONIVEL("isClienteDisponivel"),
+    ADICIONAR_VIAGEM("adicionarViagem"),
+    ADICIONAR_VIAGEM_OTIMISTA("adicionarViagemOtimista"),
+    ADICIONAR_VIAGENS("adicionarViagens"),
+    REMOVER_VIAGEM("removerViagens"),
+    LISTAR_VIAGENS("getViagens"),
+    PROCURAR_VIAGEM("procurarViagem"),
+    ADICIONAR_RESERVA("adicionarReserva"),
+    PROXIMAS_RESERVAS("getProximasReservas"),
+    RESERVAS_ENTRE("getReservasEntre"),
+    ALTERAR_DATA_RESERVA("alterarDataReserva"),
+    CONVERTER_RESERVA("converterReservaEmViagem"),
+    REMOVER_RESERVA("removerReserva"),
+    PROCESSAR_EVENTOS_RESERVAS("processarEventosReservas"),
+    FATURACAO_CONDUTOR("calcularFaturacaoCondutor"),
+    CLIENTES_POR_VIATURA("getClientesPorViatura"),
+    DISTANCIA_MEDIA("calcularDistanciaMedia"),
+    CLIENTES_POR_KMS("getClientesPorIntervaloKms"),
+    VIAGENS_CLIENTE_POR_DATAS("getViagensClientePorDatas"),
+    RESERVAS_DO_CLIENTE("getReservasDoCliente"),
+    DESTINO_MAIS_SOLICITADO("getDestinoMaisSolicitado"),
+    TOTAL_KMS_CLIENTE("calcularTotalKmsCliente"),
+    GRAVAR_DADOS("gravarDados"),
+    CARREGAR_DADOS("carregarDados");
+
+    /**
+     * Nome do método correspondente.
+     */
+    private final String metodo;
+
+    /**
+     * Construtor da operação.
+     *
+     * @param metodo Nome do método correspondente.
+     */
+    OperacaoEmpresa(String metodo) {
+        this.metodo = metodo;
+    }
+
+    /**
+     * Obtém o nome do método correspondente (usado como etiqueta nas métricas).
+     *
+     * @return O nome do método.
+     */
+    public String getMetodo() {
+        return metodo;
+    }
+}
@@ -0,0 +1,266 @@
+package Gestao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Ambiente de execução que aloja várias empresas TVDE na mesma JVM.
+ * <p>
+ * Cada empresa (inquilino) tem o seu próprio objeto {@link Empresa}, a sua pasta de
+ * persistência em "Empresas/Logs_NomeEmpresa" e um executor dedicado. As operações de uma
+ * empresa correm nas threads desse executor, pelo que uma empresa com muito trabalho
+ * não atrasa as restantes. As empresas são identificadas pelo nome.
+ * </p>
+ * <p>
+ * No arranque ({@link #arrancar(int)}), todas as empresas encontradas em "Empresas/" são
+ * carregadas em paralelo, cada uma no seu executor.
+ * </p>
+ * <p>
+ * Um relógio comum faz avançar, uma vez por minuto, os eventos das reservas de cada empresa
+ * ({@link Empresa#processarEventosReservas(LocalDateTime)}), também no executor da empresa.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class Plataforma implements AutoCloseable {
+
+    /**
+     * Empresas alojadas, indexadas pelo nome.
+     */
+    private final ConcurrentHashMap<String, Inquilino> inquilinos;
+
+    /**
+     * Número de threads do executor de cada empresa.
+     */
+    private final int threadsPorEmpresa;
+
+    /**
+     * Relógio que faz avançar os eventos das reservas de todas as empresas.
+     */
+    private final ScheduledExecutorService relogio;
+
+    /**
+     * Cria uma plataforma vazia.
+     *
+     * @param threadsPorEmpresa Número de threads do executor de cada empresa.
+     * @throws IllegalArgumentException se o número de threads não for positivo.
+     */
+    public Plataforma(int threadsPorEmpresa) {
+        if (threadsPorEmpresa <= 0) {
+            throw new IllegalArgumentException("Número de threads deve ser positivo");
+        }
+        this.inquilinos = new ConcurrentHashMap<>();
+        this.threadsPorEmpresa = threadsPorEmpresa;
+        this.relogio = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "Javolt-Relogio");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ConcurrentHashMap<String, Inquilino> alojados = this.inquilinos;
+        relogio.scheduleAtFixedRate(() -> avancarRelogios(alojados), 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Cria uma plataforma com todas as empresas existentes e carrega os seus dados em paralelo.
+     *
+     * @param threadsPorEmpresa Número de threads do executor de cada empresa.
+     * @return A plataforma pronta a usar.
+     */
+    public static Plataforma arrancar(int threadsPorEmpresa) {
+        Plataforma plataforma = new Plataforma(threadsPorEmpresa);
+        List<CompletableFuture<Void>> carregamentos = new ArrayList<>();
+
+        for (String nome : Empresa.listarEmpresasExistentes()) {
+            Inquilino inquilino = plataforma.criarInquilino(nome);
+            carregamentos.add(CompletableFuture.runAsync(inquilino.empresa::carregarDados, inquilino.executor));
+        }
+
+        CompletableFuture.allOf(carregamentos.toArray(new CompletableFuture<?>[0])).join();
+        return plataforma;
+    }
+
+    /**
+     * Regista uma nova empresa (vazia) na plataforma.
+     * Se vários pedidos registarem o mesmo nome ao mesmo tempo, só um recebe a empresa criada.
+     *
+     * @param nomeEmpresa Nome da nova empresa.
+     * @return A empresa criada, ou {@code null} se já existir uma com o mesmo nome.
+     */
+    public Empresa registarEmpresa(String nomeEmpresa) {
+        if (inquilinos.containsKey(nomeEmpresa)) {
+            return null;
+        }
+        Empresa empresa = new Empresa(nomeEmpresa);
+        return alojarEmpresa(empresa) ? empresa : null;
+    }
+
+    /**
+     * Aloja na plataforma uma empresa já criada (ex: carregada com um limite à medida para testes de carga).
+     *
+     * @param empresa A empresa.
+     * @return {@code true} se foi alojada; {@code false} se já existir uma com o mesmo nome.
+     */
+    public boolean alojarEmpresa(Empresa empresa) {
+        String nome = empresa.getNomeEmpresa();
+        if (inquilinos.containsKey(nome)) {
+            return false;
+        }
+        Inquilino novo = new Inquilino(empresa, criarExecutor(nome));
+        if (inquilinos.putIfAbsent(nome, novo) != null) {
+            novo.executor.shutdown();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Procura uma empresa alojada pelo nome.
+     *
+     * @param nomeEmpresa Nome da empresa.
+     * @return A {@link Empresa}, ou {@code null} se não estiver alojada.
+     */
+    public Empresa getEmpresa(String nomeEmpresa) {
+        Inquilino inquilino = inquilinos.get(nomeEmpresa);
+        return inquilino == null ? null : inquilino.empresa;
+    }
+
+    /**
+     * Obtém os nomes de todas as empresas alojadas, por ordem alfabética.
+     *
+     * @return Conjunto (só de leitura) com os nomes.
+     */
+    public Set<String> getNomesEmpresas() {
+        return Collections.unmodifiableSet(new TreeSet<>(inquilinos.keySet()));
+    }
+
+    /**
+     * Executa uma operação sobre uma empresa, no executor dessa empresa.
+     *
+     * @param nomeEmpresa Nome da empresa.
+     * @param operacao    Operação a executar.
+     * @param <T>         Tipo do resultado.
+     * @return Resultado futuro da operação.
+     * @throws IllegalArgumentException se a empresa não estiver alojada.
+     */
+    public <T> CompletableFuture<T> executar(String nomeEmpresa, Function<Empresa, T> operacao) {
+        Inquilino inquilino = inquilinos.get(nomeEmpresa);
+        if (inquilino == null) {
+            throw new IllegalArgumentException("Empresa não encontrada: " + nomeEmpresa);
+        }
+        return CompletableFuture.supplyAsync(() -> operacao.apply(inquilino.empresa), inquilino.executor);
+    }
+
+    /**
+     * Grava os dados de todas as empresas em paralelo, cada uma no seu executor.
+     */
+    public void gravarTodas() {
+        List<CompletableFuture<Void>> gravacoes = new ArrayList<>();
+        for (Inquilino inquilino : inquilinos.values()) {
+            gravacoes.add(CompletableFuture.runAsync(inquilino.empresa::gravarDados, inquilino.executor));
+        }
+        CompletableFuture.allOf(gravacoes.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Encerra os executores de todas as empresas, aguardando as operações em curso.
+     * Não grava dados: para isso deve ser chamado {@link #gravarTodas()} antes.
+     */
+    @Override
+    public void close() {
+        relogio.shutdownNow();
+        for (Inquilino inquilino : inquilinos.values()) {
+            inquilino.executor.shutdown();
+        }
+        try {
+            for (Inquilino inquilino : inquilinos.values()) {
+                inquilino.executor.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Faz avançar os eventos das reservas de cada empresa, no executor dessa empresa.
+     * Uma falha numa empresa não impede as restantes nem os avanços seguintes.
+     *
+     * @param alojados As empresas alojadas.
+     */
+    private static void avancarRelogios(ConcurrentHashMap<String, Inquilino> alojados) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (Inquilino inquilino : alojados.values()) {
+            try {
+                inquilino.executor.execute(() -> inquilino.empresa.processarEventosReservas(agora));
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao processar eventos de reservas: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cria e regista um inquilino com a sua Empresa e executor dedicados.
+     *
+     * @param nomeEmpresa Nome da empresa.
+     * @return O inquilino registado (ou o já existente, se outro pedido o criou primeiro).
+     */
+    private Inquilino criarInquilino(String nomeEmpresa) {
+        return inquilinos.computeIfAbsent(nomeEmpresa,
+                nome -> new Inquilino(new Empresa(nome), criarExecutor(nome)));
+    }
+
+    /**
+     * Cria o executor de uma empresa, com threads identificadas pelo nome da empresa.
+     *
+     * @param nomeEmpresa Nome da empresa.
+     * @return O executor.
+     */
+    private ExecutorService criarExecutor(String nomeEmpresa) {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadsPorEmpresa, tarefa -> {
+            Thread thread = new Thread(tarefa, "Javolt-" + nomeEmpresa + "-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Uma empresa alojada e o executor que lhe está reservado.
+     */
+    private static final class Inquilino {
+
+        /**
+         * Estado da empresa (isolado das restantes).
+         */
+        private final Empresa empresa;
+
+        /**
+         * Executor onde correm as operações desta empresa.
+         */
+        private final ExecutorService executor;
+
+        /**
+         * Construtor do inquilino.
+         *
+         * @param empresa  A empresa.
+         * @param executor O executor dedicado.
+         */
+        private Inquilino(Empresa empresa, ExecutorService executor) {
+            this.empresa = empresa;
+            this.executor = executor;
+        }
+    }
+}
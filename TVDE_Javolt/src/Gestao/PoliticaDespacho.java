@@ -0,0 +1,26 @@
+package Gestao;
+
+/**
+ * Critérios de desempate usados pelo {@link Despacho} quando há vários condutores e viaturas livres.
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public enum PoliticaDespacho {
+
+    /**
+     * Escolhe o condutor e a viatura com menos viagens marcadas, distribuindo o trabalho.
+     */
+    MENOS_CARREGADO,
+
+    /**
+     * Escolhe o condutor e a viatura que estão livres há mais tempo.
+     */
+    MAIS_TEMPO_PARADO,
+
+    /**
+     * Escolhe o condutor livre há mais tempo e, se possível, a viatura com que fez a última viagem.
+     */
+    PAR_PREFERIDO
+}
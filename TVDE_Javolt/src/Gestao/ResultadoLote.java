@@ -0,0 +1,97 @@
+package Gestao;
+
+import Entidades.Viagem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado da marcação de um lote de viagens ({@link Empresa#adicionarViagens}).
+ * <p>
+ * Indica que viagens ficaram registadas e, para cada viagem rejeitada, o motivo da rejeição.
+ * Num lote "tudo ou nada" basta uma rejeição para que nenhuma viagem seja registada.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class ResultadoLote {
+
+    /**
+     * Viagens registadas, por ordem de data/hora de início.
+     */
+    private final List<Viagem> aceites;
+
+    /**
+     * Viagens rejeitadas e respetivo motivo (comparação por identidade).
+     */
+    private final Map<Viagem, String> rejeitadas;
+
+    /**
+     * Cria um resultado vazio.
+     */
+    ResultadoLote() {
+        this.aceites = new ArrayList<>();
+        this.rejeitadas = new IdentityHashMap<>();
+    }
+
+    /**
+     * Regista uma viagem como aceite.
+     *
+     * @param viagem A viagem registada.
+     */
+    void aceitar(Viagem viagem) {
+        aceites.add(viagem);
+    }
+
+    /**
+     * Regista uma viagem como rejeitada.
+     *
+     * @param viagem A viagem rejeitada.
+     * @param motivo O motivo da rejeição.
+     */
+    void rejeitar(Viagem viagem, String motivo) {
+        rejeitadas.put(viagem, motivo);
+    }
+
+    /**
+     * Obtém as viagens registadas.
+     *
+     * @return Lista (só de leitura) das viagens aceites.
+     */
+    public List<Viagem> getAceites() {
+        return Collections.unmodifiableList(aceites);
+    }
+
+    /**
+     * Obtém as viagens rejeitadas e o motivo de cada uma.
+     *
+     * @return Mapa (só de leitura) viagem → motivo.
+     */
+    public Map<Viagem, String> getRejeitadas() {
+        return Collections.unmodifiableMap(rejeitadas);
+    }
+
+    /**
+     * Indica se todas as viagens do lote foram registadas.
+     *
+     * @return {@code true} se não houve rejeições.
+     */
+    public boolean isTotalmenteAceite() {
+        return rejeitadas.isEmpty();
+    }
+
+    /**
+     * Devolve um resumo do resultado.
+     *
+     * @return String com o número de viagens aceites e rejeitadas.
+     */
+    @Override
+    public String toString() {
+        return "Lote [aceites=" + aceites.size() + ", rejeitadas=" + rejeitadas.size() + "]";
+    }
+}
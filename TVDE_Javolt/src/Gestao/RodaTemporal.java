@@ -0,0 +1,365 @@
+package Gestao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roda temporal hierárquica: agenda temporizadores para instantes futuros (em "ticks", ex: minutos).
+ * <p>
+ * Existem {@value #NIVEIS} níveis de {@value #RANHURAS} ranhuras. O nível 0 cobre os próximos 64 ticks
+ * (uma ranhura por tick), o nível 1 os 64 blocos de 64 ticks seguintes, e assim sucessivamente.
+ * Agendar e cancelar custam O(1) (listas duplamente ligadas por ranhura, e também para os temporizadores
+ * agendados para instantes já passados). Avançar o tempo só
+ * processa os temporizadores que vencem e, ao mudar de bloco, desce os de uma ranhura do nível
+ * acima: nunca é percorrida a coleção completa, pelo que suporta milhões de temporizadores pendentes.
+ * Os intervalos sem temporizadores são saltados de uma vez.
+ * </p>
+ * <p>
+ * Não é thread-safe: quem a usa deve garantir o acesso exclusivo.
+ * </p>
+ *
+ * @param <T> Tipo do valor associado a cada temporizador.
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class RodaTemporal<T> {
+
+    /**
+     * Bits de tick cobertos por cada nível.
+     */
+    private static final int BITS = 6;
+
+    /**
+     * Número de ranhuras por nível.
+     */
+    private static final int RANHURAS = 1 << BITS;
+
+    /**
+     * Número de níveis (64^6 ticks: mais de 100 000 anos em minutos).
+     */
+    private static final int NIVEIS = 6;
+
+    /**
+     * Primeiro temporizador de cada ranhura, por nível.
+     */
+    private final Temporizador<T>[][] ranhuras;
+
+    /**
+     * Número de temporizadores em cada nível.
+     */
+    private final int[] ocupacao;
+
+    /**
+     * Primeiro dos temporizadores agendados para um instante já passado (disparam no próximo avanço,
+     * pela ordem em que foram agendados).
+     */
+    private Temporizador<T> primeiroVencido;
+
+    /**
+     * Último dos temporizadores agendados para um instante já passado.
+     */
+    private Temporizador<T> ultimoVencido;
+
+    /**
+     * Tick atual.
+     */
+    private long agora;
+
+    /**
+     * Número total de temporizadores pendentes.
+     */
+    private int tamanho;
+
+    /**
+     * Cria uma roda vazia posicionada no tick indicado.
+     *
+     * @param agora Tick inicial.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RodaTemporal(long agora) {
+        this.ranhuras = (Temporizador<T>[][]) new Temporizador[NIVEIS][RANHURAS];
+        this.ocupacao = new int[NIVEIS];
+        this.agora = agora;
+    }
+
+    /**
+     * Agenda um temporizador.
+     *
+     * @param instante Tick em que deve disparar (se já passou, dispara no próximo avanço).
+     * @param valor    Valor entregue quando disparar.
+     * @return O temporizador, que pode ser cancelado com {@link #cancelar(Temporizador)}.
+     */
+    public Temporizador<T> agendar(long instante, T valor) {
+        Temporizador<T> temporizador = new Temporizador<>(instante, valor);
+        if (instante <= agora) {
+            temporizador.nivel = Temporizador.VENCIDO;
+            temporizador.anterior = ultimoVencido;
+            if (ultimoVencido != null) {
+                ultimoVencido.seguinte = temporizador;
+            } else {
+                primeiroVencido = temporizador;
+            }
+            ultimoVencido = temporizador;
+        } else {
+            inserir(temporizador);
+        }
+        tamanho++;
+        return temporizador;
+    }
+
+    /**
+     * Cancela um temporizador pendente.
+     *
+     * @param temporizador O temporizador.
+     * @return {@code true} se estava pendente; {@code false} se já tinha disparado ou sido cancelado.
+     */
+    public boolean cancelar(Temporizador<T> temporizador) {
+        if (temporizador == null || temporizador.nivel == Temporizador.INATIVO) {
+            return false;
+        }
+        if (temporizador.nivel == Temporizador.VENCIDO) {
+            retirarVencido(temporizador);
+        } else {
+            retirar(temporizador);
+        }
+        tamanho--;
+        return true;
+    }
+
+    /**
+     * Avança o tempo até ao tick indicado, devolvendo os valores dos temporizadores que venceram
+     * (primeiro os agendados para instantes já passados, depois por ordem de tick).
+     *
+     * @param alvo O novo tick atual (se for anterior ao atual, só são devolvidos os já vencidos).
+     * @return Os valores dos temporizadores disparados.
+     */
+    public List<T> avancar(long alvo) {
+        ArrayList<T> disparados = new ArrayList<>();
+        while (primeiroVencido != null) {
+            Temporizador<T> temporizador = primeiroVencido;
+            retirarVencido(temporizador);
+            tamanho--;
+            disparados.add(temporizador.valor);
+        }
+
+        while (agora < alvo) {
+            if (tamanho == 0) {
+                agora = alvo;
+                break;
+            }
+            // Saltar de uma vez os blocos em que os níveis inferiores estão vazios
+            int nivelVazio = 0;
+            while (nivelVazio < NIVEIS && ocupacao[nivelVazio] == 0) {
+                nivelVazio++;
+            }
+            if (nivelVazio > 0) {
+                long bloco = 1L << (BITS * nivelVazio);
+                long ultimoDoBloco = (agora | (bloco - 1));
+                agora = Math.min(alvo - 1, Math.max(agora, ultimoDoBloco));
+            }
+            agora++;
+            descer();
+
+            Temporizador<T> atual = ranhuras[0][(int) (agora & (RANHURAS - 1))];
+            while (atual != null) {
+                Temporizador<T> seguinte = atual.seguinte;
+                retirar(atual);
+                tamanho--;
+                disparados.add(atual.valor);
+                atual = seguinte;
+            }
+        }
+        return disparados;
+    }
+
+    /**
+     * Obtém o tick atual.
+     *
+     * @return O tick atual.
+     */
+    public long getAgora() {
+        return agora;
+    }
+
+    /**
+     * Obtém o número de temporizadores pendentes.
+     *
+     * @return Número de temporizadores.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Ao entrar num novo bloco, redistribui pelos níveis inferiores os temporizadores
+     * da ranhura correspondente de cada nível superior.
+     */
+    private void descer() {
+        for (int nivel = 1; nivel < NIVEIS; nivel++) {
+            if ((agora & ((1L << (BITS * nivel)) - 1)) != 0) {
+                break; // Não é fronteira de bloco neste nível nem nos superiores
+            }
+            int indice = (int) ((agora >>> (BITS * nivel)) & (RANHURAS - 1));
+            Temporizador<T> atual = ranhuras[nivel][indice];
+            while (atual != null) {
+                Temporizador<T> seguinte = atual.seguinte;
+                retirar(atual);
+                inserir(atual);
+                atual = seguinte;
+            }
+        }
+    }
+
+    /**
+     * Coloca um temporizador no nível e ranhura correspondentes ao seu instante (não anterior ao tick atual).
+     * O nível é o primeiro em que o instante partilha o bloco com o tick atual.
+     *
+     * @param temporizador O temporizador.
+     */
+    private void inserir(Temporizador<T> temporizador) {
+        long instante = temporizador.instante;
+        int nivel = 0;
+        while (nivel < NIVEIS - 1 && (instante >>> (BITS * (nivel + 1))) != (agora >>> (BITS * (nivel + 1)))) {
+            nivel++;
+        }
+        int indice = (int) ((instante >>> (BITS * nivel)) & (RANHURAS - 1));
+
+        temporizador.nivel = nivel;
+        temporizador.indice = indice;
+        temporizador.anterior = null;
+        temporizador.seguinte = ranhuras[nivel][indice];
+        if (temporizador.seguinte != null) {
+            temporizador.seguinte.anterior = temporizador;
+        }
+        ranhuras[nivel][indice] = temporizador;
+        ocupacao[nivel]++;
+    }
+
+    /**
+     * Retira um temporizador da sua ranhura.
+     *
+     * @param temporizador O temporizador.
+     */
+    private void retirar(Temporizador<T> temporizador) {
+        if (temporizador.anterior != null) {
+            temporizador.anterior.seguinte = temporizador.seguinte;
+        } else {
+            ranhuras[temporizador.nivel][temporizador.indice] = temporizador.seguinte;
+        }
+        if (temporizador.seguinte != null) {
+            temporizador.seguinte.anterior = temporizador.anterior;
+        }
+        ocupacao[temporizador.nivel]--;
+        temporizador.anterior = null;
+        temporizador.seguinte = null;
+        temporizador.nivel = Temporizador.INATIVO;
+    }
+
+    /**
+     * Retira um temporizador da lista dos agendados para instantes já passados.
+     *
+     * @param temporizador O temporizador.
+     */
+    private void retirarVencido(Temporizador<T> temporizador) {
+        if (temporizador.anterior != null) {
+            temporizador.anterior.seguinte = temporizador.seguinte;
+        } else {
+            primeiroVencido = temporizador.seguinte;
+        }
+        if (temporizador.seguinte != null) {
+            temporizador.seguinte.anterior = temporizador.anterior;
+        } else {
+            ultimoVencido = temporizador.anterior;
+        }
+        temporizador.anterior = null;
+        temporizador.seguinte = null;
+        temporizador.nivel = Temporizador.INATIVO;
+    }
+
+    /**
+     * Temporizador agendado numa {@link RodaTemporal}.
+     *
+     * @param <T> Tipo do valor associado.
+     */
+    public static final class Temporizador<T> {
+
+        /**
+         * Nível de um temporizador que já disparou ou foi cancelado.
+         */
+        private static final int INATIVO = -1;
+
+        /**
+         * Nível de um temporizador agendado para um instante já passado.
+         */
+        private static final int VENCIDO = -2;
+
+        /**
+         * Tick em que dispara.
+         */
+        private final long instante;
+
+        /**
+         * Valor entregue ao disparar.
+         */
+        private final T valor;
+
+        /**
+         * Nível atual (ou {@link #INATIVO} / {@link #VENCIDO}).
+         */
+        private int nivel;
+
+        /**
+         * Ranhura atual dentro do nível.
+         */
+        private int indice;
+
+        /**
+         * Temporizador anterior na mesma ranhura (ou na lista dos vencidos).
+         */
+        private Temporizador<T> anterior;
+
+        /**
+         * Temporizador seguinte na mesma ranhura (ou na lista dos vencidos).
+         */
+        private Temporizador<T> seguinte;
+
+        /**
+         * Cria um temporizador.
+         *
+         * @param instante Tick em que dispara.
+         * @param valor    Valor associado.
+         */
+        private Temporizador(long instante, T valor) {
+            this.instante = instante;
+            this.valor = valor;
+        }
+
+        /**
+         * Obtém o tick em que o temporizador dispara.
+         *
+         * @return O instante.
+         */
+        public long getInstante() {
+            return instante;
+        }
+
+        /**
+         * Obtém o valor associado.
+         *
+         * @return O valor.
+         */
+        public T getValor() {
+            return valor;
+        }
+
+        /**
+         * Indica se o temporizador ainda está pendente.
+         *
+         * @return {@code true} se ainda não disparou nem foi cancelado.
+         */
+        public boolean isPendente() {
+            return nivel != INATIVO;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package Gestao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Tabela das agendas dos recursos de um tipo (condutores, viaturas ou clientes) de uma {@link Empresa}.
+ * <p>
+ * Cada identificador (número de identificação, matrícula ou NIF) tem uma entrada com a agenda do
+ * recurso. As entidades não guardam nada da tabela, pelo que a mesma instância pode estar registada
+ * em várias empresas (ex: numa {@link Plataforma}) sem que uma interfira com a outra. Uma cópia de
+ * uma entidade com o mesmo identificador partilha a entrada da instância registada.
+ * </p>
+ * <p>
+ * Só o registo de uma entidade e a marcação de uma viagem criam entradas: as consultas e as
+ * validações de entidades desconhecidas não alteram a tabela. A remoção de uma entidade liberta
+ * a entrada, pelo que a tabela não cresce para além dos recursos registados ou com viagens.
+ * </p>
+ * <p>
+ * As leituras não bloqueiam (mapa concorrente).
+ * </p>
+ *
+ * @param <E> Tipo das entidades.
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+final class TabelaRecursos<E> {
+
+    /**
+     * Entrada de um identificador: a agenda do recurso.
+     */
+    static final class Entrada {
+
+        /**
+         * Agenda de viagens do recurso (substituída por compare-and-set).
+         */
+        final AtomicReference<Agenda> agenda;
+
+        /**
+         * Cria uma entrada com a agenda vazia.
+         */
+        private Entrada() {
+            this.agenda = new AtomicReference<>(Agenda.VAZIA);
+        }
+    }
+
+    /**
+     * Extrai o identificador de uma entidade (ex: matrícula em maiúsculas).
+     */
+    private final Function<E, Object> identificador;
+
+    /**
+     * Entrada de cada identificador.
+     */
+    private final ConcurrentHashMap<Object, Entrada> porIdentificador;
+
+    /**
+     * Cria uma tabela vazia.
+     *
+     * @param identificador Extrai o identificador de uma entidade.
+     */
+    TabelaRecursos(Function<E, Object> identificador) {
+        this.identificador = identificador;
+        this.porIdentificador = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Regista uma entidade, criando a entrada do seu identificador se ainda não existir.
+     *
+     * @param entidade A entidade.
+     */
+    void registar(E entidade) {
+        entradaParaMarcar(entidade);
+    }
+
+    /**
+     * Liberta a entrada de uma entidade removida.
+     *
+     * @param entidade A entidade removida.
+     */
+    void libertar(E entidade) {
+        porIdentificador.remove(identificador.apply(entidade));
+    }
+
+    /**
+     * Obtém a entrada de uma entidade, sem a criar.
+     *
+     * @param entidade A entidade.
+     * @return A entrada, ou {@code null} se o identificador não estiver na tabela.
+     */
+    Entrada entrada(E entidade) {
+        return porIdentificador.get(identificador.apply(entidade));
+    }
+
+    /**
+     * Obtém a entrada de uma entidade para marcar uma viagem, criando-a se o identificador ainda
+     * não estiver na tabela (ex: viagem de uma entidade que não foi registada nesta empresa).
+     *
+     * @param entidade A entidade.
+     * @return A entrada (nunca {@code null}).
+     */
+    private Entrada entradaParaMarcar(E entidade) {
+        Object chave = identificador.apply(entidade);
+        Entrada entrada = porIdentificador.get(chave);
+        return entrada != null ? entrada : porIdentificador.computeIfAbsent(chave, c -> new Entrada());
+    }
+
+    /**
+     * Obtém a entrada de um identificador, sem a criar.
+     *
+     * @param chave O identificador (no mesmo formato de {@code identificador}).
+     * @return A entrada, ou {@code null} se o identificador não estiver na tabela.
+     */
+    Entrada entradaPorIdentificador(Object chave) {
+        return porIdentificador.get(chave);
+    }
+
+    /**
+     * Obtém a agenda atual de uma entidade, sem criar a entrada.
+     *
+     * @param entidade A entidade.
+     * @return A agenda ({@link Agenda#VAZIA} se o identificador não estiver na tabela).
+     */
+    Agenda agendaAtual(E entidade) {
+        Entrada entrada = entrada(entidade);
+        return entrada == null ? Agenda.VAZIA : entrada.agenda.get();
+    }
+
+    /**
+     * Obtém a agenda de uma entidade para marcar ou desmarcar uma viagem.
+     *
+     * @param entidade A entidade.
+     * @return A referência da agenda.
+     */
+    AtomicReference<Agenda> agenda(E entidade) {
+        return entradaParaMarcar(entidade).agenda;
+    }
+}
@@ -0,0 +1,41 @@
+package Gestao;
+
+/**
+ * Tipos de eventos de domínio publicados por uma {@link Empresa} no seu {@link BarramentoEventos}.
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public enum TipoEvento {
+
+    /**
+     * Uma viagem foi registada no histórico (individualmente, em lote ou carregada de ficheiro).
+     */
+    VIAGEM_ADICIONADA,
+
+    /**
+     * Uma viagem foi removida do histórico.
+     */
+    VIAGEM_REMOVIDA,
+
+    /**
+     * Uma reserva passou a estar pendente (criada ou carregada de ficheiro).
+     */
+    RESERVA_ADICIONADA,
+
+    /**
+     * Uma reserva pendente foi cancelada/apagada.
+     */
+    RESERVA_REMOVIDA,
+
+    /**
+     * Uma reserva pendente foi convertida em viagem (a viagem já foi publicada como adicionada).
+     */
+    RESERVA_CONVERTIDA,
+
+    /**
+     * Uma reserva pendente expirou sem ser convertida.
+     */
+    RESERVA_EXPIRADA
+}
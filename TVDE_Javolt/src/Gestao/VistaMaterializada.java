@@ -0,0 +1,46 @@
+package Gestao;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Vista materializada: estatística mantida de forma incremental a partir dos eventos de domínio,
+ * em vez de ser recalculada percorrendo o histórico completo.
+ * <p>
+ * Uma vista é registada com {@link Empresa#registarVista(VistaMaterializada)}: recebe primeiro os
+ * eventos equivalentes ao estado atual (viagens e reservas já existentes) e depois cada alteração.
+ * Os eventos de viagens e de reservas podem chegar de threads diferentes, pelo que a vista
+ * tem de ser thread-safe e não pode depender da ordem entre eventos de threads diferentes
+ * (a remoção de uma viagem pode chegar antes do seu registo).
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public interface VistaMaterializada extends Consumer<EventoDominio> {
+
+    /**
+     * Indica os tipos de eventos de que a vista depende.
+     *
+     * @return Os tipos de eventos a receber.
+     */
+    Set<TipoEvento> getTipos();
+
+    /**
+     * Atualiza a vista com um evento.
+     *
+     * @param evento O evento.
+     */
+    void aplicar(EventoDominio evento);
+
+    /**
+     * Entrega um evento à vista (permite subscrevê-la diretamente no {@link BarramentoEventos}).
+     *
+     * @param evento O evento.
+     */
+    @Override
+    default void accept(EventoDominio evento) {
+        aplicar(evento);
+    }
+}
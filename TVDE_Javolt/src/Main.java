@@ -1,3 +1,9 @@
+import Servidor.ExecutorComandos;
+import Servidor.ServidorApi;
+
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
  * Classe principal responsável pelo arranque da aplicação de gestão de uma empresa de TVDE.
  * <p>
@@ -6,6 +12,18 @@
  * para a interface de utilizador, gerida pela classe {@link Menu}.
  * Não contém lógica de negócio nem manipulação direta de dados.
  * </p>
+ * <p>
+ * Argumentos aceites:
+ * <ul>
+ *   <li>(nenhum) - gestão de uma única empresa</li>
+ *   <li>{@code --plataforma} - todas as empresas carregadas na mesma JVM</li>
+ *   <li>{@code --api [porta]} - API HTTP/JSON sobre todas as empresas (porta 8080 por defeito)</li>
+ *   <li>{@code --importar clientes|condutores <empresa> <ficheiro.csv>} - importação em massa</li>
+ *   <li>{@code --exportar csv|jsonl <empresa> <ficheiro|-> [inicio fim]} - exportação de viagens</li>
+ *   <li>{@code --comandos <empresa> [ficheiro|-]} - execução sem interação de um ficheiro de comandos
+ *       (ver {@link ExecutorComandos}), com um resultado JSON por linha</li>
+ * </ul>
+ * </p>
  *
  * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
  * @version 1.0
@@ -13,8 +31,26 @@
  */
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         //Arranca a aplicação chamando o metodo estatico do Menu
-        Menu.iniciar();
+        if (args.length > 0 && args[0].equals("--plataforma")) {
+            Menu.iniciarPlataforma();
+        } else if (args.length > 0 && args[0].equals("--api")) {
+            int estado = ServidorApi.arrancar(Arrays.copyOfRange(args, 1, args.length));
+            if (estado != 0) {
+                System.exit(estado);
+            }
+        } else if (args.length > 0 && args[0].equals("--importar")) {
+            Menu.importarPorLinhaComandos(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--exportar")) {
+            Menu.exportarPorLinhaComandos(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--comandos")) {
+            int estado = ExecutorComandos.arrancar(Arrays.copyOfRange(args, 1, args.length));
+            if (estado != 0) {
+                System.exit(estado);
+            }
+        } else {
+            Menu.iniciar();
+        }
     }
 }
@@ -1,12 +1,27 @@
+import Gestao.Despacho;
+import Gestao.DespachoLote;
 import Gestao.Empresa;
+import Gestao.ExportadorViagens;
+import Gestao.ImportadorCsv;
+import Gestao.Plataforma;
+import Gestao.PoliticaDespacho;
 import Entidades.*;
+import Estatisticas.VistaFaturacao;
+import Estatisticas.VistaReservas;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 
 /**
@@ -40,6 +55,17 @@ public class Menu {
      */
     private static Empresa empresa;
 
+    /**
+     * Plataforma multi-empresa, usada apenas quando a aplicação é iniciada com
+     * {@link #iniciarPlataforma()}. Em modo de empresa única fica a {@code null}.
+     */
+    private static Plataforma plataforma;
+
+    /**
+     * Indica que o utilizador pediu para mudar de empresa (apenas em modo multi-empresa).
+     */
+    private static boolean querMudarEmpresa = false;
+
     /**
      * Objeto Scanner partilhado para leitura de inputs do utilizador.
      * Usado em todos os métodos de leitura para evitar múltiplas instâncias.
@@ -52,6 +78,16 @@ public class Menu {
      */
     private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
 
+    /**
+     * Número de reservas mostradas na lista de próximas recolhas.
+     */
+    private static final int NUMERO_PROXIMAS_RECOLHAS = 50;
+
+    /**
+     * Número de linhas por página nas listagens paginadas.
+     */
+    private static final int TAMANHO_PAGINA = 20;
+
     /**
      * Método principal de inicialização da aplicação.
      * <p>
@@ -90,6 +126,35 @@ public class Menu {
         encerrarAplicacao(nomeEmpresa);
     }
 
+    /**
+     * Inicializa a aplicação em modo multi-empresa.
+     * <p>
+     * Todas as empresas existentes são carregadas em paralelo para a mesma JVM através da
+     * {@link Plataforma}. O utilizador escolhe a empresa a gerir e pode mudar de empresa
+     * no menu principal sem perder os dados das restantes.
+     * </p>
+     */
+    public static void iniciarPlataforma() {
+        imprimirCabecalho("PLATAFORMA MULTI-EMPRESA TVDE");
+
+        plataforma = Plataforma.arrancar(Runtime.getRuntime().availableProcessors());
+        System.out.println(">> Empresas alojadas: " + plataforma.getNomesEmpresas().size());
+
+        try {
+            while (selecionarEmpresaAlojada()) {
+                System.out.println("\nBem vindo à gestão da empresa: " + empresa.getNomeEmpresa());
+                executarMenuPrincipal();
+                if (!querMudarEmpresa) {
+                    break;
+                }
+                querMudarEmpresa = false;
+            }
+            encerrarPlataforma();
+        } finally {
+            plataforma.close();
+        }
+    }
+
     // =======================================================
     //           INICIALIZAÇÃO E SELEÇÃO DE EMPRESA
     // =======================================================
@@ -234,6 +299,26 @@ public class Menu {
         return Empresa.listarEmpresasExistentes();
     }
 
+    /**
+     * Seleciona (ou cria) a empresa a gerir de entre as alojadas na plataforma.
+     *
+     * @return {@code true} se foi selecionada uma empresa; {@code false} se o utilizador cancelou.
+     */
+    private static boolean selecionarEmpresaAlojada() {
+        ArrayList<String> nomes = new ArrayList<>(plataforma.getNomesEmpresas());
+        String nomeEmpresa = nomes.isEmpty() ? criarEmpresaNova() : selecionarEmpresa(nomes);
+        if (nomeEmpresa == null || nomeEmpresa.isEmpty()) {
+            return false;
+        }
+
+        Empresa alojada = plataforma.getEmpresa(nomeEmpresa);
+        if (alojada == null) {
+            alojada = plataforma.registarEmpresa(nomeEmpresa);
+        }
+        empresa = alojada;
+        return true;
+    }
+
 // =======================================================
 //               CARREGAMENTO DE DADOS
 // =======================================================
@@ -350,6 +435,10 @@ public class Menu {
     private static void executarMenuPrincipal() {
         int opcao = -1;
         do {
+            if (plataforma == null) {
+                // Sem plataforma não há relógio: os eventos das reservas avançam a cada passagem pelo menu
+                empresa.processarEventosReservas(LocalDateTime.now());
+            }
             exibirMenuPrincipal();
             opcao = lerOpcaoMenu("Escolha uma opção: ");
             if (opcao == 0) {
@@ -359,7 +448,7 @@ public class Menu {
             } else {
                 processarOpcaoPrincipal(opcao);
             }
-        } while (opcao != 0);
+        } while (opcao != 0 && !querMudarEmpresa);
     }
 
     /**
@@ -376,6 +465,9 @@ public class Menu {
         System.out.println("| 4 - Gerir Viagens                                |");
         System.out.println("| 5 - Gerir Reservas                               |");
         System.out.println("| 6 - Relatórios/Estatísticas                      |");
+        if (plataforma != null) {
+            System.out.println("| 7 - Mudar de Empresa                             |");
+        }
         System.out.println("| 0 - Sair                                         |");
         imprimirLinha();
     }
@@ -396,6 +488,7 @@ public class Menu {
             case 4 -> menuViagens();
             case 5 -> menuReservas();
             case 6 -> menuEstatisticas();
+            case 7 -> pedirMudancaEmpresa();
             case 0 -> confirmarSaida();
             default -> {
                 if (opcao != -1) {
@@ -405,6 +498,20 @@ public class Menu {
         }
     }
 
+    /**
+     * Pede a mudança para outra empresa alojada na plataforma.
+     * <p>
+     * Só está disponível em modo multi-empresa; a empresa atual continua carregada em memória.
+     * </p>
+     */
+    private static void pedirMudancaEmpresa() {
+        if (plataforma == null) {
+            System.out.println("Opção inválida.");
+            return;
+        }
+        querMudarEmpresa = true;
+    }
+
     /**
      * Confirma a saída da aplicação.
      * <p>
@@ -460,6 +567,9 @@ public class Menu {
         System.out.println("|    2 - Listar (Read)                             |");
         System.out.println("|    3 - Atualizar (Update)                        |");
         System.out.println("|    4 - Apagar (Delete)                           |");
+        if (!entidade.equals("Viaturas")) {
+            System.out.println("|    5 - Importar de ficheiro CSV                  |");
+        }
         System.out.println("|    0 - Voltar                                    |");
         imprimirLinha();
     }
@@ -504,6 +614,7 @@ public class Menu {
         System.out.println("| 1 - Registar Nova Viagem (Imediata)              |");
         System.out.println("| 2 - Listar Histórico de Viagens                  |");
         System.out.println("| 3 - Apagar uma Viagem do Histórico               |");
+        System.out.println("| 4 - Exportar Viagens (CSV / JSON Lines)          |");
         System.out.println("| 0 - Voltar                                       |");
         imprimirLinha();
     }
@@ -511,13 +622,14 @@ public class Menu {
     /**
      * Processa opção do menu de viagens.
      *
-     * @param opcao Opção selecionada (1-3 para operações, 0 para voltar).
+     * @param opcao Opção selecionada (1-4 para operações, 0 para voltar).
      */
     private static void processarOpcaoViagens(int opcao) {
         switch (opcao) {
             case 1 -> tratarRegistarViagem();
             case 2 -> tratarListarViagens();
             case 3 -> tratarEliminarViagem();
+            case 4 -> tratarExportarViagens();
         }
     }
 
@@ -548,6 +660,9 @@ public class Menu {
         System.out.println("| 4 - Alterar uma Reserva                          |");
         System.out.println("| 5 - Converter Reserva em Viagem                  |");
         System.out.println("| 6 - Cancelar/Apagar uma Reserva                  |");
+        System.out.println("| 7 - Despachar Reservas Pendentes (Automático)    |");
+        System.out.println("| 8 - Despacho em Lote de uma Janela de Tempo      |");
+        System.out.println("| 9 - Próximas Recolhas                            |");
         System.out.println("| 0 - Voltar                                       |");
         imprimirLinha();
     }
@@ -555,7 +670,7 @@ public class Menu {
     /**
      * Processa opção do menu de reservas.
      *
-     * @param opcao Opção selecionada (1-6 para operações, 0 para voltar).
+     * @param opcao Opção selecionada (1-9 para operações, 0 para voltar).
      */
     private static void processarOpcaoReservas(int opcao) {
         switch (opcao) {
@@ -565,6 +680,9 @@ public class Menu {
             case 4 -> tratarAlterarReserva();
             case 5 -> tratarConverterReserva();
             case 6 -> tratarEliminarReserva();
+            case 7 -> tratarDespacharReservas();
+            case 8 -> tratarDespachoLote();
+            case 9 -> tratarProximasRecolhas();
         }
     }
 
@@ -595,6 +713,7 @@ public class Menu {
         System.out.println("| 4 - Distância Média                              |");
         System.out.println("| 5 - Clientes por Kms                             |");
         System.out.println("| 6 - Histórico Clientes                           |");
+        System.out.println("| 7 - Painel de Indicadores                        |");
         System.out.println("| 0 - Voltar                                       |");
         imprimirLinha();
     }
@@ -602,7 +721,7 @@ public class Menu {
     /**
      * Processa opção do menu de estatísticas.
      *
-     * @param opcao Opção selecionada (1-6 para estatísticas, 0 para voltar).
+     * @param opcao Opção selecionada (1-7 para estatísticas, 0 para voltar).
      */
     private static void processarOpcaoEstatisticas(int opcao) {
         switch (opcao) {
@@ -612,6 +731,7 @@ public class Menu {
             case 4 -> estatDistanciaMedia();
             case 5 -> estatClientesPorIntervaloKms();
             case 6 -> estatHistoricoClientePorDatas();
+            case 7 -> estatPainelIndicadores();
         }
     }
 
@@ -686,20 +806,16 @@ public class Menu {
     /**
      * Lista todas as viaturas registadas.
      * <p>
-     * Mostra lista numerada com todas as viaturas do sistema.
+     * Mostra lista numerada e paginada com todas as viaturas do sistema.
      * Se não houver viaturas, mostra mensagem apropriada.
      * </p>
      */
     private static void listarViaturas() {
-        if (empresa.getViaturas().isEmpty()) {
+        ArrayList<Viatura> lista = empresa.getViaturas();
+        if (lista.isEmpty()) {
             imprimirAviso("Nenhuma viatura registada.");
         } else {
-            imprimirTitulo("Lista de Viaturas");
-            int contador = 1;
-            for (Viatura v : empresa.getViaturas()) {
-                System.out.println(contador + ". " + v.toString());
-                contador++;
-            }
+            paginar("Lista de Viaturas", lista, (viatura, linha) -> linha.append(viatura), true);
         }
     }
 
@@ -751,7 +867,7 @@ public class Menu {
     /**
      * Processa opções CRUD para Condutores.
      *
-     * @param opcao Opção selecionada (1-Criar, 2-Listar, 3-Atualizar, 4-Eliminar).
+     * @param opcao Opção selecionada (1-Criar, 2-Listar, 3-Atualizar, 4-Eliminar, 5-Importar).
      */
     private static void processarOpcaoCondutores(int opcao) {
         try {
@@ -760,6 +876,7 @@ public class Menu {
                 case 2 -> listarCondutores();
                 case 3 -> atualizarCondutor();
                 case 4 -> eliminarCondutor();
+                case 5 -> importarCsv("Condutores");
             }
         } catch (OperacaoCanceladaException e) {
             imprimirAviso("Operação cancelada.");
@@ -809,12 +926,7 @@ public class Menu {
         if (lista.isEmpty()) {
             imprimirAviso("Não há condutores registados.");
         } else {
-            imprimirTitulo("\nLista de Condutores");
-            int contador = 1;
-            for (Condutor c : lista) {
-                System.out.println(contador + ". " + c.toString());
-                contador++;
-            }
+            paginar("\nLista de Condutores", lista, (condutor, linha) -> linha.append(condutor), true);
         }
     }
 
@@ -867,7 +979,7 @@ public class Menu {
     /**
      * Processa opções CRUD para Clientes.
      *
-     * @param opcao Opção selecionada (1-Criar, 2-Listar, 3-Atualizar, 4-Eliminar).
+     * @param opcao Opção selecionada (1-Criar, 2-Listar, 3-Atualizar, 4-Eliminar, 5-Importar).
      */
     private static void processarOpcaoClientes(int opcao) {
         try {
@@ -876,6 +988,7 @@ public class Menu {
                 case 2 -> listarClientes();
                 case 3 -> atualizarCliente();
                 case 4 -> eliminarCliente();
+                case 5 -> importarCsv("Clientes");
             }
         } catch (OperacaoCanceladaException e) {
             imprimirAviso("Operação cancelada.");
@@ -917,12 +1030,7 @@ public class Menu {
         if (lista.isEmpty()) {
             imprimirAviso("Não há clientes registados.");
         } else {
-            imprimirTitulo("\nLista de Clientes");
-            int contador = 1;
-            for (Cliente c : lista) {
-                System.out.println(contador + ". " + c.toString());
-                contador++;
-            }
+            paginar("\nLista de Clientes", lista, (cliente, linha) -> linha.append(cliente), true);
         }
     }
 
@@ -1100,16 +1208,100 @@ public class Menu {
 
     /**
      * Lista todas as viagens registadas.
+     * <p>
+     * Sem filtro, pagina diretamente sobre a versão imutável do histórico, sem a copiar nem formatar
+     * mais do que as viagens da página mostrada. Com filtro, percorre o histórico com o cursor da
+     * empresa: só as viagens que passam o filtro ficam referenciadas na listagem paginada.
+     * </p>
      */
     private static void tratarListarViagens() {
-        ArrayList<Viagem> viagens = empresa.getViagens();
-        if (viagens.isEmpty()) {
+        if (!empresa.cursorViagens().hasNext()) {
             imprimirAviso("Sem viagens registadas!");
         } else {
-            imprimirTitulo("\nHistórico de Viagens");
-            for (Viagem viagem : viagens) {
-                System.out.println(viagem);
+            StringBuilder linha = new StringBuilder(160);
+            paginar("\nHistórico de Viagens", filtro -> {
+                if (filtro == null) {
+                    return empresa.instantaneo().getViagens();
+                }
+                ArrayList<Viagem> selecionadas = new ArrayList<>();
+                empresa.percorrerViagens(viagem -> {
+                    linha.setLength(0);
+                    return contemTexto(viagem.formatar(linha), filtro);
+                }, selecionadas::add);
+                return selecionadas;
+            }, Viagem::formatar, true);
+        }
+    }
+
+    /**
+     * Exporta o histórico de viagens (opcionalmente filtrado) para um ficheiro CSV ou JSON Lines.
+     */
+    private static void tratarExportarViagens() {
+        try {
+            exibirMsgCancelar();
+            ExportadorViagens.Formato formato;
+            while (true) {
+                try {
+                    formato = ExportadorViagens.Formato.deNome(lerTextoComCancelamento("Formato (csv/jsonl): "));
+                    break;
+                } catch (IllegalArgumentException e) {
+                    imprimirErro(e.getMessage());
+                }
+            }
+            String caminho = lerTextoComCancelamento("Caminho do ficheiro de destino: ");
+
+            LocalDateTime inicio = null;
+            LocalDateTime fim = null;
+            String filtrar = lerTextoComCancelamento("Filtrar por intervalo de datas? (S/N): ");
+            if (filtrar.equalsIgnoreCase("S")) {
+                inicio = lerDataComCancelamento("Data início (dd-MM-yyyy HH:mm): ");
+                fim = lerDataComCancelamento("Data fim (dd-MM-yyyy HH:mm): ");
             }
+
+            long exportadas = new ExportadorViagens(empresa)
+                    .exportar(Path.of(caminho), formato, ExportadorViagens.filtro(null, inicio, fim));
+            imprimirAviso(exportadas + " viagens exportadas para " + caminho);
+        } catch (OperacaoCanceladaException e) {
+            imprimirAviso("Operação cancelada.");
+        } catch (IOException e) {
+            imprimirErro("Não foi possível exportar as viagens: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exporta as viagens de uma empresa sem interação (modo de linha de comandos).
+     * <p>
+     * Argumentos: {@code csv|jsonl <empresa> <ficheiro> ["dd-MM-yyyy HH:mm" "dd-MM-yyyy HH:mm"]}.
+     * Com o ficheiro "-" as viagens são escritas na saída padrão.
+     * </p>
+     *
+     * @param args Formato, nome da empresa, destino e, opcionalmente, o intervalo de datas.
+     */
+    public static void exportarPorLinhaComandos(String[] args) {
+        if (args.length != 3 && args.length != 5) {
+            imprimirErro("Utilização: --exportar csv|jsonl <empresa> <ficheiro|-> [\"inicio\" \"fim\"]");
+            return;
+        }
+        try {
+            ExportadorViagens.Formato formato = ExportadorViagens.Formato.deNome(args[0]);
+            LocalDateTime inicio = args.length == 5 ? LocalDateTime.parse(args[3], dateTimeFormatter) : null;
+            LocalDateTime fim = args.length == 5 ? LocalDateTime.parse(args[4], dateTimeFormatter) : null;
+
+            empresa = new Empresa(args[1]);
+            empresa.carregarDados();
+            ExportadorViagens exportador = new ExportadorViagens(empresa);
+            if (args[2].equals("-")) {
+                exportador.exportar(new OutputStreamWriter(System.out, StandardCharsets.UTF_8),
+                        formato, ExportadorViagens.filtro(null, inicio, fim));
+            } else {
+                long exportadas = exportador.exportar(Path.of(args[2]), formato,
+                        ExportadorViagens.filtro(null, inicio, fim));
+                System.out.println(exportadas + " viagens exportadas para " + args[2]);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            imprimirErro(e.getMessage());
+        } catch (IOException e) {
+            imprimirErro("Não foi possível exportar as viagens: " + e.getMessage());
         }
     }
 
@@ -1158,7 +1350,7 @@ public class Menu {
      * Cria uma nova reserva.
      * <p>
      * Solicita dados da reserva e cria um novo objeto {@link Reserva}.
-     * Assume duração padrão de 1 hora para verificação de disponibilidade.
+     * Assume a duração das viagens criadas a partir de reservas para verificar a disponibilidade.
      * </p>
      */
     private static void tratarCriarReserva() {
@@ -1167,7 +1359,7 @@ public class Menu {
             exibirMsgCancelar();
 
             LocalDateTime inicio = lerDataComCancelamento("Data/Hora da Reserva (dd-MM-yyyy HH:mm): ");
-            LocalDateTime fimEstimado = inicio.plusHours(1); // Duração virtual
+            LocalDateTime fimEstimado = inicio.plusMinutes(Empresa.DURACAO_CONVERSAO_MINUTOS); // Duração virtual
 
             Cliente cliente = selecionarClienteDisponivel(inicio, fimEstimado);
             if (cliente == null) return;
@@ -1177,8 +1369,11 @@ public class Menu {
             double kms = lerDoubleComCancelamento("Kms estimados: ");
 
             Reserva reserva = new Reserva(cliente, inicio, origem, destino, kms);
-            empresa.adicionarReserva(reserva);
-            imprimirAviso("Reserva registada com sucesso!");
+            if (empresa.adicionarReserva(reserva)) {
+                imprimirAviso("Reserva registada com sucesso!");
+            } else {
+                imprimirErro("Não foi possível registar a reserva.");
+            }
         } catch (OperacaoCanceladaException e) {
             imprimirAviso("Operação cancelada.");
         }
@@ -1192,11 +1387,7 @@ public class Menu {
         if (reservas.isEmpty()) {
             imprimirAviso("Sem nenhuma reserva pendente!");
         } else {
-            int contador = 1;
-            for (Reserva reserva : reservas) {
-                System.out.println(contador + ". " + reserva);
-                contador++;
-            }
+            paginar("Reservas Pendentes", reservas, Reserva::formatar, true);
         }
     }
 
@@ -1316,8 +1507,11 @@ public class Menu {
         switch (opcao) {
             case 1 -> {
                 LocalDateTime novaData = lerDataComCancelamento("Nova Data/Hora (dd-MM-yyyy HH:mm): ");
-                reserva.setDataHoraInicio(novaData);
-                imprimirAviso("Data atualizada com sucesso!");
+                if (empresa.alterarDataReserva(reserva, novaData)) {
+                    imprimirAviso("Data atualizada com sucesso!");
+                } else {
+                    imprimirErro("O cliente já está ocupado nesse horário.");
+                }
             }
             case 2 -> {
                 String novaOrigem = lerTextoComCancelamento("Nova Origem: ");
@@ -1348,7 +1542,7 @@ public class Menu {
      */
     private static void tratarConverterReserva() {
         try {
-            ArrayList<Reserva> reservas = empresa.getReservas();
+            List<Reserva> reservas = empresa.getReservasPorData();
             if (reservas.isEmpty()) {
                 imprimirAviso("Sem nenhuma Reserva para converter em Viagem");
                 return;
@@ -1370,6 +1564,19 @@ public class Menu {
             System.out.println("Reserva Selecionada: " + reserva.getCliente().getNome() + " - " +
                     reserva.getDataHoraInicio().format(dateTimeFormatter));
 
+            String automatico = lerTextoComCancelamento("Atribuir condutor e viatura automaticamente? (S/N): ");
+            if (automatico.equalsIgnoreCase("S")) {
+                Despacho despacho = new Despacho(empresa, lerPoliticaDespacho());
+                Viagem viagem = despacho.despachar(reserva, lerDoubleComCancelamento("Custo Final (€): "));
+                if (viagem != null) {
+                    imprimirAviso("Reserva convertida com sucesso!");
+                    System.out.println(viagem);
+                } else {
+                    imprimirErro("Não existe nenhum condutor e viatura livres para esta reserva.");
+                }
+                return;
+            }
+
             // 2. Duração estimada
             int duracao = lerInteiroComCancelamento("Duração estimada (minutos): ");
             LocalDateTime fimEstimado = reserva.getDataHoraInicio().plusMinutes(duracao);
@@ -1384,7 +1591,7 @@ public class Menu {
             // 4. Custo final
             double custo = lerDoubleComCancelamento("Custo Final (€): ");
 
-            if (empresa.converterReservaEmViagem(reserva, condutor, viatura, custo)) {
+            if (empresa.converterReservaEmViagem(reserva, condutor, viatura, custo) != null) {
                 imprimirAviso("Reserva convertida com sucesso!");
             } else {
                 imprimirErro("Não foi possível converter Reserva.");
@@ -1394,6 +1601,111 @@ public class Menu {
         }
     }
 
+    /**
+     * Converte automaticamente todas as reservas pendentes em viagens.
+     * <p>
+     * As reservas são tratadas por ordem de data/hora; o condutor e a viatura são escolhidos
+     * pelo {@link Despacho} e o custo é calculado a partir do preço por quilómetro indicado.
+     * </p>
+     */
+    private static void tratarDespacharReservas() {
+        try {
+            int pendentes = empresa.getReservas().size();
+            if (pendentes == 0) {
+                imprimirAviso("Sem nenhuma Reserva para converter em Viagem");
+                return;
+            }
+            exibirMsgCancelar();
+            PoliticaDespacho politica = lerPoliticaDespacho();
+            double precoPorKm = lerDoubleComCancelamento("Preço por Km (€): ");
+
+            List<Viagem> criadas = new Despacho(empresa, politica).despacharPendentes(precoPorKm);
+            imprimirAviso(criadas.size() + " de " + pendentes + " reservas convertidas em viagens.");
+            for (Viagem viagem : criadas) {
+                System.out.println(viagem);
+            }
+        } catch (OperacaoCanceladaException e) {
+            imprimirAviso("Operação cancelada.");
+        }
+    }
+
+    /**
+     * Atribui condutores e viaturas a todas as reservas de uma janela de tempo de uma só vez.
+     * <p>
+     * Ao contrário do despacho reserva a reserva, o plano é calculado para a janela inteira
+     * ({@link DespachoLote}), maximizando o número de reservas atendidas.
+     * </p>
+     */
+    private static void tratarDespachoLote() {
+        try {
+            exibirMsgCancelar();
+            LocalDateTime inicio = lerDataComCancelamento("Início da janela (dd-MM-yyyy HH:mm): ");
+            LocalDateTime fim = lerDataComCancelamento("Fim da janela (dd-MM-yyyy HH:mm): ");
+            if (fim.isBefore(inicio)) {
+                imprimirErro("O fim da janela não pode ser anterior ao início.");
+                return;
+            }
+            double precoPorKm = lerDoubleComCancelamento("Preço por Km (€): ");
+
+            DespachoLote.Resultado resultado = new DespachoLote(empresa).despachar(inicio, fim, precoPorKm);
+            imprimirAviso(resultado.toString());
+            for (Reserva reserva : resultado.getPendentes()) {
+                System.out.println("Sem recursos: " + reserva);
+            }
+        } catch (OperacaoCanceladaException e) {
+            imprimirAviso("Operação cancelada.");
+        }
+    }
+
+    /**
+     * Pede ao utilizador o critério de escolha do despacho automático.
+     *
+     * @return A política escolhida.
+     * @throws OperacaoCanceladaException Se o utilizador cancelar a operação.
+     */
+    private static PoliticaDespacho lerPoliticaDespacho() throws OperacaoCanceladaException {
+        System.out.println("Critério de escolha:");
+        System.out.println("  1 - Menos viagens marcadas");
+        System.out.println("  2 - Livre há mais tempo");
+        System.out.println("  3 - Manter a viatura habitual do condutor");
+        while (true) {
+            switch (lerInteiroComCancelamento("Opção: ")) {
+                case 1 -> {
+                    return PoliticaDespacho.MENOS_CARREGADO;
+                }
+                case 2 -> {
+                    return PoliticaDespacho.MAIS_TEMPO_PARADO;
+                }
+                case 3 -> {
+                    return PoliticaDespacho.PAR_PREFERIDO;
+                }
+                default -> imprimirErro("Opção Inválida.");
+            }
+        }
+    }
+
+    /**
+     * Mostra as próximas reservas pendentes a partir de agora, por ordem de data/hora de início.
+     * As linhas são montadas num único {@link StringBuilder} e escritas na consola de uma vez.
+     */
+    private static void tratarProximasRecolhas() {
+        List<Reserva> proximas = empresa.getProximasReservas(LocalDateTime.now(), NUMERO_PROXIMAS_RECOLHAS);
+        if (proximas.isEmpty()) {
+            imprimirAviso("Sem recolhas agendadas.");
+            return;
+        }
+        StringBuilder ecra = new StringBuilder(proximas.size() * 128);
+        ecra.append("--- PRÓXIMAS ").append(proximas.size()).append(" RECOLHAS ---").append(System.lineSeparator());
+        int contador = 1;
+        for (Reserva reserva : proximas) {
+            ecra.append(contador).append(". ");
+            reserva.formatar(ecra).append(System.lineSeparator());
+            contador++;
+        }
+        System.out.print(ecra);
+        System.out.flush();
+    }
+
     /**
      * Elimina uma reserva pendente.
      */
@@ -1467,9 +1779,9 @@ public class Menu {
         String verLista = lerTextoComCancelamento("Ver lista? (S/N): ");
 
         if (verLista.equalsIgnoreCase("S")) {
-            for (Condutor condutor : condutores) {
-                System.out.println("[ID: " + condutor.getNumeroIdentificacao() + " | Nome:" + condutor.getNome() + " | NIF: " + condutor.getNif() + "]");
-            }
+            paginar("Condutores Livres", condutores, (condutor, linha) -> linha.append("[ID: ")
+                    .append(condutor.getNumeroIdentificacao()).append(" | Nome:").append(condutor.getNome())
+                    .append(" | NIF: ").append(condutor.getNif()).append(']'), false);
         }
     }
 
@@ -1533,9 +1845,8 @@ public class Menu {
         String verLista = lerTextoComCancelamento("Ver lista? (S/N): ");
 
         if (verLista.equalsIgnoreCase("S")) {
-            for (Cliente cliente : clientes) {
-                System.out.println("[Cliente: " + cliente.getNome() + " | NIF: " + cliente.getNif() + "]");
-            }
+            paginar("Clientes Livres", clientes, (cliente, linha) -> linha.append("[Cliente: ")
+                    .append(cliente.getNome()).append(" | NIF: ").append(cliente.getNif()).append(']'), false);
         }
     }
 
@@ -1598,11 +1909,9 @@ public class Menu {
         String verLista = lerTextoComCancelamento("Ver lista? (S/N): ");
 
         if (verLista.equalsIgnoreCase("S")) {
-            for (Viatura viatura : viaturas) {
-                System.out.println("[Matrícula: " + viatura.getMatricula() +
-                        " | Marca: " + viatura.getMarca() +
-                        " | Modelo: " + viatura.getModelo() + "]");
-            }
+            paginar("Viaturas Livres", viaturas, (viatura, linha) -> linha.append("[Matrícula: ")
+                    .append(viatura.getMatricula()).append(" | Marca: ").append(viatura.getMarca())
+                    .append(" | Modelo: ").append(viatura.getModelo()).append(']'), false);
         }
     }
 
@@ -1678,6 +1987,26 @@ public class Menu {
         }
     }
 
+    /**
+     * Mostra os indicadores globais da empresa, lidos das vistas materializadas (sem percorrer o histórico).
+     */
+    private static void estatPainelIndicadores() {
+        VistaFaturacao faturacao = empresa.getVistaFaturacao();
+        VistaReservas reservas = empresa.getVistaReservas();
+
+        imprimirTitulo("Painel de Indicadores");
+        System.out.println("Viagens realizadas: " + faturacao.getNumeroViagens());
+        System.out.printf("Faturação total: %.2f €%n", faturacao.getFaturacaoTotal());
+        System.out.printf("Quilómetros percorridos: %.1f km%n", empresa.getVistaDistancias().getTotalKms());
+        System.out.printf("Ocupação média por condutor: %.0f minutos%n",
+                empresa.getVistaUtilizacao().getMinutosMediosPorCondutor());
+        System.out.println("Reservas: " + reservas.getAdicionadas() + " criadas, "
+                + reservas.getConvertidas() + " convertidas, "
+                + reservas.getRemovidas() + " canceladas, "
+                + reservas.getExpiradas() + " expiradas");
+        System.out.printf("Taxa de conversão de reservas: %.1f %%%n", reservas.getTaxaConversao());
+    }
+
     /**
      * Mostra lista completa de condutores com seus IDs e NIFs.
      */
@@ -1687,12 +2016,9 @@ public class Menu {
             imprimirAviso("Não existem condutores registados.");
             return;
         }
-        imprimirTitulo("Condutores Registados");
-        for (Condutor condutor : condutores) {
-            System.out.println("-> ID: " + condutor.getNumeroIdentificacao() +
-                    " | Nome: " + condutor.getNome() +
-                    " | NIF: " + condutor.getNif());
-        }
+        paginar("Condutores Registados", condutores, (condutor, linha) -> linha.append("-> ID: ")
+                .append(condutor.getNumeroIdentificacao()).append(" | Nome: ").append(condutor.getNome())
+                .append(" | NIF: ").append(condutor.getNif()), false);
     }
 
     /**
@@ -1739,11 +2065,9 @@ public class Menu {
             imprimirAviso("Não existem viaturas registadas.");
             return;
         }
-        imprimirTitulo("Viaturas Registadas");
-        for (Viatura viatura : viaturas) {
-            System.out.println("-> " + viatura.getMarca() + " " + viatura.getModelo() +
-                    " | Matrícula: " + viatura.getMatricula());
-        }
+        paginar("Viaturas Registadas", viaturas, (viatura, linha) -> linha.append("-> ")
+                .append(viatura.getMarca()).append(' ').append(viatura.getModelo())
+                .append(" | Matrícula: ").append(viatura.getMatricula()), false);
     }
 
     /**
@@ -1849,16 +2173,104 @@ public class Menu {
             imprimirAviso("Não existem clientes registados.");
             return;
         }
-        imprimirTitulo("Clientes Registados");
-        for (Cliente cliente : clientes) {
-            System.out.println("[" + cliente.getNome() + " | NIF: " + cliente.getNif() + "]");
-        }
+        paginar("Clientes Registados", clientes, (cliente, linha) -> linha.append('[')
+                .append(cliente.getNome()).append(" | NIF: ").append(cliente.getNif()).append(']'), false);
     }
 
 // =======================================================
 //           ENCERRAMENTO DA APLICAÇÃO
 // =======================================================
 
+    /**
+     * Importa condutores ou clientes de um ficheiro CSV indicado pelo utilizador.
+     * <p>
+     * As linhas rejeitadas são guardadas no mesmo caminho com a extensão ".rejeitados".
+     * </p>
+     *
+     * @param entidade "Condutores" ou "Clientes".
+     * @throws OperacaoCanceladaException Se o utilizador cancelar a operação.
+     */
+    private static void importarCsv(String entidade) throws OperacaoCanceladaException {
+        exibirMsgCancelar();
+        String caminho = lerTextoComCancelamento("Caminho do ficheiro CSV: ");
+        System.out.println("A importar " + entidade.toLowerCase() + "...");
+        try {
+            ImportadorCsv.Relatorio relatorio = importar(entidade, Path.of(caminho));
+            imprimirAviso(relatorio.toString());
+            if (relatorio.getRejeitadas() > 0) {
+                imprimirAviso("Linhas rejeitadas em: " + caminho + ".rejeitados");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            imprimirErro("Não foi possível importar o ficheiro: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Importa um ficheiro CSV sem interação (modo de linha de comandos).
+     * <p>
+     * Carrega a empresa indicada, importa o ficheiro, mostra o relatório e grava os dados.
+     * Argumentos: {@code clientes|condutores <empresa> <ficheiro.csv>}.
+     * </p>
+     *
+     * @param args Tipo de registo, nome da empresa e caminho do ficheiro.
+     */
+    public static void importarPorLinhaComandos(String[] args) {
+        if (args.length < 3 || !(args[0].equalsIgnoreCase("clientes") || args[0].equalsIgnoreCase("condutores"))) {
+            imprimirErro("Utilização: --importar clientes|condutores <empresa> <ficheiro.csv>");
+            return;
+        }
+        empresa = new Empresa(args[1]);
+        empresa.carregarDados();
+
+        String entidade = args[0].equalsIgnoreCase("clientes") ? "Clientes" : "Condutores";
+        try {
+            ImportadorCsv.Relatorio relatorio = importar(entidade, Path.of(args[2]));
+            System.out.println(relatorio);
+            if (relatorio.getRejeitadas() > 0) {
+                System.out.println("Linhas rejeitadas em: " + args[2] + ".rejeitados");
+            }
+            empresa.gravarDados();
+        } catch (IOException e) {
+            imprimirErro("Não foi possível importar o ficheiro: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executa a importação de um ficheiro para a empresa atual.
+     *
+     * @param entidade "Condutores" ou "Clientes".
+     * @param ficheiro O ficheiro CSV.
+     * @return O relatório da importação.
+     * @throws IOException Se não for possível ler o ficheiro ou escrever as rejeições.
+     */
+    private static ImportadorCsv.Relatorio importar(String entidade, Path ficheiro) throws IOException {
+        ImportadorCsv importador = new ImportadorCsv(empresa);
+        Path rejeitados = Path.of(ficheiro + ".rejeitados");
+        return entidade.equals("Condutores")
+                ? importador.importarCondutores(ficheiro, rejeitados)
+                : importador.importarClientes(ficheiro, rejeitados);
+    }
+
+    /**
+     * Encerra o modo multi-empresa com gravação opcional dos dados de todas as empresas.
+     * <p>
+     * As empresas são gravadas em paralelo, cada uma na sua pasta "Logs_NomeEmpresa".
+     * </p>
+     */
+    private static void encerrarPlataforma() {
+        try {
+            String resposta = lerTextoComCancelamento("Deseja gravar os dados de todas as empresas? (S/N): ");
+            if (resposta.equalsIgnoreCase("S")) {
+                plataforma.gravarTodas();
+            } else {
+                imprimirErro("As alterações não foram guardadas.");
+            }
+        } catch (OperacaoCanceladaException e) {
+            imprimirAviso("Saída forçada. As alterações não foram guardadas.");
+        }
+        imprimirAviso("Até logo!");
+    }
+
     /**
      * Encerra a aplicação com gravação opcional de dados.
      * <p>
@@ -2046,6 +2458,155 @@ public class Menu {
     }
 
 
+// =======================================================
+//           LISTAGENS PAGINADAS
+// =======================================================
+
+    /**
+     * Mostra uma lista em páginas de {@value #TAMANHO_PAGINA} linhas, filtrando-a em memória.
+     *
+     * @param titulo  Título da listagem.
+     * @param itens   Itens a listar.
+     * @param formato Acrescenta a linha de cada item ao destino indicado.
+     * @param numerar Se as linhas devem ser numeradas.
+     * @param <T>     Tipo dos itens.
+     * @see #paginar(String, Function, BiConsumer, boolean)
+     */
+    private static <T> void paginar(String titulo, List<T> itens, BiConsumer<? super T, StringBuilder> formato,
+                                    boolean numerar) {
+        StringBuilder linha = new StringBuilder(160);
+        paginar(titulo, filtro -> {
+            if (filtro == null) {
+                return itens;
+            }
+            ArrayList<T> selecionados = new ArrayList<>();
+            for (T item : itens) {
+                linha.setLength(0);
+                formato.accept(item, linha);
+                if (contemTexto(linha, filtro)) {
+                    selecionados.add(item);
+                }
+            }
+            return selecionados;
+        }, formato, numerar);
+    }
+
+    /**
+     * Mostra uma listagem paginada, com navegação e filtro.
+     * <p>
+     * Cada página é montada num único {@link StringBuilder} (as linhas são escritas diretamente nele) e
+     * escrita na consola de uma vez, em vez de uma escrita sincronizada por linha; só as linhas da página
+     * atual são formatadas. Se a lista couber
+     * numa página, é mostrada sem pedir comandos. Comandos aceites:
+     * <ul>
+     *   <li>Enter ou "S" - página seguinte (sai depois da última)</li>
+     *   <li>"A" - página anterior</li>
+     *   <li>número - salta para essa página</li>
+     *   <li>"F texto" - mostra só as linhas que contêm o texto; "F" sozinho limpa o filtro</li>
+     *   <li>"0" - sair</li>
+     * </ul>
+     * </p>
+     *
+     * @param titulo  Título da listagem.
+     * @param fonte   Devolve os itens que contêm o filtro indicado (ou todos, se o filtro for {@code null}).
+     * @param formato Acrescenta a linha de cada item ao destino indicado.
+     * @param numerar Se as linhas devem ser numeradas.
+     * @param <T>     Tipo dos itens.
+     */
+    private static <T> void paginar(String titulo, Function<String, List<T>> fonte,
+                                    BiConsumer<? super T, StringBuilder> formato, boolean numerar) {
+        String filtro = null;
+        List<T> itens = fonte.apply(null);
+        int pagina = 0;
+        StringBuilder ecra = new StringBuilder(TAMANHO_PAGINA * 128);
+
+        while (true) {
+            int paginas = Math.max(1, (itens.size() + TAMANHO_PAGINA - 1) / TAMANHO_PAGINA);
+            pagina = Math.min(Math.max(pagina, 0), paginas - 1);
+
+            ecra.setLength(0);
+            ecra.append("--- ").append(titulo.toUpperCase()).append(" ---");
+            if (paginas > 1 || filtro != null) {
+                ecra.append(" (página ").append(pagina + 1).append(" de ").append(paginas)
+                        .append(", ").append(itens.size()).append(" registos");
+                if (filtro != null) {
+                    ecra.append(", filtro: \"").append(filtro).append('"');
+                }
+                ecra.append(')');
+            }
+            ecra.append(System.lineSeparator());
+            if (itens.isEmpty()) {
+                ecra.append(">> Nenhum registo corresponde ao filtro.").append(System.lineSeparator());
+            }
+            int fim = Math.min((pagina + 1) * TAMANHO_PAGINA, itens.size());
+            for (int i = pagina * TAMANHO_PAGINA; i < fim; i++) {
+                if (numerar) {
+                    ecra.append(i + 1).append(". ");
+                }
+                formato.accept(itens.get(i), ecra);
+                ecra.append(System.lineSeparator());
+            }
+            System.out.print(ecra);
+            System.out.flush();
+
+            if (paginas == 1 && filtro == null) {
+                return;
+            }
+
+            System.out.print("[Enter] Seguinte | A Anterior | Nº Página | F <texto> Filtrar | 0 Sair: ");
+            String comando = scanner.nextLine().trim();
+            if (comando.isEmpty() || comando.equalsIgnoreCase("S")) {
+                if (pagina == paginas - 1) {
+                    return;
+                }
+                pagina++;
+            } else if (comando.equalsIgnoreCase("A")) {
+                pagina--;
+            } else if (comando.equals("0")) {
+                return;
+            } else if (comando.equalsIgnoreCase("F") || comando.regionMatches(true, 0, "F ", 0, 2)) {
+                String texto = comando.substring(1).trim();
+                filtro = texto.isEmpty() ? null : texto;
+                itens = fonte.apply(filtro);
+                pagina = 0;
+            } else {
+                try {
+                    pagina = Integer.parseInt(comando) - 1;
+                } catch (NumberFormatException e) {
+                    imprimirErro("Comando inválido.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifica se uma linha contém o texto do filtro, sem distinguir maiúsculas de minúsculas.
+     * <p>
+     * Compara carácter a carácter, sem criar cópias da linha em minúsculas.
+     * </p>
+     *
+     * @param linha  A linha.
+     * @param filtro O texto procurado, ou {@code null} (aceita qualquer linha).
+     * @return {@code true} se a linha contiver o texto.
+     */
+    private static boolean contemTexto(CharSequence linha, String filtro) {
+        if (filtro == null) {
+            return true;
+        }
+        int ultimoInicio = linha.length() - filtro.length();
+        for (int inicio = 0; inicio <= ultimoInicio; inicio++) {
+            int i = 0;
+            while (i < filtro.length() && Character.toLowerCase(linha.charAt(inicio + i))
+                    == Character.toLowerCase(filtro.charAt(i))) {
+                i++;
+            }
+            if (i == filtro.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 // =======================================================
 //           MÉTODOS DE FORMATAÇÃO VISUAL
 // =======================================================
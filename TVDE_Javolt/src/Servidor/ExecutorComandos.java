@@ -0,0 +1,488 @@
+package Servidor;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Entidades.Viatura;
+import Gestao.Empresa;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Modo de comandos (sem interação) sobre uma {@link Empresa}.
+ * <p>
+ * Lê um comando por linha (de um ficheiro ou da entrada padrão) e executa-o de imediato, sem
+ * perguntas nem confirmações, escrevendo uma linha JSON por comando. Permite automatizar tarefas
+ * noturnas ou repetir as operações de um dia. As linhas vazias e as começadas por {@code #} são
+ * ignoradas; os argumentos são separados por espaços e podem estar entre aspas
+ * (ex: {@code "Rua das Flores, 12"}). As datas usam o formato ISO (ex: {@code 2026-01-31T14:30}).
+ * </p>
+ * <p>
+ * Comandos aceites:
+ * <ul>
+ *   <li>{@code viatura <matricula> <marca> <modelo> <ano>}</li>
+ *   <li>{@code condutor <id> <nome> <nif> <tel> <morada> <cartaoCid> <cartaCond> <segSocial>}</li>
+ *   <li>{@code cliente <nome> <nif> <tel> <morada> <cartaoCid>}</li>
+ *   <li>{@code viagem <idCondutor> <nif> <matricula> <inicio> <fim> <origem> <destino> <kms> <custo>}</li>
+ *   <li>{@code reserva <nif> <inicio> <origem> <destino> <kms>}</li>
+ *   <li>{@code converter <nif> <inicio> <idCondutor> <matricula> <custo>}</li>
+ *   <li>{@code listar viaturas|condutores|clientes|reservas|viagens}</li>
+ *   <li>{@code relatorio faturacao <idCondutor> <inicio> <fim>}, {@code relatorio distancia-media <inicio> <fim>},
+ *       {@code relatorio destino-mais-solicitado <inicio> <fim>}, {@code relatorio clientes-por-viatura <matricula>},
+ *       {@code relatorio clientes-por-kms <min> <max>}, {@code relatorio kms-cliente <nif>},
+ *       {@code relatorio ranking-destinos <inicio> <fim>}, {@code relatorio faturacao-condutores <inicio> <fim>} e
+ *       {@code relatorio resumo-diario condutor|viatura|destino <inicio> <fim>}</li>
+ *   <li>{@code gravar}</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Cada resultado é um objeto JSON numa linha, com o número da linha do comando:
+ * {@code {"linha":3,"comando":"viagem","ok":true,"resultado":{...}}} ou
+ * {@code {"linha":4,"comando":"viagem","ok":false,"erro":"..."}}. As entidades têm a mesma
+ * representação que na {@link ServidorApi}. Um comando falhado não interrompe os seguintes.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class ExecutorComandos {
+
+    /**
+     * Tamanho do buffer de escrita dos resultados (64 KB).
+     */
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    /**
+     * Empresa sobre a qual os comandos são executados.
+     */
+    private final Empresa empresa;
+
+    /**
+     * Cria um executor de comandos para uma empresa.
+     *
+     * @param empresa A empresa.
+     */
+    public ExecutorComandos(Empresa empresa) {
+        this.empresa = empresa;
+    }
+
+    /**
+     * Executa o modo de comandos a partir da linha de comandos:
+     * {@code --comandos <empresa> [ficheiro|-]} (sem ficheiro, ou com "-", lê da entrada padrão).
+     * <p>
+     * Os resultados são escritos na saída padrão; as mensagens que a empresa escreve na consola
+     * são descartadas, para não se misturarem com eles.
+     * </p>
+     *
+     * @param args Argumentos a seguir a {@code --comandos}.
+     * @return Código de saída: 0 se todos os comandos tiverem sucesso, 1 se algum falhar, 2 em caso de erro de utilização.
+     */
+    public static int arrancar(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Utilização: --comandos <empresa> [ficheiro|-]");
+            return 2;
+        }
+        PrintStream consola = System.out;
+        try (InputStream entrada = args.length == 1 || args[1].equals("-") ? System.in : new FileInputStream(args[1])) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            Empresa empresa = new Empresa(args[0]);
+            empresa.carregarDados();
+
+            BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+            Writer saida = new BufferedWriter(new OutputStreamWriter(consola, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+            return new ExecutorComandos(empresa).executar(leitor, saida) == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Não foi possível ler os comandos: " + e.getMessage());
+            return 2;
+        } finally {
+            System.setOut(consola);
+        }
+    }
+
+    /**
+     * Executa todos os comandos lidos até ao fim da entrada.
+     *
+     * @param entrada Origem dos comandos (não é fechada).
+     * @param saida   Destino dos resultados (não é fechado; é despejado no fim).
+     * @return Número de comandos que falharam.
+     * @throws IOException Se ocorrer um erro de leitura ou de escrita.
+     */
+    public long executar(BufferedReader entrada, Writer saida) throws IOException {
+        long falhados = 0;
+        int numeroLinha = 0;
+        String linha;
+        try {
+            while ((linha = entrada.readLine()) != null) {
+                numeroLinha++;
+                String texto = linha.trim();
+                if (texto.isEmpty() || texto.startsWith("#")) {
+                    continue;
+                }
+                String comando = texto.split("\\s+", 2)[0].toLowerCase(Locale.ROOT);
+                saida.write("{\"linha\":" + numeroLinha + ",\"comando\":" + Json.texto(comando));
+                try {
+                    String resultado = executar(comando, separar(texto), saida);
+                    saida.write(",\"ok\":true");
+                    if (resultado != null) {
+                        saida.write(",\"resultado\":");
+                        saida.write(resultado);
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    falhados++;
+                    saida.write(",\"ok\":false,\"erro\":" + Json.texto(e.getMessage()));
+                }
+                saida.write("}\n");
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        saida.flush();
+        return falhados;
+    }
+
+    /**
+     * Executa um comando.
+     * <p>
+     * As listagens são escritas diretamente na saída, elemento a elemento, para não construir
+     * em memória o texto de listas grandes.
+     * </p>
+     *
+     * @param comando    Nome do comando (em minúsculas).
+     * @param argumentos Argumentos, incluindo o nome do comando na posição 0.
+     * @param saida      Destino dos resultados.
+     * @return O resultado JSON a escrever, ou {@code null} se não houver (ou se já tiver sido escrito).
+     * @throws IOException              Se ocorrer um erro de escrita.
+     * @throws IllegalArgumentException Se o comando for inválido ou a empresa o recusar.
+     */
+    private String executar(String comando, List<String> argumentos, Writer saida) throws IOException {
+        switch (comando) {
+            case "viatura": {
+                exigirArgumentos(argumentos, 4, "viatura <matricula> <marca> <modelo> <ano>");
+                Viatura viatura = new Viatura(argumentos.get(1), argumentos.get(2), argumentos.get(3),
+                        Integer.parseInt(argumentos.get(4)));
+                if (!empresa.adicionarViatura(viatura)) {
+                    throw new IllegalArgumentException("Limite atingido ou matrícula já registada");
+                }
+                return ServidorApi.viaturaJson(viatura);
+            }
+            case "condutor": {
+                exigirArgumentos(argumentos, 8,
+                        "condutor <id> <nome> <nif> <tel> <morada> <cartaoCid> <cartaCond> <segSocial>");
+                Condutor condutor = new Condutor(Integer.parseInt(argumentos.get(1)), argumentos.get(2),
+                        Integer.parseInt(argumentos.get(3)), Integer.parseInt(argumentos.get(4)), argumentos.get(5),
+                        Integer.parseInt(argumentos.get(6)), argumentos.get(7), Integer.parseInt(argumentos.get(8)));
+                if (!empresa.adicionarCondutor(condutor)) {
+                    throw new IllegalArgumentException("Limite atingido ou condutor já registado");
+                }
+                return ServidorApi.condutorJson(condutor);
+            }
+            case "cliente": {
+                exigirArgumentos(argumentos, 5, "cliente <nome> <nif> <tel> <morada> <cartaoCid>");
+                Cliente cliente = new Cliente(argumentos.get(1), Integer.parseInt(argumentos.get(2)),
+                        Integer.parseInt(argumentos.get(3)), argumentos.get(4), Integer.parseInt(argumentos.get(5)));
+                if (!empresa.adicionarCliente(cliente)) {
+                    throw new IllegalArgumentException("Limite atingido ou cliente já registado");
+                }
+                return ServidorApi.clienteJson(cliente);
+            }
+            case "viagem": {
+                exigirArgumentos(argumentos, 9,
+                        "viagem <idCondutor> <nif> <matricula> <inicio> <fim> <origem> <destino> <kms> <custo>");
+                Viagem viagem = new Viagem(condutorExistente(argumentos.get(1)), clienteExistente(argumentos.get(2)),
+                        viaturaExistente(argumentos.get(3)), LocalDateTime.parse(argumentos.get(4)),
+                        LocalDateTime.parse(argumentos.get(5)), argumentos.get(6), argumentos.get(7),
+                        Double.parseDouble(argumentos.get(8)), Double.parseDouble(argumentos.get(9)));
+                if (!empresa.adicionarViagem(viagem)) {
+                    throw new IllegalArgumentException("Condutor ou viatura ocupados neste horário, ou limite atingido");
+                }
+                return ServidorApi.viagemJson(viagem);
+            }
+            case "reserva": {
+                exigirArgumentos(argumentos, 5, "reserva <nif> <inicio> <origem> <destino> <kms>");
+                Reserva reserva = new Reserva(clienteExistente(argumentos.get(1)), LocalDateTime.parse(argumentos.get(2)),
+                        argumentos.get(3), argumentos.get(4), Double.parseDouble(argumentos.get(5)));
+                if (!empresa.adicionarReserva(reserva)) {
+                    throw new IllegalArgumentException("Limite de reservas atingido ou cliente ocupado nesse horário");
+                }
+                return ServidorApi.reservaJson(reserva);
+            }
+            case "converter":
+                return converter(argumentos);
+            case "listar":
+                exigirArgumentos(argumentos, 1, "listar viaturas|condutores|clientes|reservas|viagens");
+                listar(argumentos.get(1), saida);
+                return null;
+            case "relatorio":
+                exigirArgumentos(argumentos, 1, "relatorio <nome> [argumentos]");
+                return relatorio(argumentos);
+            case "gravar":
+                empresa.gravarDados();
+                return null;
+            default:
+                throw new IllegalArgumentException("Comando desconhecido: " + comando);
+        }
+    }
+
+    /**
+     * Converte uma reserva pendente em viagem ({@code converter <nif> <inicio> <idCondutor> <matricula> <custo>}).
+     *
+     * @param argumentos Argumentos do comando.
+     * @return A viagem criada, em JSON.
+     */
+    private String converter(List<String> argumentos) {
+        exigirArgumentos(argumentos, 5, "converter <nif> <inicio> <idCondutor> <matricula> <custo>");
+        int nif = Integer.parseInt(argumentos.get(1));
+        LocalDateTime inicio = LocalDateTime.parse(argumentos.get(2));
+        Reserva reserva = null;
+        for (Reserva candidata : empresa.getReservasDoCliente(nif)) {
+            if (candidata.getDataHoraInicio().equals(inicio)) {
+                reserva = candidata;
+                break;
+            }
+        }
+        if (reserva == null) {
+            throw new IllegalArgumentException("Reserva não encontrada");
+        }
+        Condutor condutor = condutorExistente(argumentos.get(3));
+        Viatura viatura = viaturaExistente(argumentos.get(4));
+        double custo = Double.parseDouble(argumentos.get(5));
+
+        Viagem viagem = empresa.converterReservaEmViagem(reserva, condutor, viatura, custo);
+        if (viagem == null) {
+            throw new IllegalArgumentException("Condutor ou viatura ocupados neste horário");
+        }
+        return ServidorApi.viagemJson(viagem);
+    }
+
+    /**
+     * Escreve uma listagem como o resultado do comando ({@code "resultado":[...]}).
+     * As viagens são percorridas com o cursor da empresa, sem copiar o histórico.
+     *
+     * @param recurso Nome do recurso a listar.
+     * @param saida   Destino dos resultados.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    private void listar(String recurso, Writer saida) throws IOException {
+        switch (recurso) {
+            case "viaturas" -> escreverLista(saida, empresa.getViaturas(), ServidorApi::viaturaJson);
+            case "condutores" -> escreverLista(saida, empresa.getCondutores(), ServidorApi::condutorJson);
+            case "clientes" -> escreverLista(saida, empresa.getClientes(), ServidorApi::clienteJson);
+            case "reservas" -> escreverLista(saida, empresa.getReservas(), ServidorApi::reservaJson);
+            case "viagens" -> {
+                saida.write(",\"resultado\":[");
+                boolean[] primeira = {true};
+                empresa.percorrerViagens(viagem -> true, viagem -> {
+                    try {
+                        if (!primeira[0]) {
+                            saida.write(',');
+                        }
+                        primeira[0] = false;
+                        saida.write(ServidorApi.viagemJson(viagem));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                saida.write(']');
+            }
+            default -> throw new IllegalArgumentException("Listagem desconhecida: " + recurso);
+        }
+    }
+
+    /**
+     * Escreve uma lista como o resultado do comando, elemento a elemento.
+     *
+     * @param saida     Destino dos resultados.
+     * @param elementos Os elementos.
+     * @param conversor Função que converte um elemento em JSON.
+     * @param <T>       Tipo dos elementos.
+     * @throws IOException Se ocorrer um erro de escrita.
+     */
+    private static <T> void escreverLista(Writer saida, List<T> elementos, Function<T, String> conversor)
+            throws IOException {
+        saida.write(",\"resultado\":[");
+        for (int i = 0; i < elementos.size(); i++) {
+            if (i > 0) {
+                saida.write(',');
+            }
+            saida.write(conversor.apply(elementos.get(i)));
+        }
+        saida.write(']');
+    }
+
+    /**
+     * Calcula um relatório (os nomes e os resultados são os mesmos de {@code /estatisticas} na API).
+     *
+     * @param argumentos Argumentos do comando.
+     * @return O resultado em JSON.
+     */
+    private String relatorio(List<String> argumentos) {
+        switch (argumentos.get(1)) {
+            case "faturacao":
+                exigirArgumentos(argumentos, 4, "relatorio faturacao <idCondutor> <inicio> <fim>");
+                double total = empresa.calcularFaturacaoCondutor(Integer.parseInt(argumentos.get(2)),
+                        LocalDateTime.parse(argumentos.get(3)), LocalDateTime.parse(argumentos.get(4)));
+                return "{\"total\":" + Json.numero(total) + "}";
+            case "distancia-media":
+                exigirArgumentos(argumentos, 3, "relatorio distancia-media <inicio> <fim>");
+                double media = empresa.calcularDistanciaMedia(
+                        LocalDateTime.parse(argumentos.get(2)), LocalDateTime.parse(argumentos.get(3)));
+                return "{\"media\":" + Json.numero(media) + "}";
+            case "destino-mais-solicitado":
+                exigirArgumentos(argumentos, 3, "relatorio destino-mais-solicitado <inicio> <fim>");
+                String destino = empresa.getDestinoMaisSolicitado(
+                        LocalDateTime.parse(argumentos.get(2)), LocalDateTime.parse(argumentos.get(3)));
+                return "{\"destino\":" + Json.texto(destino) + "}";
+            case "clientes-por-viatura":
+                exigirArgumentos(argumentos, 2, "relatorio clientes-por-viatura <matricula>");
+                return Json.lista(empresa.getClientesPorViatura(argumentos.get(2)), ServidorApi::clienteJson);
+            case "clientes-por-kms":
+                exigirArgumentos(argumentos, 3, "relatorio clientes-por-kms <min> <max>");
+                return Json.lista(empresa.getClientesPorIntervaloKms(Double.parseDouble(argumentos.get(2)),
+                        Double.parseDouble(argumentos.get(3))), ServidorApi::clienteJson);
+            case "kms-cliente":
+                exigirArgumentos(argumentos, 2, "relatorio kms-cliente <nif>");
+                double kms = empresa.calcularTotalKmsCliente(Integer.parseInt(argumentos.get(2)));
+                return "{\"kms\":" + Json.numero(kms) + "}";
+            case "ranking-destinos":
+                exigirArgumentos(argumentos, 3, "relatorio ranking-destinos <inicio> <fim>");
+                return ServidorApi.rankingDestinosJson(empresa.instantaneo(),
+                        LocalDateTime.parse(argumentos.get(2)), LocalDateTime.parse(argumentos.get(3)));
+            case "faturacao-condutores":
+                exigirArgumentos(argumentos, 3, "relatorio faturacao-condutores <inicio> <fim>");
+                return ServidorApi.faturacaoCondutoresJson(empresa.instantaneo(),
+                        LocalDateTime.parse(argumentos.get(2)), LocalDateTime.parse(argumentos.get(3)));
+            case "resumo-diario":
+                exigirArgumentos(argumentos, 4, "relatorio resumo-diario condutor|viatura|destino <inicio> <fim>");
+                return ServidorApi.resumosJson(empresa.getVistaDiaria().getResumos(
+                        ServidorApi.dimensao(argumentos.get(2)),
+                        LocalDateTime.parse(argumentos.get(3)).toLocalDate(),
+                        LocalDateTime.parse(argumentos.get(4)).toLocalDate()));
+            default:
+                throw new IllegalArgumentException("Relatório desconhecido: " + argumentos.get(1));
+        }
+    }
+
+    /**
+     * Verifica o número de argumentos de um comando.
+     *
+     * @param argumentos Argumentos, incluindo o nome do comando.
+     * @param quantidade Número mínimo de argumentos (sem contar o nome).
+     * @param utilizacao Sintaxe do comando, para a mensagem de erro.
+     * @throws IllegalArgumentException Se faltarem argumentos.
+     */
+    private static void exigirArgumentos(List<String> argumentos, int quantidade, String utilizacao) {
+        if (argumentos.size() - 1 < quantidade) {
+            throw new IllegalArgumentException("Utilização: " + utilizacao);
+        }
+    }
+
+    /**
+     * Procura um condutor que tem de existir.
+     *
+     * @param id Número de identificação (texto).
+     * @return O condutor.
+     */
+    private Condutor condutorExistente(String id) {
+        Condutor condutor = empresa.procurarCondutorPorId(Integer.parseInt(id));
+        if (condutor == null) {
+            throw new IllegalArgumentException("Condutor não encontrado: " + id);
+        }
+        return condutor;
+    }
+
+    /**
+     * Procura um cliente que tem de existir.
+     *
+     * @param nif NIF do cliente (texto).
+     * @return O cliente.
+     */
+    private Cliente clienteExistente(String nif) {
+        Cliente cliente = empresa.procurarCliente(Integer.parseInt(nif));
+        if (cliente == null) {
+            throw new IllegalArgumentException("Cliente não encontrado: " + nif);
+        }
+        return cliente;
+    }
+
+    /**
+     * Procura uma viatura que tem de existir.
+     *
+     * @param matricula Matrícula da viatura.
+     * @return A viatura.
+     */
+    private Viatura viaturaExistente(String matricula) {
+        Viatura viatura = empresa.procurarViatura(matricula);
+        if (viatura == null) {
+            throw new IllegalArgumentException("Viatura não encontrada: " + matricula);
+        }
+        return viatura;
+    }
+
+    /**
+     * Separa uma linha de comando nos seus argumentos.
+     * <p>
+     * Os argumentos são separados por espaços; um argumento entre aspas pode conter espaços,
+     * e dentro das aspas {@code \"} representa uma aspa e {@code \\} uma barra.
+     * </p>
+     *
+     * @param linha A linha (não vazia).
+     * @return Os argumentos.
+     * @throws IllegalArgumentException Se faltar fechar as aspas.
+     */
+    private static List<String> separar(String linha) {
+        List<String> argumentos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean emAspas = false;
+        boolean temArgumento = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (emAspas) {
+                if (c == '\\' && i + 1 < linha.length()) {
+                    atual.append(linha.charAt(++i));
+                } else if (c == '"') {
+                    emAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                emAspas = true;
+                temArgumento = true;
+            } else if (Character.isWhitespace(c)) {
+                if (temArgumento) {
+                    argumentos.add(atual.toString());
+                    atual.setLength(0);
+                    temArgumento = false;
+                }
+            } else {
+                atual.append(c);
+                temArgumento = true;
+            }
+        }
+        if (emAspas) {
+            throw new IllegalArgumentException("Aspas por fechar");
+        }
+        if (temArgumento) {
+            argumentos.add(atual.toString());
+        }
+        return argumentos;
+    }
+}
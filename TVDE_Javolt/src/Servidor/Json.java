@@ -0,0 +1,279 @@
+package Servidor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Funções mínimas de leitura e escrita de JSON usadas pela API HTTP.
+ * <p>
+ * A API só troca objetos simples (campos de texto, números e booleanos) e listas desses
+ * objetos, pelo que não é necessária uma biblioteca externa. A leitura aceita apenas
+ * objetos "planos": um valor que seja outro objeto ou lista é rejeitado.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public final class Json {
+
+    /**
+     * Classe utilitária: não deve ser instanciada.
+     */
+    private Json() {
+    }
+
+    /**
+     * Converte um texto num literal JSON (entre aspas e com os caracteres especiais escapados).
+     *
+     * @param valor O texto (pode ser {@code null}).
+     * @return O literal JSON (o literal {@code null} se o valor for nulo).
+     */
+    public static String texto(String valor) {
+        if (valor == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(valor.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Converte um número decimal num literal JSON.
+     *
+     * @param valor O número.
+     * @return O literal JSON ({@code null} se o número não for finito).
+     */
+    public static String numero(double valor) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            return "null";
+        }
+        if (valor == Math.rint(valor) && Math.abs(valor) < 1e15) {
+            return Long.toString((long) valor);
+        }
+        return Double.toString(valor);
+    }
+
+    /**
+     * Converte uma lista num array JSON, usando uma função para converter cada elemento.
+     *
+     * @param elementos  Os elementos.
+     * @param conversor  Função que converte um elemento em JSON.
+     * @param <T>        Tipo dos elementos.
+     * @return O array JSON.
+     */
+    public static <T> String lista(List<T> elementos, Function<T, String> conversor) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < elementos.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(conversor.apply(elementos.get(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Lê um objeto JSON plano.
+     * <p>
+     * Os valores são devolvidos como texto: as strings já sem aspas nem escapes, e os
+     * números e booleanos tal como aparecem. O valor {@code null} é devolvido como {@code null}.
+     * </p>
+     *
+     * @param json O texto JSON.
+     * @return Os campos do objeto, pela ordem em que aparecem.
+     * @throws IllegalArgumentException se o texto não for um objeto JSON plano válido.
+     */
+    public static Map<String, String> lerObjeto(String json) {
+        Leitor leitor = new Leitor(json);
+        Map<String, String> campos = new LinkedHashMap<>();
+
+        leitor.esperar('{');
+        if (!leitor.consumirSe('}')) {
+            do {
+                String nome = leitor.lerTexto();
+                leitor.esperar(':');
+                campos.put(nome, leitor.lerValor());
+            } while (leitor.consumirSe(','));
+            leitor.esperar('}');
+        }
+        leitor.esperarFim();
+        return campos;
+    }
+
+    /**
+     * Leitor sequencial de um texto JSON.
+     */
+    private static final class Leitor {
+
+        /**
+         * O texto a ler.
+         */
+        private final String json;
+
+        /**
+         * Posição atual no texto.
+         */
+        private int posicao;
+
+        /**
+         * Construtor do leitor.
+         *
+         * @param json O texto a ler.
+         */
+        private Leitor(String json) {
+            this.json = json;
+        }
+
+        /**
+         * Avança sobre espaços em branco.
+         */
+        private void saltarEspacos() {
+            while (posicao < json.length() && Character.isWhitespace(json.charAt(posicao))) {
+                posicao++;
+            }
+        }
+
+        /**
+         * Consome o carácter indicado, se for o próximo.
+         *
+         * @param c O carácter esperado.
+         * @return {@code true} se foi consumido.
+         */
+        private boolean consumirSe(char c) {
+            saltarEspacos();
+            if (posicao < json.length() && json.charAt(posicao) == c) {
+                posicao++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Consome o carácter indicado, que tem de ser o próximo.
+         *
+         * @param c O carácter esperado.
+         */
+        private void esperar(char c) {
+            if (!consumirSe(c)) {
+                throw erro("esperado '" + c + "'");
+            }
+        }
+
+        /**
+         * Garante que não há mais nada depois do objeto.
+         */
+        private void esperarFim() {
+            saltarEspacos();
+            if (posicao != json.length()) {
+                throw erro("conteúdo inesperado após o objeto");
+            }
+        }
+
+        /**
+         * Lê um valor simples (texto, número, booleano ou null).
+         *
+         * @return O valor em texto, ou {@code null}.
+         */
+        private String lerValor() {
+            saltarEspacos();
+            if (posicao >= json.length()) {
+                throw erro("valor em falta");
+            }
+            char c = json.charAt(posicao);
+            if (c == '"') {
+                return lerTexto();
+            }
+            if (c == '{' || c == '[') {
+                throw erro("só são aceites valores simples");
+            }
+            int inicio = posicao;
+            while (posicao < json.length() && ",} \t\r\n".indexOf(json.charAt(posicao)) < 0) {
+                posicao++;
+            }
+            String literal = json.substring(inicio, posicao);
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (!literal.equals("true") && !literal.equals("false")
+                    && !literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                throw erro("valor inválido '" + literal + "'");
+            }
+            return literal;
+        }
+
+        /**
+         * Lê uma string JSON, resolvendo os escapes.
+         *
+         * @return O texto sem aspas.
+         */
+        private String lerTexto() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (posicao < json.length()) {
+                char c = json.charAt(posicao++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (posicao >= json.length()) {
+                    break;
+                }
+                char escape = json.charAt(posicao++);
+                switch (escape) {
+                    case '"', '\\', '/' -> sb.append(escape);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (posicao + 4 > json.length()) {
+                            throw erro("escape unicode incompleto");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(json.substring(posicao, posicao + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw erro("escape unicode inválido");
+                        }
+                        posicao += 4;
+                    }
+                    default -> throw erro("escape inválido '\\" + escape + "'");
+                }
+            }
+            throw erro("texto não terminado");
+        }
+
+        /**
+         * Cria a exceção de erro de leitura, indicando a posição.
+         *
+         * @param mensagem Descrição do problema.
+         * @return A exceção.
+         */
+        private IllegalArgumentException erro(String mensagem) {
+            return new IllegalArgumentException("JSON inválido (posição " + posicao + "): " + mensagem);
+        }
+    }
+}
@@ -0,0 +1,1478 @@
+package Servidor;
+
+import Entidades.Cliente;
+import Entidades.Condutor;
+import Entidades.Reserva;
+import Entidades.Viagem;
+import Entidades.Viatura;
+import Estatisticas.VistaDiaria;
+import Gestao.Empresa;
+import Gestao.Instantaneo;
+import Gestao.Metricas;
+import Gestao.Plataforma;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP/JSON embutida sobre as empresas de uma {@link Plataforma}.
+ * <p>
+ * Usa o servidor HTTP do JDK ({@code com.sun.net.httpserver}) com uma thread virtual por pedido,
+ * pelo que milhares de pedidos simultâneos não ocupam milhares de threads do sistema. Cada pedido
+ * é depois executado no executor da empresa a que se refere (ver {@link Plataforma#executar}).
+ * </p>
+ * <p>
+ * Recursos disponíveis (as datas usam o formato ISO, ex: {@code 2026-01-31T14:30}):
+ * <ul>
+ *   <li>{@code GET|POST /empresas}</li>
+ *   <li>{@code GET|POST /empresas/{empresa}/viaturas} e {@code GET|PUT|DELETE .../viaturas/{matricula}}</li>
+ *   <li>{@code GET|POST /empresas/{empresa}/condutores} e {@code GET|PUT|DELETE .../condutores/{id}}</li>
+ *   <li>{@code GET|POST /empresas/{empresa}/clientes} e {@code GET|PUT|DELETE .../clientes/{nif}}</li>
+ *   <li>{@code GET|POST /empresas/{empresa}/reservas[?nif=|?proximas=]},
+ *       {@code GET|PUT|DELETE .../reservas/{nif}/{dataHora}} e
+ *       {@code POST .../reservas/{nif}/{dataHora}/conversao}</li>
+ *   <li>{@code GET|POST /empresas/{empresa}/viagens[?nif=&inicio=&fim=][&desde=&limite=]} e
+ *       {@code GET|DELETE .../viagens/{idCondutor}/{dataHora}} (a listagem é paginada: {@code desde}
+ *       é a posição da primeira viagem, 0 por defeito, e {@code limite} o número máximo de viagens,
+ *       {@value #LIMITE_PADRAO} por defeito e no máximo {@value #LIMITE_MAXIMO})</li>
+ *   <li>{@code GET /empresas/{empresa}/disponibilidade/{condutores|viaturas|clientes}?inicio=&fim=}</li>
+ *   <li>{@code GET /empresas/{empresa}/estatisticas/{faturacao|distancia-media|destino-mais-solicitado|
+ *       clientes-por-viatura|clientes-por-kms|kms-cliente|ranking-destinos|faturacao-condutores|resumo-diario}}
+ *       ({@code ranking-destinos} e {@code faturacao-condutores} são calculadas sobre um {@link Instantaneo}
+ *       da empresa; {@code resumo-diario?dimensao=condutor|viatura|destino} lê os resumos diários)</li>
+ *   <li>{@code POST /empresas/{empresa}/gravacao}</li>
+ *   <li>{@code GET /metricas} - métricas de todas as empresas, no formato de texto do Prometheus
+ *       (só têm valores com {@code -Djavolt.metricas=true}, ver {@link Metricas})</li>
+ * </ul>
+ * Reservas e viagens não têm identificador próprio: são identificadas pelo cliente (reservas)
+ * ou pelo condutor (viagens) e pela data/hora de início.
+ * </p>
+ *
+ * @author Grupo 1 - Javolt (Levi, Sara, Leonardo, Micael)
+ * @version 1.0
+ * @since 2026-10-19
+ */
+public class ServidorApi implements AutoCloseable {
+
+    /**
+     * Tamanho máximo aceite para o corpo de um pedido (em bytes).
+     */
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+
+    /**
+     * Número máximo de ligações pendentes à espera de serem aceites.
+     */
+    private static final int LIGACOES_PENDENTES = 1024;
+
+    /**
+     * Número de viagens devolvidas por página quando o pedido não indica {@code limite}.
+     */
+    private static final int LIMITE_PADRAO = 100;
+
+    /**
+     * Número máximo de viagens devolvidas numa página.
+     */
+    private static final int LIMITE_MAXIMO = 1000;
+
+    /**
+     * Porta usada quando nenhuma é indicada na linha de comandos.
+     */
+    public static final int PORTA_PADRAO = 8080;
+
+    /**
+     * Tipo de conteúdo das respostas JSON.
+     */
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+
+    /**
+     * Tipo de conteúdo do formato de texto do Prometheus.
+     */
+    private static final String TIPO_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    static {
+        // O servidor do JDK deixa o algoritmo de Nagle ativo por omissão: com os ACKs atrasados do
+        // cliente, cada resposta numa ligação keep-alive esperava ~40 ms. Só se ainda não foi configurado.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * As empresas servidas pela API.
+     */
+    private final Plataforma plataforma;
+
+    /**
+     * Servidor HTTP do JDK.
+     */
+    private final HttpServer servidor;
+
+    /**
+     * Executor com uma thread virtual por pedido.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Cria o servidor (ainda parado) associado à porta indicada.
+     *
+     * @param plataforma A plataforma com as empresas a expor.
+     * @param porta      Porta TCP (0 escolhe uma porta livre).
+     * @throws IOException Se não for possível abrir a porta.
+     */
+    public ServidorApi(Plataforma plataforma, int porta) throws IOException {
+        this.plataforma = plataforma;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor = HttpServer.create(new InetSocketAddress(porta), LIGACOES_PENDENTES);
+        this.servidor.createContext("/", this::tratarPedido);
+        this.servidor.setExecutor(executor);
+    }
+
+    /**
+     * Arranca a API a partir dos argumentos da linha de comandos: {@code --api [porta]}
+     * (sem porta, usa a {@link #PORTA_PADRAO}).
+     *
+     * @param args Argumentos a seguir a {@code --api}.
+     * @return Código de saída: 0 se a API arrancou, 2 em caso de erro de utilização.
+     * @throws IOException Se não for possível abrir a porta.
+     */
+    public static int arrancar(String[] args) throws IOException {
+        int porta = PORTA_PADRAO;
+        if (args.length > 1) {
+            porta = -1;
+        } else if (args.length == 1) {
+            try {
+                porta = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                porta = -1;
+            }
+        }
+        if (porta < 0 || porta > 65535) {
+            System.err.println("Utilização: --api [porta] (0 a 65535, " + PORTA_PADRAO + " por defeito)");
+            return 2;
+        }
+        arrancar(porta);
+        return 0;
+    }
+
+    /**
+     * Arranca a API: carrega todas as empresas numa {@link Plataforma} e começa a aceitar pedidos.
+     * Ao terminar o processo (ex: Ctrl+C), o servidor é parado e os dados de todas as empresas gravados.
+     *
+     * @param porta Porta TCP onde a API fica à escuta.
+     * @throws IOException Se não for possível abrir a porta.
+     */
+    public static void arrancar(int porta) throws IOException {
+        Plataforma plataforma = Plataforma.arrancar(Runtime.getRuntime().availableProcessors());
+        ServidorApi api = new ServidorApi(plataforma, porta);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.close();
+            plataforma.gravarTodas();
+            plataforma.close();
+        }, "Javolt-api-encerramento"));
+
+        api.iniciar();
+        System.out.println("API Javolt à escuta em http://localhost:" + api.getPorta() + "/empresas");
+    }
+
+    /**
+     * Começa a aceitar pedidos.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Obtém a porta em que o servidor está à escuta.
+     *
+     * @return O número da porta.
+     */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Para o servidor, dando até um segundo aos pedidos em curso para terminarem.
+     */
+    @Override
+    public void close() {
+        servidor.stop(1);
+        executor.shutdown();
+    }
+
+    // ==========================================================
+    //                   RECEÇÃO E RESPOSTA
+    // ==========================================================
+
+    /**
+     * Trata um pedido HTTP: encaminha-o e escreve a resposta JSON.
+     *
+     * @param troca O pedido e a respetiva resposta.
+     * @throws IOException Se a ligação falhar.
+     */
+    private void tratarPedido(HttpExchange troca) throws IOException {
+        Resposta resposta;
+        try {
+            Pedido pedido = new Pedido(troca);
+            resposta = encaminhar(pedido);
+        } catch (ErroApi e) {
+            resposta = erro(e.estado, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            resposta = erro(400, e.getMessage());
+        } catch (RuntimeException e) {
+            resposta = erro(500, "Erro interno: " + e);
+        }
+        enviar(troca, resposta);
+    }
+
+    /**
+     * Escreve a resposta e fecha a troca.
+     *
+     * @param troca    A troca HTTP.
+     * @param resposta A resposta a enviar.
+     * @throws IOException Se a ligação falhar.
+     */
+    private static void enviar(HttpExchange troca, Resposta resposta) throws IOException {
+        try (troca) {
+            if (resposta.corpo == null) {
+                troca.sendResponseHeaders(resposta.estado, -1);
+                return;
+            }
+            byte[] bytes = resposta.corpo.getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", resposta.tipo);
+            troca.sendResponseHeaders(resposta.estado, bytes.length);
+            try (OutputStream out = troca.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Encaminha o pedido para a empresa e recurso indicados no caminho.
+     *
+     * @param pedido O pedido.
+     * @return A resposta.
+     */
+    private Resposta encaminhar(Pedido pedido) {
+        List<String> partes = pedido.partes;
+        if (partes.size() == 1 && partes.get(0).equals("metricas")) {
+            return tratarMetricas(pedido);
+        }
+        if (partes.isEmpty() || !partes.get(0).equals("empresas")) {
+            throw new ErroApi(404, "Recurso não encontrado");
+        }
+        if (partes.size() == 1) {
+            return tratarEmpresas(pedido);
+        }
+
+        String nomeEmpresa = partes.get(1);
+        if (plataforma.getEmpresa(nomeEmpresa) == null) {
+            throw new ErroApi(404, "Empresa não encontrada: " + nomeEmpresa);
+        }
+        try {
+            return plataforma.executar(nomeEmpresa, empresa -> tratarRecurso(empresa, pedido)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Trata {@code /empresas}: lista as empresas ou regista uma nova.
+     *
+     * @param pedido O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarEmpresas(Pedido pedido) {
+        switch (pedido.metodo) {
+            case "GET":
+                return ok(Json.lista(new ArrayList<>(plataforma.getNomesEmpresas()), Json::texto));
+            case "POST":
+                String nome = pedido.textoObrigatorio("nome");
+                if (plataforma.registarEmpresa(nome) == null) {
+                    throw new ErroApi(409, "Já existe uma empresa com esse nome");
+                }
+                return criado("{\"nome\":" + Json.texto(nome) + "}");
+            default:
+                throw metodoNaoPermitido();
+        }
+    }
+
+    /**
+     * Trata {@code /metricas}: exporta as métricas de todas as empresas no formato de texto do Prometheus.
+     * Não passa pelo executor das empresas, pelo que responde mesmo quando estas estão ocupadas.
+     *
+     * @param pedido O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarMetricas(Pedido pedido) {
+        if (!pedido.metodo.equals("GET")) {
+            throw metodoNaoPermitido();
+        }
+        List<Metricas> registos = new ArrayList<>();
+        for (String nome : plataforma.getNomesEmpresas()) {
+            Empresa empresa = plataforma.getEmpresa(nome);
+            if (empresa != null) {
+                registos.add(empresa.getMetricas());
+            }
+        }
+        StringBuilder texto = new StringBuilder();
+        try {
+            Metricas.escrever(registos, texto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Um StringBuilder não falha
+        }
+        return new Resposta(200, texto.toString(), TIPO_PROMETHEUS);
+    }
+
+    /**
+     * Trata os recursos de uma empresa ({@code /empresas/{empresa}/...}).
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarRecurso(Empresa empresa, Pedido pedido) {
+        if (pedido.partes.size() < 3) {
+            throw new ErroApi(404, "Recurso não encontrado");
+        }
+        return switch (pedido.partes.get(2)) {
+            case "viaturas" -> tratarViaturas(empresa, pedido);
+            case "condutores" -> tratarCondutores(empresa, pedido);
+            case "clientes" -> tratarClientes(empresa, pedido);
+            case "reservas" -> tratarReservas(empresa, pedido);
+            case "viagens" -> tratarViagens(empresa, pedido);
+            case "disponibilidade" -> tratarDisponibilidade(empresa, pedido);
+            case "estatisticas" -> tratarEstatisticas(empresa, pedido);
+            case "gravacao" -> tratarGravacao(empresa, pedido);
+            default -> throw new ErroApi(404, "Recurso não encontrado: " + pedido.partes.get(2));
+        };
+    }
+
+    // ==========================================================
+    //                        VIATURAS
+    // ==========================================================
+
+    /**
+     * Trata {@code /viaturas} e {@code /viaturas/{matricula}}.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarViaturas(Empresa empresa, Pedido pedido) {
+        if (pedido.partes.size() == 3) {
+            switch (pedido.metodo) {
+                case "GET":
+                    return ok(Json.lista(empresa.getViaturas(), ServidorApi::viaturaJson));
+                case "POST":
+                    Viatura nova = new Viatura(pedido.textoObrigatorio("matricula"), pedido.textoObrigatorio("marca"),
+                            pedido.textoObrigatorio("modelo"), pedido.inteiroObrigatorio("anoFabrico"));
+                    if (!empresa.adicionarViatura(nova)) {
+                        throw new ErroApi(409, "Matrícula já registada ou limite de viaturas atingido");
+                    }
+                    return criado(viaturaJson(nova));
+                default:
+                    throw metodoNaoPermitido();
+            }
+        }
+        pedido.exigirTamanho(4);
+
+        String matricula = pedido.partes.get(3);
+        Viatura viatura = empresa.procurarViatura(matricula);
+        if (viatura == null) {
+            throw new ErroApi(404, "Viatura não encontrada: " + matricula);
+        }
+        switch (pedido.metodo) {
+            case "GET":
+                return ok(viaturaJson(viatura));
+            case "PUT":
+                empresa.alterarRegistos(() -> {
+                    String marca = pedido.texto("marca");
+                    String modelo = pedido.texto("modelo");
+                    Integer ano = pedido.inteiro("anoFabrico");
+                    if (marca != null) {
+                        viatura.setMarca(marca);
+                    }
+                    if (modelo != null) {
+                        viatura.setModelo(modelo);
+                    }
+                    if (ano != null) {
+                        viatura.setAnoFabrico(ano);
+                    }
+                });
+                return ok(viaturaJson(viatura));
+            case "DELETE":
+                if (!empresa.removerViatura(matricula)) {
+                    throw new ErroApi(409, "Viatura associada a viagens");
+                }
+                return semConteudo();
+            default:
+                throw metodoNaoPermitido();
+        }
+    }
+
+    // ==========================================================
+    //                        CONDUTORES
+    // ==========================================================
+
+    /**
+     * Trata {@code /condutores} e {@code /condutores/{id}}.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarCondutores(Empresa empresa, Pedido pedido) {
+        if (pedido.partes.size() == 3) {
+            switch (pedido.metodo) {
+                case "GET":
+                    return ok(Json.lista(empresa.getCondutores(), ServidorApi::condutorJson));
+                case "POST":
+                    int nif = pedido.inteiroObrigatorio("nif");
+                    if (empresa.procurarCondutorPorNif(nif) != null) {
+                        throw new ErroApi(409, "Já existe um condutor com esse NIF");
+                    }
+                    Condutor novo = new Condutor(pedido.inteiroObrigatorio("numeroIdentificacao"),
+                            pedido.textoObrigatorio("nome"), nif, pedido.inteiroObrigatorio("tel"),
+                            pedido.textoObrigatorio("morada"), pedido.inteiroObrigatorio("cartaoCid"),
+                            pedido.textoObrigatorio("cartaCond"), pedido.inteiroObrigatorio("segSocial"));
+                    if (!empresa.adicionarCondutor(novo)) {
+                        throw new ErroApi(409, "Já existe um condutor com esse número de identificação");
+                    }
+                    return criado(condutorJson(novo));
+                default:
+                    throw metodoNaoPermitido();
+            }
+        }
+        pedido.exigirTamanho(4);
+
+        int id = pedido.inteiroDoCaminho(3);
+        Condutor condutor = empresa.procurarCondutorPorId(id);
+        if (condutor == null) {
+            throw new ErroApi(404, "Condutor não encontrado: " + id);
+        }
+        switch (pedido.metodo) {
+            case "GET":
+                return ok(condutorJson(condutor));
+            case "PUT":
+                empresa.alterarRegistos(() -> {
+                    String nome = pedido.texto("nome");
+                    Integer tel = pedido.inteiro("tel");
+                    String morada = pedido.texto("morada");
+                    String cartaCond = pedido.texto("cartaCond");
+                    Integer segSocial = pedido.inteiro("segSocial");
+                    if (nome != null) {
+                        condutor.setNome(nome);
+                    }
+                    if (tel != null) {
+                        condutor.setTel(tel);
+                    }
+                    if (morada != null) {
+                        condutor.setMorada(morada);
+                    }
+                    if (cartaCond != null) {
+                        condutor.setCartaCond(cartaCond);
+                    }
+                    if (segSocial != null) {
+                        condutor.setSegSocial(segSocial);
+                    }
+                });
+                return ok(condutorJson(condutor));
+            case "DELETE":
+                if (!empresa.removerCondutor(id)) {
+                    throw new ErroApi(409, "Condutor possui histórico de viagens");
+                }
+                return semConteudo();
+            default:
+                throw metodoNaoPermitido();
+        }
+    }
+
+    // ==========================================================
+    //                        CLIENTES
+    // ==========================================================
+
+    /**
+     * Trata {@code /clientes} e {@code /clientes/{nif}}.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarClientes(Empresa empresa, Pedido pedido) {
+        if (pedido.partes.size() == 3) {
+            switch (pedido.metodo) {
+                case "GET":
+                    return ok(Json.lista(empresa.getClientes(), ServidorApi::clienteJson));
+                case "POST":
+                    Cliente novo = new Cliente(pedido.textoObrigatorio("nome"), pedido.inteiroObrigatorio("nif"),
+                            pedido.inteiroObrigatorio("tel"), pedido.textoObrigatorio("morada"),
+                            pedido.inteiroObrigatorio("cartaoCid"));
+                    if (!empresa.adicionarCliente(novo)) {
+                        throw new ErroApi(409, "NIF já registado ou limite de clientes atingido");
+                    }
+                    return criado(clienteJson(novo));
+                default:
+                    throw metodoNaoPermitido();
+            }
+        }
+        pedido.exigirTamanho(4);
+
+        int nif = pedido.inteiroDoCaminho(3);
+        Cliente cliente = empresa.procurarCliente(nif);
+        if (cliente == null) {
+            throw new ErroApi(404, "Cliente não encontrado: " + nif);
+        }
+        switch (pedido.metodo) {
+            case "GET":
+                return ok(clienteJson(cliente));
+            case "PUT":
+                empresa.alterarRegistos(() -> {
+                    String nome = pedido.texto("nome");
+                    Integer tel = pedido.inteiro("tel");
+                    String morada = pedido.texto("morada");
+                    if (nome != null) {
+                        cliente.setNome(nome);
+                    }
+                    if (tel != null) {
+                        cliente.setTel(tel);
+                    }
+                    if (morada != null) {
+                        cliente.setMorada(morada);
+                    }
+                });
+                return ok(clienteJson(cliente));
+            case "DELETE":
+                if (!empresa.removerCliente(nif)) {
+                    throw new ErroApi(409, "Cliente possui viagens ou reservas");
+                }
+                return semConteudo();
+            default:
+                throw metodoNaoPermitido();
+        }
+    }
+
+    // ==========================================================
+    //                        RESERVAS
+    // ==========================================================
+
+    /**
+     * Trata {@code /reservas}, {@code /reservas/{nif}/{dataHora}} e a conversão em viagem.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarReservas(Empresa empresa, Pedido pedido) {
+        if (pedido.partes.size() == 3) {
+            switch (pedido.metodo) {
+                case "GET":
+                    String nifFiltro = pedido.parametro("nif");
+                    String proximas = pedido.parametro("proximas");
+                    List<Reserva> reservas;
+                    if (nifFiltro != null) {
+                        reservas = empresa.getReservasDoCliente(Integer.parseInt(nifFiltro));
+                    } else if (proximas != null) {
+                        reservas = empresa.getProximasReservas(LocalDateTime.now(), Integer.parseInt(proximas));
+                    } else {
+                        reservas = empresa.getReservas();
+                    }
+                    return ok(Json.lista(reservas, ServidorApi::reservaJson));
+                case "POST":
+                    Cliente cliente = clienteExistente(empresa, pedido.inteiroObrigatorio("nif"));
+                    Reserva nova = new Reserva(cliente, pedido.dataObrigatoria("dataHoraInicio"),
+                            pedido.textoObrigatorio("moradaOrigem"), pedido.textoObrigatorio("moradaDestino"),
+                            pedido.decimalObrigatorio("kms"));
+                    if (!empresa.adicionarReserva(nova)) {
+                        throw new ErroApi(409, "Limite de reservas atingido ou cliente ocupado nesse horário");
+                    }
+                    return criado(reservaJson(nova));
+                default:
+                    throw metodoNaoPermitido();
+            }
+        }
+        if (pedido.partes.size() != 5 && pedido.partes.size() != 6) {
+            throw new ErroApi(404, "Recurso não encontrado");
+        }
+
+        int nif = pedido.inteiroDoCaminho(3);
+        LocalDateTime inicio = LocalDateTime.parse(pedido.partes.get(4));
+        Reserva reserva = null;
+        for (Reserva candidata : empresa.getReservasDoCliente(nif)) {
+            if (candidata.getDataHoraInicio().equals(inicio)) {
+                reserva = candidata;
+                break;
+            }
+        }
+        if (reserva == null) {
+            throw new ErroApi(404, "Reserva não encontrada");
+        }
+
+        if (pedido.partes.size() == 6) {
+            if (!pedido.partes.get(5).equals("conversao")) {
+                throw new ErroApi(404, "Recurso não encontrado");
+            }
+            if (!pedido.metodo.equals("POST")) {
+                throw metodoNaoPermitido();
+            }
+            return converterReserva(empresa, pedido, reserva);
+        }
+
+        Reserva encontrada = reserva;
+        switch (pedido.metodo) {
+            case "GET":
+                return ok(reservaJson(encontrada));
+            case "PUT":
+                empresa.alterarRegistos(() -> {
+                    // Pode ter sido convertida, expirada ou removida desde que foi encontrada
+                    if (!empresa.isReservaPendente(encontrada)) {
+                        throw new ErroApi(404, "Reserva não encontrada");
+                    }
+                    LocalDateTime data = pedido.data("dataHoraInicio");
+                    String origem = pedido.texto("moradaOrigem");
+                    String destino = pedido.texto("moradaDestino");
+                    Double kms = pedido.decimal("kms");
+                    if (data != null && !empresa.alterarDataReserva(encontrada, data)) {
+                        throw new ErroApi(409, "Cliente ocupado nesse horário");
+                    }
+                    if (origem != null) {
+                        encontrada.setMoradaOrigem(origem);
+                    }
+                    if (destino != null) {
+                        encontrada.setMoradaDestino(destino);
+                    }
+                    if (kms != null) {
+                        encontrada.setKms(kms);
+                    }
+                });
+                return ok(reservaJson(encontrada));
+            case "DELETE":
+                if (!empresa.removerReserva(encontrada)) {
+                    throw new ErroApi(404, "Reserva não encontrada");
+                }
+                return semConteudo();
+            default:
+                throw metodoNaoPermitido();
+        }
+    }
+
+    /**
+     * Converte uma reserva numa viagem com o condutor e a viatura indicados no corpo.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido (numeroIdentificacao, matricula e custo).
+     * @param reserva A reserva a converter.
+     * @return A resposta com a viagem criada.
+     */
+    private Resposta converterReserva(Empresa empresa, Pedido pedido, Reserva reserva) {
+        Condutor condutor = condutorExistente(empresa, pedido.inteiroObrigatorio("numeroIdentificacao"));
+        Viatura viatura = viaturaExistente(empresa, pedido.textoObrigatorio("matricula"));
+        double custo = pedido.decimalObrigatorio("custo");
+
+        Viagem viagem = empresa.converterReservaEmViagem(reserva, condutor, viatura, custo);
+        if (viagem == null) {
+            throw new ErroApi(409, "Condutor ou viatura ocupados neste horário");
+        }
+        return criado(viagemJson(viagem));
+    }
+
+    // ==========================================================
+    //                         VIAGENS
+    // ==========================================================
+
+    /**
+     * Trata {@code /viagens} e {@code /viagens/{idCondutor}/{dataHora}}.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta.
+     */
+    private Resposta tratarViagens(Empresa empresa, Pedido pedido) {
+        if (pedido.partes.size() == 3) {
+            switch (pedido.metodo) {
+                case "GET":
+                    String nif = pedido.parametro("nif");
+                    List<Viagem> viagens = nif == null
+                            ? empresa.instantaneo().getViagens()
+                            : empresa.getViagensClientePorDatas(Integer.parseInt(nif),
+                            pedido.parametroData("inicio", LocalDateTime.MIN),
+                            pedido.parametroData("fim", LocalDateTime.MAX));
+                    return ok(Json.lista(pagina(viagens, pedido), ServidorApi::viagemJson));
+                case "POST":
+                    Viagem nova = new Viagem(
+                            condutorExistente(empresa, pedido.inteiroObrigatorio("numeroIdentificacao")),
+                            clienteExistente(empresa, pedido.inteiroObrigatorio("nif")),
+                            viaturaExistente(empresa, pedido.textoObrigatorio("matricula")),
+                            pedido.dataObrigatoria("dataHoraInicio"), pedido.dataObrigatoria("dataHoraFim"),
+                            pedido.textoObrigatorio("moradaOrigem"), pedido.textoObrigatorio("moradaDestino"),
+                            pedido.decimalObrigatorio("kms"), pedido.decimalObrigatorio("custo"));
+                    if (!empresa.adicionarViagem(nova)) {
+                        throw new ErroApi(409, "Condutor ou viatura ocupados neste horário, ou limite atingido");
+                    }
+                    return criado(viagemJson(nova));
+                default:
+                    throw metodoNaoPermitido();
+            }
+        }
+        pedido.exigirTamanho(5);
+
+        int id = pedido.inteiroDoCaminho(3);
+        LocalDateTime inicio = LocalDateTime.parse(pedido.partes.get(4));
+        Viagem viagem = empresa.procurarViagem(id, inicio);
+        if (viagem == null) {
+            throw new ErroApi(404, "Viagem não encontrada");
+        }
+        switch (pedido.metodo) {
+            case "GET":
+                return ok(viagemJson(viagem));
+            case "DELETE":
+                if (!empresa.removerViagens(viagem)) {
+                    throw new ErroApi(404, "Viagem não encontrada");
+                }
+                return semConteudo();
+            default:
+                throw metodoNaoPermitido();
+        }
+    }
+
+    /**
+     * Obtém a página de uma listagem indicada pelos parâmetros {@code desde} e {@code limite}, sem copiar a lista.
+     *
+     * @param itens  A listagem completa.
+     * @param pedido O pedido.
+     * @param <T>    Tipo dos itens.
+     * @return Os itens da página.
+     */
+    private static <T> List<T> pagina(List<T> itens, Pedido pedido) {
+        String desdeTexto = pedido.parametro("desde");
+        String limiteTexto = pedido.parametro("limite");
+        int desde = desdeTexto == null ? 0 : Pedido.converterInteiro("desde", desdeTexto);
+        int limite = limiteTexto == null ? LIMITE_PADRAO : Pedido.converterInteiro("limite", limiteTexto);
+        if (desde < 0) {
+            throw new IllegalArgumentException("'desde' não pode ser negativo");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("'limite' deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        int inicio = Math.min(desde, itens.size());
+        return itens.subList(inicio, (int) Math.min((long) inicio + limite, itens.size()));
+    }
+
+    // ==========================================================
+    //               DISPONIBILIDADE E ESTATÍSTICAS
+    // ==========================================================
+
+    /**
+     * Trata {@code /disponibilidade/{tipo}?inicio=&fim=}.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta com os recursos livres no intervalo.
+     */
+    private Resposta tratarDisponibilidade(Empresa empresa, Pedido pedido) {
+        pedido.exigirTamanho(4);
+        if (!pedido.metodo.equals("GET")) {
+            throw metodoNaoPermitido();
+        }
+        LocalDateTime inicio = pedido.parametroDataObrigatorio("inicio");
+        LocalDateTime fim = pedido.parametroDataObrigatorio("fim");
+
+        return switch (pedido.partes.get(3)) {
+            case "condutores" -> ok(Json.lista(empresa.getCondutoresDisponiveis(inicio, fim), ServidorApi::condutorJson));
+            case "viaturas" -> ok(Json.lista(empresa.getViaturasDisponiveis(inicio, fim), ServidorApi::viaturaJson));
+            case "clientes" -> ok(Json.lista(empresa.getClientesDisponiveis(inicio, fim), ServidorApi::clienteJson));
+            default -> throw new ErroApi(404, "Recurso não encontrado: " + pedido.partes.get(3));
+        };
+    }
+
+    /**
+     * Trata {@code /estatisticas/{nome}}, com os parâmetros de cada estatística na query.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return A resposta com o resultado.
+     */
+    private Resposta tratarEstatisticas(Empresa empresa, Pedido pedido) {
+        pedido.exigirTamanho(4);
+        if (!pedido.metodo.equals("GET")) {
+            throw metodoNaoPermitido();
+        }
+        switch (pedido.partes.get(3)) {
+            case "faturacao":
+                double total = empresa.calcularFaturacaoCondutor(pedido.parametroInteiro("condutor"),
+                        pedido.parametroData("inicio", LocalDateTime.MIN), pedido.parametroData("fim", LocalDateTime.MAX));
+                return ok("{\"total\":" + Json.numero(total) + "}");
+            case "distancia-media":
+                double media = empresa.calcularDistanciaMedia(
+                        pedido.parametroData("inicio", LocalDateTime.MIN), pedido.parametroData("fim", LocalDateTime.MAX));
+                return ok("{\"media\":" + Json.numero(media) + "}");
+            case "destino-mais-solicitado":
+                String destino = empresa.getDestinoMaisSolicitado(
+                        pedido.parametroData("inicio", LocalDateTime.MIN), pedido.parametroData("fim", LocalDateTime.MAX));
+                return ok("{\"destino\":" + Json.texto(destino) + "}");
+            case "clientes-por-viatura":
+                return ok(Json.lista(empresa.getClientesPorViatura(pedido.parametroObrigatorio("matricula")),
+                        ServidorApi::clienteJson));
+            case "clientes-por-kms":
+                return ok(Json.lista(empresa.getClientesPorIntervaloKms(
+                        Double.parseDouble(pedido.parametroObrigatorio("min")),
+                        Double.parseDouble(pedido.parametroObrigatorio("max"))), ServidorApi::clienteJson));
+            case "kms-cliente":
+                double kms = empresa.calcularTotalKmsCliente(pedido.parametroInteiro("nif"));
+                return ok("{\"kms\":" + Json.numero(kms) + "}");
+            case "ranking-destinos":
+                return ok(rankingDestinosJson(empresa.instantaneo(),
+                        pedido.parametroData("inicio", LocalDateTime.MIN), pedido.parametroData("fim", LocalDateTime.MAX)));
+            case "faturacao-condutores":
+                return ok(faturacaoCondutoresJson(empresa.instantaneo(),
+                        pedido.parametroData("inicio", LocalDateTime.MIN), pedido.parametroData("fim", LocalDateTime.MAX)));
+            case "resumo-diario":
+                return ok(resumosJson(empresa.getVistaDiaria().getResumos(
+                        dimensao(pedido.parametroObrigatorio("dimensao")),
+                        pedido.parametroData("inicio", LocalDateTime.MIN).toLocalDate(),
+                        pedido.parametroData("fim", LocalDateTime.MAX).toLocalDate())));
+            default:
+                throw new ErroApi(404, "Estatística não encontrada: " + pedido.partes.get(3));
+        }
+    }
+
+    /**
+     * Trata {@code POST /gravacao}: grava os dados da empresa nos ficheiros.
+     *
+     * @param empresa A empresa.
+     * @param pedido  O pedido.
+     * @return Resposta sem conteúdo.
+     */
+    private Resposta tratarGravacao(Empresa empresa, Pedido pedido) {
+        pedido.exigirTamanho(3);
+        if (!pedido.metodo.equals("POST")) {
+            throw metodoNaoPermitido();
+        }
+        empresa.gravarDados();
+        return semConteudo();
+    }
+
+    // ==========================================================
+    //                   PESQUISAS OBRIGATÓRIAS
+    // ==========================================================
+
+    /**
+     * Procura um condutor que tem de existir.
+     *
+     * @param empresa A empresa.
+     * @param id      Número de identificação.
+     * @return O condutor.
+     */
+    private static Condutor condutorExistente(Empresa empresa, int id) {
+        Condutor condutor = empresa.procurarCondutorPorId(id);
+        if (condutor == null) {
+            throw new ErroApi(404, "Condutor não encontrado: " + id);
+        }
+        return condutor;
+    }
+
+    /**
+     * Procura um cliente que tem de existir.
+     *
+     * @param empresa A empresa.
+     * @param nif     NIF do cliente.
+     * @return O cliente.
+     */
+    private static Cliente clienteExistente(Empresa empresa, int nif) {
+        Cliente cliente = empresa.procurarCliente(nif);
+        if (cliente == null) {
+            throw new ErroApi(404, "Cliente não encontrado: " + nif);
+        }
+        return cliente;
+    }
+
+    /**
+     * Procura uma viatura que tem de existir.
+     *
+     * @param empresa   A empresa.
+     * @param matricula Matrícula da viatura.
+     * @return A viatura.
+     */
+    private static Viatura viaturaExistente(Empresa empresa, String matricula) {
+        Viatura viatura = empresa.procurarViatura(matricula);
+        if (viatura == null) {
+            throw new ErroApi(404, "Viatura não encontrada: " + matricula);
+        }
+        return viatura;
+    }
+
+    // ==========================================================
+    //                     CONVERSÃO PARA JSON
+    // ==========================================================
+
+    /**
+     * Converte uma viatura em JSON.
+     *
+     * @param v A viatura.
+     * @return O objeto JSON.
+     */
+    static String viaturaJson(Viatura v) {
+        return "{\"matricula\":" + Json.texto(v.getMatricula())
+                + ",\"marca\":" + Json.texto(v.getMarca())
+                + ",\"modelo\":" + Json.texto(v.getModelo())
+                + ",\"anoFabrico\":" + v.getAnoFabrico() + "}";
+    }
+
+    /**
+     * Converte um condutor em JSON.
+     *
+     * @param c O condutor.
+     * @return O objeto JSON.
+     */
+    static String condutorJson(Condutor c) {
+        return "{\"numeroIdentificacao\":" + c.getNumeroIdentificacao()
+                + ",\"nome\":" + Json.texto(c.getNome())
+                + ",\"nif\":" + c.getNif()
+                + ",\"tel\":" + c.getTel()
+                + ",\"morada\":" + Json.texto(c.getMorada())
+                + ",\"cartaoCid\":" + c.getCartaoCid()
+                + ",\"cartaCond\":" + Json.texto(c.getCartaCond())
+                + ",\"segSocial\":" + c.getSegSocial() + "}";
+    }
+
+    /**
+     * Converte um cliente em JSON.
+     *
+     * @param c O cliente.
+     * @return O objeto JSON.
+     */
+    static String clienteJson(Cliente c) {
+        return "{\"nome\":" + Json.texto(c.getNome())
+                + ",\"nif\":" + c.getNif()
+                + ",\"tel\":" + c.getTel()
+                + ",\"morada\":" + Json.texto(c.getMorada())
+                + ",\"cartaoCid\":" + c.getCartaoCid() + "}";
+    }
+
+    /**
+     * Converte uma reserva em JSON.
+     *
+     * @param r A reserva.
+     * @return O objeto JSON.
+     */
+    static String reservaJson(Reserva r) {
+        return "{\"nif\":" + r.getCliente().getNif()
+                + ",\"cliente\":" + Json.texto(r.getCliente().getNome())
+                + ",\"dataHoraInicio\":" + Json.texto(r.getDataHoraInicio().toString())
+                + ",\"moradaOrigem\":" + Json.texto(r.getMoradaOrigem())
+                + ",\"moradaDestino\":" + Json.texto(r.getMoradaDestino())
+                + ",\"kms\":" + Json.numero(r.getKms()) + "}";
+    }
+
+    /**
+     * Converte uma viagem em JSON.
+     *
+     * @param v A viagem.
+     * @return O objeto JSON.
+     */
+    static String viagemJson(Viagem v) {
+        return "{\"numeroIdentificacao\":" + v.getCondutor().getNumeroIdentificacao()
+                + ",\"condutor\":" + Json.texto(v.getCondutor().getNome())
+                + ",\"nif\":" + v.getCliente().getNif()
+                + ",\"cliente\":" + Json.texto(v.getCliente().getNome())
+                + ",\"matricula\":" + Json.texto(v.getViatura().getMatricula())
+                + ",\"dataHoraInicio\":" + Json.texto(v.getDataHoraInicio().toString())
+                + ",\"dataHoraFim\":" + Json.texto(v.getDataHoraFim().toString())
+                + ",\"moradaOrigem\":" + Json.texto(v.getMoradaOrigem())
+                + ",\"moradaDestino\":" + Json.texto(v.getMoradaDestino())
+                + ",\"kms\":" + Json.numero(v.getKms())
+                + ",\"custo\":" + Json.numero(v.getCusto()) + "}";
+    }
+
+    /**
+     * Converte o ranking de destinos de um instantâneo em JSON.
+     *
+     * @param estado O instantâneo.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return O objeto JSON, com a versão do instantâneo e os destinos por ordem.
+     */
+    static String rankingDestinosJson(Instantaneo estado, LocalDateTime inicio, LocalDateTime fim) {
+        StringBuilder sb = new StringBuilder("{\"versao\":").append(estado.getVersao()).append(",\"destinos\":[");
+        String separador = "";
+        for (Map.Entry<String, Integer> destino : estado.getRankingDestinos(inicio, fim).entrySet()) {
+            sb.append(separador).append("{\"destino\":").append(Json.texto(destino.getKey()))
+                    .append(",\"pedidos\":").append(destino.getValue()).append('}');
+            separador = ",";
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Converte os resumos diários de uma dimensão em JSON.
+     *
+     * @param resumos Resumo por condutor, viatura ou destino.
+     * @return O array JSON.
+     */
+    static String resumosJson(Map<Object, VistaDiaria.Resumo> resumos) {
+        StringBuilder sb = new StringBuilder("[");
+        String separador = "";
+        for (Map.Entry<Object, VistaDiaria.Resumo> entrada : resumos.entrySet()) {
+            VistaDiaria.Resumo resumo = entrada.getValue();
+            sb.append(separador).append("{\"chave\":").append(Json.texto(String.valueOf(entrada.getKey())))
+                    .append(",\"viagens\":").append(resumo.getViagens())
+                    .append(",\"kms\":").append(Json.numero(resumo.getKms()))
+                    .append(",\"faturacao\":").append(Json.numero(resumo.getFaturacao()))
+                    .append(",\"minutosOcupados\":").append(resumo.getMinutosOcupados()).append('}');
+            separador = ",";
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Interpreta o nome de uma dimensão dos resumos diários.
+     *
+     * @param nome condutor, viatura ou destino (sem distinguir maiúsculas).
+     * @return A dimensão.
+     * @throws IllegalArgumentException Se o nome não corresponder a nenhuma dimensão.
+     */
+    static VistaDiaria.Dimensao dimensao(String nome) {
+        for (VistaDiaria.Dimensao dimensao : VistaDiaria.Dimensao.values()) {
+            if (dimensao.name().equals(nome.toUpperCase(Locale.ROOT))) {
+                return dimensao;
+            }
+        }
+        throw new IllegalArgumentException("Dimensão desconhecida: " + nome + " (condutor, viatura ou destino)");
+    }
+
+    /**
+     * Converte a faturação de todos os condutores de um instantâneo em JSON.
+     *
+     * @param estado O instantâneo.
+     * @param inicio Início do intervalo.
+     * @param fim    Fim do intervalo.
+     * @return O objeto JSON, com a versão do instantâneo e o total de cada condutor.
+     */
+    static String faturacaoCondutoresJson(Instantaneo estado, LocalDateTime inicio, LocalDateTime fim) {
+        StringBuilder sb = new StringBuilder("{\"versao\":").append(estado.getVersao()).append(",\"condutores\":[");
+        String separador = "";
+        for (Map.Entry<Condutor, Double> condutor : estado.getFaturacaoCondutores(inicio, fim).entrySet()) {
+            sb.append(separador).append("{\"numeroIdentificacao\":").append(condutor.getKey().getNumeroIdentificacao())
+                    .append(",\"nome\":").append(Json.texto(condutor.getKey().getNome()))
+                    .append(",\"total\":").append(Json.numero(condutor.getValue())).append('}');
+            separador = ",";
+        }
+        return sb.append("]}").toString();
+    }
+
+    // ==========================================================
+    //                    RESPOSTAS E ERROS
+    // ==========================================================
+
+    /**
+     * Resposta 200 com corpo JSON.
+     *
+     * @param json O corpo.
+     * @return A resposta.
+     */
+    private static Resposta ok(String json) {
+        return new Resposta(200, json);
+    }
+
+    /**
+     * Resposta 201 (recurso criado) com corpo JSON.
+     *
+     * @param json O recurso criado.
+     * @return A resposta.
+     */
+    private static Resposta criado(String json) {
+        return new Resposta(201, json);
+    }
+
+    /**
+     * Resposta 204 (sem conteúdo).
+     *
+     * @return A resposta.
+     */
+    private static Resposta semConteudo() {
+        return new Resposta(204, null);
+    }
+
+    /**
+     * Resposta de erro com a mensagem em JSON.
+     *
+     * @param estado   O código HTTP.
+     * @param mensagem A mensagem de erro.
+     * @return A resposta.
+     */
+    private static Resposta erro(int estado, String mensagem) {
+        return new Resposta(estado, "{\"erro\":" + Json.texto(mensagem) + "}");
+    }
+
+    /**
+     * Erro 405 para métodos não suportados num recurso.
+     *
+     * @return A exceção a lançar.
+     */
+    private static ErroApi metodoNaoPermitido() {
+        return new ErroApi(405, "Método não permitido");
+    }
+
+    /**
+     * Resposta HTTP a enviar: código e corpo (ou {@code null} se não tiver corpo), em JSON salvo indicação em contrário.
+     */
+    private static final class Resposta {
+
+        /**
+         * Código HTTP.
+         */
+        private final int estado;
+
+        /**
+         * Corpo, ou {@code null}.
+         */
+        private final String corpo;
+
+        /**
+         * Tipo de conteúdo do corpo.
+         */
+        private final String tipo;
+
+        /**
+         * Construtor de uma resposta JSON.
+         *
+         * @param estado Código HTTP.
+         * @param corpo  Corpo JSON, ou {@code null}.
+         */
+        private Resposta(int estado, String corpo) {
+            this(estado, corpo, TIPO_JSON);
+        }
+
+        /**
+         * Construtor da resposta.
+         *
+         * @param estado Código HTTP.
+         * @param corpo  Corpo, ou {@code null}.
+         * @param tipo   Tipo de conteúdo do corpo.
+         */
+        private Resposta(int estado, String corpo, String tipo) {
+            this.estado = estado;
+            this.corpo = corpo;
+            this.tipo = tipo;
+        }
+    }
+
+    /**
+     * Exceção que termina um pedido com um código HTTP de erro.
+     */
+    private static class ErroApi extends RuntimeException {
+
+        /**
+         * Versão de serialização.
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Código HTTP a devolver.
+         */
+        private final int estado;
+
+        /**
+         * Construtor da exceção.
+         *
+         * @param estado   Código HTTP a devolver.
+         * @param mensagem Descrição do erro.
+         */
+        public ErroApi(int estado, String mensagem) {
+            super(mensagem);
+            this.estado = estado;
+        }
+    }
+
+    /**
+     * Dados de um pedido já interpretados: método, caminho, parâmetros e corpo JSON.
+     */
+    private static final class Pedido {
+
+        /**
+         * Método HTTP (GET, POST, PUT, DELETE).
+         */
+        private final String metodo;
+
+        /**
+         * Segmentos do caminho, já descodificados.
+         */
+        private final List<String> partes;
+
+        /**
+         * Parâmetros da query string.
+         */
+        private final Map<String, String> parametros;
+
+        /**
+         * Campos do corpo JSON (vazio se o pedido não tiver corpo).
+         */
+        private final Map<String, String> corpo;
+
+        /**
+         * Interpreta o pedido recebido.
+         *
+         * @param troca A troca HTTP.
+         * @throws IOException Se a leitura do corpo falhar.
+         */
+        private Pedido(HttpExchange troca) throws IOException {
+            this.metodo = troca.getRequestMethod().toUpperCase();
+            this.partes = new ArrayList<>();
+            for (String parte : troca.getRequestURI().getRawPath().split("/")) {
+                if (!parte.isEmpty()) {
+                    partes.add(URLDecoder.decode(parte, StandardCharsets.UTF_8));
+                }
+            }
+            this.parametros = new HashMap<>();
+            String query = troca.getRequestURI().getRawQuery();
+            if (query != null) {
+                for (String par : query.split("&")) {
+                    int igual = par.indexOf('=');
+                    if (igual > 0) {
+                        parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                                URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            this.corpo = lerCorpo(troca);
+        }
+
+        /**
+         * Lê o corpo JSON do pedido, se existir.
+         *
+         * @param troca A troca HTTP.
+         * @return Os campos do corpo.
+         * @throws IOException Se a leitura falhar.
+         */
+        private static Map<String, String> lerCorpo(HttpExchange troca) throws IOException {
+            try (InputStream in = troca.getRequestBody()) {
+                byte[] bytes = in.readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+                if (bytes.length > TAMANHO_MAXIMO_CORPO) {
+                    throw new ErroApi(413, "Corpo do pedido demasiado grande");
+                }
+                String texto = new String(bytes, StandardCharsets.UTF_8);
+                return texto.isBlank() ? new HashMap<>() : Json.lerObjeto(texto);
+            }
+        }
+
+        /**
+         * Garante que o caminho tem exatamente o número de segmentos indicado.
+         *
+         * @param tamanho Número de segmentos esperado.
+         */
+        private void exigirTamanho(int tamanho) {
+            if (partes.size() != tamanho) {
+                throw new ErroApi(404, "Recurso não encontrado");
+            }
+        }
+
+        /**
+         * Lê um segmento numérico do caminho.
+         *
+         * @param indice Posição do segmento.
+         * @return O valor inteiro.
+         */
+        private int inteiroDoCaminho(int indice) {
+            try {
+                return Integer.parseInt(partes.get(indice));
+            } catch (NumberFormatException e) {
+                throw new ErroApi(404, "Identificador inválido: " + partes.get(indice));
+            }
+        }
+
+        /**
+         * Campo de texto opcional do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor, ou {@code null}.
+         */
+        private String texto(String nome) {
+            return corpo.get(nome);
+        }
+
+        /**
+         * Campo de texto obrigatório do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor.
+         */
+        private String textoObrigatorio(String nome) {
+            String valor = corpo.get(nome);
+            if (valor == null || valor.isBlank()) {
+                throw new IllegalArgumentException("Campo obrigatório em falta: " + nome);
+            }
+            return valor;
+        }
+
+        /**
+         * Campo inteiro opcional do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor, ou {@code null}.
+         */
+        private Integer inteiro(String nome) {
+            String valor = corpo.get(nome);
+            return valor == null ? null : converterInteiro(nome, valor);
+        }
+
+        /**
+         * Campo inteiro obrigatório do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor.
+         */
+        private int inteiroObrigatorio(String nome) {
+            return converterInteiro(nome, textoObrigatorio(nome));
+        }
+
+        /**
+         * Campo decimal opcional do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor, ou {@code null}.
+         */
+        private Double decimal(String nome) {
+            String valor = corpo.get(nome);
+            return valor == null ? null : converterDecimal(nome, valor);
+        }
+
+        /**
+         * Campo decimal obrigatório do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor.
+         */
+        private double decimalObrigatorio(String nome) {
+            return converterDecimal(nome, textoObrigatorio(nome));
+        }
+
+        /**
+         * Campo de data/hora (ISO) opcional do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor, ou {@code null}.
+         */
+        private LocalDateTime data(String nome) {
+            String valor = corpo.get(nome);
+            return valor == null ? null : LocalDateTime.parse(valor);
+        }
+
+        /**
+         * Campo de data/hora (ISO) obrigatório do corpo.
+         *
+         * @param nome Nome do campo.
+         * @return O valor.
+         */
+        private LocalDateTime dataObrigatoria(String nome) {
+            return LocalDateTime.parse(textoObrigatorio(nome));
+        }
+
+        /**
+         * Parâmetro opcional da query string.
+         *
+         * @param nome Nome do parâmetro.
+         * @return O valor, ou {@code null}.
+         */
+        private String parametro(String nome) {
+            return parametros.get(nome);
+        }
+
+        /**
+         * Parâmetro obrigatório da query string.
+         *
+         * @param nome Nome do parâmetro.
+         * @return O valor.
+         */
+        private String parametroObrigatorio(String nome) {
+            String valor = parametros.get(nome);
+            if (valor == null || valor.isBlank()) {
+                throw new IllegalArgumentException("Parâmetro obrigatório em falta: " + nome);
+            }
+            return valor;
+        }
+
+        /**
+         * Parâmetro inteiro obrigatório da query string.
+         *
+         * @param nome Nome do parâmetro.
+         * @return O valor.
+         */
+        private int parametroInteiro(String nome) {
+            return converterInteiro(nome, parametroObrigatorio(nome));
+        }
+
+        /**
+         * Parâmetro de data/hora (ISO) opcional da query string.
+         *
+         * @param nome       Nome do parâmetro.
+         * @param porDefeito Valor a usar se o parâmetro não existir.
+         * @return O valor.
+         */
+        private LocalDateTime parametroData(String nome, LocalDateTime porDefeito) {
+            String valor = parametros.get(nome);
+            return valor == null ? porDefeito : LocalDateTime.parse(valor);
+        }
+
+        /**
+         * Parâmetro de data/hora (ISO) obrigatório da query string.
+         *
+         * @param nome Nome do parâmetro.
+         * @return O valor.
+         */
+        private LocalDateTime parametroDataObrigatorio(String nome) {
+            return LocalDateTime.parse(parametroObrigatorio(nome));
+        }
+
+        /**
+         * Converte um valor em inteiro, com mensagem de erro clara.
+         *
+         * @param nome  Nome do campo.
+         * @param valor Valor em texto.
+         * @return O inteiro.
+         */
+        private static int converterInteiro(String nome, String valor) {
+            try {
+                return Integer.parseInt(valor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inteiro inválido em '" + nome + "': " + valor);
+            }
+        }
+
+        /**
+         * Converte um valor em decimal, com mensagem de erro clara.
+         *
+         * @param nome  Nome do campo.
+         * @param valor Valor em texto.
+         * @return O decimal.
+         */
+        private static double converterDecimal(String nome, String valor) {
+            try {
+                return Double.parseDouble(valor);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor decimal inválido em '" + nome + "': " + valor);
+            }
+        }
+    }
+}